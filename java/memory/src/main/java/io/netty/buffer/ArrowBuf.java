@@ -23,6 +23,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.ReadOnlyBufferException;
 import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.ScatteringByteChannel;
 import java.nio.charset.Charset;
@@ -54,6 +55,7 @@ public final class ArrowBuf extends AbstractByteBuf implements AutoCloseable {
   private final long addr;
   private final int offset;
   private final BufferLedger ledger;
+  private final boolean readOnly;
   private final BufferManager bufManager;
   private final ArrowByteBufAllocator alloc;
   private final boolean isEmpty;
@@ -78,6 +80,7 @@ public final class ArrowBuf extends AbstractByteBuf implements AutoCloseable {
     this.alloc = alloc;
     this.addr = byteBuf.memoryAddress() + offset;
     this.ledger = ledger;
+    this.readOnly = ledger != null && ledger.isReadOnly();
     this.length = length;
     this.offset = offset;
 
@@ -163,11 +166,31 @@ public final class ArrowBuf extends AbstractByteBuf implements AutoCloseable {
   }
 
   private void ensure(int width) {
+    checkWritable();
     if (BoundsChecking.BOUNDS_CHECKING_ENABLED) {
       ensureWritable(width);
     }
   }
 
+  private void chkWrite(int index, int width) {
+    checkWritable();
+    chk(index, width);
+  }
+
+  private void checkWritable() {
+    if (readOnly) {
+      throw new ReadOnlyBufferException();
+    }
+  }
+
+  /**
+   * @return true if the memory of this buffer must not be written, e.g. a read only mapping of a
+   *     file. Writes then throw a {@link ReadOnlyBufferException}, and the nio views are read only.
+   */
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+
   /**
    * Create a new ArrowBuf that is associated with an alternative allocator for the purposes of
    * memory ownership and
@@ -396,12 +419,15 @@ public final class ArrowBuf extends AbstractByteBuf implements AutoCloseable {
 
   @Override
   public ByteBuffer nioBuffer(int index, int length) {
-    return udle.nioBuffer(offset + index, length);
+    final ByteBuffer buffer = udle.nioBuffer(offset + index, length);
+    // a writable view of a read only mapping would crash the JVM on the first write
+    return readOnly ? buffer.asReadOnlyBuffer() : buffer;
   }
 
   @Override
   public ByteBuffer internalNioBuffer(int index, int length) {
-    return udle.internalNioBuffer(offset + index, length);
+    final ByteBuffer buffer = udle.internalNioBuffer(offset + index, length);
+    return readOnly ? buffer.asReadOnlyBuffer() : buffer;
   }
 
   @Override
@@ -541,42 +567,42 @@ public final class ArrowBuf extends AbstractByteBuf implements AutoCloseable {
 
   @Override
   public ArrowBuf setShort(int index, int value) {
-    chk(index, 2);
+    chkWrite(index, 2);
     PlatformDependent.putShort(addr(index), (short) value);
     return this;
   }
 
   @Override
   public ArrowBuf setInt(int index, int value) {
-    chk(index, 4);
+    chkWrite(index, 4);
     PlatformDependent.putInt(addr(index), value);
     return this;
   }
 
   @Override
   public ArrowBuf setLong(int index, long value) {
-    chk(index, 8);
+    chkWrite(index, 8);
     PlatformDependent.putLong(addr(index), value);
     return this;
   }
 
   @Override
   public ArrowBuf setChar(int index, int value) {
-    chk(index, 2);
+    chkWrite(index, 2);
     PlatformDependent.putShort(addr(index), (short) value);
     return this;
   }
 
   @Override
   public ArrowBuf setFloat(int index, float value) {
-    chk(index, 4);
+    chkWrite(index, 4);
     PlatformDependent.putInt(addr(index), Float.floatToRawIntBits(value));
     return this;
   }
 
   @Override
   public ArrowBuf setDouble(int index, double value) {
-    chk(index, 8);
+    chkWrite(index, 8);
     PlatformDependent.putLong(addr(index), Double.doubleToRawLongBits(value));
     return this;
   }
@@ -643,17 +669,18 @@ public final class ArrowBuf extends AbstractByteBuf implements AutoCloseable {
 
   @Override
   public ArrowBuf setByte(int index, int value) {
-    chk(index, 1);
+    chkWrite(index, 1);
     PlatformDependent.putByte(addr(index), (byte) value);
     return this;
   }
 
   public void setByte(int index, byte b) {
-    chk(index, 1);
+    chkWrite(index, 1);
     PlatformDependent.putByte(addr(index), b);
   }
 
   public void writeByteUnsafe(byte b) {
+    checkWritable();
     PlatformDependent.putByte(addr(readerIndex), b);
     readerIndex++;
   }
@@ -730,11 +757,13 @@ public final class ArrowBuf extends AbstractByteBuf implements AutoCloseable {
 
   @Override
   public ArrowBuf setBytes(int index, ByteBuf src, int srcIndex, int length) {
+    checkWritable();
     udle.setBytes(index + offset, src, srcIndex, length);
     return this;
   }
 
   public ArrowBuf setBytes(int index, ByteBuffer src, int srcIndex, int length) {
+    checkWritable();
     if (src.isDirect()) {
       checkIndex(index, length);
       PlatformDependent.copyMemory(PlatformDependent.directBufferAddress(src) + srcIndex, this
@@ -756,23 +785,27 @@ public final class ArrowBuf extends AbstractByteBuf implements AutoCloseable {
 
   @Override
   public ArrowBuf setBytes(int index, byte[] src, int srcIndex, int length) {
+    checkWritable();
     udle.setBytes(index + offset, src, srcIndex, length);
     return this;
   }
 
   @Override
   public ArrowBuf setBytes(int index, ByteBuffer src) {
+    checkWritable();
     udle.setBytes(index + offset, src);
     return this;
   }
 
   @Override
   public int setBytes(int index, InputStream in, int length) throws IOException {
+    checkWritable();
     return udle.setBytes(index + offset, in, length);
   }
 
   @Override
   public int setBytes(int index, ScatteringByteChannel in, int length) throws IOException {
+    checkWritable();
     return udle.setBytes(index + offset, in, length);
   }
 
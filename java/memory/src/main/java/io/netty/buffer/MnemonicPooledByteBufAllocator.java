@@ -0,0 +1,339 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.netty.buffer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.arrow.memory.OutOfMemoryException;
+import org.apache.mnemonic.CommonAllocator;
+import org.apache.mnemonic.MemBufferHolder;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * A pooling {@link ByteBufAllocator} on top of a Mnemonic memory service. Large chunks are taken
+ * from the Mnemonic allocator and carved into blocks of power-of-two size classes; released
+ * blocks go back to a free list of their size class instead of to Mnemonic. Like Netty's
+ * PoolThreadCache, each thread keeps a small cache of free blocks per size class in front of the
+ * shared free lists, so that a thread allocating and releasing buffers of the same sizes does not
+ * contend with other threads.
+ * <p>
+ * Requests beyond the largest size class are not pooled and go straight to the Mnemonic
+ * allocator. Pooled memory is only returned to Mnemonic when the allocator is closed; blocks
+ * cached by a thread that dies stay unused until then.
+ */
+public final class MnemonicPooledByteBufAllocator<A extends CommonAllocator<A>>
+    extends AbstractByteBufAllocator implements AutoCloseable {
+
+  public static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+  public static final int DEFAULT_MAX_POOLED_SIZE = 1024 * 1024;
+  public static final int DEFAULT_CACHE_SIZE = 64;
+
+  static final int MIN_BLOCK_SIZE = 64;
+  private static final int MIN_BLOCK_SHIFT = Integer.numberOfTrailingZeros(MIN_BLOCK_SIZE);
+  // blocks are carved in slabs of at least this size, so the chunk lock is not taken per block
+  private static final int SLAB_SIZE = 64 * 1024;
+
+  private final A mcalloc;
+  private final MnemonicUnpooledByteBufAllocator<A> unpooled;
+  private final int chunkSize;
+  private final int maxPooledSize;
+  private final int cacheSize;
+
+  private final ArrayDeque<ByteBuffer>[] freeLists;
+  private final ThreadLocal<ThreadCache> threadCache = new ThreadLocal<ThreadCache>() {
+    @Override
+    protected ThreadCache initialValue() {
+      return new ThreadCache();
+    }
+  };
+
+  private final List<MemBufferHolder<A>> chunks = new ArrayList<>();
+  private ByteBuffer currentChunk;
+  private volatile boolean closed;
+
+  private final AtomicLong activeBufferCount = new AtomicLong(0);
+  private final AtomicLong activeBufferSize = new AtomicLong(0);
+
+  /**
+   * Create an allocator with the default chunk size, largest size class and cache size.
+   *
+   * @param mcallocator the Mnemonic allocator to take the chunks from
+   */
+  public MnemonicPooledByteBufAllocator(A mcallocator) {
+    this(mcallocator, DEFAULT_CHUNK_SIZE, DEFAULT_MAX_POOLED_SIZE, DEFAULT_CACHE_SIZE);
+  }
+
+  /**
+   * @param mcallocator   the Mnemonic allocator to take the chunks from
+   * @param chunkSize     the size of the chunks taken from Mnemonic
+   * @param maxPooledSize the largest size class; must be a power of two no larger than chunkSize
+   * @param cacheSize     the number of free blocks a thread caches per size class
+   */
+  @SuppressWarnings("unchecked")
+  public MnemonicPooledByteBufAllocator(A mcallocator, int chunkSize, int maxPooledSize,
+                                        int cacheSize) {
+    super(true);
+    if (mcallocator == null) {
+      throw new NullPointerException("mcallocator");
+    }
+    if (maxPooledSize < MIN_BLOCK_SIZE || Integer.bitCount(maxPooledSize) != 1) {
+      throw new IllegalArgumentException("maxPooledSize: " + maxPooledSize +
+          " (expected: a power of two of at least " + MIN_BLOCK_SIZE + ")");
+    }
+    if (chunkSize < maxPooledSize) {
+      throw new IllegalArgumentException(String.format(
+          "chunkSize(%d) < maxPooledSize(%d)", chunkSize, maxPooledSize));
+    }
+    if (cacheSize < 0) {
+      throw new IllegalArgumentException("cacheSize: " + cacheSize);
+    }
+    this.mcalloc = mcallocator;
+    this.unpooled = new MnemonicUnpooledByteBufAllocator<A>(true, mcallocator);
+    this.chunkSize = chunkSize;
+    this.maxPooledSize = maxPooledSize;
+    this.cacheSize = cacheSize;
+
+    int sizeClasses = sizeClass(maxPooledSize) + 1;
+    this.freeLists = new ArrayDeque[sizeClasses];
+    for (int i = 0; i < sizeClasses; i++) {
+      freeLists[i] = new ArrayDeque<>();
+    }
+  }
+
+  public A getAllocator() {
+    return mcalloc;
+  }
+
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  public int getMaxPooledSize() {
+    return maxPooledSize;
+  }
+
+  /**
+   * @return the number of chunks taken from the Mnemonic allocator
+   */
+  public synchronized int getChunkCount() {
+    return chunks.size();
+  }
+
+  /**
+   * @return the number of pooled buffers currently in use
+   */
+  public long getActiveBufferCount() {
+    return activeBufferCount.get();
+  }
+
+  /**
+   * @return the size of the pooled blocks currently in use, in bytes
+   */
+  public long getActiveBufferSize() {
+    return activeBufferSize.get();
+  }
+
+  @Override
+  public boolean isDirectBufferPooled() {
+    return true;
+  }
+
+  @Override
+  protected ByteBuf newHeapBuffer(int initialCapacity, int maxCapacity) {
+    return new UnpooledHeapByteBuf(this, initialCapacity, maxCapacity);
+  }
+
+  @Override
+  protected ByteBuf newDirectBuffer(int initialCapacity, int maxCapacity) {
+    if (closed) {
+      throw new IllegalStateException("The allocator is closed.");
+    }
+    if (initialCapacity > maxPooledSize || !PlatformDependent.hasUnsafe()) {
+      return unpooled.newDirectBuffer(initialCapacity, maxCapacity);
+    }
+
+    int sizeClass = sizeClass(initialCapacity);
+    ByteBuffer block = threadCache.get().allocate(sizeClass);
+    activeBufferCount.incrementAndGet();
+    activeBufferSize.addAndGet(block.capacity());
+    return toLeakAwareBuffer(
+        new MnemonicPooledUnsafeDirectByteBuf(this, block, sizeClass, initialCapacity));
+  }
+
+  /**
+   * Give a block back to the pool. Called once the last reference to a pooled buffer is released.
+   */
+  void free(ByteBuffer block, int sizeClass) {
+    activeBufferCount.decrementAndGet();
+    activeBufferSize.addAndGet(-block.capacity());
+    if (!closed) {
+      threadCache.get().free(block, sizeClass);
+    }
+  }
+
+  /**
+   * Return all chunks to the Mnemonic allocator. Buffers still in use must not be accessed
+   * afterwards.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    }
+    // the free list locks are taken before the allocator lock when carving
+    for (ArrayDeque<ByteBuffer> freeList : freeLists) {
+      synchronized (freeList) {
+        freeList.clear();
+      }
+    }
+    synchronized (this) {
+      for (MemBufferHolder<A> chunk : chunks) {
+        chunk.destroy();
+      }
+      chunks.clear();
+      currentChunk = null;
+    }
+  }
+
+  static int sizeClass(int size) {
+    if (size <= MIN_BLOCK_SIZE) {
+      return 0;
+    }
+    return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_BLOCK_SHIFT;
+  }
+
+  private static int blockSize(int sizeClass) {
+    return MIN_BLOCK_SIZE << sizeClass;
+  }
+
+  /**
+   * Move up to count free blocks of a size class from the shared free list into target, carving
+   * new blocks from the current chunk if the list is empty.
+   *
+   * @return the number of blocks moved
+   */
+  private int take(int sizeClass, ByteBuffer[] target, int count) {
+    ArrayDeque<ByteBuffer> freeList = freeLists[sizeClass];
+    synchronized (freeList) {
+      if (freeList.isEmpty()) {
+        carve(sizeClass, freeList);
+      }
+      int taken = 0;
+      while (taken < count && !freeList.isEmpty()) {
+        target[taken++] = freeList.pollLast();
+      }
+      return taken;
+    }
+  }
+
+  private void give(int sizeClass, ByteBuffer[] source, int from, int to) {
+    ArrayDeque<ByteBuffer> freeList = freeLists[sizeClass];
+    synchronized (freeList) {
+      for (int i = from; i < to; i++) {
+        freeList.addLast(source[i]);
+        source[i] = null;
+      }
+    }
+  }
+
+  private synchronized void carve(int sizeClass, ArrayDeque<ByteBuffer> freeList) {
+    if (closed) {
+      throw new IllegalStateException("The allocator is closed.");
+    }
+    final int blockSize = blockSize(sizeClass);
+    // whole blocks only, and no more than a chunk
+    final int slabSize = Math.min(Math.max(blockSize, SLAB_SIZE), chunkSize / blockSize * blockSize);
+    if (currentChunk == null || currentChunk.remaining() < slabSize) {
+      MemBufferHolder<A> chunk = mcalloc.createBuffer(chunkSize);
+      if (chunk == null) {
+        throw new OutOfMemoryException(
+            "No more memory resource for this MnemonicPooledByteBufAllocator instance");
+      }
+      chunks.add(chunk);
+      currentChunk = chunk.get().duplicate();
+      currentChunk.clear();
+    }
+
+    final int start = currentChunk.position();
+    for (int offset = 0; offset < slabSize; offset += blockSize) {
+      currentChunk.limit(start + offset + blockSize);
+      currentChunk.position(start + offset);
+      freeList.addLast(currentChunk.slice().order(ByteOrder.BIG_ENDIAN));
+    }
+    currentChunk.limit(currentChunk.capacity());
+    currentChunk.position(start + slabSize);
+  }
+
+  /**
+   * The per thread stacks of free blocks. Half of a stack is moved from or to the shared free
+   * lists whenever it runs empty or full.
+   */
+  private final class ThreadCache {
+
+    private final ByteBuffer[][] blocks = new ByteBuffer[freeLists.length][];
+    private final int[] counts = new int[freeLists.length];
+
+    ByteBuffer allocate(int sizeClass) {
+      if (cacheSize == 0) {
+        ByteBuffer[] single = new ByteBuffer[1];
+        take(sizeClass, single, 1);
+        return single[0];
+      }
+      ByteBuffer[] stack = stack(sizeClass);
+      if (counts[sizeClass] == 0) {
+        counts[sizeClass] = take(sizeClass, stack, Math.max(1, cacheSize / 2));
+      }
+      int top = --counts[sizeClass];
+      ByteBuffer block = stack[top];
+      stack[top] = null;
+      return block;
+    }
+
+    void free(ByteBuffer block, int sizeClass) {
+      if (cacheSize == 0) {
+        give(sizeClass, new ByteBuffer[] {block}, 0, 1);
+        return;
+      }
+      ByteBuffer[] stack = stack(sizeClass);
+      if (counts[sizeClass] == cacheSize) {
+        int keep = cacheSize / 2;
+        give(sizeClass, stack, keep, cacheSize);
+        counts[sizeClass] = keep;
+      }
+      stack[counts[sizeClass]++] = block;
+    }
+
+    private ByteBuffer[] stack(int sizeClass) {
+      ByteBuffer[] stack = blocks[sizeClass];
+      if (stack == null) {
+        stack = blocks[sizeClass] = new ByteBuffer[cacheSize];
+      }
+      return stack;
+    }
+  }
+}
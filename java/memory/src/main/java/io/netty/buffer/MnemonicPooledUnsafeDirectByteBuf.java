@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.netty.buffer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A buffer over a block of a {@link MnemonicPooledByteBufAllocator}. The block is given back to
+ * the pool when the buffer is deallocated. The capacity of the buffer is the requested size, not
+ * the size of its block, and can not be changed.
+ */
+final class MnemonicPooledUnsafeDirectByteBuf extends UnpooledUnsafeDirectByteBuf {
+
+  private final MnemonicPooledByteBufAllocator<?> pool;
+  private final int sizeClass;
+  private ByteBuffer block;
+
+  MnemonicPooledUnsafeDirectByteBuf(MnemonicPooledByteBufAllocator<?> pool, ByteBuffer block,
+                                    int sizeClass, int capacity) {
+    // the block can not grow, so neither can the buffer
+    super(pool, view(block, capacity), capacity);
+    this.pool = pool;
+    this.block = block;
+    this.sizeClass = sizeClass;
+    // wrapping a buffer marks it as fully written, a new buffer starts out empty
+    clear();
+  }
+
+  private static ByteBuffer view(ByteBuffer block, int length) {
+    ByteBuffer view = block.duplicate();
+    view.clear();
+    view.limit(length);
+    return view.slice();
+  }
+
+  @Override
+  public ByteBuf capacity(int newCapacity) {
+    throw new UnsupportedOperationException("pooled Mnemonic buffers can not be resized");
+  }
+
+  @Override
+  protected void deallocate() {
+    ByteBuffer block = this.block;
+    if (block == null) {
+      return;
+    }
+    this.block = null;
+    pool.free(block, sizeClass);
+  }
+}
@@ -18,6 +18,7 @@
 
 package io.netty.buffer;
 
+import io.netty.util.internal.PlatformDependent;
 import io.netty.util.internal.StringUtil;
 
 import org.apache.arrow.memory.OutOfMemoryException;
@@ -42,10 +43,17 @@ public class PooledByteBufAllocatorL {
 
   private static MnemonicUnpooledByteBufAllocator<?> mubballoc = null;
 
+  public static final String POOL_METRICS = "arrow.memory.pool.metrics";
+  // counting the buffers of the arenas costs two shared atomic updates per allocation and release
+  private static final boolean COUNT_NORMAL_BUFFERS = ASSERT_ENABLED
+      || Boolean.parseBoolean(System.getProperty(POOL_METRICS, "false"));
+
   private final AtomicLong hugeBufferSize = new AtomicLong(0);
   private final AtomicLong hugeBufferCount = new AtomicLong(0);
   private final AtomicLong normalBufferSize = new AtomicLong(0);
   private final AtomicLong normalBufferCount = new AtomicLong(0);
+  private final AtomicLong mnemonicBufferSize = new AtomicLong(0);
+  private final AtomicLong mnemonicBufferCount = new AtomicLong(0);
   private final InnerAllocator allocator;
 
   public PooledByteBufAllocatorL() {
@@ -53,6 +61,14 @@ public class PooledByteBufAllocatorL {
     empty = new UnsafeDirectLittleEndian(new DuplicatedByteBuf(Unpooled.EMPTY_BUFFER));
   }
 
+  /**
+   * Route every allocation of the JVM to the given Mnemonic allocator.
+   *
+   * @deprecated give the allocators that should use Mnemonic a
+   *     {@link org.apache.arrow.memory.MnemonicBacking} instead, which leaves small buffers on
+   *     the pooled arenas.
+   */
+  @Deprecated
   public static void setUpMnemonicUnpooledByteBufAllocator(MnemonicUnpooledByteBufAllocator<?> mubballocator) {
     if (null == mubballocator) {
        throw new RuntimeException("MnemonicUnpooledByteBufAllocator is null for setup");
@@ -60,6 +76,10 @@ public class PooledByteBufAllocatorL {
     mubballoc = mubballocator;
   }
 
+  /**
+   * @deprecated see {@link #setUpMnemonicUnpooledByteBufAllocator(MnemonicUnpooledByteBufAllocator)}
+   */
+  @Deprecated
   public static void clearMnemonicUnpooledByteBufAllocator() {
     mubballoc = null;
   }
@@ -73,6 +93,51 @@ public class PooledByteBufAllocatorL {
 
   }
 
+  /**
+   * Allocate a buffer from a Mnemonic allocator rather than from the pooled arenas. The buffer is
+   * accounted as a Mnemonic buffer, apart from the huge and normal buffers, and can not grow.
+   *
+   * @param size    the size of the buffer
+   * @param backing the Mnemonic allocator to draw from, either a MnemonicUnpooledByteBufAllocator
+   *                or a MnemonicPooledByteBufAllocator
+   * @return the new buffer
+   */
+  public UnsafeDirectLittleEndian allocate(int size, ByteBufAllocator backing) {
+    if (!PlatformDependent.hasUnsafe()) {
+      throw allocator.fail();
+    }
+    final ByteBuf buf;
+    try {
+      buf = backing.directBuffer(size, size);
+    } catch (OutOfMemoryError e) {
+      throw new OutOfMemoryException("Failure allocating buffer.", e);
+    }
+    mnemonicBufferSize.addAndGet(buf.capacity());
+    mnemonicBufferCount.incrementAndGet();
+    return new AccountedUnsafeDirectLittleEndian(new LargeBuffer(buf), mnemonicBufferCount,
+        mnemonicBufferSize);
+  }
+
+  /**
+   * Wrap a direct ByteBuffer that was allocated outside of Arrow without copying it.
+   *
+   * @param buffer        the direct buffer to wrap, from its position to its limit
+   * @param freeOnRelease whether the buffer should be freed (or unmapped) once released
+   * @return the wrapping buffer
+   */
+  public UnsafeDirectLittleEndian wrap(ByteBuffer buffer, boolean freeOnRelease) {
+    if (!buffer.isDirect()) {
+      throw new IllegalArgumentException("Only direct buffers can be wrapped.");
+    }
+    if (!buffer.hasRemaining()) {
+      throw new IllegalArgumentException("Can not wrap an empty buffer.");
+    }
+    if (!PlatformDependent.hasUnsafe()) {
+      throw allocator.fail();
+    }
+    return new UnsafeDirectLittleEndian(new WrappedDirectBuffer(buffer, freeOnRelease));
+  }
+
   public int getChunkSize() {
     return allocator.chunkSize;
   }
@@ -90,7 +155,27 @@ public class PooledByteBufAllocatorL {
   }
 
   public long getNormalBufferCount() {
-    return normalBufferSize.get();
+    return normalBufferCount.get();
+  }
+
+  public long getMnemonicBufferSize() {
+    return mnemonicBufferSize.get();
+  }
+
+  public long getMnemonicBufferCount() {
+    return mnemonicBufferCount.get();
+  }
+
+  public int getDirectArenaCount() {
+    return allocator.directArenas.length;
+  }
+
+  /**
+   * @return the state of the arenas and the outstanding buffers, as logged by the memory status
+   *     thread
+   */
+  public String getArenaStatus() {
+    return allocator.toString();
   }
 
   private static class AccountedUnsafeDirectLittleEndian extends UnsafeDirectLittleEndian {
@@ -187,7 +272,7 @@ public class PooledByteBufAllocatorL {
             fail();
           }
 
-          if (!ASSERT_ENABLED) {
+          if (!COUNT_NORMAL_BUFFERS) {
             return new UnsafeDirectLittleEndian((PooledUnsafeDirectByteBuf) buf);
           }
 
@@ -257,6 +342,12 @@ public class PooledByteBufAllocatorL {
       buf.append(" totaling ");
       buf.append(normalBufferSize.get());
       buf.append(" bytes.");
+      buf.append('\n');
+      buf.append("Mnemonic buffers outstanding: ");
+      buf.append(mnemonicBufferCount.get());
+      buf.append(" totaling ");
+      buf.append(mnemonicBufferSize.get());
+      buf.append(" bytes.");
       return buf.toString();
     }
 
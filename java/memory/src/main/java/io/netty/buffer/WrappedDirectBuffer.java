@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.netty.buffer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import io.netty.util.internal.PlatformDependent;
+
+/**
+ * A LargeBuffer over a direct ByteBuffer that was allocated outside of Arrow, such as a
+ * memory-mapped region of a file. The memory is never copied. If requested, the ByteBuffer is
+ * freed (for mapped buffers: unmapped) as soon as the last reference is released instead of
+ * waiting for the garbage collector.
+ * <p>
+ * Netty does not expose the address of read only buffers, so those are wrapped by address; the
+ * Arrow buffers over them reject writes (see ArrowBuf#isReadOnly()).
+ */
+class WrappedDirectBuffer extends LargeBuffer {
+
+  // keeps the memory of buffers wrapped by address reachable
+  private final ByteBuffer buffer;
+  private final ByteBuffer freeOnRelease;
+
+  WrappedDirectBuffer(ByteBuffer buffer, boolean freeOnRelease) {
+    super(wrap(buffer));
+    this.buffer = buffer;
+    this.freeOnRelease = freeOnRelease ? buffer : null;
+  }
+
+  private static ByteBuf wrap(ByteBuffer buffer) {
+    if (buffer.isReadOnly()) {
+      return Unpooled.wrappedBuffer(PlatformDependent.directBufferAddress(buffer) + buffer.position(),
+          buffer.remaining(), false);
+    }
+    // UnsafeDirectLittleEndian expects the wrapped ByteBuf to be in (Netty default) big endian order
+    return Unpooled.wrappedBuffer(buffer.duplicate().order(ByteOrder.BIG_ENDIAN));
+  }
+
+  @Override
+  public boolean release(int decrement) {
+    boolean released = super.release(decrement);
+    if (released && freeOnRelease != null) {
+      PlatformDependent.freeDirectBuffer(freeOnRelease);
+    }
+    return released;
+  }
+}
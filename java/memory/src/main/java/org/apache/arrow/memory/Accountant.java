@@ -19,6 +19,7 @@
 package org.apache.arrow.memory;
 
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import javax.annotation.concurrent.ThreadSafe;
 
@@ -28,12 +29,27 @@ import com.google.common.base.Preconditions;
  * Provides a concurrent way to manage account for memory usage without locking. Used as basis
  * for Allocators. All
  * operations are threadsafe (except for close).
+ * <p>
+ * By default every allocation updates the accounting of this Accountant and of all its parents.
+ * With a lease size, memory is instead taken in leases of that size and handed out from per
+ * thread stripes of credit, so most allocations and releases only update one stripe. Limits are
+ * still enforced: the leased memory never exceeds the limit, and idle credit, of this Accountant
+ * and of its ancestors, is reclaimed before an allocation fails. Memory released by a descendant
+ * goes straight back to the allocated memory of its ancestors, never to their credit. The
+ * allocated memory reported excludes idle credit, but the peak is tracked per lease and can
+ * overstate the real peak by the outstanding credit.
  */
 @ThreadSafe
 class Accountant implements AutoCloseable {
   // private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(Accountant
   // .class);
 
+  /**
+   * The lease size used by accountants created without an explicit one, set by the
+   * arrow.memory.accounting.lease system property. Zero disables leasing.
+   */
+  static final long DEFAULT_LEASE_SIZE = Long.getLong("arrow.memory.accounting.lease", 0);
+
   /**
    * The parent allocator
    */
@@ -60,7 +76,24 @@ class Accountant implements AutoCloseable {
    */
   private final AtomicLong locallyHeldMemory = new AtomicLong();
 
+  /**
+   * Idle credit from the leases of this Accountant, or null if it doesn't lease memory. Leased
+   * credit is part of locallyHeldMemory.
+   */
+  private final StripedCredit credit;
+
   public Accountant(Accountant parent, long reservation, long maxAllocation) {
+    this(parent, reservation, maxAllocation, DEFAULT_LEASE_SIZE);
+  }
+
+  /**
+   * @param parent        the parent Accountant, or null for the root
+   * @param reservation   the memory to reserve from the parent for the life of this Accountant
+   * @param maxAllocation the limit of this Accountant
+   * @param leaseSize     the size of the leases memory is taken in, or zero to account for every
+   *                      allocation individually
+   */
+  public Accountant(Accountant parent, long reservation, long maxAllocation, long leaseSize) {
     Preconditions.checkArgument(reservation >= 0, "The initial reservation size must be " +
         "non-negative.");
     Preconditions.checkArgument(maxAllocation >= 0, "The maximum allocation limit must be " +
@@ -70,9 +103,12 @@ class Accountant implements AutoCloseable {
     Preconditions.checkArgument(reservation == 0 || parent != null, "The root accountant can't " +
         "reserve memory.");
 
+    Preconditions.checkArgument(leaseSize >= 0, "The lease size must be non-negative.");
+
     this.parent = parent;
     this.reservation = reservation;
     this.allocationLimit.set(maxAllocation);
+    this.credit = leaseSize > 0 ? new StripedCredit(leaseSize) : null;
 
     if (reservation != 0) {
       // we will allocate a reservation from our parent.
@@ -97,9 +133,73 @@ class Accountant implements AutoCloseable {
    * @return True if the allocation was successful, false if the allocation failed.
    */
   AllocationOutcome allocateBytes(long size) {
+    AllocationOutcome outcome = tryAllocateBytes(size);
+    if (outcome == AllocationOutcome.FAILED_PARENT && reclaimAncestorCredit()) {
+      outcome = tryAllocateBytes(size);
+    }
+    return outcome;
+  }
+
+  private AllocationOutcome tryAllocateBytes(long size) {
+    if (credit != null) {
+      return allocateLeased(size, false);
+    }
     final AllocationOutcome outcome = allocate(size, true, false);
     if (!outcome.isOk()) {
-      releaseBytes(size);
+      releaseHeld(size);
+    }
+    return outcome;
+  }
+
+  /**
+   * Give the idle credit of all ancestors back, as it counts against their limits although no
+   * buffer uses it.
+   *
+   * @return whether any credit was reclaimed
+   */
+  private boolean reclaimAncestorCredit() {
+    boolean reclaimed = false;
+    for (Accountant ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+      if (ancestor.credit != null) {
+        final long idle = ancestor.credit.drain();
+        if (idle > 0) {
+          ancestor.releaseHeld(idle);
+          reclaimed = true;
+        }
+      }
+    }
+    return reclaimed;
+  }
+
+  /**
+   * Allocate from the credit of the current thread's stripe, taking a new lease if the stripe
+   * runs short.
+   */
+  private AllocationOutcome allocateLeased(final long size, final boolean forceAllocation) {
+    final int stripe = credit.stripe();
+    if (credit.take(stripe, size)) {
+      return AllocationOutcome.SUCCESS;
+    }
+
+    if (!forceAllocation) {
+      final long lease = size + credit.leaseSize;
+      final AllocationOutcome outcome = allocate(lease, true, false);
+      if (outcome.isOk()) {
+        credit.add(stripe, credit.leaseSize);
+        return outcome;
+      }
+      releaseHeld(lease);
+    }
+
+    // no room for a whole lease: give the idle credit of all stripes back and account for this
+    // request alone.
+    final long idle = credit.drain();
+    if (idle > 0) {
+      releaseHeld(idle);
+    }
+    final AllocationOutcome outcome = allocate(size, true, forceAllocation);
+    if (!outcome.isOk() && !forceAllocation) {
+      releaseHeld(size);
     }
     return outcome;
   }
@@ -129,7 +229,8 @@ class Accountant implements AutoCloseable {
    * @return Whether the allocation fit within limits.
    */
   boolean forceAllocate(long size) {
-    final AllocationOutcome outcome = allocate(size, true, true);
+    final AllocationOutcome outcome = credit != null ? allocateLeased(size, true) :
+        allocate(size, true, true);
     return outcome.isOk();
   }
 
@@ -180,6 +281,19 @@ class Accountant implements AutoCloseable {
   }
 
   public void releaseBytes(long size) {
+    if (credit != null) {
+      // released memory becomes credit of the current thread's stripe, only the credit beyond
+      // the slack is returned.
+      final long excess = credit.release(credit.stripe(), size);
+      if (excess > 0) {
+        releaseHeld(excess);
+      }
+      return;
+    }
+    releaseHeld(size);
+  }
+
+  private void releaseHeld(long size) {
     // reduce local memory. all memory released above reservation should be released up the tree.
     final long newSize = locallyHeldMemory.addAndGet(-size);
 
@@ -190,7 +304,8 @@ class Accountant implements AutoCloseable {
       // we deallocated memory that we should release to our parent.
       final long possibleAmountToReleaseToParent = originalSize - reservation;
       final long actualToReleaseToParent = Math.min(size, possibleAmountToReleaseToParent);
-      parent.releaseBytes(actualToReleaseToParent);
+      // bypass the credit of the parent, which only its own allocations can use
+      parent.releaseHeld(actualToReleaseToParent);
     }
 
   }
@@ -204,9 +319,15 @@ class Accountant implements AutoCloseable {
    */
   @Override
   public void close() {
+    if (credit != null) {
+      final long idle = credit.drain();
+      if (idle > 0) {
+        releaseHeld(idle);
+      }
+    }
     // return memory reservation to parent allocator.
     if (parent != null) {
-      parent.releaseBytes(reservation);
+      parent.releaseHeld(reservation);
     }
   }
 
@@ -237,9 +358,21 @@ class Accountant implements AutoCloseable {
    * @return Currently allocate memory in bytes.
    */
   public long getAllocatedMemory() {
+    if (credit != null) {
+      return locallyHeldMemory.get() - credit.sum();
+    }
     return locallyHeldMemory.get();
   }
 
+  /**
+   * Return the size of the leases this Accountant takes memory in.
+   *
+   * @return the lease size in bytes, zero if every allocation is accounted individually
+   */
+  public long getLeaseSize() {
+    return credit == null ? 0 : credit.leaseSize;
+  }
+
   /**
    * The peak memory allocated by this Accountant.
    *
@@ -250,12 +383,97 @@ class Accountant implements AutoCloseable {
   }
 
   public long getHeadroom() {
-    long localHeadroom = allocationLimit.get() - locallyHeldMemory.get();
+    long localHeadroom = allocationLimit.get() - getAllocatedMemory();
     if (parent == null) {
       return localHeadroom;
     }
 
-    return Math.min(localHeadroom, parent.getHeadroom());
+    // idle credit is already accounted by the parent
+    return Math.min(localHeadroom, parent.getHeadroom() + getIdleCredit());
+  }
+
+  /**
+   * Return the idle credit of the leases of this Accountant. It is accounted by the parent, but
+   * not part of the allocated memory of this Accountant.
+   *
+   * @return The idle credit in bytes, zero if this Accountant doesn't lease memory.
+   */
+  long getIdleCredit() {
+    return credit == null ? 0 : credit.sum();
+  }
+
+  /**
+   * Credit striped by thread, LongAdder style. Each stripe sits on its own cache line. A stripe
+   * keeps up to twice the lease size of idle credit, the rest is given back on release.
+   */
+  private static final class StripedCredit {
+
+    // longs per 64 byte cache line
+    private static final int PADDING = 8;
+
+    private final long leaseSize;
+    private final int mask;
+    private final AtomicLongArray stripes;
+
+    StripedCredit(long leaseSize) {
+      this.leaseSize = leaseSize;
+      final int count = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+      this.mask = count - 1;
+      this.stripes = new AtomicLongArray(count * PADDING);
+    }
+
+    int stripe() {
+      return ((int) Thread.currentThread().getId() & mask) * PADDING;
+    }
+
+    boolean take(int stripe, long size) {
+      while (true) {
+        final long current = stripes.get(stripe);
+        if (current < size) {
+          return false;
+        }
+        if (stripes.compareAndSet(stripe, current, current - size)) {
+          return true;
+        }
+      }
+    }
+
+    void add(int stripe, long size) {
+      stripes.addAndGet(stripe, size);
+    }
+
+    /**
+     * @return the credit beyond the slack that has to be given back
+     */
+    long release(int stripe, long size) {
+      while (true) {
+        final long current = stripes.get(stripe);
+        final long updated = current + size;
+        if (updated <= 2 * leaseSize) {
+          if (stripes.compareAndSet(stripe, current, updated)) {
+            return 0;
+          }
+        } else if (stripes.compareAndSet(stripe, current, leaseSize)) {
+          return updated - leaseSize;
+        }
+      }
+    }
+
+    long drain() {
+      long total = 0;
+      for (int i = 0; i < stripes.length(); i += PADDING) {
+        total += stripes.getAndSet(i, 0);
+      }
+      return total;
+    }
+
+    long sum() {
+      long total = 0;
+      for (int i = 0; i < stripes.length(); i += PADDING) {
+        total += stripes.get(i);
+      }
+      return total;
+    }
   }
 
   /**
@@ -20,6 +20,7 @@ package org.apache.arrow.memory;
 
 import static org.apache.arrow.memory.BaseAllocator.indent;
 
+import java.nio.ByteBuffer;
 import java.util.IdentityHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -51,7 +52,9 @@ import io.netty.buffer.UnsafeDirectLittleEndian;
  * <p>
  * Threading: AllocationManager manages thread-safety internally. Operations within the context
  * of a single BufferLedger
- * are lockless in nature and can be leveraged by multiple threads. Operations that cross the
+ * are lockless in nature and can be leveraged by multiple threads: reference counts are updated
+ * with compare-and-set, and the lock is only taken when a ledger drops its last reference.
+ * Operations that cross the
  * context of two ledgers
  * will acquire a lock on the AllocationManager instance. Important note, there is one
  * AllocationManager per
@@ -74,6 +77,10 @@ public class AllocationManager {
   private final long allocatorManagerId = MANAGER_ID_GENERATOR.incrementAndGet();
   private final int size;
   private final UnsafeDirectLittleEndian underlying;
+  // whether the memory came from the pooled arenas and may be kept in a BufferCache
+  private final boolean recyclable;
+  // whether the memory must not be written, e.g. a read only mapping of a file
+  private final boolean readOnly;
   // ARROW-1627 Trying to minimize memory overhead caused by previously used IdentityHashMap
   // see JIRA for details
   private final LowCostIdentityHasMap<BaseAllocator, BufferLedger> map = new LowCostIdentityHasMap<>();
@@ -86,11 +93,44 @@ public class AllocationManager {
   private volatile long amDestructionTime = 0;
 
   AllocationManager(BaseAllocator accountingAllocator, int size) {
+    this(accountingAllocator, accountingAllocator.getBacking(), size);
+  }
+
+  private AllocationManager(BaseAllocator accountingAllocator, MnemonicBacking backing, int size) {
+    // memory drawn from Mnemonic goes back to Mnemonic, only the pooled arenas feed the BufferCache
+    this(accountingAllocator, allocate(backing, size), !routesToMnemonic(backing, size), false);
+  }
+
+  /**
+   * Create an AllocationManager over memory taken from the BufferCache of the allocator, which
+   * is already accounted to it.
+   */
+  AllocationManager(BaseAllocator accountingAllocator, UnsafeDirectLittleEndian cached) {
+    this(accountingAllocator, cached, true, false);
+  }
+
+  /**
+   * Create an AllocationManager over a direct buffer that was allocated outside of Arrow, e.g. a
+   * memory-mapped region of a file. The memory is not copied. The ArrowBufs over a read only
+   * buffer are read only.
+   *
+   * @param accountingAllocator The allocator that the memory is accounted against.
+   * @param buffer              The direct buffer to manage, from its position to its limit.
+   * @param freeOnRelease       Whether to free (or unmap) the buffer once it is no longer used.
+   */
+  AllocationManager(BaseAllocator accountingAllocator, ByteBuffer buffer, boolean freeOnRelease) {
+    this(accountingAllocator, INNER_ALLOCATOR.wrap(buffer, freeOnRelease), false, buffer.isReadOnly());
+  }
+
+  private AllocationManager(BaseAllocator accountingAllocator, UnsafeDirectLittleEndian underlying,
+                            boolean recyclable, boolean readOnly) {
     Preconditions.checkNotNull(accountingAllocator);
     accountingAllocator.assertOpen();
 
     this.root = accountingAllocator.root;
-    this.underlying = INNER_ALLOCATOR.allocate(size);
+    this.underlying = underlying;
+    this.recyclable = recyclable;
+    this.readOnly = readOnly;
 
     // we do a no retain association since our creator will want to retrieve the newly created
     // ledger and will create a
@@ -99,6 +139,24 @@ public class AllocationManager {
     this.size = underlying.capacity();
   }
 
+  /**
+   * The pool shared by all allocators, for metrics.
+   */
+  static PooledByteBufAllocatorL getInnerAllocator() {
+    return INNER_ALLOCATOR;
+  }
+
+  private static UnsafeDirectLittleEndian allocate(MnemonicBacking backing, int size) {
+    if (routesToMnemonic(backing, size)) {
+      return INNER_ALLOCATOR.allocate(size, backing.getAllocator());
+    }
+    return INNER_ALLOCATOR.allocate(size);
+  }
+
+  private static boolean routesToMnemonic(MnemonicBacking backing, int size) {
+    return backing != null && backing.routes(size);
+  }
+
   /**
    * Associate the existing underlying buffer with a new allocator. This will increase the
    * reference count to the
@@ -119,6 +177,13 @@ public class AllocationManager {
           "A buffer can only be associated between two allocators that share the same root.");
     }
 
+    // fast path: the owning allocator takes another reference to a live ledger, no lock needed
+    // since a ledger is only removed once its reference count dropped to zero.
+    final BufferLedger owning = owningLedger;
+    if (retain && owning != null && owning.allocator == allocator && owning.incIfReferenced()) {
+      return owning;
+    }
+
     try (AutoCloseableLock read = readLock.open()) {
 
       final BufferLedger ledger = map.get(allocator);
@@ -158,8 +223,11 @@ public class AllocationManager {
    * now longer needs to hold
    * a reference to particular piece of memory.
    * Can only be called when you already hold the writeLock.
+   *
+   * @return the allocator the memory was released from, to be notified once the lock is released,
+   *     or null if the memory is still in use
    */
-  private void release(final BufferLedger ledger) {
+  private BaseAllocator release(final BufferLedger ledger) {
     final BaseAllocator allocator = ledger.getAllocator();
     allocator.assertOpen();
 
@@ -168,11 +236,15 @@ public class AllocationManager {
 
     if (oldLedger == owningLedger) {
       if (map.isEmpty()) {
-        // no one else owns, lets release.
-        oldLedger.allocator.releaseBytes(size);
-        underlying.release();
+        // no one else owns, lets release, unless the allocator keeps the memory for reuse.
+        final BufferCache cache = recyclable ? oldLedger.allocator.getBufferCache() : null;
+        if (cache == null || !cache.offer(underlying, size)) {
+          oldLedger.allocator.releaseBytes(size);
+          underlying.release();
+        }
         amDestructionTime = System.nanoTime();
         owningLedger = null;
+        return oldLedger.allocator;
       } else {
         // we need to change the owning allocator. we've been removed so we'll get whatever is
         // top of list
@@ -189,6 +261,7 @@ public class AllocationManager {
                 "the owning ledger.");
       }
     }
+    return null;
   }
 
   /**
@@ -233,6 +306,13 @@ public class AllocationManager {
       return allocator;
     }
 
+    /**
+     * @return true if the memory must not be written, see {@link ArrowBuf#isReadOnly()}
+     */
+    public boolean isReadOnly() {
+      return readOnly;
+    }
+
     /**
      * Transfer any balance the current ledger has to the target ledger. In the case that the
      * current ledger holds no
@@ -269,6 +349,8 @@ public class AllocationManager {
         boolean overlimit = target.allocator.forceAllocate(size);
         allocator.releaseBytes(size);
         owningLedger = target;
+        // the source allocator, and its ancestors below the common one, have headroom again
+        allocator.root.signalRelease();
         return overlimit;
       }
 
@@ -324,6 +406,24 @@ public class AllocationManager {
       bufRefCnt.incrementAndGet();
     }
 
+    /**
+     * Increment the reference count unless it already dropped to zero, in which case the ledger
+     * is being released.
+     *
+     * @return whether the reference count was incremented
+     */
+    private boolean incIfReferenced() {
+      while (true) {
+        final int current = bufRefCnt.get();
+        if (current <= 0) {
+          return false;
+        }
+        if (bufRefCnt.compareAndSet(current, current + 1)) {
+          return true;
+        }
+      }
+    }
+
     /**
      * Decrement the ledger's reference count. If the ledger is decremented to zero, this ledger
      * should release its
@@ -335,15 +435,32 @@ public class AllocationManager {
     public int decrement(int decrement) {
       allocator.assertOpen();
 
+      // fast path: as long as this can't be the last reference, nothing but the count changes
+      while (true) {
+        final int current = bufRefCnt.get();
+        final int remaining = current - decrement;
+        if (remaining <= 0) {
+          break;
+        }
+        if (bufRefCnt.compareAndSet(current, remaining)) {
+          return remaining;
+        }
+      }
+
       final int outcome;
+      BaseAllocator releasedFrom = null;
       try (AutoCloseableLock write = writeLock.open()) {
         outcome = bufRefCnt.addAndGet(-decrement);
         if (outcome == 0) {
           lDestructionTime = System.nanoTime();
-          release(this);
+          releasedFrom = release(this);
         }
       }
 
+      if (releasedFrom != null) {
+        // listeners run outside of the lock, they may well allocate or release buffers
+        releasedFrom.onRelease(size);
+      }
       return outcome;
     }
 
@@ -439,12 +556,11 @@ public class AllocationManager {
      * @return Amount of accounted(owned) memory associated with this ledger.
      */
     public int getAccountedSize() {
-      try (AutoCloseableLock read = readLock.open()) {
-        if (owningLedger == this) {
-          return size;
-        } else {
-          return 0;
-        }
+      // owningLedger is volatile, the answer could change right after taking a lock anyway
+      if (owningLedger == this) {
+        return size;
+      } else {
+        return 0;
       }
     }
 
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.arrow.memory;
+
+/**
+ * The JMX view of a {@link BufferAllocator}, see {@link MemoryMetrics}. The totals are cumulative
+ * since the allocator was created, so rates can be derived by sampling them.
+ */
+public interface AllocatorMXBean {
+
+  String getName();
+
+  /**
+   * @return the memory currently allocated, in bytes
+   */
+  long getAllocatedMemory();
+
+  /**
+   * @return the peak memory allocated, in bytes
+   */
+  long getPeakMemoryAllocation();
+
+  /**
+   * @return the limit of the allocator, in bytes
+   */
+  long getLimit();
+
+  /**
+   * @return the memory that can still be allocated given this allocator's and its parents' limits
+   */
+  long getHeadroom();
+
+  /**
+   * @return the number of buffers allocated by this allocator, not counting its children
+   */
+  long getAllocationCount();
+
+  /**
+   * @return the total size of the buffers allocated, in bytes
+   */
+  long getAllocatedBytesTotal();
+
+  /**
+   * @return the number of buffers whose memory was released by this allocator
+   */
+  long getReleaseCount();
+
+  /**
+   * @return the total size of the memory released by this allocator, in bytes
+   */
+  long getReleasedBytesTotal();
+
+  /**
+   * @return the number of allocations that failed
+   */
+  long getFailedAllocationCount();
+
+  /**
+   * @return the total size of the allocations that failed, in bytes
+   */
+  long getFailedAllocationBytesTotal();
+
+  /**
+   * @return the memory kept in the buffer cache of the allocator for reuse, in bytes
+   */
+  long getCachedMemory();
+
+  /**
+   * @return the number of allocations served from the buffer cache
+   */
+  long getCacheHitCount();
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.arrow.memory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The allocation, release and failure counters of one allocator, see
+ * {@link BufferAllocator#getMetrics()}.
+ * <p>
+ * Counting is off until {@link #setEnabled(boolean) enabled}, or the metrics are registered with
+ * {@link MemoryMetrics#registerAllocator(BufferAllocator)}: the counters are shared by all the
+ * threads allocating from the allocator, so updating them on every allocation and release costs
+ * contention.
+ */
+public final class AllocatorMetrics implements AllocatorMXBean {
+
+  private final BaseAllocator allocator;
+  private final AtomicLong allocationCount = new AtomicLong();
+  private final AtomicLong allocatedBytes = new AtomicLong();
+  private final AtomicLong releaseCount = new AtomicLong();
+  private final AtomicLong releasedBytes = new AtomicLong();
+  private final AtomicLong failedAllocationCount = new AtomicLong();
+  private final AtomicLong failedAllocationBytes = new AtomicLong();
+  private final AtomicLong cacheHitCount = new AtomicLong();
+  private volatile boolean enabled = false;
+
+  AllocatorMetrics(BaseAllocator allocator) {
+    this.allocator = allocator;
+  }
+
+  /**
+   * @param enabled whether to count the allocations, releases and failures from now on, the
+   *                counts so far are kept
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  void recordAllocation(long size) {
+    if (!enabled) {
+      return;
+    }
+    allocationCount.incrementAndGet();
+    allocatedBytes.addAndGet(size);
+  }
+
+  void recordRelease(long size) {
+    if (!enabled) {
+      return;
+    }
+    releaseCount.incrementAndGet();
+    releasedBytes.addAndGet(size);
+  }
+
+  void recordFailedAllocation(long size) {
+    if (!enabled) {
+      return;
+    }
+    failedAllocationCount.incrementAndGet();
+    failedAllocationBytes.addAndGet(size);
+  }
+
+  void recordCacheHit() {
+    if (!enabled) {
+      return;
+    }
+    cacheHitCount.incrementAndGet();
+  }
+
+  @Override
+  public String getName() {
+    return allocator.getName();
+  }
+
+  @Override
+  public long getAllocatedMemory() {
+    return allocator.getAllocatedMemory();
+  }
+
+  @Override
+  public long getPeakMemoryAllocation() {
+    return allocator.getPeakMemoryAllocation();
+  }
+
+  @Override
+  public long getLimit() {
+    return allocator.getLimit();
+  }
+
+  @Override
+  public long getHeadroom() {
+    return allocator.getHeadroom();
+  }
+
+  @Override
+  public long getAllocationCount() {
+    return allocationCount.get();
+  }
+
+  @Override
+  public long getAllocatedBytesTotal() {
+    return allocatedBytes.get();
+  }
+
+  @Override
+  public long getReleaseCount() {
+    return releaseCount.get();
+  }
+
+  @Override
+  public long getReleasedBytesTotal() {
+    return releasedBytes.get();
+  }
+
+  @Override
+  public long getFailedAllocationCount() {
+    return failedAllocationCount.get();
+  }
+
+  @Override
+  public long getFailedAllocationBytesTotal() {
+    return failedAllocationBytes.get();
+  }
+
+  @Override
+  public long getCachedMemory() {
+    return allocator.getCachedMemory();
+  }
+
+  @Override
+  public long getCacheHitCount() {
+    return cacheHitCount.get();
+  }
+
+  @Override
+  public String toString() {
+    return "AllocatorMetrics[" + getName() +
+        ", allocated: " + getAllocatedMemory() +
+        ", peak: " + getPeakMemoryAllocation() +
+        ", limit: " + getLimit() +
+        ", allocations: " + getAllocationCount() +
+        ", releases: " + getReleaseCount() +
+        ", failures: " + getFailedAllocationCount() + "]";
+  }
+}
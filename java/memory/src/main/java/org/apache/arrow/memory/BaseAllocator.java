@@ -28,9 +28,11 @@ import org.apache.arrow.memory.AllocationManager.BufferLedger;
 import org.apache.arrow.memory.util.AssertionUtil;
 import org.apache.arrow.memory.util.HistoricalLog;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.IdentityHashMap;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class BaseAllocator extends Accountant implements BufferAllocator {
@@ -41,11 +43,21 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
       || Boolean.parseBoolean(System.getProperty(DEBUG_ALLOCATOR, "false"));
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(BaseAllocator
       .class);
+  // set while the current thread runs a spill listener, its failed allocations are not retried
+  private static final ThreadLocal<Boolean> SPILLING = new ThreadLocal<>();
+  // attempts of a spill listener to free memory for a single allocation
+  static final int MAX_SPILL_ATTEMPTS = 16;
   // Package exposed for sharing between AllocatorManger and BaseAllocator objects
   final String name;
   final RootAllocator root;
   private final Object DEBUG_LOCK = DEBUG ? new Object() : null;
   private final AllocationListener listener;
+  private final MemoryEventListener eventListener;
+  private final SpillListener spillListener;
+  private volatile long allocationTimeoutMillis;
+  private volatile BufferCache bufferCache;
+  private final AllocatorMetrics metrics;
+  private final MnemonicBacking backing;
   private final BaseAllocator parentAllocator;
   private final ArrowByteBufAllocator thisAsByteBufAllocator;
   private final IdentityHashMap<BaseAllocator, Object> childAllocators;
@@ -61,26 +73,75 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
       final String name,
       final long initReservation,
       final long maxAllocation) throws OutOfMemoryException {
-    this(listener, null, name, initReservation, maxAllocation);
+    this(listener, null, null, name, initReservation, maxAllocation, DEFAULT_LEASE_SIZE);
+  }
+
+  protected BaseAllocator(
+      final AllocationListener listener,
+      final MnemonicBacking backing,
+      final String name,
+      final long initReservation,
+      final long maxAllocation) throws OutOfMemoryException {
+    this(listener, backing, null, name, initReservation, maxAllocation, DEFAULT_LEASE_SIZE);
+  }
+
+  protected BaseAllocator(
+      final AllocationListener listener,
+      final MnemonicBacking backing,
+      final String name,
+      final long initReservation,
+      final long maxAllocation,
+      final long leaseSize) throws OutOfMemoryException {
+    this(listener, backing, null, name, initReservation, maxAllocation, leaseSize);
+  }
+
+  protected BaseAllocator(
+      final BaseAllocator parentAllocator,
+      final String name,
+      final long initReservation,
+      final long maxAllocation) throws OutOfMemoryException {
+    this(parentAllocator.listener, parentAllocator.backing, parentAllocator, name, initReservation,
+        maxAllocation, DEFAULT_LEASE_SIZE);
   }
 
   protected BaseAllocator(
       final BaseAllocator parentAllocator,
+      final MnemonicBacking backing,
       final String name,
       final long initReservation,
       final long maxAllocation) throws OutOfMemoryException {
-    this(parentAllocator.listener, parentAllocator, name, initReservation, maxAllocation);
+    this(parentAllocator.listener, backing, parentAllocator, name, initReservation, maxAllocation,
+        DEFAULT_LEASE_SIZE);
+  }
+
+  protected BaseAllocator(
+      final BaseAllocator parentAllocator,
+      final MnemonicBacking backing,
+      final String name,
+      final long initReservation,
+      final long maxAllocation,
+      final long leaseSize) throws OutOfMemoryException {
+    this(parentAllocator.listener, backing, parentAllocator, name, initReservation, maxAllocation,
+        leaseSize);
   }
 
   private BaseAllocator(
       final AllocationListener listener,
+      final MnemonicBacking backing,
       final BaseAllocator parentAllocator,
       final String name,
       final long initReservation,
-      final long maxAllocation) throws OutOfMemoryException {
-    super(parentAllocator, initReservation, maxAllocation);
+      final long maxAllocation,
+      final long leaseSize) throws OutOfMemoryException {
+    super(parentAllocator, initReservation, maxAllocation, leaseSize);
 
     this.listener = listener;
+    this.eventListener = listener instanceof MemoryEventListener ?
+        (MemoryEventListener) listener : null;
+    this.spillListener = listener instanceof SpillListener ? (SpillListener) listener : null;
+    this.allocationTimeoutMillis = parentAllocator != null ? parentAllocator.allocationTimeoutMillis : 0;
+    this.metrics = new AllocatorMetrics(this);
+    this.backing = backing;
 
     if (parentAllocator != null) {
       this.root = parentAllocator.root;
@@ -268,8 +329,21 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
     final int actualRequestSize = initialRequestSize < AllocationManager.CHUNK_SIZE ?
         nextPowerOfTwo(initialRequestSize)
         : initialRequestSize;
-    AllocationOutcome outcome = this.allocateBytes(actualRequestSize);
+
+    final BufferCache cache = bufferCache;
+    if (cache != null) {
+      final UnsafeDirectLittleEndian cached = cache.poll(actualRequestSize);
+      if (cached != null) {
+        final ArrowBuf buffer = bufferFromCache(cached, manager);
+        metrics.recordCacheHit();
+        onAllocation(actualRequestSize);
+        return buffer;
+      }
+    }
+
+    AllocationOutcome outcome = this.allocateBytesOrWait(actualRequestSize);
     if (!outcome.isOk()) {
+      onFailedAllocation(actualRequestSize);
       throw new OutOfMemoryException(createErrorMsg(this, actualRequestSize, initialRequestSize));
     }
 
@@ -277,8 +351,11 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
     try {
       ArrowBuf buffer = bufferWithoutReservation(actualRequestSize, manager);
       success = true;
-      listener.onAllocation(actualRequestSize);
+      onAllocation(actualRequestSize);
       return buffer;
+    } catch (OutOfMemoryException e) {
+      onFailedAllocation(actualRequestSize);
+      throw e;
     } catch (OutOfMemoryError e) {
       /*
        * OutOfDirectMemoryError is thrown by Netty when we exceed the direct memory limit defined by -XX:MaxDirectMemorySize.
@@ -286,6 +363,7 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
        *   This should never be hit in practice as Netty is expected to throw an OutOfDirectMemoryError first.
        */
       if (e instanceof OutOfDirectMemoryError || "Direct buffer memory".equals(e.getMessage())) {
+        onFailedAllocation(actualRequestSize);
         throw new OutOfMemoryException(e);
       }
       throw e;
@@ -297,6 +375,92 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
 
   }
 
+  @Override
+  public ArrowBuf wrap(final ByteBuffer buffer, final boolean freeOnRelease) {
+    assertOpen();
+
+    Preconditions.checkArgument(buffer.isDirect(), "only direct buffers can be wrapped");
+
+    final int size = buffer.remaining();
+    if (size == 0) {
+      return empty;
+    }
+
+    AllocationOutcome outcome = this.allocateBytesOrWait(size);
+    if (!outcome.isOk()) {
+      onFailedAllocation(size);
+      throw new OutOfMemoryException(createErrorMsg(this, size, size));
+    }
+
+    boolean success = false;
+    try {
+      final AllocationManager manager = new AllocationManager(this, buffer, freeOnRelease);
+      final BufferLedger ledger = manager.associate(this); // +1 ref cnt (required)
+      final ArrowBuf arrowBuf = ledger.newArrowBuf(0, size, null);
+      success = true;
+      onAllocation(size);
+      return arrowBuf;
+    } finally {
+      if (!success) {
+        releaseBytes(size);
+      }
+    }
+  }
+
+  /**
+   * Accounts for an allocation. When it exceeds a limit, the spill listener is given a chance to
+   * free memory, then the allocation waits up to the allocation timeout for memory to be released.
+   */
+  private AllocationOutcome allocateBytesOrWait(final long size) {
+    AllocationOutcome outcome = this.allocateBytes(size);
+    if (!outcome.isOk()) {
+      // memory kept for reuse is given back before anything else
+      final BufferCache cache = bufferCache;
+      if (cache != null && cache.clear() > 0) {
+        outcome = this.allocateBytes(size);
+      }
+    }
+    if (outcome.isOk() || SPILLING.get() != null) {
+      return outcome;
+    }
+
+    if (spillListener != null) {
+      SPILLING.set(Boolean.TRUE);
+      try {
+        // a listener reporting progress without freeing enough must not spin forever
+        for (int attempt = 0; !outcome.isOk() && attempt < MAX_SPILL_ATTEMPTS
+            && spillListener.onAllocationFailure(this, size); attempt++) {
+          outcome = this.allocateBytes(size);
+        }
+      } finally {
+        SPILLING.remove();
+      }
+    }
+
+    final long timeoutMillis = allocationTimeoutMillis;
+    if (!outcome.isOk() && timeoutMillis > 0) {
+      final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+      root.releaseWaiters.incrementAndGet();
+      try {
+        synchronized (root.releaseMonitor) {
+          // the waiter is registered before each attempt, so a release after it is always signaled
+          outcome = this.allocateBytes(size);
+          long remaining = deadline - System.nanoTime();
+          while (!outcome.isOk() && remaining > 0) {
+            TimeUnit.NANOSECONDS.timedWait(root.releaseMonitor, remaining);
+            outcome = this.allocateBytes(size);
+            remaining = deadline - System.nanoTime();
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        root.releaseWaiters.decrementAndGet();
+      }
+    }
+    return outcome;
+  }
+
   /**
    * Used by usual allocation as well as for allocating a pre-reserved buffer. Skips the typical
    * accounting associated
@@ -317,6 +481,28 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
     return buffer;
   }
 
+  /**
+   * Creates a buffer over memory taken from the buffer cache, which is already accounted to this
+   * allocator.
+   */
+  private ArrowBuf bufferFromCache(final UnsafeDirectLittleEndian memory,
+                                   BufferManager bufferManager) {
+    final int size = memory.capacity();
+    boolean success = false;
+    try {
+      final AllocationManager manager = new AllocationManager(this, memory);
+      final BufferLedger ledger = manager.associate(this); // +1 ref cnt (required)
+      final ArrowBuf buffer = ledger.newArrowBuf(0, size, bufferManager);
+      success = true;
+      return buffer;
+    } finally {
+      if (!success) {
+        releaseBytes(size);
+        memory.release();
+      }
+    }
+  }
+
   @Override
   public ArrowByteBufAllocator getAsByteBufAllocator() {
     return thisAsByteBufAllocator;
@@ -343,6 +529,130 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
     return childAllocator;
   }
 
+  @Override
+  public BufferAllocator newChildAllocator(
+      final String name,
+      final long initReservation,
+      final long maxAllocation,
+      final MnemonicBacking backing) {
+    assertOpen();
+
+    final ChildAllocator childAllocator = new ChildAllocator(this, backing, name, initReservation,
+        maxAllocation);
+
+    if (DEBUG) {
+      synchronized (DEBUG_LOCK) {
+        childAllocators.put(childAllocator, childAllocator);
+        historicalLog.recordEvent("allocator[%s] created new child allocator[%s] backed by %s",
+            name, childAllocator.name, backing);
+      }
+    }
+
+    return childAllocator;
+  }
+
+  @Override
+  public BufferAllocator newChildAllocator(
+      final String name,
+      final long initReservation,
+      final long maxAllocation,
+      final MnemonicBacking backing,
+      final long leaseSize) {
+    assertOpen();
+
+    final ChildAllocator childAllocator = new ChildAllocator(this, backing, name, initReservation,
+        maxAllocation, leaseSize);
+
+    if (DEBUG) {
+      synchronized (DEBUG_LOCK) {
+        childAllocators.put(childAllocator, childAllocator);
+        historicalLog.recordEvent("allocator[%s] created new child allocator[%s] leasing %d bytes",
+            name, childAllocator.name, leaseSize);
+      }
+    }
+
+    return childAllocator;
+  }
+
+  @Override
+  public MnemonicBacking getBacking() {
+    return backing;
+  }
+
+  @Override
+  public AllocatorMetrics getMetrics() {
+    return metrics;
+  }
+
+  private void onAllocation(long size) {
+    metrics.recordAllocation(size);
+    listener.onAllocation(size);
+  }
+
+  /**
+   * Called by the AllocationManager once memory owned by this allocator is given back.
+   */
+  void onRelease(long size) {
+    metrics.recordRelease(size);
+    if (eventListener != null) {
+      eventListener.onRelease(size);
+    }
+    root.signalRelease();
+  }
+
+  @Override
+  public void setLimit(long newLimit) {
+    super.setLimit(newLimit);
+    // a raised limit may let waiting allocations through
+    root.signalRelease();
+  }
+
+  @Override
+  public void setAllocationTimeout(long timeoutMillis) {
+    Preconditions.checkArgument(timeoutMillis >= 0, "the allocation timeout must be non-negative");
+    this.allocationTimeoutMillis = timeoutMillis;
+  }
+
+  @Override
+  public long getAllocationTimeout() {
+    return allocationTimeoutMillis;
+  }
+
+  @Override
+  public void setBufferCache(long maxCachedBytes, long idleTimeoutMillis) {
+    assertOpen();
+    Preconditions.checkArgument(maxCachedBytes >= 0, "the buffer cache size must be non-negative");
+    Preconditions.checkArgument(idleTimeoutMillis >= 0, "the idle timeout must be non-negative");
+
+    final BufferCache oldCache = bufferCache;
+    bufferCache = maxCachedBytes > 0
+        ? new BufferCache(this, maxCachedBytes, idleTimeoutMillis)
+        : null;
+    if (oldCache != null) {
+      oldCache.close();
+    }
+  }
+
+  @Override
+  public long getCachedMemory() {
+    final BufferCache cache = bufferCache;
+    return cache == null ? 0 : cache.getCachedMemory();
+  }
+
+  /**
+   * Called by the AllocationManager to find where the memory of a released buffer may be kept.
+   */
+  BufferCache getBufferCache() {
+    return bufferCache;
+  }
+
+  private void onFailedAllocation(long size) {
+    metrics.recordFailedAllocation(size);
+    if (eventListener != null) {
+      eventListener.onFailedAllocation(size);
+    }
+  }
+
   @Override
   public AllocationReservation newReservation() {
     assertOpen();
@@ -360,6 +670,13 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
       return;
     }
 
+    // the cached memory is still accounted to us, give it back before checking for leaks
+    final BufferCache cache = bufferCache;
+    if (cache != null) {
+      bufferCache = null;
+      cache.close();
+    }
+
     isClosed = true;
 
     if (DEBUG) {
@@ -409,6 +726,8 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
 
     // we need to release our memory to our parent before we tell it we've closed.
     super.close();
+    // the memory held by this allocator is headroom for waiting allocations again
+    root.signalRelease();
 
     // Inform our parent allocator that we've closed
     if (parentAllocator != null) {
@@ -497,11 +816,13 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
        *
        * The sum of direct child allocators' owned memory must be <= my allocated memory; my
        * allocated memory also
-       * includes ArrowBuf's directly allocated by me.
+       * includes ArrowBuf's directly allocated by me. The idle lease credit of a child is owned
+       * by the child, though not part of its allocated memory.
        */
       long childTotal = 0;
       for (final BaseAllocator childAllocator : childSet) {
-        childTotal += Math.max(childAllocator.getAllocatedMemory(), childAllocator.reservation);
+        childTotal += Math.max(childAllocator.getAllocatedMemory() + childAllocator.getIdleCredit(),
+            childAllocator.reservation);
       }
       if (childTotal > getAllocatedMemory()) {
         historicalLog.logHistory(logger);
@@ -574,7 +895,7 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
             sb.append("child allocator[");
             sb.append(childAllocator.name);
             sb.append("] owned ");
-            sb.append(Long.toString(childAllocator.getAllocatedMemory()));
+            sb.append(Long.toString(childAllocator.getAllocatedMemory() + childAllocator.getIdleCredit()));
             sb.append('\n');
           }
         }
@@ -786,7 +1107,10 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
     public boolean reserve(int nBytes) {
       assertOpen();
 
-      final AllocationOutcome outcome = BaseAllocator.this.allocateBytes(nBytes);
+      final AllocationOutcome outcome = BaseAllocator.this.allocateBytesOrWait(nBytes);
+      if (!outcome.isOk()) {
+        onFailedAllocation(nBytes);
+      }
 
       if (DEBUG) {
         historicalLog.recordEvent("reserve(%d) => %s", nBytes, Boolean.toString(outcome.isOk()));
@@ -819,7 +1143,7 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
       try {
         final ArrowBuf arrowBuf = BaseAllocator.this.bufferWithoutReservation(nBytes, null);
 
-        listener.onAllocation(nBytes);
+        onAllocation(nBytes);
         if (DEBUG) {
           historicalLog.recordEvent("allocate() => %s", String.format("ArrowBuf[%d]", arrowBuf
               .getId()));
@@ -842,6 +1166,7 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
       assertOpen();
 
       releaseBytes(nBytes);
+      root.signalRelease();
 
       if (DEBUG) {
         historicalLog.recordEvent("releaseReservation(%d)", nBytes);
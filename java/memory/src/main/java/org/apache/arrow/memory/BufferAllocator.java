@@ -18,6 +18,8 @@
 
 package org.apache.arrow.memory;
 
+import java.nio.ByteBuffer;
+
 import io.netty.buffer.ArrowBuf;
 import io.netty.buffer.ByteBufAllocator;
 
@@ -51,6 +53,21 @@ public interface BufferAllocator extends AutoCloseable {
    */
   public ArrowBuf buffer(int size, BufferManager manager);
 
+  /**
+   * Wrap a direct buffer that was allocated outside of Arrow, such as a memory-mapped region of
+   * a file, into an ArrowBuf without copying it. The bytes between the buffer's position and
+   * limit are accounted against this allocator like any other allocation until the returned
+   * ArrowBuf is released.
+   *
+   * @param buffer        The direct buffer to wrap.
+   * @param freeOnRelease Whether the buffer should be freed (for mapped buffers: unmapped) when
+   *                      the last reference to the returned ArrowBuf is released, rather than
+   *                      when it is garbage collected.
+   * @return a new ArrowBuf over the buffer's memory
+   * @throws OutOfMemoryException if the buffer does not fit within this allocator's limits
+   */
+  public ArrowBuf wrap(ByteBuffer buffer, boolean freeOnRelease);
+
   /**
    * Returns the allocator this allocator falls back to when it needs more memory.
    *
@@ -68,6 +85,46 @@ public interface BufferAllocator extends AutoCloseable {
    */
   public BufferAllocator newChildAllocator(String name, long initReservation, long maxAllocation);
 
+  /**
+   * Create a new child allocator that draws its large buffers from a different Mnemonic backing
+   * than this allocator.
+   *
+   * @param name            the name of the allocator.
+   * @param initReservation the initial space reservation (obtained from this allocator)
+   * @param maxAllocation   maximum amount of space the new allocator can allocate
+   * @param backing         the Mnemonic backing of the new allocator, or null to only use the
+   *                        pooled arenas
+   * @return the new allocator, or null if it can't be created
+   */
+  public BufferAllocator newChildAllocator(String name, long initReservation, long maxAllocation,
+                                           MnemonicBacking backing);
+
+  /**
+   * Create a new child allocator that takes memory from this allocator in leases of the given
+   * size rather than accounting for every allocation up the tree. The credit left over from a
+   * lease is kept per thread, which makes allocations cheaper under contention at the price of up
+   * to two leases of idle credit per thread. Allocators created by the other methods lease
+   * according to the arrow.memory.accounting.lease system property.
+   *
+   * @param name            the name of the allocator.
+   * @param initReservation the initial space reservation (obtained from this allocator)
+   * @param maxAllocation   maximum amount of space the new allocator can allocate
+   * @param backing         the Mnemonic backing of the new allocator, or null to only use the
+   *                        pooled arenas
+   * @param leaseSize       the size of the leases in bytes, or zero to account for every
+   *                        allocation individually
+   * @return the new allocator, or null if it can't be created
+   */
+  public BufferAllocator newChildAllocator(String name, long initReservation, long maxAllocation,
+                                           MnemonicBacking backing, long leaseSize);
+
+  /**
+   * Returns the Mnemonic backing large buffers of this allocator are drawn from.
+   *
+   * @return the backing, or null if all buffers come from the pooled arenas
+   */
+  public MnemonicBacking getBacking();
+
   /**
    * Close and release all buffers generated from this buffer pool.
    *
@@ -98,6 +155,48 @@ public interface BufferAllocator extends AutoCloseable {
    */
   public void setLimit(long newLimit);
 
+  /**
+   * Set how long an allocation exceeding a limit waits for memory to be released before it fails
+   * with an {@link OutOfMemoryException}. The wait happens after a {@link SpillListener} gave up.
+   * Child allocators start with the timeout of their parent.
+   *
+   * @param timeoutMillis the maximum wait in milliseconds, 0 (the default) to fail at once
+   */
+  public void setAllocationTimeout(long timeoutMillis);
+
+  /**
+   * Return how long an allocation exceeding a limit waits for memory to be released.
+   *
+   * @return the maximum wait in milliseconds, 0 if allocations fail at once
+   */
+  public long getAllocationTimeout();
+
+  /**
+   * Keep the memory of buffers released by this allocator in per-size free lists, and hand it
+   * back to later allocations of the same size without going through the accounting of this
+   * allocator's ancestors or the pooled arenas. This suits allocators that allocate the same
+   * buffer shapes over and over, e.g. for each batch of a stream. Only buffers whose size is a
+   * power of two are kept, which covers all buffers smaller than a chunk.
+   *
+   * <p>Cached memory remains allocated from this allocator and counts against its limits. It is
+   * freed once the cache holds more than the given size, once it has been unused for longer than
+   * the idle timeout (checked as the cache is used), when an allocation of this allocator exceeds
+   * a limit, and when the allocator is closed. Calling this again replaces the cache and frees
+   * what it held.</p>
+   *
+   * @param maxCachedBytes    the most memory kept in the cache, 0 (the default) to disable it
+   * @param idleTimeoutMillis how long cached memory can go unused before it is freed, 0 to keep
+   *                          it regardless
+   */
+  public void setBufferCache(long maxCachedBytes, long idleTimeoutMillis);
+
+  /**
+   * Returns the memory currently kept in the buffer cache of this allocator.
+   *
+   * @return the cached memory in bytes, included in {@link #getAllocatedMemory()}
+   */
+  public long getCachedMemory();
+
   /**
    * Returns the peak amount of memory allocated from this allocator.
    *
@@ -113,6 +212,15 @@ public interface BufferAllocator extends AutoCloseable {
    */
   public long getHeadroom();
 
+  /**
+   * Returns the allocation, release and failure counters of this allocator. They only count once
+   * enabled, which exporting them through JMX with
+   * {@link MemoryMetrics#registerAllocator(BufferAllocator)} does.
+   *
+   * @return the metrics of this allocator
+   */
+  public AllocatorMetrics getMetrics();
+
   /**
    * Create an allocation reservation. A reservation is a way of building up
    * a request for a buffer whose size is not known in advance. See
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.memory;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.buffer.UnsafeDirectLittleEndian;
+
+/**
+ * Keeps the memory of released power-of-two sized buffers of one allocator in per-size free
+ * lists, so that the next allocation of the same size reuses it instead of going through the
+ * accountants and the pooled arenas. See {@link BufferAllocator#setBufferCache(long, long)}.
+ * <p>
+ * Cached memory stays accounted to its allocator. It is given back when the cache would grow
+ * past its capacity, when it has been unused for longer than the idle timeout (checked as the
+ * cache is used), when an allocation of the allocator exceeds a limit, and when the cache is
+ * closed. Free lists are LIFO so that the most recently used, cache-warm memory is reused first.
+ */
+final class BufferCache implements AutoCloseable {
+
+  private final BaseAllocator allocator;
+  private final long capacity;
+  private final long idleNanos;
+  // free lists indexed by the log2 of their buffer size, newest entries first
+  @SuppressWarnings("unchecked")
+  private final ArrayDeque<Entry>[] freeLists = new ArrayDeque[Integer.SIZE];
+
+  private long cachedBytes;
+  private long lastSweep;
+  private boolean closed;
+
+  BufferCache(BaseAllocator allocator, long capacity, long idleTimeoutMillis) {
+    this.allocator = allocator;
+    this.capacity = capacity;
+    this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+    for (int i = 0; i < freeLists.length; i++) {
+      freeLists[i] = new ArrayDeque<>();
+    }
+    this.lastSweep = System.nanoTime();
+  }
+
+  /**
+   * Take cached memory of exactly the given size. The memory is already accounted to the
+   * allocator.
+   *
+   * @return the memory, or null if none of that size is cached
+   */
+  synchronized UnsafeDirectLittleEndian poll(int size) {
+    if (closed || Integer.bitCount(size) != 1) {
+      return null;
+    }
+    final Entry entry = freeLists[Integer.numberOfTrailingZeros(size)].pollFirst();
+    if (entry == null) {
+      return null;
+    }
+    cachedBytes -= size;
+    return entry.memory;
+  }
+
+  /**
+   * Offer the memory of a buffer that was released. The memory is kept, still accounted to the
+   * allocator, if it is power-of-two sized and fits within the capacity of the cache.
+   *
+   * @return whether the cache took the memory
+   */
+  synchronized boolean offer(UnsafeDirectLittleEndian memory, int size) {
+    if (closed || Integer.bitCount(size) != 1 || size > capacity) {
+      return false;
+    }
+    final long now = System.nanoTime();
+    if (idleNanos > 0 && now - lastSweep > idleNanos / 4) {
+      evictIdle(now);
+    }
+    if (cachedBytes + size > capacity) {
+      return false;
+    }
+    freeLists[Integer.numberOfTrailingZeros(size)].addFirst(new Entry(memory, now));
+    cachedBytes += size;
+    return true;
+  }
+
+  /**
+   * Give back all cached memory to the allocator.
+   *
+   * @return the number of bytes given back
+   */
+  synchronized long clear() {
+    long released = 0;
+    for (int i = 0; i < freeLists.length; i++) {
+      Entry entry;
+      while ((entry = freeLists[i].pollLast()) != null) {
+        released += release(entry.memory, 1 << i);
+      }
+    }
+    signalRelease(released);
+    return released;
+  }
+
+  synchronized long getCachedMemory() {
+    return cachedBytes;
+  }
+
+  @Override
+  public synchronized void close() {
+    closed = true;
+    clear();
+  }
+
+  private void evictIdle(long now) {
+    lastSweep = now;
+    long released = 0;
+    for (int i = 0; i < freeLists.length; i++) {
+      final ArrayDeque<Entry> list = freeLists[i];
+      while (!list.isEmpty() && now - list.peekLast().releaseTime > idleNanos) {
+        released += release(list.pollLast().memory, 1 << i);
+      }
+    }
+    signalRelease(released);
+  }
+
+  private long release(UnsafeDirectLittleEndian memory, int size) {
+    cachedBytes -= size;
+    allocator.releaseBytes(size);
+    memory.release();
+    return size;
+  }
+
+  private void signalRelease(long released) {
+    if (released > 0) {
+      allocator.root.signalRelease();
+    }
+  }
+
+  private static final class Entry {
+    private final UnsafeDirectLittleEndian memory;
+    private final long releaseTime;
+
+    private Entry(UnsafeDirectLittleEndian memory, long releaseTime) {
+      this.memory = memory;
+      this.releaseTime = releaseTime;
+    }
+  }
+}
@@ -48,5 +48,44 @@ class ChildAllocator extends BaseAllocator {
     super(parentAllocator, name, initReservation, maxAllocation);
   }
 
+  /**
+   * Constructor for a child drawing its large buffers from a different Mnemonic backing than
+   * its parent.
+   *
+   * @param parentAllocator parent allocator -- the one creating this child
+   * @param backing         the Mnemonic backing of this allocator, or null for none
+   * @param name            the name of this child allocator
+   * @param initReservation initial amount of space to reserve (obtained from the parent)
+   * @param maxAllocation   maximum amount of space that can be obtained from this allocator
+   */
+  ChildAllocator(
+      BaseAllocator parentAllocator,
+      MnemonicBacking backing,
+      String name,
+      long initReservation,
+      long maxAllocation) {
+    super(parentAllocator, backing, name, initReservation, maxAllocation);
+  }
+
+  /**
+   * Constructor for a child taking memory from its parent in leases of the given size.
+   *
+   * @param parentAllocator parent allocator -- the one creating this child
+   * @param backing         the Mnemonic backing of this allocator, or null for none
+   * @param name            the name of this child allocator
+   * @param initReservation initial amount of space to reserve (obtained from the parent)
+   * @param maxAllocation   maximum amount of space that can be obtained from this allocator
+   * @param leaseSize       the size of the leases, or zero to account for every allocation
+   */
+  ChildAllocator(
+      BaseAllocator parentAllocator,
+      MnemonicBacking backing,
+      String name,
+      long initReservation,
+      long maxAllocation,
+      long leaseSize) {
+    super(parentAllocator, backing, name, initReservation, maxAllocation, leaseSize);
+  }
+
 
 }
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.arrow.memory;
+
+/**
+ * An {@link AllocationListener} that is also notified when memory is given back and when an
+ * allocation is refused. Allocators check whether their listener implements this interface.
+ * <p>
+ * As with AllocationListener, it is expected to be called from multiple threads.
+ */
+public interface MemoryEventListener extends AllocationListener {
+
+  /**
+   * Called each time the memory of a buffer is released by the allocator owning it.
+   *
+   * @param size the size of the released memory
+   */
+  void onRelease(long size);
+
+  /**
+   * Called each time an allocation fails, either because of an allocator limit or because the
+   * direct memory of the JVM is exhausted.
+   *
+   * @param size the size of the refused allocation
+   */
+  void onFailedAllocation(long size);
+
+}
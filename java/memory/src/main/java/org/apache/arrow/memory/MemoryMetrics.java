@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.arrow.memory;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import io.netty.buffer.PooledByteBufAllocatorL;
+
+/**
+ * Registers allocator metrics with the platform MBean server, under the
+ * org.apache.arrow.memory domain:
+ * <pre>
+ *   ObjectName name = MemoryMetrics.registerAllocator(allocator);
+ *   ...
+ *   MemoryMetrics.unregister(name);
+ * </pre>
+ */
+public final class MemoryMetrics {
+
+  public static final String DOMAIN = "org.apache.arrow.memory";
+
+  private MemoryMetrics() {
+  }
+
+  /**
+   * Register the metrics of an allocator, and enable counting. They stay registered until
+   * unregistered, even if the allocator is closed.
+   *
+   * @param allocator the allocator
+   * @return the name the metrics are registered under
+   */
+  public static ObjectName registerAllocator(BufferAllocator allocator) {
+    allocator.getMetrics().setEnabled(true);
+    return register(allocator.getMetrics(), DOMAIN + ":type=Allocator,name=" +
+        ObjectName.quote(allocator.getName()) + ",id=" + System.identityHashCode(allocator));
+  }
+
+  /**
+   * Register the metrics of the pool shared by all allocators.
+   *
+   * @return the name the metrics are registered under
+   */
+  public static ObjectName registerPool() {
+    return register(new PoolMetrics(AllocationManager.getInnerAllocator()),
+        DOMAIN + ":type=PooledAllocator");
+  }
+
+  /**
+   * @param name a name returned by one of the register methods
+   */
+  public static void unregister(ObjectName name) {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+    } catch (JMException e) {
+      throw new IllegalStateException("Unable to unregister " + name, e);
+    }
+  }
+
+  private static ObjectName register(Object bean, String name) {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      final ObjectName objectName = new ObjectName(name);
+      if (server.isRegistered(objectName)) {
+        server.unregisterMBean(objectName);
+      }
+      server.registerMBean(bean, objectName);
+      return objectName;
+    } catch (JMException e) {
+      throw new IllegalStateException("Unable to register " + name, e);
+    }
+  }
+
+  private static class PoolMetrics implements PooledAllocatorMXBean {
+
+    private final PooledByteBufAllocatorL pool;
+
+    PoolMetrics(PooledByteBufAllocatorL pool) {
+      this.pool = pool;
+    }
+
+    @Override
+    public int getChunkSize() {
+      return pool.getChunkSize();
+    }
+
+    @Override
+    public int getDirectArenaCount() {
+      return pool.getDirectArenaCount();
+    }
+
+    @Override
+    public long getHugeBufferCount() {
+      return pool.getHugeBufferCount();
+    }
+
+    @Override
+    public long getHugeBufferSize() {
+      return pool.getHugeBufferSize();
+    }
+
+    @Override
+    public long getNormalBufferCount() {
+      return pool.getNormalBufferCount();
+    }
+
+    @Override
+    public long getNormalBufferSize() {
+      return pool.getNormalBufferSize();
+    }
+
+    @Override
+    public long getMnemonicBufferCount() {
+      return pool.getMnemonicBufferCount();
+    }
+
+    @Override
+    public long getMnemonicBufferSize() {
+      return pool.getMnemonicBufferSize();
+    }
+
+    @Override
+    public String getArenaStatus() {
+      return pool.getArenaStatus();
+    }
+  }
+}
@@ -0,0 +1,169 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.memory;
+
+import org.apache.mnemonic.CommonAllocator;
+
+import com.google.common.base.Preconditions;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.MnemonicPooledByteBufAllocator;
+import io.netty.buffer.MnemonicUnpooledByteBufAllocator;
+
+/**
+ * The Mnemonic memory service an allocator draws its large buffers from. Requests of at least
+ * the threshold size are served by the Mnemonic pool while smaller ones stay on the pooled Netty
+ * arenas, so that short-lived buffers keep their allocation latency while large, long-lived
+ * columns live in the (volatile or persistent) Mnemonic pool.
+ * <p>
+ * A backing is given to a {@link RootAllocator} or to
+ * {@link BufferAllocator#newChildAllocator(String, long, long, MnemonicBacking)} and is inherited
+ * by the children of that allocator. Allocators without a backing only use the Netty arenas.
+ */
+public final class MnemonicBacking {
+
+  /**
+   * The default threshold of unpooled backings: requests beyond a Netty chunk are never pooled
+   * anyway.
+   */
+  public static final int DEFAULT_THRESHOLD = (int) AllocationManager.CHUNK_SIZE;
+
+  /**
+   * The default threshold of pooled backings: the Mnemonic pool serves all the requests, since it
+   * only pools those up to its largest size class.
+   */
+  public static final int DEFAULT_POOLED_THRESHOLD = 0;
+
+  private final ByteBufAllocator allocator;
+  private final int threshold;
+
+  /**
+   * @param allocator the Mnemonic buffer allocator to draw from
+   * @param threshold the minimum size in bytes of the requests routed to Mnemonic
+   */
+  public MnemonicBacking(MnemonicUnpooledByteBufAllocator<?> allocator, int threshold) {
+    this((ByteBufAllocator) allocator, threshold);
+  }
+
+  /**
+   * @param allocator the pooled Mnemonic buffer allocator to draw from
+   * @param threshold the minimum size in bytes of the requests routed to Mnemonic
+   * @throws IllegalArgumentException if the threshold is beyond the largest size class of the
+   *     allocator, no request would then be pooled
+   */
+  public MnemonicBacking(MnemonicPooledByteBufAllocator<?> allocator, int threshold) {
+    this((ByteBufAllocator) allocator, threshold);
+    Preconditions.checkArgument(threshold <= allocator.getMaxPooledSize(),
+        "the threshold (%s) must not exceed the largest pooled size (%s)", threshold,
+        allocator.getMaxPooledSize());
+  }
+
+  private MnemonicBacking(ByteBufAllocator allocator, int threshold) {
+    Preconditions.checkNotNull(allocator, "allocator");
+    Preconditions.checkArgument(threshold >= 0, "the threshold must be non-negative");
+    this.allocator = allocator;
+    this.threshold = threshold;
+  }
+
+  /**
+   * @param allocator the Mnemonic buffer allocator to draw from
+   */
+  public MnemonicBacking(MnemonicUnpooledByteBufAllocator<?> allocator) {
+    this(allocator, DEFAULT_THRESHOLD);
+  }
+
+  /**
+   * @param allocator the pooled Mnemonic buffer allocator to draw from
+   */
+  public MnemonicBacking(MnemonicPooledByteBufAllocator<?> allocator) {
+    this(allocator, DEFAULT_POOLED_THRESHOLD);
+  }
+
+  /**
+   * Create a backing over a Mnemonic memory service.
+   *
+   * @param service   the Mnemonic allocator, e.g. a VolatileMemAllocator
+   * @param threshold the minimum size in bytes of the requests routed to Mnemonic
+   * @param <A>       the type of the Mnemonic allocator
+   * @return the new backing
+   */
+  public static <A extends CommonAllocator<A>> MnemonicBacking of(A service, int threshold) {
+    return new MnemonicBacking(new MnemonicUnpooledByteBufAllocator<A>(true, service), threshold);
+  }
+
+  /**
+   * Create a backing over a Mnemonic memory service, pooling the buffers in chunks of the service
+   * rather than creating and destroying a Mnemonic buffer per request. The pool is owned by the
+   * backing and must be closed with {@link #close()} once all its buffers are released.
+   *
+   * @param service   the Mnemonic allocator, e.g. a VolatileMemAllocator
+   * @param threshold the minimum size in bytes of the requests routed to Mnemonic, at most
+   *                  {@link MnemonicPooledByteBufAllocator#DEFAULT_MAX_POOLED_SIZE}
+   * @param <A>       the type of the Mnemonic allocator
+   * @return the new backing
+   */
+  public static <A extends CommonAllocator<A>> MnemonicBacking pooled(A service, int threshold) {
+    return new MnemonicBacking(new MnemonicPooledByteBufAllocator<A>(service), threshold);
+  }
+
+  /**
+   * Create a pooled backing serving all the requests, see {@link #pooled(CommonAllocator, int)}.
+   *
+   * @param service the Mnemonic allocator, e.g. a VolatileMemAllocator
+   * @param <A>     the type of the Mnemonic allocator
+   * @return the new backing
+   */
+  public static <A extends CommonAllocator<A>> MnemonicBacking pooled(A service) {
+    return pooled(service, DEFAULT_POOLED_THRESHOLD);
+  }
+
+  public ByteBufAllocator getAllocator() {
+    return allocator;
+  }
+
+  public int getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * @param size the size of a request in bytes
+   * @return whether the request should be served by Mnemonic
+   */
+  public boolean routes(int size) {
+    return size >= threshold;
+  }
+
+  /**
+   * Give the chunks of a pooled backing back to the Mnemonic service. Does nothing for unpooled
+   * backings.
+   */
+  public void close() {
+    if (allocator instanceof MnemonicPooledByteBufAllocator) {
+      ((MnemonicPooledByteBufAllocator<?>) allocator).close();
+    }
+  }
+
+  @Override
+  public String toString() {
+    Object service = allocator instanceof MnemonicPooledByteBufAllocator ?
+        ((MnemonicPooledByteBufAllocator<?>) allocator).getAllocator() :
+        ((MnemonicUnpooledByteBufAllocator<?>) allocator).getAllocator();
+    return "MnemonicBacking[" + service + ", threshold=" + threshold + "]";
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.arrow.memory;
+
+/**
+ * The JMX view of the Netty based pool all allocators draw their buffers from, see
+ * {@link MemoryMetrics#registerPool()}. Huge buffers are those beyond a chunk, normal buffers
+ * come from the pooled arenas and Mnemonic buffers are served by a Mnemonic backing. Normal
+ * buffers are only counted with assertions enabled or with the
+ * {@value io.netty.buffer.PooledByteBufAllocatorL#POOL_METRICS} system property set to true.
+ */
+public interface PooledAllocatorMXBean {
+
+  int getChunkSize();
+
+  int getDirectArenaCount();
+
+  long getHugeBufferCount();
+
+  long getHugeBufferSize();
+
+  long getNormalBufferCount();
+
+  long getNormalBufferSize();
+
+  long getMnemonicBufferCount();
+
+  long getMnemonicBufferSize();
+
+  /**
+   * @return the usage of the chunks of each arena, as reported by Netty
+   */
+  String getArenaStatus();
+}
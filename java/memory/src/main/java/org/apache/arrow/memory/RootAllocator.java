@@ -18,6 +18,8 @@
 
 package org.apache.arrow.memory;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import com.google.common.annotations.VisibleForTesting;
 
 /**
@@ -34,6 +36,47 @@ public class RootAllocator extends BaseAllocator {
     super(listener, "ROOT", 0, limit);
   }
 
+  /**
+   * Create a root allocator whose large buffers are served by a Mnemonic memory service.
+   *
+   * @param listener the listener notified of allocations
+   * @param limit    the maximum amount of memory that can be allocated
+   * @param backing  the Mnemonic backing, inherited by the child allocators
+   */
+  public RootAllocator(final AllocationListener listener, final long limit,
+                       final MnemonicBacking backing) {
+    super(listener, backing, "ROOT", 0, limit);
+  }
+
+  /**
+   * Create a root allocator accounting for its own allocations in leases, see
+   * {@link BufferAllocator#newChildAllocator(String, long, long, MnemonicBacking, long)}.
+   *
+   * @param listener  the listener notified of allocations
+   * @param limit     the maximum amount of memory that can be allocated
+   * @param backing   the Mnemonic backing, inherited by the child allocators, or null for none
+   * @param leaseSize the size of the leases, or zero to account for every allocation
+   */
+  public RootAllocator(final AllocationListener listener, final long limit,
+                       final MnemonicBacking backing, final long leaseSize) {
+    super(listener, backing, "ROOT", 0, limit, leaseSize);
+  }
+
+  // allocations of the whole tree waiting for memory to be released, see setAllocationTimeout
+  final Object releaseMonitor = new Object();
+  final AtomicInteger releaseWaiters = new AtomicInteger();
+
+  /**
+   * Wakes up the allocations waiting for memory, if any.
+   */
+  void signalRelease() {
+    if (releaseWaiters.get() > 0) {
+      synchronized (releaseMonitor) {
+        releaseMonitor.notifyAll();
+      }
+    }
+  }
+
   /**
    * Verify the accounting state of the allocation system.
    */
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.memory;
+
+/**
+ * An {@link AllocationListener} that is given a chance to free memory when an allocation exceeds
+ * an allocator limit, for instance by spilling the batches it holds to disk with an
+ * ArrowFileWriter and releasing their buffers. Allocators check whether their listener implements
+ * this interface and retry the allocation as long as the listener reports progress, up to 16
+ * times per allocation.
+ * <p>
+ * The listener is called on the thread of the failed allocation. Allocations it makes itself
+ * while spilling are not handed back to it: if they fail, they fail at once.
+ */
+public interface SpillListener extends AllocationListener {
+
+  /**
+   * Called when an allocation exceeds the limit of an allocator or of one of its ancestors.
+   *
+   * @param allocator the allocator the allocation was made from
+   * @param size      the size of the refused allocation
+   * @return true if memory was freed and the allocation should be attempted again, false to give
+   *     up on it
+   */
+  boolean onAllocationFailure(BufferAllocator allocator, long size);
+
+}
@@ -75,6 +75,127 @@ public class TestAccountant {
     assertEquals(parent.getLimit() - parent.getAllocatedMemory(), parent.getHeadroom());
   }
 
+  @Test
+  public void leased() {
+    final Accountant parent = new Accountant(null, 0, 1000, 0);
+    final Accountant child = new Accountant(parent, 0, 1000, 100);
+    assertEquals(100, child.getLeaseSize());
+
+    assertEquals(AllocationOutcome.SUCCESS, child.allocateBytes(10));
+    assertEquals(10, child.getAllocatedMemory());
+    // the parent accounts for a whole lease
+    assertEquals(110, parent.getAllocatedMemory());
+
+    // served from the lease
+    assertEquals(AllocationOutcome.SUCCESS, child.allocateBytes(50));
+    assertEquals(60, child.getAllocatedMemory());
+    assertEquals(110, parent.getAllocatedMemory());
+    assertEquals(940, child.getHeadroom());
+
+    // released memory stays as credit up to the slack
+    child.releaseBytes(60);
+    assertEquals(0, child.getAllocatedMemory());
+    assertEquals(110, parent.getAllocatedMemory());
+
+    // beyond the slack, credit is given back down to one lease
+    assertEquals(AllocationOutcome.SUCCESS, child.allocateBytes(300));
+    assertEquals(510, parent.getAllocatedMemory());
+    child.releaseBytes(300);
+    assertEquals(0, child.getAllocatedMemory());
+    assertEquals(100, parent.getAllocatedMemory());
+
+    child.close();
+    assertEquals(0, parent.getAllocatedMemory());
+    parent.close();
+  }
+
+  @Test
+  public void leasedAncestorCredit() {
+    final Accountant parent = new Accountant(null, 0, 1000, 100);
+    final Accountant child = new Accountant(parent, 0, 1000, 0);
+
+    // the parent keeps 100 bytes of idle credit
+    assertEquals(AllocationOutcome.SUCCESS, parent.allocateBytes(10));
+    assertEquals(10, parent.getAllocatedMemory());
+
+    // the idle credit of the parent is reclaimed rather than failing the child
+    assertEquals(AllocationOutcome.SUCCESS, child.allocateBytes(900));
+    assertEquals(910, parent.getAllocatedMemory());
+
+    // the release of the child goes back to the parent's allocated memory, not to its credit
+    child.releaseBytes(900);
+    assertEquals(10, parent.getAllocatedMemory());
+    assertEquals(AllocationOutcome.SUCCESS, child.allocateBytes(990));
+    child.releaseBytes(990);
+
+    child.close();
+    parent.releaseBytes(10);
+    parent.close();
+    assertEquals(0, parent.getAllocatedMemory());
+  }
+
+  @Test
+  public void leasedLimit() {
+    final Accountant child = new Accountant(null, 0, 150, 100);
+
+    assertEquals(AllocationOutcome.SUCCESS, child.allocateBytes(10));
+    assertEquals(AllocationOutcome.SUCCESS, child.allocateBytes(100));
+    assertEquals(110, child.getAllocatedMemory());
+
+    // no room for another lease, the request alone still fits
+    assertEquals(AllocationOutcome.SUCCESS, child.allocateBytes(30));
+    assertEquals(140, child.getAllocatedMemory());
+
+    // the limit is enforced exactly
+    assertEquals(AllocationOutcome.FAILED_LOCAL, child.allocateBytes(20));
+    assertEquals(140, child.getAllocatedMemory());
+    assertEquals(10, child.getHeadroom());
+
+    assertEquals(false, child.forceAllocate(20));
+    assertEquals(160, child.getAllocatedMemory());
+    assertEquals(true, child.isOverLimit());
+
+    child.releaseBytes(160);
+    assertEquals(0, child.getAllocatedMemory());
+    child.close();
+  }
+
+  @Test
+  public void leasedMultiThread() throws InterruptedException {
+    final Accountant parent = new Accountant(null, 0, Long.MAX_VALUE, 0);
+    final Accountant child = new Accountant(parent, 0, Long.MAX_VALUE, 1024);
+
+    final int numberOfThreads = 16;
+    final int loops = 10000;
+    Thread[] threads = new Thread[numberOfThreads];
+
+    for (int i = 0; i < numberOfThreads; i++) {
+      Thread t = new Thread() {
+
+        @Override
+        public void run() {
+          for (int i = 0; i < loops; i++) {
+            Assert.assertTrue(child.allocateBytes(7).isOk());
+            Assert.assertTrue(child.allocateBytes(64).isOk());
+            child.releaseBytes(64);
+            child.releaseBytes(7);
+          }
+        }
+
+      };
+      threads[i] = t;
+      t.start();
+    }
+
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(0, child.getAllocatedMemory());
+    child.close();
+    assertEquals(0, parent.getAllocatedMemory());
+  }
+
   private void ensureAccurateReservations(Accountant outsideParent) {
     final Accountant parent = new Accountant(outsideParent, 0, 10);
     assertEquals(0, parent.getAllocatedMemory());
@@ -19,11 +19,22 @@
 package org.apache.arrow.memory;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 import org.junit.Ignore;
 import org.junit.Test;
 
@@ -654,6 +665,411 @@ public class TestBaseAllocator {
     }
   }
 
+  @Test
+  public void testWrapDirectBuffer() throws Exception {
+    try (final RootAllocator rootAllocator = new RootAllocator(MAX_ALLOCATION)) {
+      final ByteBuffer direct = ByteBuffer.allocateDirect(1024);
+      direct.putLong(0, 42L);
+      direct.position(0).limit(512);
+
+      final ArrowBuf arrowBuf = rootAllocator.wrap(direct, false);
+      assertEquals(512, arrowBuf.capacity());
+      assertEquals(512, rootAllocator.getAllocatedMemory());
+      assertEquals(42L, Long.reverseBytes(arrowBuf.getLong(0)));
+
+      // writes go to the wrapped memory, no copy is made
+      arrowBuf.setByte(8, 7);
+      assertEquals(7, direct.get(8));
+
+      arrowBuf.release();
+      assertEquals(0, rootAllocator.getAllocatedMemory());
+    }
+  }
+
+  @Test(expected = OutOfMemoryException.class)
+  public void testWrapDirectBufferOverLimit() throws Exception {
+    try (final RootAllocator rootAllocator = new RootAllocator(MAX_ALLOCATION)) {
+      rootAllocator.wrap(ByteBuffer.allocateDirect(2 * MAX_ALLOCATION), false);
+    }
+  }
+
+  @Test
+  public void testConcurrentSliceAndRelease() throws Exception {
+    final int threads = 8;
+    final int iterations = 10000;
+    try (final RootAllocator rootAllocator = new RootAllocator(MAX_ALLOCATION);
+         final BufferAllocator childAllocator = rootAllocator.newChildAllocator("child", 0, MAX_ALLOCATION)) {
+      final ArrowBuf arrowBuf = childAllocator.buffer(MAX_ALLOCATION / 2);
+      final Thread[] workers = new Thread[threads];
+      final Throwable[] failure = new Throwable[1];
+      for (int t = 0; t < threads; t++) {
+        final int offset = t * 8;
+        workers[t] = new Thread() {
+          @Override
+          public void run() {
+            try {
+              for (int i = 0; i < iterations; i++) {
+                // slices share the reference count of the ledger
+                final ArrowBuf slice = arrowBuf.slice(offset, 8);
+                slice.retain();
+                slice.setLong(0, i);
+                slice.release();
+                // associating with the owning allocator again reuses its ledger
+                final ArrowBuf retained = arrowBuf.retain(childAllocator);
+                retained.release();
+              }
+            } catch (Throwable e) {
+              synchronized (failure) {
+                failure[0] = e;
+              }
+            }
+          }
+        };
+        workers[t].start();
+      }
+      for (Thread worker : workers) {
+        worker.join();
+      }
+      if (failure[0] != null) {
+        throw new AssertionError(failure[0]);
+      }
+
+      assertEquals(1, arrowBuf.refCnt());
+      assertEquals(MAX_ALLOCATION / 2, childAllocator.getAllocatedMemory());
+      arrowBuf.release();
+      assertEquals(0, childAllocator.getAllocatedMemory());
+    }
+  }
+
+  @Test
+  public void testMetrics() throws Exception {
+    final AtomicLong released = new AtomicLong();
+    final AtomicLong failed = new AtomicLong();
+    final MemoryEventListener listener = new MemoryEventListener() {
+      @Override
+      public void onAllocation(long size) {
+      }
+
+      @Override
+      public void onRelease(long size) {
+        released.addAndGet(size);
+      }
+
+      @Override
+      public void onFailedAllocation(long size) {
+        failed.addAndGet(size);
+      }
+    };
+
+    try (final RootAllocator rootAllocator = new RootAllocator(listener, MAX_ALLOCATION)) {
+      final AllocatorMetrics metrics = rootAllocator.getMetrics();
+      // nothing is counted until the metrics are enabled, registering them does
+      assertFalse(metrics.isEnabled());
+      final ObjectName name = MemoryMetrics.registerAllocator(rootAllocator);
+      assertTrue(metrics.isEnabled());
+      try {
+        final ArrowBuf arrowBuf1 = rootAllocator.buffer(MAX_ALLOCATION / 4);
+        final ArrowBuf arrowBuf2 = rootAllocator.buffer(MAX_ALLOCATION / 4);
+        assertEquals(2, metrics.getAllocationCount());
+        assertEquals(MAX_ALLOCATION / 2, metrics.getAllocatedBytesTotal());
+        assertEquals(MAX_ALLOCATION / 2, metrics.getAllocatedMemory());
+
+        try {
+          rootAllocator.buffer(MAX_ALLOCATION);
+          fail("allocation beyond the limit should fail");
+        } catch (OutOfMemoryException e) {
+          // expected
+        }
+        assertEquals(1, metrics.getFailedAllocationCount());
+        assertEquals(MAX_ALLOCATION, failed.get());
+
+        // slices share the memory, only the last release gives it back
+        final ArrowBuf slice = arrowBuf1.slice(0, 16);
+        slice.retain();
+        arrowBuf1.release();
+        assertEquals(0, metrics.getReleaseCount());
+        slice.release();
+        arrowBuf2.release();
+        assertEquals(2, metrics.getReleaseCount());
+        assertEquals(MAX_ALLOCATION / 2, metrics.getReleasedBytesTotal());
+        assertEquals(MAX_ALLOCATION / 2, released.get());
+        assertEquals(MAX_ALLOCATION / 2, metrics.getPeakMemoryAllocation());
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(2L, server.getAttribute(name, "AllocationCount"));
+        assertEquals((long) MAX_ALLOCATION, server.getAttribute(name, "Limit"));
+      } finally {
+        MemoryMetrics.unregister(name);
+      }
+    }
+  }
+
+  @Test
+  public void testPoolMetrics() throws Exception {
+    final ObjectName name = MemoryMetrics.registerPool();
+    try (final RootAllocator rootAllocator = new RootAllocator(MAX_ALLOCATION)) {
+      final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      final long normalCount = (Long) server.getAttribute(name, "NormalBufferCount");
+      final ArrowBuf arrowBuf = rootAllocator.buffer(MAX_ALLOCATION / 2);
+      assertEquals(normalCount + 1, server.getAttribute(name, "NormalBufferCount"));
+      assertTrue(((String) server.getAttribute(name, "ArenaStatus")).contains("direct arena"));
+      arrowBuf.release();
+      assertEquals(normalCount, server.getAttribute(name, "NormalBufferCount"));
+    } finally {
+      MemoryMetrics.unregister(name);
+    }
+  }
+
+  @Test
+  public void testSpillListener() throws Exception {
+    final Deque<ArrowBuf> spillable = new ArrayDeque<>();
+    final AtomicInteger spills = new AtomicInteger();
+    final AtomicInteger nestedFailures = new AtomicInteger();
+    final SpillListener listener = new SpillListener() {
+      @Override
+      public void onAllocation(long size) {
+      }
+
+      @Override
+      public boolean onAllocationFailure(BufferAllocator allocator, long size) {
+        // allocations made while spilling are not handed back to the listener
+        try {
+          allocator.buffer(MAX_ALLOCATION).release();
+        } catch (OutOfMemoryException e) {
+          nestedFailures.incrementAndGet();
+        }
+        final ArrowBuf victim = spillable.pollFirst();
+        if (victim == null) {
+          return false;
+        }
+        spills.incrementAndGet();
+        victim.release();
+        return true;
+      }
+    };
+
+    try (final RootAllocator rootAllocator = new RootAllocator(listener, MAX_ALLOCATION);
+         final BufferAllocator childAllocator = rootAllocator.newChildAllocator("spilling", 0, MAX_ALLOCATION)) {
+      for (int i = 0; i < 4; i++) {
+        spillable.addLast(childAllocator.buffer(MAX_ALLOCATION / 4));
+      }
+
+      // two buffers have to be spilled to make room
+      final ArrowBuf arrowBuf = childAllocator.buffer(MAX_ALLOCATION / 2);
+      assertEquals(2, spills.get());
+      assertEquals(2, nestedFailures.get());
+
+      // nothing left to spill
+      try {
+        childAllocator.buffer(MAX_ALLOCATION);
+        fail("allocation beyond the limit should fail");
+      } catch (OutOfMemoryException e) {
+        // expected
+      }
+      assertEquals(4, spills.get());
+
+      arrowBuf.release();
+    }
+  }
+
+  @Test
+  public void testSpillListenerBounded() throws Exception {
+    final AtomicInteger attempts = new AtomicInteger();
+    final SpillListener listener = new SpillListener() {
+      @Override
+      public void onAllocation(long size) {
+      }
+
+      @Override
+      public boolean onAllocationFailure(BufferAllocator allocator, long size) {
+        // reports progress without freeing anything
+        attempts.incrementAndGet();
+        return true;
+      }
+    };
+
+    try (final RootAllocator rootAllocator = new RootAllocator(listener, MAX_ALLOCATION)) {
+      try {
+        rootAllocator.buffer(MAX_ALLOCATION * 2);
+        fail("allocation beyond the limit should fail");
+      } catch (OutOfMemoryException e) {
+        // expected
+      }
+      assertEquals(BaseAllocator.MAX_SPILL_ATTEMPTS, attempts.get());
+    }
+  }
+
+  @Test
+  public void testLeaseSize() throws Exception {
+    try (final RootAllocator rootAllocator =
+             new RootAllocator(AllocationListener.NOOP, MAX_ALLOCATION, null, 4096)) {
+      assertEquals(4096, rootAllocator.getLeaseSize());
+      try (final BufferAllocator childAllocator =
+               rootAllocator.newChildAllocator("leasing", 0, MAX_ALLOCATION, null, 1024)) {
+        assertEquals(1024, ((BaseAllocator) childAllocator).getLeaseSize());
+        final ArrowBuf arrowBuf = childAllocator.buffer(256);
+        assertEquals(256, childAllocator.getAllocatedMemory());
+        // the root accounts for the whole lease
+        assertEquals(256 + 1024, rootAllocator.getAllocatedMemory());
+        arrowBuf.release();
+      }
+      assertEquals(0, rootAllocator.getAllocatedMemory());
+    }
+  }
+
+  @Test
+  public void testVerifyWithLeasedChild() throws Exception {
+    try (final RootAllocator rootAllocator = new RootAllocator(MAX_ALLOCATION)) {
+      try (final BufferAllocator childAllocator =
+               rootAllocator.newChildAllocator("leasing", 0, MAX_ALLOCATION, null, 1024)) {
+        final ArrowBuf arrowBuf = childAllocator.buffer(256);
+        // the idle credit of the lease is accounted by the root but held by no buffer
+        rootAllocator.verify();
+        arrowBuf.release();
+        rootAllocator.verify();
+      }
+      rootAllocator.verify();
+    }
+  }
+
+  @Test
+  public void testAllocationTimeout() throws Exception {
+    try (final RootAllocator rootAllocator = new RootAllocator(MAX_ALLOCATION)) {
+      final BufferAllocator childAllocator = rootAllocator.newChildAllocator("waiting", 0, MAX_ALLOCATION);
+      assertEquals(0, childAllocator.getAllocationTimeout());
+      rootAllocator.setAllocationTimeout(10);
+      try (final BufferAllocator waitingAllocator = rootAllocator.newChildAllocator("waiting", 0, MAX_ALLOCATION)) {
+        assertEquals(10, waitingAllocator.getAllocationTimeout());
+      }
+
+      final ArrowBuf held = rootAllocator.buffer(MAX_ALLOCATION);
+      final long start = System.nanoTime();
+      try {
+        childAllocator.buffer(MAX_ALLOCATION / 2);
+        fail("allocation beyond the limit should fail");
+      } catch (OutOfMemoryException e) {
+        // expected, at once
+      }
+
+      childAllocator.setAllocationTimeout(10000);
+      final Thread releaser = new Thread() {
+        @Override
+        public void run() {
+          try {
+            Thread.sleep(50);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          held.release();
+        }
+      };
+      releaser.start();
+      final ArrowBuf arrowBuf = childAllocator.buffer(MAX_ALLOCATION / 2);
+      releaser.join();
+      assertTrue(System.nanoTime() - start >= 50_000_000L);
+      assertEquals(MAX_ALLOCATION / 2, childAllocator.getAllocatedMemory());
+      arrowBuf.release();
+
+      // the wait is bounded
+      final ArrowBuf filler = rootAllocator.buffer(MAX_ALLOCATION);
+      final long waitStart = System.nanoTime();
+      try {
+        rootAllocator.buffer(MAX_ALLOCATION / 2);
+        fail("allocation beyond the limit should fail");
+      } catch (OutOfMemoryException e) {
+        // expected
+      }
+      assertTrue(System.nanoTime() - waitStart >= 10_000_000L);
+      filler.release();
+      childAllocator.close();
+    }
+  }
+
+  @Test
+  public void testAllocationTimeoutSignaledByReservation() throws Exception {
+    try (final RootAllocator rootAllocator = new RootAllocator(MAX_ALLOCATION)) {
+      final AllocationReservation reservation = rootAllocator.newReservation();
+      assertTrue(reservation.add(MAX_ALLOCATION));
+      rootAllocator.setAllocationTimeout(10000);
+
+      final Thread releaser = new Thread() {
+        @Override
+        public void run() {
+          try {
+            Thread.sleep(50);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          // an unused reservation gives its memory back
+          reservation.close();
+        }
+      };
+      final long start = System.nanoTime();
+      releaser.start();
+      final ArrowBuf arrowBuf = rootAllocator.buffer(MAX_ALLOCATION / 2);
+      releaser.join();
+      // woken up by the release rather than by the timeout
+      assertTrue(System.nanoTime() - start < 5_000_000_000L);
+      arrowBuf.release();
+    }
+  }
+
+  @Test
+  public void testBufferCache() throws Exception {
+    try (final RootAllocator rootAllocator = new RootAllocator(MAX_ALLOCATION)) {
+      final BufferAllocator childAllocator =
+          rootAllocator.newChildAllocator("cached", 0, MAX_ALLOCATION);
+      childAllocator.setBufferCache(MAX_ALLOCATION / 2, 0);
+      childAllocator.getMetrics().setEnabled(true);
+
+      // released memory stays allocated and is handed back to the next buffer of its size
+      final ArrowBuf first = childAllocator.buffer(1000);
+      final long address = first.memoryAddress();
+      first.release();
+      assertEquals(1024, childAllocator.getCachedMemory());
+      assertEquals(1024, rootAllocator.getAllocatedMemory());
+      final ArrowBuf second = childAllocator.buffer(1024);
+      assertEquals(address, second.memoryAddress());
+      assertEquals(1024, second.capacity());
+      assertEquals(1, second.refCnt());
+      assertEquals(0, childAllocator.getCachedMemory());
+      assertEquals(1, childAllocator.getMetrics().getCacheHitCount());
+      second.release();
+
+      // an allocation exceeding the limit frees the cache first
+      final ArrowBuf[] buffers = new ArrowBuf[4];
+      for (int i = 0; i < buffers.length; i++) {
+        buffers[i] = childAllocator.buffer(MAX_ALLOCATION / 4);
+      }
+      assertEquals(0, childAllocator.getCachedMemory());
+
+      // the cache keeps at most its size
+      for (ArrowBuf buffer : buffers) {
+        buffer.release();
+      }
+      assertEquals(MAX_ALLOCATION / 2, childAllocator.getCachedMemory());
+      assertEquals(MAX_ALLOCATION / 2, rootAllocator.getAllocatedMemory());
+
+      // wrapped buffers are not kept
+      childAllocator.wrap(ByteBuffer.allocateDirect(1024), false).release();
+      assertEquals(MAX_ALLOCATION / 2, childAllocator.getCachedMemory());
+
+      // replacing the cache frees it, idle memory is freed as the cache is used
+      childAllocator.setBufferCache(MAX_ALLOCATION, 1);
+      assertEquals(0, rootAllocator.getAllocatedMemory());
+      childAllocator.buffer(1024).release();
+      assertEquals(1024, childAllocator.getCachedMemory());
+      Thread.sleep(10);
+      childAllocator.buffer(512).release();
+      assertEquals(512, childAllocator.getCachedMemory());
+      assertEquals(512, rootAllocator.getAllocatedMemory());
+
+      // closing frees the cache
+      childAllocator.close();
+      assertEquals(0, rootAllocator.getAllocatedMemory());
+    }
+  }
+
   public void assertEquiv(ArrowBuf origBuf, ArrowBuf newBuf) {
     assertEquals(origBuf.readerIndex(), newBuf.readerIndex());
     assertEquals(origBuf.writerIndex(), newBuf.writerIndex());
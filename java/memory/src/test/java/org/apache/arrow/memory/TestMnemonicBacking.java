@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.apache.mnemonic.Utils;
+import org.apache.mnemonic.VolatileMemAllocator;
+
+import io.netty.buffer.ArrowBuf;
+
+public class TestMnemonicBacking {
+
+  private final static int THRESHOLD = 64 * 1024;
+  private final static long MNEMONIC_CAPACITY = 1024 * 1024 * 40;
+  private static VolatileMemAllocator bdmalloc;
+  private static MnemonicBacking backing;
+
+  @BeforeClass
+  public static void setupUpBeforeClass() throws Exception {
+    bdmalloc = new VolatileMemAllocator(
+        Utils.getVolatileMemoryAllocatorService("pmalloc"),
+        MNEMONIC_CAPACITY, "./mnemonic_backing_test.dat");
+    backing = MnemonicBacking.of(bdmalloc, THRESHOLD);
+  }
+
+  @AfterClass
+  public static void tearDownAfterClass() {
+    if (null != bdmalloc) {
+      bdmalloc.close();
+    }
+  }
+
+  private static boolean isMnemonic(ArrowBuf buf) {
+    return buf.unwrap().alloc() == backing.getAllocator();
+  }
+
+  @Test
+  public void testSizeThresholdRouting() throws Exception {
+    try (final RootAllocator rootAllocator =
+             new RootAllocator(AllocationListener.NOOP, Long.MAX_VALUE, backing)) {
+      assertSame(backing, rootAllocator.getBacking());
+
+      final ArrowBuf small = rootAllocator.buffer(THRESHOLD / 2);
+      final ArrowBuf large = rootAllocator.buffer(THRESHOLD);
+      assertFalse(isMnemonic(small));
+      assertTrue(isMnemonic(large));
+      assertEquals(THRESHOLD / 2 + THRESHOLD, rootAllocator.getAllocatedMemory());
+
+      large.setLong(THRESHOLD - 8, 42L);
+      assertEquals(42L, large.getLong(THRESHOLD - 8));
+
+      small.release();
+      large.release();
+      assertEquals(0, rootAllocator.getAllocatedMemory());
+    }
+  }
+
+  @Test
+  public void testMnemonicMemoryNotCached() throws Exception {
+    try (final RootAllocator rootAllocator =
+             new RootAllocator(AllocationListener.NOOP, Long.MAX_VALUE, backing)) {
+      rootAllocator.setBufferCache(4 * THRESHOLD, 0);
+
+      final ArrowBuf small = rootAllocator.buffer(THRESHOLD / 2);
+      final ArrowBuf large = rootAllocator.buffer(THRESHOLD);
+      assertTrue(isMnemonic(large));
+      small.release();
+      large.release();
+      // only the pooled memory is kept, the Mnemonic memory went back to Mnemonic
+      assertEquals(THRESHOLD / 2, rootAllocator.getCachedMemory());
+      assertEquals(THRESHOLD / 2, rootAllocator.getAllocatedMemory());
+
+      final ArrowBuf again = rootAllocator.buffer(THRESHOLD);
+      assertTrue(isMnemonic(again));
+      again.release();
+    }
+  }
+
+  @Test
+  public void testChildAllocatorBacking() throws Exception {
+    try (final RootAllocator rootAllocator = new RootAllocator(Long.MAX_VALUE)) {
+      assertNull(rootAllocator.getBacking());
+
+      try (final BufferAllocator backed =
+               rootAllocator.newChildAllocator("backed", 0, Long.MAX_VALUE, backing);
+           final BufferAllocator grandChild = backed.newChildAllocator("inherited", 0, Long.MAX_VALUE);
+           final BufferAllocator plain = rootAllocator.newChildAllocator("plain", 0, Long.MAX_VALUE)) {
+        assertSame(backing, grandChild.getBacking());
+        assertNull(plain.getBacking());
+
+        final ArrowBuf fromBacked = backed.buffer(THRESHOLD);
+        final ArrowBuf fromGrandChild = grandChild.buffer(THRESHOLD);
+        final ArrowBuf fromPlain = plain.buffer(THRESHOLD);
+        assertTrue(isMnemonic(fromBacked));
+        assertTrue(isMnemonic(fromGrandChild));
+        assertFalse(isMnemonic(fromPlain));
+
+        // ownership can move between allocators with different backings
+        final ArrowBuf transferred = fromBacked.transferOwnership(plain).buffer;
+        fromBacked.release();
+        assertNotSame(fromBacked, transferred);
+        assertTrue(isMnemonic(transferred));
+        assertEquals(2 * THRESHOLD, plain.getAllocatedMemory());
+        // backed still accounts for the buffer of its child
+        assertEquals(THRESHOLD, backed.getAllocatedMemory());
+
+        transferred.release();
+        fromGrandChild.release();
+        fromPlain.release();
+      }
+    }
+  }
+}
@@ -0,0 +1,214 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import org.apache.mnemonic.Utils;
+import org.apache.mnemonic.VolatileMemAllocator;
+
+import io.netty.buffer.ArrowBuf;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.MnemonicPooledByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocatorL;
+
+public class TestMnemonicPooledByteBufAllocator {
+
+  private final static int CHUNK_SIZE = 1024 * 1024;
+  private final static int MAX_POOLED_SIZE = 64 * 1024;
+  private final static long MNEMONIC_CAPACITY = 1024 * 1024 * 40;
+  private static VolatileMemAllocator bdmalloc;
+
+  private MnemonicPooledByteBufAllocator<VolatileMemAllocator> pool;
+
+  @BeforeClass
+  public static void setupUpBeforeClass() throws Exception {
+    bdmalloc = new VolatileMemAllocator(
+        Utils.getVolatileMemoryAllocatorService("pmalloc"),
+        MNEMONIC_CAPACITY, "./mnemonic_pooled_test.dat");
+  }
+
+  @AfterClass
+  public static void tearDownAfterClass() {
+    if (null != bdmalloc) {
+      bdmalloc.close();
+    }
+  }
+
+  @Before
+  public void init() {
+    pool = new MnemonicPooledByteBufAllocator<>(bdmalloc, CHUNK_SIZE, MAX_POOLED_SIZE, 8);
+  }
+
+  @After
+  public void terminate() {
+    pool.close();
+  }
+
+  @Test
+  public void testBlocksAreReused() {
+    ByteBuf buf = pool.directBuffer(1000);
+    assertEquals(1000, buf.capacity());
+    assertEquals(0, buf.writerIndex());
+    assertSame(pool, buf.alloc());
+    long address = buf.memoryAddress();
+    buf.setLong(992, 42L);
+    assertEquals(42L, buf.getLong(992));
+    assertEquals(1, pool.getActiveBufferCount());
+    assertEquals(1024, pool.getActiveBufferSize());
+    buf.release();
+    assertEquals(0, pool.getActiveBufferCount());
+
+    // same size class, same thread: the cached block comes back
+    ByteBuf again = pool.directBuffer(1024);
+    assertEquals(address, again.memoryAddress());
+    again.release();
+
+    // other size classes get other blocks
+    ByteBuf other = pool.directBuffer(2048);
+    assertNotEquals(address, other.memoryAddress());
+    other.release();
+    assertEquals(1, pool.getChunkCount());
+  }
+
+  @Test
+  public void testChunksSmallerThanSlabs() {
+    try (MnemonicPooledByteBufAllocator<VolatileMemAllocator> small =
+             new MnemonicPooledByteBufAllocator<>(bdmalloc, 32 * 1024, 1024, 8)) {
+      List<ByteBuf> buffers = new ArrayList<>();
+      // each chunk holds 32 blocks of 1024 bytes
+      for (int i = 0; i < 40; i++) {
+        ByteBuf buf = small.directBuffer(1024);
+        buf.setInt(1020, i);
+        buffers.add(buf);
+      }
+      for (int i = 0; i < buffers.size(); i++) {
+        assertEquals(i, buffers.get(i).getInt(1020));
+        buffers.get(i).release();
+      }
+      assertEquals(2, small.getChunkCount());
+      assertEquals(0, small.getActiveBufferCount());
+    }
+  }
+
+  @Test
+  public void testManyBuffers() {
+    List<ByteBuf> buffers = new ArrayList<>();
+    for (int round = 0; round < 3; round++) {
+      for (int i = 0; i < 1000; i++) {
+        ByteBuf buf = pool.directBuffer(64 << (i % 6));
+        buf.setInt(0, i);
+        buffers.add(buf);
+      }
+      for (int i = 0; i < buffers.size(); i++) {
+        assertEquals(i, buffers.get(i).getInt(0));
+        buffers.get(i).release();
+      }
+      buffers.clear();
+    }
+    assertEquals(0, pool.getActiveBufferCount());
+    // the later rounds were served from the free lists
+    int chunks = pool.getChunkCount();
+    for (int i = 0; i < 1000; i++) {
+      pool.directBuffer(64 << (i % 6)).release();
+    }
+    assertEquals(chunks, pool.getChunkCount());
+  }
+
+  @Test
+  public void testReleaseOnOtherThread() throws Exception {
+    final List<ByteBuf> buffers = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      buffers.add(pool.directBuffer(4096));
+    }
+    Thread releaser = new Thread() {
+      @Override
+      public void run() {
+        for (ByteBuf buf : buffers) {
+          buf.release();
+        }
+      }
+    };
+    releaser.start();
+    releaser.join();
+    assertEquals(0, pool.getActiveBufferCount());
+  }
+
+  @Test
+  public void testLargeBuffersAreNotPooled() {
+    ByteBuf buf = pool.directBuffer(MAX_POOLED_SIZE + 1);
+    assertEquals(MAX_POOLED_SIZE + 1, buf.capacity());
+    assertEquals(0, pool.getActiveBufferCount());
+    assertEquals(0, pool.getChunkCount());
+    buf.release();
+  }
+
+  @Test
+  public void testPooledBuffersCanNotGrow() {
+    ByteBuf buf = pool.directBuffer(100);
+    assertEquals(100, buf.capacity());
+    assertEquals(100, buf.maxCapacity());
+    buf.release();
+  }
+
+  @Test
+  public void testPooledBacking() throws Exception {
+    MnemonicBacking backing = MnemonicBacking.pooled(bdmalloc);
+    try (final RootAllocator rootAllocator =
+             new RootAllocator(AllocationListener.NOOP, Long.MAX_VALUE, backing)) {
+      MnemonicPooledByteBufAllocator<?> pooled = (MnemonicPooledByteBufAllocator<?>) backing.getAllocator();
+      PooledByteBufAllocatorL inner = AllocationManager.getInnerAllocator();
+      long hugeBufferCount = inner.getHugeBufferCount();
+      long mnemonicBufferCount = inner.getMnemonicBufferCount();
+      List<ArrowBuf> buffers = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        ArrowBuf buf = rootAllocator.buffer(128 + i);
+        assertSame(pooled, buf.unwrap().alloc());
+        buffers.add(buf);
+      }
+      assertEquals(100, pooled.getActiveBufferCount());
+      // Mnemonic buffers have their own metric
+      assertEquals(hugeBufferCount, inner.getHugeBufferCount());
+      assertEquals(mnemonicBufferCount + 100, inner.getMnemonicBufferCount());
+      for (ArrowBuf buf : buffers) {
+        buf.release();
+      }
+      assertEquals(0, pooled.getActiveBufferCount());
+      assertEquals(0, rootAllocator.getAllocatedMemory());
+    } finally {
+      backing.close();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPooledBackingRejectsThresholdBeyondPooledSizes() {
+    new MnemonicBacking(pool, MAX_POOLED_SIZE + 1);
+  }
+}
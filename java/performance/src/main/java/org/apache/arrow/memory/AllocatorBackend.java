@@ -0,0 +1,170 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.memory;
+
+import java.io.File;
+
+import org.apache.mnemonic.Utils;
+import org.apache.mnemonic.VolatileMemAllocator;
+
+/**
+ * The memory backends the benchmarks are parameterized over. A backend is set up for the
+ * duration of a JMH trial and released again in its teardown.
+ * <p>
+ * The Mnemonic backend needs the Mnemonic memory service jars on the classpath (they are copied
+ * to target/service-dist by the root build). Its pool location and capacity can be changed with
+ * the arrow.benchmark.mnemonic.path and arrow.benchmark.mnemonic.capacity system properties.
+ */
+public enum AllocatorBackend {
+
+  /**
+   * The default pooled Netty arenas.
+   */
+  NETTY {
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void tearDown() {
+    }
+  },
+
+  /**
+   * A volatile Mnemonic pool given to the allocators as their {@link MnemonicBacking}: every
+   * request is served by its own Mnemonic buffer.
+   */
+  MNEMONIC {
+    private VolatileMemAllocator mnemonicAllocator;
+    private MnemonicBacking backing;
+
+    @Override
+    public void setUp() {
+      mnemonicAllocator = newMnemonicAllocator();
+      backing = MnemonicBacking.of(mnemonicAllocator, 0);
+    }
+
+    @Override
+    public RootAllocator newRootAllocator(long limit) {
+      return new RootAllocator(AllocationListener.NOOP, limit, backing);
+    }
+
+    @Override
+    public void tearDown() {
+      backing = null;
+      if (mnemonicAllocator != null) {
+        mnemonicAllocator.close();
+        mnemonicAllocator = null;
+      }
+    }
+  },
+
+  /**
+   * A volatile Mnemonic pool given to the allocators as their {@link MnemonicBacking}: only
+   * requests beyond a Netty chunk are served by Mnemonic.
+   */
+  MNEMONIC_LARGE {
+    private VolatileMemAllocator mnemonicAllocator;
+    private MnemonicBacking backing;
+
+    @Override
+    public void setUp() {
+      mnemonicAllocator = newMnemonicAllocator();
+      backing = MnemonicBacking.of(mnemonicAllocator, MnemonicBacking.DEFAULT_THRESHOLD);
+    }
+
+    @Override
+    public RootAllocator newRootAllocator(long limit) {
+      return new RootAllocator(AllocationListener.NOOP, limit, backing);
+    }
+
+    @Override
+    public void tearDown() {
+      backing = null;
+      if (mnemonicAllocator != null) {
+        mnemonicAllocator.close();
+        mnemonicAllocator = null;
+      }
+    }
+  },
+
+  /**
+   * A volatile Mnemonic pool given to the allocators through a pooling {@link MnemonicBacking}:
+   * every request is served by Mnemonic, from size-classed blocks of large Mnemonic chunks.
+   */
+  MNEMONIC_POOLED {
+    private VolatileMemAllocator mnemonicAllocator;
+    private MnemonicBacking backing;
+
+    @Override
+    public void setUp() {
+      mnemonicAllocator = newMnemonicAllocator();
+      backing = MnemonicBacking.pooled(mnemonicAllocator);
+    }
+
+    @Override
+    public RootAllocator newRootAllocator(long limit) {
+      return new RootAllocator(AllocationListener.NOOP, limit, backing);
+    }
+
+    @Override
+    public void tearDown() {
+      if (backing != null) {
+        backing.close();
+        backing = null;
+      }
+      if (mnemonicAllocator != null) {
+        mnemonicAllocator.close();
+        mnemonicAllocator = null;
+      }
+    }
+  };
+
+  public static final String MNEMONIC_PATH_PROPERTY = "arrow.benchmark.mnemonic.path";
+  public static final String MNEMONIC_CAPACITY_PROPERTY = "arrow.benchmark.mnemonic.capacity";
+  private static final long DEFAULT_MNEMONIC_CAPACITY = 2L * 1024 * 1024 * 1024;
+
+  /**
+   * Set up this backend before allocators are created with {@link #newRootAllocator(long)}.
+   */
+  public abstract void setUp();
+
+  /**
+   * Create the root allocator a benchmark allocates from, once the backend is set up.
+   *
+   * @param limit the limit of the allocator
+   * @return the new allocator
+   */
+  public RootAllocator newRootAllocator(long limit) {
+    return new RootAllocator(limit);
+  }
+
+  /**
+   * Uninstall this backend and release any resources held by it.
+   */
+  public abstract void tearDown();
+
+  private static VolatileMemAllocator newMnemonicAllocator() {
+    final String path = System.getProperty(MNEMONIC_PATH_PROPERTY,
+        new File(System.getProperty("java.io.tmpdir"), "arrow_benchmark.dat").getPath());
+    final long capacity = Long.getLong(MNEMONIC_CAPACITY_PROPERTY, DEFAULT_MNEMONIC_CAPACITY);
+    return new VolatileMemAllocator(
+        Utils.getVolatileMemoryAllocatorService("pmalloc"), capacity, path);
+  }
+}
@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.memory;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Benchmarks for {@link BaseAllocator#buffer(int)} followed by {@link ArrowBuf#release()}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AllocatorBenchmarks {
+
+  private static final int BUFFERS_PER_BATCH = 16;
+
+  @Param({"NETTY", "MNEMONIC", "MNEMONIC_LARGE", "MNEMONIC_POOLED"})
+  public AllocatorBackend backend;
+
+  /**
+   * Size in bytes of each allocated buffer.
+   */
+  @Param({"64", "4096", "1048576", "33554432"})
+  public int bufferSize;
+
+  private BufferAllocator root;
+  private BufferAllocator child;
+  private final ArrowBuf[] buffers = new ArrowBuf[BUFFERS_PER_BATCH];
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    backend.setUp();
+    root = backend.newRootAllocator(Long.MAX_VALUE);
+    child = root.newChildAllocator("benchmark", 0, Long.MAX_VALUE);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    child.close();
+    root.close();
+    backend.tearDown();
+  }
+
+  /**
+   * Allocate and release a single buffer from the root allocator.
+   */
+  @Benchmark
+  public int allocateRelease() {
+    final ArrowBuf buffer = root.buffer(bufferSize);
+    final int capacity = buffer.capacity();
+    buffer.release();
+    return capacity;
+  }
+
+  /**
+   * Allocate and release a single buffer from a child allocator, which has to walk the
+   * accounting chain to the root.
+   */
+  @Benchmark
+  public int childAllocateRelease() {
+    final ArrowBuf buffer = child.buffer(bufferSize);
+    final int capacity = buffer.capacity();
+    buffer.release();
+    return capacity;
+  }
+
+  /**
+   * Allocate a batch of buffers before releasing any of them, so that the allocator can not just
+   * hand back the buffer it was given a moment ago.
+   */
+  @Benchmark
+  @OperationsPerInvocation(BUFFERS_PER_BATCH)
+  public long allocateReleaseBatch() {
+    long total = 0;
+    for (int i = 0; i < BUFFERS_PER_BATCH; i++) {
+      buffers[i] = child.buffer(bufferSize);
+      total += buffers[i].capacity();
+    }
+    for (int i = 0; i < BUFFERS_PER_BATCH; i++) {
+      buffers[i].release();
+      buffers[i] = null;
+    }
+    return total;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(AllocatorBenchmarks.class.getSimpleName())
+        .build();
+    new Runner(opt).run();
+  }
+}
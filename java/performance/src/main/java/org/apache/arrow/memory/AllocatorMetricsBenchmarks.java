@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.memory;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Compares allocations from an allocator shared by several threads with and without
+ * {@link AllocatorMetrics} counting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+@Threads(4)
+public class AllocatorMetricsBenchmarks {
+
+  @Param({"false", "true"})
+  public boolean metrics;
+
+  /**
+   * Size in bytes of each allocated buffer.
+   */
+  @Param({"64", "4096"})
+  public int bufferSize;
+
+  private BufferAllocator root;
+  private BufferAllocator child;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    root = new RootAllocator(Long.MAX_VALUE);
+    child = root.newChildAllocator("benchmark", 0, Long.MAX_VALUE);
+    root.getMetrics().setEnabled(metrics);
+    child.getMetrics().setEnabled(metrics);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    child.close();
+    root.close();
+  }
+
+  /**
+   * Allocate and release a single buffer from the child allocator shared by all the threads.
+   */
+  @Benchmark
+  public int sharedChildAllocateRelease() {
+    final ArrowBuf buffer = child.buffer(bufferSize);
+    final int capacity = buffer.capacity();
+    buffer.release();
+    return capacity;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(AllocatorMetricsBenchmarks.class.getSimpleName())
+        .build();
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.AllocatorBackend;
+import org.apache.arrow.memory.BufferAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks for filling a vector through the Mutator.setSafe loop that writers and ingest code
+ * use. Every invocation starts from a freshly allocated vector, so the reallocations triggered
+ * by setSafe are part of the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VectorBenchmarks {
+
+  @Param({"NETTY", "MNEMONIC", "MNEMONIC_LARGE", "MNEMONIC_POOLED"})
+  public AllocatorBackend backend;
+
+  /**
+   * Number of values written per invocation.
+   */
+  @Param({"1024", "65536", "1048576"})
+  public int batchSize;
+
+  private BufferAllocator allocator;
+  private NullableIntVector intVector;
+  private NullableVarCharVector varCharVector;
+  private byte[][] values;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    backend.setUp();
+    allocator = backend.newRootAllocator(Long.MAX_VALUE);
+    intVector = new NullableIntVector("int", allocator);
+    varCharVector = new NullableVarCharVector("varchar", allocator);
+    values = new byte[256][];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = ("value-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    intVector.close();
+    varCharVector.close();
+    allocator.close();
+    backend.tearDown();
+  }
+
+  @Benchmark
+  public int setSafeInt() {
+    intVector.allocateNew();
+    final NullableIntVector.Mutator mutator = intVector.getMutator();
+    for (int i = 0; i < batchSize; i++) {
+      if (i % 16 == 0) {
+        mutator.setNull(i);
+      } else {
+        mutator.setSafe(i, i);
+      }
+    }
+    mutator.setValueCount(batchSize);
+    final int nullCount = intVector.getAccessor().getNullCount();
+    intVector.clear();
+    return nullCount;
+  }
+
+  @Benchmark
+  public int setSafeVarChar() {
+    varCharVector.allocateNew();
+    final NullableVarCharVector.Mutator mutator = varCharVector.getMutator();
+    for (int i = 0; i < batchSize; i++) {
+      final byte[] value = values[i & (values.length - 1)];
+      mutator.setSafe(i, value, 0, value.length);
+    }
+    mutator.setValueCount(batchSize);
+    final int bufferSize = varCharVector.getBufferSize();
+    varCharVector.clear();
+    return bufferSize;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(VectorBenchmarks.class.getSimpleName())
+        .build();
+    new Runner(opt).run();
+  }
+}
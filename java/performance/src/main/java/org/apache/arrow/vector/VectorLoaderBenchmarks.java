@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector;
+
+import static java.util.Arrays.asList;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.AllocatorBackend;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.schema.ArrowRecordBatch;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks for a {@link VectorUnloader} to {@link VectorLoader} round trip, i.e. the in-memory
+ * hand-off of a record batch between two VectorSchemaRoots.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VectorLoaderBenchmarks {
+
+  @Param({"NETTY", "MNEMONIC", "MNEMONIC_LARGE", "MNEMONIC_POOLED"})
+  public AllocatorBackend backend;
+
+  /**
+   * Number of rows in the record batch.
+   */
+  @Param({"1024", "65536", "1048576"})
+  public int batchSize;
+
+  private BufferAllocator allocator;
+  private VectorSchemaRoot source;
+  private VectorSchemaRoot target;
+  private VectorUnloader unloader;
+  private VectorLoader loader;
+
+  /**
+   * The schema shared by the vector and IPC benchmarks: a nullable int and a nullable varchar
+   * column.
+   */
+  public static Schema schema() {
+    return new Schema(asList(
+        new Field("int", FieldType.nullable(MinorType.INT.getType()), null),
+        new Field("varchar", FieldType.nullable(MinorType.VARCHAR.getType()), null)));
+  }
+
+  /**
+   * Populate a root created from {@link #schema()} with rowCount rows.
+   *
+   * @param root     the root to fill
+   * @param rowCount the number of rows to write
+   */
+  public static void populate(VectorSchemaRoot root, int rowCount) {
+    final NullableIntVector ints = (NullableIntVector) root.getVector("int");
+    final NullableVarCharVector strings = (NullableVarCharVector) root.getVector("varchar");
+    ints.allocateNew(rowCount);
+    strings.allocateNew(rowCount * 8, rowCount);
+    for (int i = 0; i < rowCount; i++) {
+      final byte[] value = Integer.toHexString(i).getBytes(StandardCharsets.UTF_8);
+      ints.getMutator().setSafe(i, i);
+      strings.getMutator().setSafe(i, value, 0, value.length);
+    }
+    ints.getMutator().setValueCount(rowCount);
+    strings.getMutator().setValueCount(rowCount);
+    root.setRowCount(rowCount);
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    backend.setUp();
+    allocator = backend.newRootAllocator(Long.MAX_VALUE);
+    source = VectorSchemaRoot.create(schema(), allocator);
+    target = VectorSchemaRoot.create(schema(), allocator);
+    populate(source, batchSize);
+    unloader = new VectorUnloader(source);
+    loader = new VectorLoader(target);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    source.close();
+    target.close();
+    allocator.close();
+    backend.tearDown();
+  }
+
+  @Benchmark
+  public int unloadLoad() {
+    try (ArrowRecordBatch batch = unloader.getRecordBatch()) {
+      loader.load(batch);
+    }
+    return target.getRowCount();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(VectorLoaderBenchmarks.class.getSimpleName())
+        .build();
+    new Runner(opt).run();
+  }
+}
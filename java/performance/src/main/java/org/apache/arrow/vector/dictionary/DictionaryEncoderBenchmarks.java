@@ -0,0 +1,123 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.arrow.vector.dictionary;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.NullableVarCharVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks for dictionary encoding a string column, the common case for writers that dictionary
+ * encode low cardinality columns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DictionaryEncoderBenchmarks {
+
+  /**
+   * Number of values encoded per invocation.
+   */
+  @Param({"65536", "1048576"})
+  public int batchSize;
+
+  /**
+   * Number of distinct values in the column.
+   */
+  @Param({"16", "4096"})
+  public int cardinality;
+
+  private BufferAllocator allocator;
+  private NullableVarCharVector vector;
+  private NullableVarCharVector dictionaryVector;
+  private Dictionary dictionary;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    vector = new NullableVarCharVector("values", allocator);
+    dictionaryVector = new NullableVarCharVector("dictionary", allocator);
+
+    dictionaryVector.allocateNew();
+    for (int i = 0; i < cardinality; i++) {
+      byte[] value = ("dictionary-value-" + i).getBytes(StandardCharsets.UTF_8);
+      dictionaryVector.getMutator().setSafe(i, value, 0, value.length);
+    }
+    dictionaryVector.getMutator().setValueCount(cardinality);
+
+    vector.allocateNew();
+    for (int i = 0; i < batchSize; i++) {
+      if (i % 16 == 0) {
+        continue;
+      }
+      byte[] value = ("dictionary-value-" + ((i * 31) % cardinality)).getBytes(StandardCharsets.UTF_8);
+      vector.getMutator().setSafe(i, value, 0, value.length);
+    }
+    vector.getMutator().setValueCount(batchSize);
+
+    dictionary = new Dictionary(dictionaryVector, new DictionaryEncoding(1L, false, null));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    vector.close();
+    dictionaryVector.close();
+    allocator.close();
+  }
+
+  @Benchmark
+  public int encode() {
+    try (ValueVector encoded = DictionaryEncoder.encode(vector, dictionary)) {
+      return encoded.getAccessor().getValueCount();
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(DictionaryEncoderBenchmarks.class.getSimpleName())
+        .build();
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,127 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.memory.AllocatorBackend;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.VectorLoaderBenchmarks;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.VectorUnloader;
+import org.apache.arrow.vector.file.ArrowBlock;
+import org.apache.arrow.vector.file.ReadChannel;
+import org.apache.arrow.vector.file.WriteChannel;
+import org.apache.arrow.vector.schema.ArrowRecordBatch;
+import org.apache.arrow.vector.util.ByteArrayReadableSeekableByteChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks for {@link MessageSerializer#serialize(WriteChannel, ArrowRecordBatch)} and
+ * {@link MessageSerializer#deserializeRecordBatch(ReadChannel, ArrowBlock, BufferAllocator)}
+ * against in-memory channels, so that only the serialization cost is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MessageSerializerBenchmarks {
+
+  @Param({"NETTY", "MNEMONIC", "MNEMONIC_LARGE", "MNEMONIC_POOLED"})
+  public AllocatorBackend backend;
+
+  /**
+   * Number of rows in the serialized record batch.
+   */
+  @Param({"1024", "65536", "1048576"})
+  public int batchSize;
+
+  private BufferAllocator allocator;
+  private VectorSchemaRoot root;
+  private ArrowRecordBatch batch;
+  private ByteArrayOutputStream out;
+  private byte[] serialized;
+  private ArrowBlock block;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    backend.setUp();
+    allocator = backend.newRootAllocator(Long.MAX_VALUE);
+    root = VectorSchemaRoot.create(VectorLoaderBenchmarks.schema(), allocator);
+    VectorLoaderBenchmarks.populate(root, batchSize);
+    batch = new VectorUnloader(root).getRecordBatch();
+
+    out = new ByteArrayOutputStream((int) batch.computeBodyLength() + 1024);
+    block = MessageSerializer.serialize(new WriteChannel(Channels.newChannel(out)), batch);
+    serialized = out.toByteArray();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    batch.close();
+    root.close();
+    allocator.close();
+    backend.tearDown();
+  }
+
+  @Benchmark
+  public long serialize() throws IOException {
+    out.reset();
+    final ArrowBlock written =
+        MessageSerializer.serialize(new WriteChannel(Channels.newChannel(out)), batch);
+    return written.getBodyLength();
+  }
+
+  @Benchmark
+  public int deserialize() throws IOException {
+    final ReadChannel in = new ReadChannel(new ByteArrayReadableSeekableByteChannel(serialized));
+    try (ArrowRecordBatch deserialized =
+             MessageSerializer.deserializeRecordBatch(in, block, allocator)) {
+      return deserialized.getLength();
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options opt = new OptionsBuilder()
+        .include(MessageSerializerBenchmarks.class.getSimpleName())
+        .build();
+    new Runner(opt).run();
+  }
+}
@@ -0,0 +1,697 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.tools;
+
+import com.google.common.base.Preconditions;
+
+import org.apache.arrow.flatbuf.Message;
+import org.apache.arrow.flatbuf.MessageHeader;
+import org.apache.arrow.flatbuf.RecordBatch;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.OutOfMemoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * A non-blocking server for the Arrow streaming format. A single selector thread multiplexes
+ * any number of client connections; each connection is framed into whole IPC messages
+ * (length prefix, flatbuffer metadata and body) that are handed to a {@link Handler}.
+ * <p>
+ * Every connection gets its own child allocator of the server allocator, limited to
+ * {@code connectionLimit} bytes, from which message metadata and frames are allocated, so a peer
+ * announcing a huge message fails its connection instead of exhausting the heap. Back-pressure is
+ * applied per connection: reading stops while more than {@code writeHighWatermark} bytes are
+ * queued for the peer, or while the next frame does not fit in the connection allocator, and
+ * resumes once the queue has drained to half of the watermark.
+ */
+public class ArrowStreamServer implements AutoCloseable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ArrowStreamServer.class);
+
+  public static final int DEFAULT_WRITE_HIGH_WATERMARK = 4 * 1024 * 1024;
+
+  /** Maximum number of buffers passed to a single gathering write. */
+  private static final int MAX_GATHER = 16;
+
+  /**
+   * Callbacks for the messages of a connection. All methods are invoked on the selector thread
+   * and must not block.
+   */
+  public interface Handler {
+
+    /**
+     * Called for each schema, dictionary batch or record batch message, in stream order.
+     *
+     * @param session the connection the message was read from
+     * @param message the message metadata
+     * @param frame the complete message as it appeared on the wire, including the length prefix.
+     *              It is released after this call returns, use {@link Session#write(ArrowBuf)}
+     *              or retain it to keep it.
+     */
+    void onMessage(Session session, Message message, ArrowBuf frame) throws IOException;
+
+    /**
+     * Called once the peer has sent the end of stream marker or shut down its side of the
+     * connection at a message boundary. No more messages will be read from the session.
+     */
+    void onEndOfStream(Session session) throws IOException;
+
+    /**
+     * Called when the connection is closed, before its allocator is closed.
+     */
+    void onClose(Session session);
+  }
+
+  private final BufferAllocator allocator;
+  private final Handler handler;
+  private final long connectionLimit;
+  private final int writeHighWatermark;
+  private final Selector selector;
+  private final ServerSocketChannel serverChannel;
+  private volatile boolean closed = false;
+
+  private final AtomicLong connectionsAccepted = new AtomicLong();
+  private final AtomicLong activeConnections = new AtomicLong();
+  private final AtomicLong bytesRead = new AtomicLong();
+  private final AtomicLong bytesWritten = new AtomicLong();
+  private final AtomicLong messagesRead = new AtomicLong();
+  private final AtomicLong recordBatchesRead = new AtomicLong();
+  private final AtomicLong rowsRead = new AtomicLong();
+  private final AtomicLong backPressureEvents = new AtomicLong();
+  private final long startNanos;
+
+  public ArrowStreamServer(int port, BufferAllocator allocator, Handler handler) throws IOException {
+    this(port, allocator, handler, allocator.getLimit(), DEFAULT_WRITE_HIGH_WATERMARK);
+  }
+
+  /**
+   * @param port the port to listen on, 0 for an ephemeral port
+   * @param allocator the allocator connection allocators are created from
+   * @param handler the callbacks for the connection messages
+   * @param connectionLimit the maximum memory a connection may hold
+   * @param writeHighWatermark the number of queued outgoing bytes above which a connection stops
+   *                           reading
+   */
+  public ArrowStreamServer(int port, BufferAllocator allocator, Handler handler,
+                           long connectionLimit, int writeHighWatermark) throws IOException {
+    Preconditions.checkArgument(connectionLimit > 0, "connectionLimit must be positive");
+    Preconditions.checkArgument(writeHighWatermark > 0, "writeHighWatermark must be positive");
+    this.allocator = Preconditions.checkNotNull(allocator);
+    this.handler = Preconditions.checkNotNull(handler);
+    this.connectionLimit = connectionLimit;
+    this.writeHighWatermark = writeHighWatermark;
+    this.selector = Selector.open();
+    this.serverChannel = ServerSocketChannel.open();
+    try {
+      serverChannel.configureBlocking(false);
+      serverChannel.socket().bind(new InetSocketAddress(port));
+      serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    } catch (IOException e) {
+      serverChannel.close();
+      selector.close();
+      throw e;
+    }
+    this.startNanos = System.nanoTime();
+  }
+
+  public int port() {
+    return serverChannel.socket().getLocalPort();
+  }
+
+  /**
+   * Runs the selector loop on the calling thread until {@link #close()} is called.
+   */
+  public void run() throws IOException {
+    try {
+      while (!closed) {
+        selector.select();
+        if (closed) {
+          break;
+        }
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+          if (!key.isValid()) {
+            continue;
+          }
+          if (key.isAcceptable()) {
+            accept();
+          } else {
+            Session session = (Session) key.attachment();
+            try {
+              if (key.isWritable()) {
+                session.onWritable();
+              }
+              if (key.isValid() && key.isReadable()) {
+                session.read();
+              }
+            } catch (IOException | RuntimeException e) {
+              LOGGER.warn("Error handling connection " + session.getId(), e);
+              session.closeNow();
+            }
+          }
+        }
+      }
+    } finally {
+      List<Session> sessions = new ArrayList<>();
+      for (SelectionKey key : selector.keys()) {
+        if (key.attachment() instanceof Session) {
+          sessions.add((Session) key.attachment());
+        }
+      }
+      for (Session session : sessions) {
+        session.closeNow();
+      }
+      serverChannel.close();
+      selector.close();
+      LOGGER.info("Server closed. " + getMetrics());
+    }
+  }
+
+  /**
+   * Stops the selector loop; open connections are closed by the thread running {@link #run()}.
+   */
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    selector.wakeup();
+  }
+
+  public Metrics getMetrics() {
+    return new Metrics(System.nanoTime() - startNanos, connectionsAccepted.get(),
+        activeConnections.get(), bytesRead.get(), bytesWritten.get(), messagesRead.get(),
+        recordBatchesRead.get(), rowsRead.get(), backPressureEvents.get());
+  }
+
+  private void accept() throws IOException {
+    SocketChannel channel = serverChannel.accept();
+    if (channel == null) {
+      return;
+    }
+    long id = connectionsAccepted.incrementAndGet();
+    BufferAllocator connectionAllocator;
+    try {
+      channel.configureBlocking(false);
+      channel.socket().setTcpNoDelay(true);
+      connectionAllocator = allocator.newChildAllocator("connection-" + id, 0, connectionLimit);
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Failed to accept connection " + id, e);
+      channel.close();
+      return;
+    }
+    Session session = new Session(id, channel, connectionAllocator);
+    try {
+      session.key = channel.register(selector, SelectionKey.OP_READ, session);
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Failed to register connection " + id, e);
+      channel.close();
+      connectionAllocator.close();
+      return;
+    }
+    activeConnections.incrementAndGet();
+    LOGGER.debug("Accepted connection {} from {}", id, session.getRemoteAddress());
+  }
+
+  /**
+   * A frame queued for writing, with the nio view tracking how much of it has been written.
+   */
+  private static final class PendingWrite {
+    private final ArrowBuf buffer;
+    private final ByteBuffer remaining;
+
+    PendingWrite(ArrowBuf buffer) {
+      this.buffer = buffer;
+      this.remaining = buffer.nioBuffer(0, buffer.writerIndex());
+    }
+  }
+
+  /**
+   * The state of one client connection. Methods must only be called from the selector thread,
+   * that is from within the {@link Handler} callbacks.
+   */
+  public final class Session {
+    private final long id;
+    private final SocketChannel channel;
+    private final BufferAllocator allocator;
+    private SelectionKey key;
+
+    private final ByteBuffer prefix = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+    // the metadata being read, until it is copied into the frame
+    private ArrowBuf metadataBuffer;
+    private ByteBuffer metadata;
+    private Message message;
+    private ArrowBuf frame;
+    private ByteBuffer body;
+
+    private final ArrayDeque<PendingWrite> writes = new ArrayDeque<>();
+    private final ByteBuffer[] gather = new ByteBuffer[MAX_GATHER];
+    private long pendingWriteBytes = 0;
+
+    private boolean reading = true;
+    private boolean backPressured = false;
+    private boolean awaitingMemory = false;
+    private boolean closeWhenFlushed = false;
+    private boolean closed = false;
+
+    Session(long id, SocketChannel channel, BufferAllocator allocator) {
+      this.id = id;
+      this.channel = channel;
+      this.allocator = allocator;
+    }
+
+    public long getId() {
+      return id;
+    }
+
+    /**
+     * @return the allocator of this connection, closed together with the connection
+     */
+    public BufferAllocator getAllocator() {
+      return allocator;
+    }
+
+    public SocketAddress getRemoteAddress() {
+      return channel.socket().getRemoteSocketAddress();
+    }
+
+    /**
+     * @return the number of bytes queued for the peer but not yet written to the socket
+     */
+    public long getPendingWriteBytes() {
+      return pendingWriteBytes;
+    }
+
+    /**
+     * Queues a framed message for the peer. The buffer is retained until it has been written,
+     * it may belong to the allocator of any connection: its memory is then accounted to this
+     * connection, so that the other one can be closed while the frame is queued here.
+     */
+    public void write(ArrowBuf buffer) throws IOException {
+      Preconditions.checkState(!closed && !closeWhenFlushed, "session is closed");
+      if (buffer.writerIndex() == 0) {
+        return;
+      }
+      writes.add(new PendingWrite(buffer.transferOwnership(allocator).buffer));
+      pendingWriteBytes += buffer.writerIndex();
+      flushWrites();
+      updateInterest();
+    }
+
+    /**
+     * Queues the end of stream marker for the peer.
+     */
+    public void writeEndOfStream() throws IOException {
+      ArrowBuf marker = allocator.buffer(4);
+      try {
+        marker.setInt(0, 0);
+        marker.writerIndex(4);
+        write(marker);
+      } finally {
+        marker.release();
+      }
+    }
+
+    /**
+     * Closes the connection once all queued writes have been flushed and the current callback
+     * has returned.
+     */
+    public void close() {
+      if (closed) {
+        return;
+      }
+      closeWhenFlushed = true;
+      reading = false;
+      updateInterest();
+    }
+
+    void read() throws IOException {
+      while (reading && !backPressured && !awaitingMemory && !closed) {
+        if (metadata == null) {
+          int n = channel.read(prefix);
+          if (n < 0) {
+            if (prefix.position() != 0) {
+              throw new IOException("Unexpected end of stream trying to read message length.");
+            }
+            endOfStream();
+            return;
+          }
+          bytesRead.addAndGet(n);
+          if (prefix.hasRemaining()) {
+            return;
+          }
+          int messageLength = prefix.getInt(0);
+          if (messageLength == 0) {
+            endOfStream();
+            return;
+          }
+          if (messageLength < 0) {
+            throw new IOException("Invalid message length " + messageLength);
+          }
+          metadataBuffer = allocate(messageLength);
+          if (metadataBuffer == null) {
+            return;
+          }
+          metadata = metadataBuffer.nioBuffer(0, messageLength);
+        }
+        if (message == null) {
+          int n = channel.read(metadata);
+          if (n < 0) {
+            throw new IOException("Unexpected end of stream trying to read message.");
+          }
+          bytesRead.addAndGet(n);
+          if (metadata.hasRemaining()) {
+            return;
+          }
+          metadata.rewind();
+          message = Message.getRootAsMessage(metadata);
+        }
+        if (frame == null && !allocateFrame()) {
+          return;
+        }
+        if (body.hasRemaining()) {
+          int n = channel.read(body);
+          if (n < 0) {
+            throw new IOException("Unexpected end of stream trying to read message body.");
+          }
+          bytesRead.addAndGet(n);
+          if (body.hasRemaining()) {
+            return;
+          }
+        }
+        dispatch();
+      }
+    }
+
+    /**
+     * Allocates the frame for the current message and moves the metadata into it.
+     *
+     * @return false if the connection is paused, see {@link #allocate(int)}
+     */
+    private boolean allocateFrame() throws IOException {
+      int messageLength = metadata.limit();
+      long frameLength = 4L + messageLength + message.bodyLength();
+      if (message.bodyLength() < 0 || frameLength > Integer.MAX_VALUE) {
+        throw new IOException("Invalid message body length " + message.bodyLength());
+      }
+      frame = allocate((int) frameLength);
+      if (frame == null) {
+        return false;
+      }
+      frame.setInt(0, messageLength);
+      frame.setBytes(4, metadataBuffer, 0, messageLength);
+      frame.writerIndex((int) frameLength);
+      metadataBuffer.release();
+      metadataBuffer = null;
+      metadata = frame.nioBuffer(4, messageLength);
+      message = Message.getRootAsMessage(metadata);
+      body = frame.nioBuffer(4 + messageLength, (int) message.bodyLength());
+      return true;
+    }
+
+    /**
+     * Allocates from the connection allocator, pausing the connection when the buffer does not
+     * fit while there are still queued writes to free memory.
+     *
+     * @return the buffer, or null if the connection is paused until the queued writes are flushed
+     * @throws OutOfMemoryException if the buffer does not fit and nothing is queued
+     */
+    private ArrowBuf allocate(int length) {
+      try {
+        return allocator.buffer(length);
+      } catch (OutOfMemoryException e) {
+        if (writes.isEmpty()) {
+          throw e;
+        }
+        awaitingMemory = true;
+        backPressureEvents.incrementAndGet();
+        updateInterest();
+        return null;
+      }
+    }
+
+    private void dispatch() throws IOException {
+      Message current = message;
+      ArrowBuf currentFrame = frame;
+      prefix.clear();
+      metadata = null;
+      message = null;
+      frame = null;
+      body = null;
+      try {
+        messagesRead.incrementAndGet();
+        if (current.headerType() == MessageHeader.RecordBatch) {
+          RecordBatch recordBatch = (RecordBatch) current.header(new RecordBatch());
+          recordBatchesRead.incrementAndGet();
+          rowsRead.addAndGet(recordBatch.length());
+        }
+        handler.onMessage(this, current, currentFrame);
+      } finally {
+        currentFrame.release();
+      }
+      closeIfFlushed();
+    }
+
+    private void endOfStream() throws IOException {
+      reading = false;
+      updateInterest();
+      handler.onEndOfStream(this);
+      closeIfFlushed();
+    }
+
+    private void closeIfFlushed() {
+      if (closeWhenFlushed && writes.isEmpty()) {
+        closeNow();
+      }
+    }
+
+    void onWritable() throws IOException {
+      flushWrites();
+      if (closed) {
+        return;
+      }
+      closeIfFlushed();
+      if (closed) {
+        return;
+      }
+      boolean resume = awaitingMemory;
+      awaitingMemory = false;
+      updateInterest();
+      if (resume) {
+        read();
+      }
+    }
+
+    private void flushWrites() throws IOException {
+      while (!writes.isEmpty()) {
+        int count = 0;
+        for (PendingWrite write : writes) {
+          if (count == MAX_GATHER) {
+            break;
+          }
+          gather[count++] = write.remaining;
+        }
+        long n = channel.write(gather, 0, count);
+        bytesWritten.addAndGet(n);
+        pendingWriteBytes -= n;
+        while (!writes.isEmpty() && !writes.peek().remaining.hasRemaining()) {
+          writes.poll().buffer.release();
+        }
+        if (n == 0 || count < MAX_GATHER && !writes.isEmpty()) {
+          break;
+        }
+      }
+      for (int i = 0; i < MAX_GATHER; i++) {
+        gather[i] = null;
+      }
+    }
+
+    private void updateInterest() {
+      if (closed || !key.isValid()) {
+        return;
+      }
+      if (!backPressured && pendingWriteBytes > writeHighWatermark) {
+        backPressured = true;
+        backPressureEvents.incrementAndGet();
+      } else if (backPressured && pendingWriteBytes <= writeHighWatermark / 2) {
+        backPressured = false;
+      }
+      int ops = 0;
+      if (reading && !backPressured && !awaitingMemory) {
+        ops |= SelectionKey.OP_READ;
+      }
+      // a connection waiting for memory resumes reading from onWritable, including when a write
+      // of another connection flushed its queue
+      if (!writes.isEmpty() || awaitingMemory) {
+        ops |= SelectionKey.OP_WRITE;
+      }
+      key.interestOps(ops);
+    }
+
+    void closeNow() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      reading = false;
+      if (key != null) {
+        key.cancel();
+      }
+      try {
+        channel.close();
+      } catch (IOException e) {
+        LOGGER.warn("Error closing connection " + id, e);
+      }
+      while (!writes.isEmpty()) {
+        writes.poll().buffer.release();
+      }
+      pendingWriteBytes = 0;
+      if (metadataBuffer != null) {
+        metadataBuffer.release();
+        metadataBuffer = null;
+      }
+      if (frame != null) {
+        frame.release();
+        frame = null;
+      }
+      try {
+        handler.onClose(this);
+      } catch (RuntimeException e) {
+        LOGGER.warn("Error in close handler of connection " + id, e);
+      }
+      try {
+        allocator.close();
+      } catch (RuntimeException e) {
+        LOGGER.warn("Connection " + id + " leaked memory", e);
+      }
+      activeConnections.decrementAndGet();
+      LOGGER.debug("Closed connection {}", id);
+    }
+  }
+
+  /**
+   * A snapshot of the server counters.
+   */
+  public static class Metrics {
+    private final long elapsedNanos;
+    private final long connectionsAccepted;
+    private final long activeConnections;
+    private final long bytesRead;
+    private final long bytesWritten;
+    private final long messagesRead;
+    private final long recordBatchesRead;
+    private final long rowsRead;
+    private final long backPressureEvents;
+
+    Metrics(long elapsedNanos, long connectionsAccepted, long activeConnections, long bytesRead,
+            long bytesWritten, long messagesRead, long recordBatchesRead, long rowsRead,
+            long backPressureEvents) {
+      this.elapsedNanos = elapsedNanos;
+      this.connectionsAccepted = connectionsAccepted;
+      this.activeConnections = activeConnections;
+      this.bytesRead = bytesRead;
+      this.bytesWritten = bytesWritten;
+      this.messagesRead = messagesRead;
+      this.recordBatchesRead = recordBatchesRead;
+      this.rowsRead = rowsRead;
+      this.backPressureEvents = backPressureEvents;
+    }
+
+    public long getElapsedNanos() {
+      return elapsedNanos;
+    }
+
+    public long getConnectionsAccepted() {
+      return connectionsAccepted;
+    }
+
+    public long getActiveConnections() {
+      return activeConnections;
+    }
+
+    public long getBytesRead() {
+      return bytesRead;
+    }
+
+    public long getBytesWritten() {
+      return bytesWritten;
+    }
+
+    public long getMessagesRead() {
+      return messagesRead;
+    }
+
+    public long getRecordBatchesRead() {
+      return recordBatchesRead;
+    }
+
+    public long getRowsRead() {
+      return rowsRead;
+    }
+
+    /**
+     * @return how many times a connection stopped reading because of queued writes or memory
+     */
+    public long getBackPressureEvents() {
+      return backPressureEvents;
+    }
+
+    public double getReadBytesPerSecond() {
+      return perSecond(bytesRead);
+    }
+
+    public double getWrittenBytesPerSecond() {
+      return perSecond(bytesWritten);
+    }
+
+    public double getRowsPerSecond() {
+      return perSecond(rowsRead);
+    }
+
+    private double perSecond(long count) {
+      return elapsedNanos == 0 ? 0 : count * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("connections: %d (%d active), read: %d bytes (%.1f MB/s), " +
+              "written: %d bytes (%.1f MB/s), messages: %d, batches: %d, rows: %d, " +
+              "back-pressure events: %d",
+          connectionsAccepted, activeConnections, bytesRead, getReadBytesPerSecond() / 1e6,
+          bytesWritten, getWrittenBytesPerSecond() / 1e6, messagesRead, recordBatchesRead,
+          rowsRead, backPressureEvents);
+    }
+  }
+}
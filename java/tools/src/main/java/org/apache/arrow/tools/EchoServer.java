@@ -20,6 +20,7 @@ package org.apache.arrow.tools;
 
 import com.google.common.base.Preconditions;
 
+import org.apache.arrow.flatbuf.Message;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.RootAllocator;
 import org.apache.arrow.vector.VectorSchemaRoot;
@@ -29,17 +30,29 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.net.ServerSocket;
 import java.net.Socket;
 
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Echoes every Arrow stream it receives back to the client. Connections are served
+ * concurrently by an {@link ArrowStreamServer}; messages are written back as they were read,
+ * without decoding the buffers.
+ */
 public class EchoServer {
   private static final Logger LOGGER = LoggerFactory.getLogger(EchoServer.class);
-  private final ServerSocket serverSocket;
-  private boolean closed = false;
+  private final BufferAllocator allocator;
+  private final ArrowStreamServer server;
 
   public EchoServer(int port) throws IOException {
     LOGGER.info("Starting echo server.");
-    serverSocket = new ServerSocket(port);
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    try {
+      server = new ArrowStreamServer(port, allocator, new EchoHandler());
+    } catch (IOException e) {
+      allocator.close();
+      throw e;
+    }
     LOGGER.info("Running echo server on port: " + port());
   }
 
@@ -54,39 +67,52 @@ public class EchoServer {
   }
 
   public int port() {
-    return serverSocket.getLocalPort();
+    return server.port();
+  }
+
+  public ArrowStreamServer.Metrics getMetrics() {
+    return server.getMetrics();
   }
 
   public void run() throws IOException {
     try {
-      while (!closed) {
-        LOGGER.info("Waiting to accept new client connection.");
-        Socket clientSocket = serverSocket.accept();
-        LOGGER.info("Accepted new client connection.");
-        try (ClientConnection client = new ClientConnection(clientSocket)) {
-          try {
-            client.run();
-          } catch (IOException e) {
-            LOGGER.warn("Error handling client connection.", e);
-          }
-        }
-        LOGGER.info("Closed connection with client");
-      }
-    } catch (java.net.SocketException ex) {
-      if (!closed) {
-        throw ex;
-      }
+      server.run();
     } finally {
-      serverSocket.close();
-      LOGGER.info("Server closed.");
+      allocator.close();
     }
   }
 
   public void close() throws IOException {
-    closed = true;
-    serverSocket.close();
+    server.close();
+  }
+
+  private static class EchoHandler implements ArrowStreamServer.Handler {
+
+    @Override
+    public void onMessage(ArrowStreamServer.Session session, Message message, ArrowBuf frame)
+        throws IOException {
+      session.write(frame);
+    }
+
+    @Override
+    public void onEndOfStream(ArrowStreamServer.Session session) throws IOException {
+      session.writeEndOfStream();
+      session.close();
+    }
+
+    @Override
+    public void onClose(ArrowStreamServer.Session session) {
+      LOGGER.info("Closed connection with client " + session.getId());
+    }
   }
 
+  /**
+   * Echoes the stream of a single blocking socket.
+   *
+   * @deprecated the server no longer uses it, connections are served by an
+   *     {@link ArrowStreamServer}
+   */
+  @Deprecated
   public static class ClientConnection implements AutoCloseable {
     public final Socket socket;
 
@@ -0,0 +1,210 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.tools;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.arrow.flatbuf.Message;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.NullableIntVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.stream.ArrowStreamReader;
+import org.apache.arrow.vector.stream.ArrowStreamWriter;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.netty.buffer.ArrowBuf;
+
+public class ArrowStreamServerTest {
+
+  private static final int CLIENTS = 8;
+  private static final int BATCHES = 50;
+  private static final int ROWS = 1024;
+
+  private BufferAllocator serverAllocator;
+  private ArrowStreamServer server;
+  private Thread serverThread;
+  // the failure of the selector loop, rethrown on the test thread
+  private volatile Exception serverFailure;
+
+  @Before
+  public void init() throws IOException {
+    serverAllocator = new RootAllocator(Long.MAX_VALUE);
+    // a small watermark and connection limit so that connections are paused while echoing
+    server = new ArrowStreamServer(0, serverAllocator, new ArrowStreamServer.Handler() {
+      @Override
+      public void onMessage(ArrowStreamServer.Session session, Message message, ArrowBuf frame)
+          throws IOException {
+        session.write(frame);
+      }
+
+      @Override
+      public void onEndOfStream(ArrowStreamServer.Session session) throws IOException {
+        session.writeEndOfStream();
+        session.close();
+      }
+
+      @Override
+      public void onClose(ArrowStreamServer.Session session) {
+      }
+    }, 64 * 1024, 8 * 1024);
+    serverThread = new Thread() {
+      @Override
+      public void run() {
+        try {
+          server.run();
+        } catch (IOException | RuntimeException e) {
+          serverFailure = e;
+        }
+      }
+    };
+    serverThread.start();
+  }
+
+  @After
+  public void terminate() throws Exception {
+    server.close();
+    serverThread.join();
+    if (serverFailure != null) {
+      throw serverFailure;
+    }
+    assertEquals(0, serverAllocator.getAllocatedMemory());
+    serverAllocator.close();
+  }
+
+  @Test
+  public void testConcurrentClients() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(2 * CLIENTS);
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE)) {
+      List<Future<Long>> results = new ArrayList<>();
+      for (int i = 0; i < CLIENTS; i++) {
+        results.add(executor.submit(echo(allocator, executor, i)));
+      }
+      long bytes = 0;
+      for (Future<Long> result : results) {
+        bytes += result.get(60, TimeUnit.SECONDS);
+      }
+
+      waitForConnections();
+      ArrowStreamServer.Metrics metrics = server.getMetrics();
+      assertEquals(CLIENTS, metrics.getConnectionsAccepted());
+      assertEquals(0, metrics.getActiveConnections());
+      assertEquals(CLIENTS * BATCHES, metrics.getRecordBatchesRead());
+      assertEquals(CLIENTS * BATCHES * ROWS, metrics.getRowsRead());
+      assertEquals(CLIENTS * (BATCHES + 1), metrics.getMessagesRead());
+      assertEquals(bytes, metrics.getBytesRead());
+      assertEquals(bytes, metrics.getBytesWritten());
+      assertTrue(metrics.getReadBytesPerSecond() > 0);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testOversizedMessageLength() throws Exception {
+    try (Socket socket = new Socket("localhost", server.port())) {
+      // a message length far above the connection limit fails the connection before it is allocated
+      socket.getOutputStream().write(new byte[] {(byte) 0xff, (byte) 0xff, (byte) 0xff, 0x7f});
+      socket.getOutputStream().flush();
+      socket.setSoTimeout(10000);
+      assertEquals(-1, socket.getInputStream().read());
+    }
+    waitForConnections();
+    assertEquals(1, server.getMetrics().getConnectionsAccepted());
+    assertEquals(0, server.getMetrics().getActiveConnections());
+  }
+
+  private void waitForConnections() throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10000;
+    while (server.getMetrics().getActiveConnections() > 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+  }
+
+  /**
+   * Writes a stream on a separate thread while reading the echo back, so that the server
+   * has to throttle the connection rather than the client.
+   */
+  private Callable<Long> echo(final BufferAllocator parent, final ExecutorService executor,
+                              final int client) {
+    return new Callable<Long>() {
+      @Override
+      public Long call() throws Exception {
+        try (BufferAllocator allocator = parent.newChildAllocator("client-" + client, 0, Long.MAX_VALUE);
+             final NullableIntVector vector = new NullableIntVector("ints",
+                 FieldType.nullable(MinorType.INT.getType()), allocator);
+             Socket socket = new Socket("localhost", server.port());
+             ArrowStreamReader reader = new ArrowStreamReader(socket.getInputStream(), allocator)) {
+          final VectorSchemaRoot root = new VectorSchemaRoot(asList(vector.getField()),
+              asList((FieldVector) vector), 0);
+          final ArrowStreamWriter writer = new ArrowStreamWriter(root, null, socket.getOutputStream());
+          Future<?> written = executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+              writer.start();
+              for (int i = 0; i < BATCHES; i++) {
+                vector.allocateNew(ROWS);
+                for (int j = 0; j < ROWS; j++) {
+                  vector.getMutator().set(j, client * i + j);
+                }
+                vector.getMutator().setValueCount(ROWS);
+                root.setRowCount(ROWS);
+                writer.writeBatch();
+              }
+              writer.end();
+              return null;
+            }
+          });
+
+          NullableIntVector readVector = (NullableIntVector) reader.getVectorSchemaRoot()
+              .getFieldVectors().get(0);
+          for (int i = 0; i < BATCHES; i++) {
+            assertTrue(reader.loadNextBatch());
+            assertEquals(ROWS, reader.getVectorSchemaRoot().getRowCount());
+            for (int j = 0; j < ROWS; j++) {
+              assertEquals(client * i + j, readVector.getAccessor().get(j));
+            }
+          }
+          assertFalse(reader.loadNextBatch());
+          written.get();
+          assertEquals(writer.bytesWritten(), reader.bytesRead());
+          return reader.bytesRead();
+        }
+      }
+    };
+  }
+}
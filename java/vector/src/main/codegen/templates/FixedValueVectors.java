@@ -208,12 +208,19 @@ public final class ${className} extends BaseDataValueVector implements FixedWidt
    * @throws org.apache.arrow.memory.OutOfMemoryException if it can't allocate the new buffer
    */
   public void reAlloc() {
+    reAlloc(0);
+  }
+
+  /**
+   * Grows the buffer to at least twice its size and at least minSize bytes, copying its content.
+   */
+  private void reAlloc(long minSize) {
     long baseSize  = allocationSizeInBytes;
     final int currentBufferCapacity = data.capacity();
     if (baseSize < (long)currentBufferCapacity) {
         baseSize = (long)currentBufferCapacity;
     }
-    long newAllocationSize = baseSize * 2L;
+    long newAllocationSize = Math.max(baseSize * 2L, minSize);
     newAllocationSize = BaseAllocator.nextPowerOfTwo(newAllocationSize);
 
     if (newAllocationSize > MAX_ALLOCATION_SIZE) {
@@ -223,14 +230,19 @@ public final class ${className} extends BaseDataValueVector implements FixedWidt
     logger.debug("Reallocating vector [{}]. # of bytes: [{}] -> [{}]", name, allocationSizeInBytes, newAllocationSize);
     final ArrowBuf newBuf = allocator.buffer((int)newAllocationSize);
     newBuf.setBytes(0, data, 0, currentBufferCapacity);
-    final int halfNewCapacity = newBuf.capacity() / 2;
-    newBuf.setZero(halfNewCapacity, halfNewCapacity);
+    newBuf.setZero(currentBufferCapacity, newBuf.capacity() - currentBufferCapacity);
     newBuf.writerIndex(data.writerIndex());
     data.release(1);
     data = newBuf;
     allocationSizeInBytes = (int)newAllocationSize;
   }
 
+  private void ensureValueCapacity(int valueCount) {
+    if (valueCount > getValueCapacity()) {
+      reAlloc((long) valueCount * ${type.width});
+    }
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -742,6 +754,60 @@ public final class ${className} extends BaseDataValueVector implements FixedWidt
 
     </#if> <#-- type.width -->
 
+    <#if (type.width <= 8) && minor.class != "IntervalDay">
+   /**
+    * Set length elements starting at start to the values of an array, growing the vector once
+    * rather than checking its capacity for every value.
+    *
+    * @param start   position of the first element to set
+    * @param values  values to set
+    * @param offset  position of the first value in the array
+    * @param length  number of values to set
+    */
+   public void setSafe(int start, ${minor.javaType!type.javaType}[] values, int offset, int length) {
+     ensureValueCapacity(start + length);
+      <#if type.width == 1>
+     data.setBytes(start, values, offset, length);
+      <#else>
+     // the nio view bypasses the checks of the buffer setters
+     if (data.isReadOnly()) {
+       throw new ReadOnlyBufferException();
+     }
+     data.nioBuffer(start * ${type.width}, length * ${type.width}).order(ByteOrder.LITTLE_ENDIAN)
+         .as${(minor.javaType!type.javaType)?cap_first}Buffer().put(values, offset, length);
+      </#if>
+   }
+
+    </#if>
+   /**
+    * Set count elements starting at start to values laid out as in the data buffer of this vector,
+    * ${type.width} bytes each in little endian order, growing the vector once if needed.
+    *
+    * @param start        position of the first element to set
+    * @param source       buffer holding the values
+    * @param sourceStart  offset of the first value in the buffer
+    * @param count        number of values to set
+    */
+   public void setSafe(int start, ArrowBuf source, int sourceStart, int count) {
+     ensureValueCapacity(start + count);
+     data.setBytes(start * ${type.width}, source, sourceStart, count * ${type.width});
+   }
+
+   /**
+    * Set count elements starting at start to the values at the position of a buffer, laid out as
+    * in the data buffer of this vector, and move the position of the buffer past them.
+    *
+    * @param start   position of the first element to set
+    * @param source  buffer holding the values, in little endian order
+    * @param count   number of values to set
+    */
+   public void setSafe(int start, ByteBuffer source, int count) {
+     ensureValueCapacity(start + count);
+     final int length = count * ${type.width};
+     data.setBytes(start * ${type.width}, source, source.position(), length);
+     source.position(source.position() + length);
+   }
+
    @Override
    public void setValueCount(int valueCount) {
      final int currentValueCapacity = getValueCapacity();
@@ -501,6 +501,11 @@ protected final static byte[] emptyByteArray = new byte[]{};
       return bAccessor.get(index);
     }
 
+    @Override
+    public int getNullCount() {
+      return bits.getAccessor().getNullCount();
+    }
+
     <#if type.major == "VarLen">
     public long getStartEnd(int index){
       return vAccessor.getStartEnd(index);
@@ -600,6 +605,7 @@ protected final static byte[] emptyByteArray = new byte[]{};
     }
     </#if>
 
+    <#if (minor.javaType!type.javaType) != "byte">
     public void setSafe(int index, byte[] value, int start, int length) {
       <#if type.major != "VarLen">
       throw new UnsupportedOperationException();
@@ -612,6 +618,7 @@ protected final static byte[] emptyByteArray = new byte[]{};
       <#if type.major == "VarLen">lastSet = index;</#if>
       </#if>
     }
+    </#if>
 
     public void setSafe(int index, ByteBuffer value, int start, int length) {
       <#if type.major != "VarLen">
@@ -718,6 +725,113 @@ protected final static byte[] emptyByteArray = new byte[]{};
     }
 
     </#if>
+    <#if type.major == "Fixed">
+      <#if (type.width <= 8) && minor.class != "IntervalDay">
+    /**
+     * Set length elements starting at start to the values of an array, all of them defined.
+     *
+     * @param start   position of the first element to set
+     * @param src     values to set
+     * @param offset  position of the first value in the array
+     * @param length  number of values to set
+     */
+    public void setSafe(int start, ${minor.javaType!type.javaType}[] src, int offset, int length) {
+      bits.getMutator().setRangeToOneSafe(start, length);
+      values.getMutator().setSafe(start, src, offset, length);
+      setCount += length;
+    }
+
+      </#if>
+    /**
+     * Set count elements starting at start to values laid out as in the data buffer of this vector,
+     * all of them defined.
+     *
+     * @param start        position of the first element to set
+     * @param source       buffer holding the values
+     * @param sourceStart  offset of the first value in the buffer
+     * @param count        number of values to set
+     */
+    public void setSafe(int start, ArrowBuf source, int sourceStart, int count) {
+      bits.getMutator().setRangeToOneSafe(start, count);
+      values.getMutator().setSafe(start, source, sourceStart, count);
+      setCount += count;
+    }
+
+    /**
+     * Set count elements starting at start to the values at the position of a buffer, all of them
+     * defined, and move the position of the buffer past them.
+     *
+     * @param start   position of the first element to set
+     * @param source  buffer holding the values, in little endian order
+     * @param count   number of values to set
+     */
+    public void setSafe(int start, ByteBuffer source, int count) {
+      bits.getMutator().setRangeToOneSafe(start, count);
+      values.getMutator().setSafe(start, source, count);
+      setCount += count;
+    }
+
+    <#elseif type.major == "Bit">
+    /**
+     * Set length elements starting at start to the values of an array, all of them defined.
+     *
+     * @param start   position of the first element to set
+     * @param src     values to set
+     * @param offset  position of the first value in the array
+     * @param length  number of values to set
+     */
+    public void setSafe(int start, boolean[] src, int offset, int length) {
+      bits.getMutator().setRangeToOneSafe(start, length);
+      values.getMutator().setSafe(start, src, offset, length);
+      setCount += length;
+    }
+
+    <#elseif type.major == "VarLen">
+    /**
+     * Set count elements starting at start to values stored back to back in an array, all of them
+     * defined. Element start + i is set to the bytes from offsets[offset + i] to
+     * offsets[offset + i + 1].
+     *
+     * @param start    position of the first element to set
+     * @param bytes    the bytes of the values
+     * @param offsets  the offsets of the values in the bytes, count + 1 of them are read
+     * @param offset   position of the offset of the first value
+     * @param count    number of values to set
+     */
+    public void setSafe(int start, byte[] bytes, int[] offsets, int offset, int count) {
+      fillEmpties(start);
+      bits.getMutator().setRangeToOneSafe(start, count);
+      values.getMutator().setSafe(start, bytes, offsets, offset, count);
+      setCount += count;
+      lastSet = start + count - 1;
+    }
+
+    </#if>
+    /**
+     * Mark length elements starting at start as defined or null, leaving their values untouched.
+     *
+     * @param start    position of the first element
+     * @param defined  whether each element is defined
+     * @param offset   position of the first flag in the array
+     * @param length   number of elements
+     */
+    public void setValiditySafe(int start, boolean[] defined, int offset, int length) {
+      bits.getMutator().setSafe(start, defined, offset, length);
+    }
+
+    /**
+     * Mark length elements starting at start as defined or null from the bits of a validity
+     * bitmap, leaving their values untouched.
+     *
+     * @param start     position of the first element
+     * @param validity  the validity bitmap to copy
+     * @param bitStart  index of the bit of the first element in the bitmap
+     * @param length    number of elements
+     */
+    public void setValiditySafe(int start, ArrowBuf validity, int bitStart, int length) {
+      bits.getMutator().setSafe(start, validity, bitStart, length);
+    }
+
     <#if minor.class == "Decimal">
     public void set(int index, ${friendlyType} value) {
       bits.getMutator().setToOne(index);
@@ -370,12 +370,19 @@ public final class ${className} extends BaseDataValueVector implements VariableW
   }
 
   public void reAlloc() {
+    reAlloc(0);
+  }
+
+  /**
+   * Grows the data buffer to at least twice its size and at least minSize bytes, copying its content.
+   */
+  private void reAlloc(long minSize) {
     long baseSize = allocationSizeInBytes;
     final int currentBufferCapacity = data.capacity();
     if (baseSize < (long)currentBufferCapacity) {
       baseSize = (long)currentBufferCapacity;
     }
-    long newAllocationSize = baseSize * 2L;
+    long newAllocationSize = Math.max(baseSize * 2L, minSize);
     newAllocationSize = BaseAllocator.nextPowerOfTwo(newAllocationSize);
 
     if (newAllocationSize > MAX_ALLOCATION_SIZE)  {
@@ -557,6 +564,42 @@ public final class ${className} extends BaseDataValueVector implements VariableW
       data.setBytes(currentOffset, bytes, start, length);
     }
 
+    /**
+     * Set count elements starting at start to values stored back to back in an array, growing the
+     * buffers once rather than for every value. Element start + i is set to the bytes from
+     * offsets[offset + i] to offsets[offset + i + 1]. As with the other setters, the elements
+     * before start must have been set.
+     *
+     * @param start    position of the first element to set
+     * @param bytes    the bytes of the values
+     * @param offsets  the offsets of the values in the bytes, count + 1 of them are read
+     * @param offset   position of the offset of the first value
+     * @param count    number of values to set
+     */
+    public void setSafe(int start, byte[] bytes, int[] offsets, int offset, int count) {
+      assert start >= 0;
+
+      final int currentOffset = offsetVector.getAccessor().get(start);
+      final int first = offsets[offset];
+      final int length = offsets[offset + count] - first;
+      if (data.capacity() < (long) currentOffset + length) {
+        reAlloc((long) currentOffset + length);
+      }
+
+      final UInt4Vector.Mutator offsetsMutator = offsetVector.getMutator();
+      final int delta = currentOffset - first;
+      if (delta == 0) {
+        offsetsMutator.setSafe(start + 1, offsets, offset + 1, count);
+      } else {
+        // the last offset first, so that the offset vector grows once
+        offsetsMutator.setSafe(start + count, offsets[offset + count] + delta);
+        for (int i = 1; i < count; i++) {
+          offsetsMutator.set(start + i, offsets[offset + i] + delta);
+        }
+      }
+      data.setBytes(currentOffset, bytes, first, length);
+    }
+
     @Override
     public void setValueLengthSafe(int index, int length) {
       final int offset = offsetVector.getAccessor().get(index);
@@ -27,6 +27,7 @@ import org.apache.arrow.vector.holders.NullableBitHolder;
 import org.apache.arrow.vector.schema.ArrowFieldNode;
 import org.apache.arrow.vector.types.Types.MinorType;
 import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.util.BitmapUtility;
 import org.apache.arrow.vector.util.OversizedAllocationException;
 import org.apache.arrow.vector.util.TransferPair;
 
@@ -61,17 +62,8 @@ public final class BitVector extends BaseDataValueVector implements FixedWidthVe
       if (fieldNode.getNullCount() == 0) {
         // all defined
         // create an all 1s buffer
-        // set full bytes
-        int fullBytesCount = count / 8;
-        for (int i = 0; i < fullBytesCount; ++i) {
-          this.data.setByte(i, 0xFF);
-        }
-        int remainder = count % 8;
-        // set remaining bits
-        if (remainder > 0) {
-          byte bitMask = (byte) (0xFFL >>> ((8 - remainder) & 7));
-          this.data.setByte(fullBytesCount, bitMask);
-        }
+        zeroVector();
+        BitmapUtility.setRange(this.data, 0, count, true);
       } else if (fieldNode.getNullCount() == fieldNode.getLength()) {
         // all null
         // create an all 0s buffer
@@ -209,12 +201,19 @@ public final class BitVector extends BaseDataValueVector implements FixedWidthVe
    * Allocate new buffer with double capacity, and copy data into the new buffer. Replace vector's buffer with new buffer, and release old one
    */
   public void reAlloc() {
+    reAlloc(0);
+  }
+
+  /**
+   * Grows the buffer to at least twice its size and at least minSize bytes, copying its content.
+   */
+  private void reAlloc(long minSize) {
     long baseSize  = allocationSizeInBytes;
     final int currentBufferCapacity = data.capacity();
     if (baseSize < (long)currentBufferCapacity) {
       baseSize = (long)currentBufferCapacity;
     }
-    long newAllocationSize = baseSize * 2L;
+    long newAllocationSize = Math.max(baseSize * 2L, minSize);
     newAllocationSize = BaseAllocator.nextPowerOfTwo(newAllocationSize);
 
     if (newAllocationSize > MAX_ALLOCATION_SIZE) {
@@ -230,6 +229,12 @@ public final class BitVector extends BaseDataValueVector implements FixedWidthVe
     allocationSizeInBytes = curSize;
   }
 
+  private void ensureValueCapacity(int valueCount) {
+    if (valueCount > getValueCapacity()) {
+      reAlloc(getSizeFromCount(valueCount));
+    }
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -285,7 +290,6 @@ public final class BitVector extends BaseDataValueVector implements FixedWidthVe
   public void splitAndTransferTo(int startIndex, int length, BitVector target) {
     assert startIndex + length <= valueCount;
     int firstByteSource = getByteIndex(startIndex);
-    int lastByteSource = getByteIndex(valueCount - 1);
     int byteSizeTarget = getSizeFromCount(length);
     int offset = startIndex % 8;
 
@@ -298,57 +302,16 @@ public final class BitVector extends BaseDataValueVector implements FixedWidthVe
         }
         target.data = data.slice(firstByteSource, byteSizeTarget);
         target.data.retain(1);
-      }
-      else {
-        // Copy data
-        // When the first bit starts from the middle of a byte (offset != 0), copy data from src BitVector.
-        // Each byte in the target is composed by a part in i-th byte, another part in (i+1)-th byte.
-
+      } else {
+        // the first bit starts in the middle of a byte, shift the bits into a new buffer
         target.clear();
         target.allocateNew(byteSizeTarget * 8);
-
-        // TODO maybe do this one word at a time, rather than byte?
-
-        for (int i = 0; i < byteSizeTarget - 1; i++) {
-          byte b1 = getBitsFromCurrentByte(this.data, firstByteSource + i, offset);
-          byte b2 = getBitsFromNextByte(this.data, firstByteSource + i + 1, offset);
-
-          target.data.setByte(i, (b1 + b2));
-        }
-
-        /* Copying the last piece is done in the following manner:
-         * if the source vector has 1 or more bytes remaining, we copy
-         * the last piece as a byte formed by shifting data
-         * from the current byte and the next byte.
-         *
-         * if the source vector has no more bytes remaining
-         * (we are at the last byte), we copy the last piece as a byte
-         * by shifting data from the current byte.
-         */
-        if((firstByteSource + byteSizeTarget - 1) < lastByteSource) {
-          byte b1 = getBitsFromCurrentByte(this.data, firstByteSource + byteSizeTarget - 1, offset);
-          byte b2 = getBitsFromNextByte(this.data, firstByteSource + byteSizeTarget, offset);
-
-          target.data.setByte(byteSizeTarget - 1, b1 + b2);
-        }
-        else {
-          byte b1 = getBitsFromCurrentByte(this.data, firstByteSource + byteSizeTarget - 1, offset);
-
-          target.data.setByte(byteSizeTarget - 1, b1);
-        }
+        BitmapUtility.copyBits(this.data, startIndex, target.data, length);
       }
     }
     target.getMutator().setValueCount(length);
   }
 
-  private static byte getBitsFromCurrentByte(ArrowBuf data, int index, int offset) {
-    return (byte)((data.getByte(index) & 0xFF) >>> offset);
-  }
-
-  private static byte getBitsFromNextByte(ArrowBuf data, int index, int offset) {
-    return (byte)((data.getByte(index) << (8 - offset)));
-  }
-
   private class TransferImpl implements TransferPair {
     BitVector to;
 
@@ -438,20 +401,7 @@ public final class BitVector extends BaseDataValueVector implements FixedWidthVe
      */
     @Override
     public final int getNullCount() {
-      int count = 0;
-      int sizeInBytes = getSizeFromCount(valueCount);
-
-      for (int i = 0; i < sizeInBytes; ++i) {
-        byte byteValue = data.getByte(i);
-        // Java uses two's complement binary representation, hence 11111111_b which is -1 when converted to Int
-        // will have 32bits set to 1. Masking the MSB and then adding it back solves the issue.
-        count += Integer.bitCount(byteValue & 0x7F) - (byteValue >> 7);
-      }
-      int nullCount = (sizeInBytes * 8) - count;
-      // if the valueCount is not a multiple of 8, the bits on the right were counted as null bits
-      int remainder = valueCount % 8;
-      nullCount -= remainder == 0 ? 0 : 8 - remainder;
-      return nullCount;
+      return BitmapUtility.getNullCount(data, valueCount);
     }
   }
 
@@ -506,45 +456,60 @@ public final class BitVector extends BaseDataValueVector implements FixedWidthVe
      * @param count         the number of bits to set
      */
     public void setRangeToOne(int firstBitIndex, int count) {
-      int starByteIndex = byteIndex(firstBitIndex);
-      final int lastBitIndex = firstBitIndex + count;
-      final int endByteIndex = byteIndex(lastBitIndex);
-      final int startByteBitIndex = bitIndex(firstBitIndex);
-      final int endBytebitIndex = bitIndex(lastBitIndex);
-      if (count < 8 && starByteIndex == endByteIndex) {
-        // handles the case where we don't have a first and a last byte
-        byte bitMask = 0;
-        for (int i = startByteBitIndex; i < endBytebitIndex; ++i) {
-          bitMask |= (byte) (1L << i);
-        }
-        byte currentByte = data.getByte(starByteIndex);
-        currentByte |= bitMask;
-        data.setByte(starByteIndex, currentByte);
-      } else {
-        // fill in first byte (if it's not full)
-        if (startByteBitIndex != 0) {
-          byte currentByte = data.getByte(starByteIndex);
-          final byte bitMask = (byte) (0xFFL << startByteBitIndex);
-          currentByte |= bitMask;
-          data.setByte(starByteIndex, currentByte);
-          ++starByteIndex;
-        }
+      BitmapUtility.setRange(data, firstBitIndex, count, true);
+    }
 
-        // fill in one full byte at a time
-        for (int i = starByteIndex; i < endByteIndex; i++) {
-          data.setByte(i, 0xFF);
-        }
+    /**
+     * set count bits to 1 in data starting at firstBitIndex, growing the vector if needed
+     *
+     * @param firstBitIndex the index of the first bit to set
+     * @param count         the number of bits to set
+     */
+    public void setRangeToOneSafe(int firstBitIndex, int count) {
+      ensureValueCapacity(firstBitIndex + count);
+      setRangeToOne(firstBitIndex, count);
+    }
 
-        // fill in the last byte (if it's not full)
-        if (endBytebitIndex != 0) {
-          final int byteIndex = byteIndex(lastBitIndex - endBytebitIndex);
-          byte currentByte = data.getByte(byteIndex);
-          final byte bitMask = (byte) (0xFFL >>> ((8 - endBytebitIndex) & 7));
-          currentByte |= bitMask;
-          data.setByte(byteIndex, currentByte);
+    /**
+     * Set length bits starting at start from an array, growing the vector once if needed.
+     *
+     * @param start  the index of the first bit to set
+     * @param values the values of the bits
+     * @param offset the index of the first value in the array
+     * @param length the number of bits to set
+     */
+    public void setSafe(int start, boolean[] values, int offset, int length) {
+      ensureValueCapacity(start + length);
+      int i = 0;
+      // single bits up to a byte boundary, then whole bytes
+      for (; i < length && bitIndex(start + i) != 0; i++) {
+        set(start + i, values[offset + i] ? 1 : 0);
+      }
+      for (; i + 8 <= length; i += 8) {
+        int b = 0;
+        for (int bit = 0; bit < 8; bit++) {
+          if (values[offset + i + bit]) {
+            b |= 1 << bit;
+          }
         }
-
+        data.setByte(byteIndex(start + i), b);
       }
+      for (; i < length; i++) {
+        set(start + i, values[offset + i] ? 1 : 0);
+      }
+    }
+
+    /**
+     * Copy length bits of a bitmap starting at start, growing the vector once if needed.
+     *
+     * @param start    the index of the first bit to set
+     * @param bitmap   the bits to copy
+     * @param bitStart the index of the first bit to copy in the bitmap
+     * @param length   the number of bits to copy
+     */
+    public void setSafe(int start, ArrowBuf bitmap, int bitStart, int length) {
+      ensureValueCapacity(start + length);
+      BitmapUtility.copyBits(bitmap, bitStart, data, start, length);
     }
 
     /**
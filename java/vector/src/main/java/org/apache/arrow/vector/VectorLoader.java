@@ -24,6 +24,8 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
+import org.apache.arrow.vector.compression.CompressionCodec;
+import org.apache.arrow.vector.compression.CompressionUtility;
 import org.apache.arrow.vector.schema.ArrowFieldNode;
 import org.apache.arrow.vector.schema.ArrowRecordBatch;
 import org.apache.arrow.vector.schema.VectorLayout;
@@ -52,14 +54,16 @@ public class VectorLoader {
   /**
    * Loads the record batch in the vectors
    * will not close the record batch
+   * Compressed buffers are decompressed with the codec registered in {@link CompressionUtility}.
    *
    * @param recordBatch the batch to load
    */
   public void load(ArrowRecordBatch recordBatch) {
     Iterator<ArrowBuf> buffers = recordBatch.getBuffers().iterator();
     Iterator<ArrowFieldNode> nodes = recordBatch.getNodes().iterator();
+    CompressionCodec codec = CompressionUtility.getCodec(recordBatch.getBodyCompression());
     for (FieldVector fieldVector : root.getFieldVectors()) {
-      loadBuffers(fieldVector, fieldVector.getField(), buffers, nodes);
+      loadBuffers(fieldVector, fieldVector.getField(), buffers, nodes, codec);
     }
     root.setRowCount(recordBatch.getLength());
     if (nodes.hasNext() || buffers.hasNext()) {
@@ -67,20 +71,29 @@ public class VectorLoader {
     }
   }
 
-  private void loadBuffers(FieldVector vector, Field field, Iterator<ArrowBuf> buffers, Iterator<ArrowFieldNode> nodes) {
+  private void loadBuffers(FieldVector vector, Field field, Iterator<ArrowBuf> buffers, Iterator<ArrowFieldNode> nodes,
+                           CompressionCodec codec) {
     checkArgument(nodes.hasNext(),
         "no more field nodes for for field " + field + " and vector " + vector);
     ArrowFieldNode fieldNode = nodes.next();
     List<VectorLayout> typeLayout = field.getTypeLayout().getVectors();
     List<ArrowBuf> ownBuffers = new ArrayList<>(typeLayout.size());
-    for (int j = 0; j < typeLayout.size(); j++) {
-      ownBuffers.add(buffers.next());
-    }
     try {
+      for (int j = 0; j < typeLayout.size(); j++) {
+        ArrowBuf buffer = buffers.next();
+        ownBuffers.add(codec == null ? buffer : codec.decompress(vector.getAllocator(), buffer));
+      }
       vector.loadFieldBuffers(fieldNode, ownBuffers);
     } catch (RuntimeException e) {
       throw new IllegalArgumentException("Could not load buffers for field " +
           field + ". error message: " + e.getMessage(), e);
+    } finally {
+      if (codec != null) {
+        // the vector retained the decompressed buffers
+        for (ArrowBuf buffer : ownBuffers) {
+          buffer.release();
+        }
+      }
     }
     List<Field> children = field.getChildren();
     if (children.size() > 0) {
@@ -89,7 +102,7 @@ public class VectorLoader {
       for (int i = 0; i < childrenFromFields.size(); i++) {
         Field child = children.get(i);
         FieldVector fieldVector = childrenFromFields.get(i);
-        loadBuffers(fieldVector, child, buffers, nodes);
+        loadBuffers(fieldVector, child, buffers, nodes, codec);
       }
     }
   }
@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector.compression;
+
+import org.apache.arrow.memory.BufferAllocator;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Base class of codecs, defining the layout of a compressed buffer: the length of the
+ * uncompressed buffer as a 64 bit little endian integer, followed by the compressed bytes.
+ * Buffers that do not get smaller when compressed are stored as they are, with a length of
+ * {@link #NO_COMPRESSION_LENGTH}. Empty buffers are left empty.
+ */
+public abstract class AbstractCompressionCodec implements CompressionCodec {
+
+  public static final int SIZE_PREFIX_LENGTH = 8;
+
+  public static final long NO_COMPRESSION_LENGTH = -1L;
+
+  @Override
+  public ArrowBuf compress(BufferAllocator allocator, ArrowBuf uncompressed) {
+    int length = uncompressed.readableBytes();
+    if (length == 0) {
+      uncompressed.retain();
+      return uncompressed;
+    }
+    // large enough to store the buffer uncompressed if compression does not help
+    ArrowBuf compressed = allocator.buffer(SIZE_PREFIX_LENGTH + length);
+    try {
+      int compressedLength = doCompress(uncompressed, uncompressed.readerIndex(), length,
+          compressed, SIZE_PREFIX_LENGTH, length - 1);
+      if (compressedLength < 0) {
+        compressed.setLong(0, NO_COMPRESSION_LENGTH);
+        compressed.setBytes(SIZE_PREFIX_LENGTH, uncompressed, uncompressed.readerIndex(), length);
+        compressedLength = length;
+      } else {
+        compressed.setLong(0, length);
+      }
+      compressed.writerIndex(SIZE_PREFIX_LENGTH + compressedLength);
+      return compressed;
+    } catch (RuntimeException e) {
+      compressed.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public ArrowBuf decompress(BufferAllocator allocator, ArrowBuf compressed) {
+    int length = compressed.readableBytes();
+    if (length == 0) {
+      compressed.retain();
+      return compressed;
+    }
+    if (length < SIZE_PREFIX_LENGTH) {
+      throw new IllegalArgumentException("Compressed buffer too short: " + length + " bytes");
+    }
+    int start = compressed.readerIndex() + SIZE_PREFIX_LENGTH;
+    long uncompressedLength = compressed.getLong(compressed.readerIndex());
+    if (uncompressedLength == NO_COMPRESSION_LENGTH) {
+      ArrowBuf uncompressed = compressed.slice(start, length - SIZE_PREFIX_LENGTH);
+      uncompressed.retain();
+      return uncompressed;
+    }
+    if (uncompressedLength < 0 || uncompressedLength > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Invalid uncompressed length: " + uncompressedLength);
+    }
+    ArrowBuf uncompressed = allocator.buffer((int) uncompressedLength);
+    try {
+      doDecompress(compressed, start, length - SIZE_PREFIX_LENGTH, uncompressed, 0, (int) uncompressedLength);
+      uncompressed.writerIndex((int) uncompressedLength);
+      return uncompressed;
+    } catch (RuntimeException e) {
+      uncompressed.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Compresses length bytes of src into dst.
+   *
+   * @return the number of compressed bytes written to dst, or -1 if they do not fit in maxLength
+   */
+  protected abstract int doCompress(ArrowBuf src, int srcIndex, int length,
+                                    ArrowBuf dst, int dstIndex, int maxLength);
+
+  /**
+   * Decompresses length bytes of src into exactly uncompressedLength bytes of dst.
+   *
+   * @throws IllegalArgumentException if the compressed bytes are corrupt
+   */
+  protected abstract void doDecompress(ArrowBuf src, int srcIndex, int length,
+                                       ArrowBuf dst, int dstIndex, int uncompressedLength);
+
+  /**
+   * Does nothing, codecs holding resources override it.
+   */
+  @Override
+  public void close() {
+  }
+}
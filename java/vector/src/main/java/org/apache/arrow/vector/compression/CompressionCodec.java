@@ -0,0 +1,58 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector.compression;
+
+import org.apache.arrow.memory.BufferAllocator;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Compresses and decompresses the buffers of record batches written to and read from IPC
+ * messages. Implementations must be thread safe. A codec must not be used once closed, codecs
+ * registered in {@link CompressionUtility} stay open.
+ *
+ * @see AbstractCompressionCodec for the layout of compressed buffers
+ */
+public interface CompressionCodec extends AutoCloseable {
+
+  /**
+   * @return the {@link org.apache.arrow.flatbuf.CompressionType} implemented by this codec
+   */
+  byte getCodecType();
+
+  /**
+   * @param allocator    to allocate the compressed buffer
+   * @param uncompressed the readable bytes of this buffer are compressed, it is not released
+   * @return a new buffer holding the compressed bytes, owned by the caller
+   */
+  ArrowBuf compress(BufferAllocator allocator, ArrowBuf uncompressed);
+
+  /**
+   * @param allocator  to allocate the decompressed buffer
+   * @param compressed the readable bytes of this buffer are decompressed, it is not released
+   * @return a buffer holding the decompressed bytes, owned by the caller
+   */
+  ArrowBuf decompress(BufferAllocator allocator, ArrowBuf compressed);
+
+  /**
+   * Releases the resources held by the codec.
+   */
+  @Override
+  void close();
+}
@@ -0,0 +1,168 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.arrow.vector.compression;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.arrow.flatbuf.BodyCompressionMethod;
+import org.apache.arrow.flatbuf.CompressionType;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.schema.ArrowBodyCompression;
+import org.apache.arrow.vector.schema.ArrowDictionaryBatch;
+import org.apache.arrow.vector.schema.ArrowRecordBatch;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Registry of the codecs available to decompress record batches, and helpers to compress them.
+ * <p>
+ * DEFLATE is available out of the box. Codecs for LZ4_FRAME and ZSTD are not bundled, to avoid
+ * native dependencies: applications that need them implement {@link CompressionCodec}, for
+ * example on top of lz4-java or zstd-jni, and {@link #register(CompressionCodec)} it before
+ * reading.
+ * <p>
+ * The registered codecs are shared by all the readers, so {@link #getCodec(byte)} hands out views
+ * of them that can not be closed.
+ */
+public final class CompressionUtility {
+
+  private static final ConcurrentMap<Byte, CompressionCodec> CODECS = new ConcurrentHashMap<>();
+
+  static {
+    register(new DeflateCompressionCodec());
+  }
+
+  private CompressionUtility() {
+  }
+
+  /**
+   * Registers the codec used to read buffers compressed with its codec type, replacing any codec
+   * previously registered for that type.
+   *
+   * @param codec the codec
+   */
+  public static void register(CompressionCodec codec) {
+    CODECS.put(codec.getCodecType(), new SharedCodec(codec));
+  }
+
+  /**
+   * @param codecType a {@link CompressionType}
+   * @return a view of the codec registered for the type, closing it does nothing
+   * @throws IllegalArgumentException if no codec is registered for the type
+   */
+  public static CompressionCodec getCodec(byte codecType) {
+    CompressionCodec codec = CODECS.get(codecType);
+    if (codec == null) {
+      String name = codecType >= CompressionType.LZ4_FRAME && codecType <= CompressionType.DEFLATE ?
+          CompressionType.name(codecType) : String.valueOf(codecType);
+      throw new IllegalArgumentException("No codec registered for compression type " + name);
+    }
+    return codec;
+  }
+
+  /**
+   * @param bodyCompression the compression of a record batch, may be null
+   * @return the codec to decompress its buffers, or null if they are not compressed
+   */
+  public static CompressionCodec getCodec(ArrowBodyCompression bodyCompression) {
+    if (bodyCompression == null) {
+      return null;
+    }
+    if (bodyCompression.getMethod() != BodyCompressionMethod.BUFFER) {
+      throw new IllegalArgumentException("Unsupported body compression method " + bodyCompression.getMethod());
+    }
+    return getCodec(bodyCompression.getCodec());
+  }
+
+  /**
+   * Compresses each buffer of the batch. The buffers are allocated from the allocators of the
+   * buffers of the batch.
+   *
+   * @param batch an uncompressed batch, not closed
+   * @param codec the codec to compress with
+   * @return a new batch to close, holding the compressed buffers
+   */
+  public static ArrowRecordBatch compress(ArrowRecordBatch batch, CompressionCodec codec) {
+    if (batch.getBodyCompression() != null) {
+      throw new IllegalArgumentException("Batch already compressed: " + batch);
+    }
+    List<ArrowBuf> compressed = new ArrayList<>(batch.getBuffers().size());
+    try {
+      for (ArrowBuf buffer : batch.getBuffers()) {
+        compressed.add(codec.compress(buffer.readableBytes() == 0 ? null : buffer.alloc().unwrap(), buffer));
+      }
+      return new ArrowRecordBatch(batch.getLength(), batch.getNodes(), compressed,
+          new ArrowBodyCompression(codec.getCodecType()));
+    } finally {
+      // the new batch retained the buffers
+      for (ArrowBuf buffer : compressed) {
+        buffer.release();
+      }
+    }
+  }
+
+  /**
+   * @param batch an uncompressed dictionary batch, not closed
+   * @param codec the codec to compress with
+   * @return a new dictionary batch to close, holding the compressed buffers
+   */
+  public static ArrowDictionaryBatch compress(ArrowDictionaryBatch batch, CompressionCodec codec) {
+    return new ArrowDictionaryBatch(batch.getDictionaryId(), compress(batch.getDictionary(), codec), batch.isDelta());
+  }
+
+  /**
+   * A registered codec, shared by every reader, that stays open when a reader closes it.
+   */
+  private static final class SharedCodec implements CompressionCodec {
+
+    private final CompressionCodec codec;
+
+    private SharedCodec(CompressionCodec codec) {
+      this.codec = codec;
+    }
+
+    @Override
+    public byte getCodecType() {
+      return codec.getCodecType();
+    }
+
+    @Override
+    public ArrowBuf compress(BufferAllocator allocator, ArrowBuf uncompressed) {
+      return codec.compress(allocator, uncompressed);
+    }
+
+    @Override
+    public ArrowBuf decompress(BufferAllocator allocator, ArrowBuf compressed) {
+      return codec.decompress(allocator, compressed);
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public String toString() {
+      return codec.toString();
+    }
+  }
+}
@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector.compression;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.arrow.flatbuf.CompressionType;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Raw DEFLATE compression, as implemented by java.util.zip, so available without additional
+ * dependencies.
+ * <p>
+ * Each call takes a {@link Deflater} or an {@link Inflater}, with the heap arrays that
+ * java.util.zip needs before Java 11, from a pool, so concurrent calls run in parallel and the
+ * native state is reused between calls. {@link #close()} releases the native memory of the idle
+ * ones.
+ */
+public class DeflateCompressionCodec extends AbstractCompressionCodec {
+
+  // scratch arrays up to this length are kept between calls, larger ones are allocated per call
+  private static final int MAX_SCRATCH_LENGTH = 1 << 20;
+
+  // idle deflaters and inflaters kept by each codec, the extra ones are released after use
+  private static final int MAX_IDLE = Runtime.getRuntime().availableProcessors();
+
+  private static final byte[] EMPTY = new byte[0];
+
+  private final int level;
+  private final BlockingQueue<Coder<Deflater>> deflaters = new ArrayBlockingQueue<>(MAX_IDLE);
+  private final BlockingQueue<Coder<Inflater>> inflaters = new ArrayBlockingQueue<>(MAX_IDLE);
+  private volatile boolean closed = false;
+
+  public DeflateCompressionCodec() {
+    this(Deflater.BEST_SPEED);
+  }
+
+  /**
+   * @param level the compression level, from {@link Deflater#BEST_SPEED} to
+   *              {@link Deflater#BEST_COMPRESSION}
+   */
+  public DeflateCompressionCodec(int level) {
+    this.level = level;
+  }
+
+  @Override
+  public byte getCodecType() {
+    return CompressionType.DEFLATE;
+  }
+
+  @Override
+  protected int doCompress(ArrowBuf src, int srcIndex, int length, ArrowBuf dst, int dstIndex, int maxLength) {
+    Coder<Deflater> coder = deflaters.poll();
+    if (coder == null) {
+      coder = new Coder<>(new Deflater(level, true));
+    }
+    Deflater deflater = coder.coder;
+    byte[] input = scratch(coder.input, length);
+    byte[] output = scratch(coder.output, maxLength);
+    src.getBytes(srcIndex, input, 0, length);
+    try {
+      deflater.setInput(input, 0, length);
+      deflater.finish();
+      int compressedLength = 0;
+      while (!deflater.finished() && compressedLength < maxLength) {
+        compressedLength += deflater.deflate(output, compressedLength, maxLength - compressedLength);
+      }
+      if (!deflater.finished()) {
+        return -1;
+      }
+      dst.setBytes(dstIndex, output, 0, compressedLength);
+      return compressedLength;
+    } finally {
+      deflater.reset();
+      coder.input = keep(input);
+      coder.output = keep(output);
+      if (closed || !deflaters.offer(coder)) {
+        deflater.end();
+      }
+    }
+  }
+
+  @Override
+  protected void doDecompress(ArrowBuf src, int srcIndex, int length, ArrowBuf dst, int dstIndex,
+                              int uncompressedLength) {
+    Coder<Inflater> coder = inflaters.poll();
+    if (coder == null) {
+      coder = new Coder<>(new Inflater(true));
+    }
+    Inflater inflater = coder.coder;
+    // raw inflate may need an extra dummy byte at the end of the input
+    byte[] input = scratch(coder.input, length + 1);
+    byte[] output = scratch(coder.output, uncompressedLength);
+    src.getBytes(srcIndex, input, 0, length);
+    input[length] = 0;
+    try {
+      inflater.setInput(input, 0, length + 1);
+      int decompressedLength = 0;
+      while (!inflater.finished() && decompressedLength < uncompressedLength) {
+        int inflated = inflater.inflate(output, decompressedLength, uncompressedLength - decompressedLength);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        decompressedLength += inflated;
+      }
+      if (decompressedLength != uncompressedLength) {
+        throw new IllegalArgumentException("Corrupt compressed buffer: expected " + uncompressedLength +
+            " bytes, decompressed " + decompressedLength);
+      }
+      dst.setBytes(dstIndex, output, 0, uncompressedLength);
+    } catch (DataFormatException e) {
+      throw new IllegalArgumentException("Corrupt compressed buffer", e);
+    } finally {
+      inflater.reset();
+      coder.input = keep(input);
+      coder.output = keep(output);
+      if (closed || !inflaters.offer(coder)) {
+        inflater.end();
+      }
+    }
+  }
+
+  /**
+   * @return the array if it is long enough, or a new one
+   */
+  private static byte[] scratch(byte[] array, int length) {
+    return array.length >= length ? array : new byte[length];
+  }
+
+  /**
+   * @return the array to reuse in the next call
+   */
+  private static byte[] keep(byte[] array) {
+    return array.length <= MAX_SCRATCH_LENGTH ? array : EMPTY;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    for (Coder<Deflater> coder = deflaters.poll(); coder != null; coder = deflaters.poll()) {
+      coder.coder.end();
+    }
+    for (Coder<Inflater> coder = inflaters.poll(); coder != null; coder = inflaters.poll()) {
+      coder.coder.end();
+    }
+  }
+
+  /**
+   * A deflater or an inflater with the scratch arrays of its last call, used by one call at a time.
+   */
+  private static final class Coder<T> {
+    private final T coder;
+    private byte[] input = EMPTY;
+    private byte[] output = EMPTY;
+
+    private Coder(T coder) {
+      this.coder = coder;
+    }
+  }
+}
@@ -0,0 +1,360 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.arrow.vector.compute;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.schema.ArrowFieldNode;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.util.BitmapUtility;
+import org.apache.arrow.vector.util.TypeWidthUtility;
+
+import com.google.common.base.Preconditions;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Kernels materializing a selection of the rows of a vector into a new vector.
+ *
+ * The selection is turned into a buffer of row indices and the buffers of the output are gathered
+ * directly from the buffers of the input, per type: fixed width values are copied by runs of
+ * consecutive rows, variable width values and list offsets are rebased, and nested vectors recurse
+ * into their children with the selection of their child rows. Every output buffer is allocated
+ * once at its exact size and loaded into the output vector, as {@link org.apache.arrow.vector.VectorLoader}
+ * does, so there are no per row bounds checks or reallocations.
+ */
+public final class SelectionKernels {
+
+  private static final int INDEX_WIDTH = 4;
+
+  private SelectionKernels() {
+  }
+
+  /**
+   * @param vector    the values to filter
+   * @param predicate one bit per row of the vector, the rows whose bit is set are kept
+   * @return a new vector, allocated from the allocator of the vector, with the selected rows
+   */
+  public static FieldVector filter(FieldVector vector, BitVector predicate) {
+    return filter(vector, predicate, vector.getAllocator());
+  }
+
+  /**
+   * @param vector    the values to filter
+   * @param predicate one bit per row of the vector, the rows whose bit is set are kept
+   * @param allocator allocator for the output vector
+   * @return a new vector with the selected rows
+   */
+  public static FieldVector filter(FieldVector vector, BitVector predicate, BufferAllocator allocator) {
+    int valueCount = vector.getAccessor().getValueCount();
+    Preconditions.checkArgument(predicate.getAccessor().getValueCount() == valueCount,
+        "predicate has %s values for a vector of %s values", predicate.getAccessor().getValueCount(), valueCount);
+    ArrowBuf bits = predicate.getBuffer();
+    int count = BitmapUtility.countSetBits(bits, 0, valueCount);
+    ArrowBuf selection = allocator.buffer(count * INDEX_WIDTH);
+    try {
+      int j = 0;
+      for (int i = BitmapUtility.nextSetBit(bits, 0, valueCount); i >= 0;
+           i = BitmapUtility.nextSetBit(bits, i + 1, valueCount)) {
+        selection.setInt(j++ * INDEX_WIDTH, i);
+      }
+      return select(vector, selection, count, allocator);
+    } finally {
+      selection.release();
+    }
+  }
+
+  /**
+   * @param vector  the values to take from
+   * @param indices the rows of the vector to take, in order, may repeat rows
+   * @return a new vector, allocated from the allocator of the vector, with the taken rows
+   */
+  public static FieldVector take(FieldVector vector, IntVector indices) {
+    return take(vector, indices, vector.getAllocator());
+  }
+
+  /**
+   * @param vector    the values to take from
+   * @param indices   the rows of the vector to take, in order, may repeat rows
+   * @param allocator allocator for the output vector
+   * @return a new vector with the taken rows
+   */
+  public static FieldVector take(FieldVector vector, IntVector indices, BufferAllocator allocator) {
+    int valueCount = vector.getAccessor().getValueCount();
+    int count = indices.getAccessor().getValueCount();
+    ArrowBuf selection = indices.getBuffer();
+    for (int j = 0; j < count; j++) {
+      int index = selection.getInt(j * INDEX_WIDTH);
+      if (index < 0 || index >= valueCount) {
+        throw new IllegalArgumentException("Index " + index + " out of range for a vector of " + valueCount + " values");
+      }
+    }
+    return select(vector, selection, count, allocator);
+  }
+
+  private static FieldVector select(FieldVector vector, ArrowBuf selection, int count, BufferAllocator allocator) {
+    FieldVector out = vector.getField().createVector(allocator);
+    try {
+      select(vector, out, selection, count, allocator);
+    } catch (RuntimeException e) {
+      out.close();
+      throw e;
+    }
+    return out;
+  }
+
+  /**
+   * Gathers the selected rows of the buffers of the vector, loads them into the output vector and
+   * recurses into the children.
+   */
+  private static void select(FieldVector vector, FieldVector out, ArrowBuf selection, int count,
+                             BufferAllocator allocator) {
+    MinorType type = vector.getMinorType();
+    List<ArrowBuf> in = vector.getFieldBuffers();
+    List<ArrowBuf> buffers = new ArrayList<>(in.size());
+    // selection of the rows of the children, if they differ from the rows of this vector
+    ArrowBuf childSelection = null;
+    int childCount = count;
+    try {
+      switch (type) {
+        case NULL:
+          return;
+        case MAP:
+          // only the nullable map has a validity buffer
+          if (!in.isEmpty()) {
+            buffers.add(gatherBits(in.get(0), selection, count, allocator));
+          }
+          break;
+        case UNION:
+          buffers.add(gatherFixed(in.get(0), 1, selection, count, allocator));
+          break;
+        case LIST: {
+          buffers.add(gatherBits(in.get(0), selection, count, allocator));
+          ArrowBuf offsets = in.get(1);
+          childCount = checkedSize(rangesLength(offsets, selection, count), 1);
+          childSelection = allocator.buffer(checkedSize(childCount, INDEX_WIDTH));
+          buffers.add(gatherRanges(offsets, selection, count, childSelection, allocator));
+          break;
+        }
+        case FIXED_SIZE_LIST: {
+          buffers.add(gatherBits(in.get(0), selection, count, allocator));
+          int listSize = ((ArrowType.FixedSizeList) vector.getField().getType()).getListSize();
+          childCount = checkedSize(count, listSize);
+          childSelection = allocator.buffer(checkedSize(childCount, INDEX_WIDTH));
+          for (int j = 0, k = 0; j < count; j++) {
+            int first = selection.getInt(j * INDEX_WIDTH) * listSize;
+            for (int i = 0; i < listSize; i++) {
+              childSelection.setInt(k++ * INDEX_WIDTH, first + i);
+            }
+          }
+          break;
+        }
+        case BIT:
+          buffers.add(gatherBits(in.get(0), selection, count, allocator));
+          buffers.add(gatherBits(in.get(1), selection, count, allocator));
+          break;
+        default: {
+          int width = TypeWidthUtility.getByteWidth(type);
+          buffers.add(gatherBits(in.get(0), selection, count, allocator));
+          if (width > 0) {
+            buffers.add(gatherFixed(in.get(1), width, selection, count, allocator));
+          } else if (width == TypeWidthUtility.VARIABLE_WIDTH) {
+            gatherVariableWidth(in.get(1), in.get(2), selection, count, allocator, buffers);
+          } else {
+            throw new UnsupportedOperationException("Selection not implemented for type " + type);
+          }
+        }
+      }
+
+      int nullCount = type == MinorType.UNION || buffers.isEmpty() ? 0 : BitmapUtility.getNullCount(buffers.get(0), count);
+      out.loadFieldBuffers(new ArrowFieldNode(count, nullCount), buffers);
+
+      List<FieldVector> children = vector.getChildrenFromFields();
+      List<FieldVector> outChildren = out.getChildrenFromFields();
+      for (int i = 0; i < children.size(); i++) {
+        select(children.get(i), outChildren.get(i), childSelection == null ? selection : childSelection,
+            childCount, allocator);
+      }
+    } finally {
+      // the output vector retained what it needs
+      for (ArrowBuf buffer : buffers) {
+        buffer.release();
+      }
+      if (childSelection != null) {
+        childSelection.release();
+      }
+    }
+  }
+
+  /**
+   * Gathers one bit per selected row. The bits are accumulated into 64 bit words.
+   */
+  private static ArrowBuf gatherBits(ArrowBuf bits, ArrowBuf selection, int count, BufferAllocator allocator) {
+    int size = BitmapUtility.getSizeFromCount(count);
+    ArrowBuf out = allocator.buffer(size);
+    long word = 0;
+    for (int j = 0; j < count; j++) {
+      int index = selection.getInt(j * INDEX_WIDTH);
+      word |= ((long) ((bits.getByte(index >>> 3) >>> (index & 7)) & 1)) << (j & 63);
+      if ((j & 63) == 63) {
+        out.setLong((j >>> 6) * 8, word);
+        word = 0;
+      }
+    }
+    for (int i = (count >>> 6) * 8; i < size; i++) {
+      out.setByte(i, (int) word);
+      word >>>= 8;
+    }
+    out.writerIndex(size);
+    return out;
+  }
+
+  /**
+   * Gathers fixed width values, copying runs of consecutive rows at once.
+   */
+  private static ArrowBuf gatherFixed(ArrowBuf data, int width, ArrowBuf selection, int count,
+                                      BufferAllocator allocator) {
+    int size = checkedSize(count, width);
+    ArrowBuf out = allocator.buffer(size);
+    int j = 0;
+    while (j < count) {
+      int first = selection.getInt(j * INDEX_WIDTH);
+      int run = runLength(selection, j, count, first);
+      if (run == 1) {
+        switch (width) {
+          case 1:
+            out.setByte(j, data.getByte(first));
+            break;
+          case 2:
+            out.setShort(j * 2, data.getShort(first * 2));
+            break;
+          case 4:
+            out.setInt(j * 4, data.getInt(first * 4));
+            break;
+          case 8:
+            out.setLong(j * 8, data.getLong(first * 8));
+            break;
+          default:
+            out.setBytes(j * width, data, first * width, width);
+        }
+      } else {
+        out.setBytes(j * width, data, first * width, run * width);
+      }
+      j += run;
+    }
+    out.writerIndex(size);
+    return out;
+  }
+
+  /**
+   * Gathers variable width values: offsets are rebased and the bytes of runs of consecutive rows
+   * are copied at once.
+   */
+  private static void gatherVariableWidth(ArrowBuf offsets, ArrowBuf data, ArrowBuf selection, int count,
+                                          BufferAllocator allocator, List<ArrowBuf> buffers) {
+    int size = checkedSize(rangesLength(offsets, selection, count), 1);
+    ArrowBuf outData = allocator.buffer(size);
+    buffers.add(rebaseOffsets(offsets, selection, count, allocator, outData, data));
+    buffers.add(outData);
+    outData.writerIndex(size);
+  }
+
+  /**
+   * Gathers list offsets and fills the selection of the child rows of the selected lists.
+   */
+  private static ArrowBuf gatherRanges(ArrowBuf offsets, ArrowBuf selection, int count, ArrowBuf childSelection,
+                                       BufferAllocator allocator) {
+    ArrowBuf outOffsets = rebaseOffsets(offsets, selection, count, allocator, null, null);
+    for (int j = 0, k = 0; j < count; j++) {
+      int index = selection.getInt(j * INDEX_WIDTH);
+      int end = offsets.getInt((index + 1) * 4);
+      for (int i = offsets.getInt(index * 4); i < end; i++) {
+        childSelection.setInt(k++ * INDEX_WIDTH, i);
+      }
+    }
+    return outOffsets;
+  }
+
+  /**
+   * Builds the offsets of the selected rows, starting at 0, and copies their bytes to outData if
+   * it is not null.
+   */
+  private static ArrowBuf rebaseOffsets(ArrowBuf offsets, ArrowBuf selection, int count, BufferAllocator allocator,
+                                        ArrowBuf outData, ArrowBuf data) {
+    int size = checkedSize(count + 1L, 4);
+    ArrowBuf outOffsets = allocator.buffer(size);
+    outOffsets.setInt(0, 0);
+    int position = 0;
+    int j = 0;
+    while (j < count) {
+      int first = selection.getInt(j * INDEX_WIDTH);
+      int run = runLength(selection, j, count, first);
+      int start = offsets.getInt(first * 4);
+      for (int i = 1; i <= run; i++) {
+        outOffsets.setInt((j + i) * 4, position + offsets.getInt((first + i) * 4) - start);
+      }
+      int length = offsets.getInt((first + run) * 4) - start;
+      if (outData != null) {
+        outData.setBytes(position, data, start, length);
+      }
+      position += length;
+      j += run;
+    }
+    outOffsets.writerIndex(size);
+    return outOffsets;
+  }
+
+  /**
+   * @return the total length of the offset ranges of the selected rows
+   */
+  private static long rangesLength(ArrowBuf offsets, ArrowBuf selection, int count) {
+    long length = 0;
+    for (int j = 0; j < count; j++) {
+      int index = selection.getInt(j * INDEX_WIDTH);
+      length += offsets.getInt((index + 1) * 4) - offsets.getInt(index * 4);
+    }
+    return length;
+  }
+
+  /**
+   * @return the number of consecutive rows in the selection starting at position j
+   */
+  private static int runLength(ArrowBuf selection, int j, int count, int first) {
+    int run = 1;
+    while (j + run < count && selection.getInt((j + run) * INDEX_WIDTH) == first + run) {
+      run++;
+    }
+    return run;
+  }
+
+  private static int checkedSize(long count, int width) {
+    long size = count * width;
+    if (size > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Selection too large for a single buffer: " + size + " bytes");
+    }
+    return (int) size;
+  }
+}
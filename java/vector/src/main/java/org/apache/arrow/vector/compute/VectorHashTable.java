@@ -0,0 +1,438 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector.compute;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.schema.ArrowFieldNode;
+import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.util.BitmapUtility;
+import org.apache.arrow.vector.util.ByteFunctionHelpers;
+import org.apache.arrow.vector.util.OpenAddressingHashTable;
+import org.apache.arrow.vector.util.OversizedAllocationException;
+import org.apache.arrow.vector.util.TypeWidthUtility;
+
+import com.google.common.base.Preconditions;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Open addressing hash table mapping the rows of one or more key vectors to dense group ids,
+ * the building block for hash aggregations and hash joins.
+ *
+ * Every distinct key is assigned the next group id, starting at 0, and copied into an off heap
+ * key buffer as a row: per key column a byte telling whether the value is set, followed by the
+ * value (fixed width values as is, BIT values as one byte, variable width values prefixed with
+ * their int length). The slots of the table only store the hash of a key row and its group id + 1
+ * (0 marks an empty slot), and a probed row is encoded the same way so that keys are hashed and
+ * compared as plain byte ranges with {@link ByteFunctionHelpers}. Null values are keys like any
+ * other: all the nulls of a column fall into the same group. Floating point keys are normalized
+ * before they are encoded, so that -0.0 and 0.0 fall into the same group, as do all the NaNs.
+ *
+ * All the memory of the table comes from the given allocator.
+ */
+public final class VectorHashTable extends OpenAddressingHashTable {
+
+  private static final int OFFSET_WIDTH = 4;
+  private static final int INITIAL_KEY_BYTES = 1024;
+  private static final int INITIAL_KEY_OFFSETS = 17;
+
+  private final List<Field> keyFields;
+  private final MinorType[] types;
+  private final int[] widths;
+
+  // the key rows of the groups, the key of group g is [offsets[g], offsets[g + 1]) in keys
+  private ArrowBuf keys;
+  private ArrowBuf keyOffsets;
+  private int keysLength;
+
+  // the encoding of the row being inserted or probed
+  private ArrowBuf row;
+  private int rowLength;
+
+  /**
+   * @param keyFields the fields of the key columns, of primitive types
+   * @param allocator allocator for the table and the keys
+   */
+  public VectorHashTable(List<Field> keyFields, BufferAllocator allocator) {
+    super(allocator, 0);
+    this.keyFields = new ArrayList<>(keyFields);
+    this.types = new MinorType[keyFields.size()];
+    this.widths = new int[keyFields.size()];
+    try {
+      Preconditions.checkArgument(!keyFields.isEmpty(), "No key fields");
+      for (int i = 0; i < types.length; i++) {
+        Field field = keyFields.get(i);
+        types[i] = Types.getMinorTypeForArrowType(field.getType());
+        widths[i] = types[i] == MinorType.BIT ? 1 : TypeWidthUtility.getByteWidth(types[i]);
+        Preconditions.checkArgument(widths[i] != 0, "Unsupported key type %s of field %s", types[i], field.getName());
+      }
+      keyOffsets = allocator.buffer(INITIAL_KEY_OFFSETS * OFFSET_WIDTH);
+      keyOffsets.setInt(0, 0);
+      keys = allocator.buffer(INITIAL_KEY_BYTES);
+      row = allocator.buffer(INITIAL_KEY_BYTES);
+    } catch (RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+
+  /**
+   * Looks up the key at a row of the key vectors, adding it as a new group if it is not present.
+   *
+   * @param keyVectors the key columns, in the order of the key fields
+   * @param index      the row of the key vectors
+   * @return the group id of the key
+   */
+  public int insert(List<FieldVector> keyVectors, int index) {
+    return insert(new Columns(keyVectors), index);
+  }
+
+  /**
+   * Inserts every row of the key vectors.
+   *
+   * @param keyVectors the key columns, in the order of the key fields
+   * @param groupIds   receives the group id of every row
+   */
+  public void insert(List<FieldVector> keyVectors, IntVector groupIds) {
+    Columns columns = new Columns(keyVectors);
+    groupIds.allocateNew(columns.valueCount);
+    for (int i = 0; i < columns.valueCount; i++) {
+      int groupId = insert(columns, i);
+      groupIds.getBuffer().setInt(i * 4, groupId);
+    }
+    groupIds.getMutator().setValueCount(columns.valueCount);
+  }
+
+  /**
+   * @param keyVectors the key columns, in the order of the key fields
+   * @param index      the row of the key vectors
+   * @return the group id of the key, or -1 if it is not present
+   */
+  public int probe(List<FieldVector> keyVectors, int index) {
+    return probe(new Columns(keyVectors), index);
+  }
+
+  /**
+   * Probes every row of the key vectors.
+   *
+   * @param keyVectors the key columns, in the order of the key fields
+   * @param groupIds   receives the group id of every row, or -1 for the keys that are not present
+   */
+  public void probe(List<FieldVector> keyVectors, IntVector groupIds) {
+    Columns columns = new Columns(keyVectors);
+    groupIds.allocateNew(columns.valueCount);
+    for (int i = 0; i < columns.valueCount; i++) {
+      int groupId = probe(columns, i);
+      groupIds.getBuffer().setInt(i * 4, groupId);
+    }
+    groupIds.getMutator().setValueCount(columns.valueCount);
+  }
+
+  /**
+   * Materializes the keys of the groups, one row per group id.
+   *
+   * @return new vectors of the key fields, allocated from the allocator of the table
+   */
+  public List<FieldVector> getKeys() {
+    List<FieldVector> out = new ArrayList<>(types.length);
+    try {
+      for (int i = 0; i < types.length; i++) {
+        FieldVector vector = keyFields.get(i).createVector(allocator);
+        out.add(vector);
+        loadKeys(i, vector);
+      }
+    } catch (RuntimeException e) {
+      for (FieldVector vector : out) {
+        vector.close();
+      }
+      throw e;
+    }
+    return out;
+  }
+
+  /**
+   * The buffers of the key vectors of a call.
+   */
+  private final class Columns {
+    private final ArrowBuf[] validity = new ArrowBuf[types.length];
+    private final ArrowBuf[] offsets = new ArrowBuf[types.length];
+    private final ArrowBuf[] data = new ArrowBuf[types.length];
+    private final int valueCount;
+
+    Columns(List<FieldVector> keyVectors) {
+      Preconditions.checkArgument(keyVectors.size() == types.length,
+          "Expected %s key vectors, got %s", types.length, keyVectors.size());
+      valueCount = keyVectors.get(0).getAccessor().getValueCount();
+      for (int i = 0; i < types.length; i++) {
+        FieldVector vector = keyVectors.get(i);
+        Preconditions.checkArgument(vector.getMinorType() == types[i],
+            "Key vector %s is a %s, expected %s", i, vector.getMinorType(), types[i]);
+        Preconditions.checkArgument(vector.getAccessor().getValueCount() == valueCount,
+            "Key vectors have different value counts");
+        List<ArrowBuf> buffers = vector.getFieldBuffers();
+        validity[i] = buffers.get(0);
+        if (widths[i] == TypeWidthUtility.VARIABLE_WIDTH) {
+          offsets[i] = buffers.get(1);
+          data[i] = buffers.get(2);
+        } else {
+          data[i] = buffers.get(1);
+        }
+      }
+    }
+  }
+
+  private int insert(Columns columns, int index) {
+    rowLength = encode(columns, index);
+    int hash = ByteFunctionHelpers.hash(row, 0, rowLength);
+    int slot = find(hash);
+    int groupId = valueAt(slot);
+    if (groupId >= 0) {
+      return groupId;
+    }
+    groupId = size();
+    appendKey(rowLength);
+    insert(slot, hash, groupId);
+    return groupId;
+  }
+
+  private int probe(Columns columns, int index) {
+    rowLength = encode(columns, index);
+    return valueAt(find(ByteFunctionHelpers.hash(row, 0, rowLength)));
+  }
+
+  @Override
+  protected boolean matches(int groupId) {
+    return ByteFunctionHelpers.equal(row, 0, rowLength, keys, keyOffsets.getInt(groupId * OFFSET_WIDTH),
+        keyOffsets.getInt((groupId + 1) * OFFSET_WIDTH)) == 1;
+  }
+
+  /**
+   * Encodes the key at the index of the columns into the row buffer.
+   *
+   * @return the length of the encoded key
+   */
+  private int encode(Columns columns, int index) {
+    long length = 0;
+    for (int i = 0; i < types.length; i++) {
+      length++;
+      if (BitmapUtility.isSet(columns.validity[i], index)) {
+        if (widths[i] > 0) {
+          length += widths[i];
+        } else {
+          ArrowBuf offsets = columns.offsets[i];
+          length += 4 + offsets.getInt((index + 1) * OFFSET_WIDTH) - offsets.getInt(index * OFFSET_WIDTH);
+        }
+      }
+    }
+    if (length > row.capacity()) {
+      row = grow(row, 0, length);
+    }
+
+    int position = 0;
+    for (int i = 0; i < types.length; i++) {
+      if (!BitmapUtility.isSet(columns.validity[i], index)) {
+        row.setByte(position++, 0);
+        continue;
+      }
+      row.setByte(position++, 1);
+      if (types[i] == MinorType.BIT) {
+        row.setByte(position++, BitmapUtility.isSet(columns.data[i], index) ? 1 : 0);
+      } else if (types[i] == MinorType.FLOAT4) {
+        row.setInt(position, keyBits(columns.data[i].getFloat(index * 4)));
+        position += 4;
+      } else if (types[i] == MinorType.FLOAT8) {
+        row.setLong(position, keyBits(columns.data[i].getDouble(index * 8)));
+        position += 8;
+      } else if (widths[i] > 0) {
+        row.setBytes(position, columns.data[i], index * widths[i], widths[i]);
+        position += widths[i];
+      } else {
+        ArrowBuf offsets = columns.offsets[i];
+        int start = offsets.getInt(index * OFFSET_WIDTH);
+        int valueLength = offsets.getInt((index + 1) * OFFSET_WIDTH) - start;
+        row.setInt(position, valueLength);
+        row.setBytes(position + 4, columns.data[i], start, valueLength);
+        position += 4 + valueLength;
+      }
+    }
+    return position;
+  }
+
+  /**
+   * -0.0 and 0.0 are the same key, and every NaN is the same key as the canonical NaN.
+   */
+  private static int keyBits(float value) {
+    return canonicalBits(value == 0.0f ? 0.0f : value);
+  }
+
+  private static long keyBits(double value) {
+    return canonicalBits(value == 0.0d ? 0.0d : value);
+  }
+
+  private void appendKey(int length) {
+    int size = size();
+    if ((long) keysLength + length > keys.capacity()) {
+      keys = grow(keys, keysLength, (long) keysLength + length);
+    }
+    if ((size + 2L) * OFFSET_WIDTH > keyOffsets.capacity()) {
+      keyOffsets = grow(keyOffsets, (size + 1) * OFFSET_WIDTH, (size + 2L) * OFFSET_WIDTH);
+    }
+    keys.setBytes(keysLength, row, 0, length);
+    keysLength += length;
+    keyOffsets.setInt((size + 1) * OFFSET_WIDTH, keysLength);
+  }
+
+  /**
+   * Replaces the buffer by one of at least the required capacity, at least doubling it, holding
+   * the first used bytes of the buffer.
+   */
+  private ArrowBuf grow(ArrowBuf buffer, int used, long required) {
+    long capacity = Math.max(required, 2L * buffer.capacity());
+    if (capacity > Integer.MAX_VALUE) {
+      if (required > Integer.MAX_VALUE) {
+        throw new OversizedAllocationException("Keys of the hash table would exceed " + Integer.MAX_VALUE + " bytes");
+      }
+      capacity = Integer.MAX_VALUE;
+    }
+    ArrowBuf grown = allocator.buffer((int) capacity);
+    grown.setBytes(0, buffer, 0, used);
+    buffer.release();
+    return grown;
+  }
+
+  /**
+   * @return the position in the key buffer of the validity byte of the column in the key of the group
+   */
+  private int fieldPosition(int groupId, int column) {
+    int position = keyOffsets.getInt(groupId * OFFSET_WIDTH);
+    for (int i = 0; i < column; i++) {
+      if (keys.getByte(position++) != 0) {
+        position += widths[i] > 0 ? widths[i] : 4 + keys.getInt(position);
+      }
+    }
+    return position;
+  }
+
+  private void loadKeys(int column, FieldVector vector) {
+    int width = widths[column];
+    int size = size();
+    List<ArrowBuf> buffers = new ArrayList<>(3);
+    try {
+      ArrowBuf validity = zeroed(BitmapUtility.getSizeFromCount(size));
+      buffers.add(validity);
+      ArrowBuf offsets = null;
+      ArrowBuf data;
+      if (types[column] == MinorType.BIT) {
+        data = zeroed(BitmapUtility.getSizeFromCount(size));
+      } else if (width > 0) {
+        data = zeroed(checkedSize((long) size * width));
+      } else {
+        long dataLength = 0;
+        for (int g = 0; g < size; g++) {
+          int position = fieldPosition(g, column);
+          if (keys.getByte(position) != 0) {
+            dataLength += keys.getInt(position + 1);
+          }
+        }
+        offsets = allocator.buffer(checkedSize((size + 1L) * OFFSET_WIDTH));
+        offsets.writerIndex((size + 1) * OFFSET_WIDTH);
+        buffers.add(offsets);
+        data = allocator.buffer(checkedSize(dataLength));
+        data.writerIndex((int) dataLength);
+      }
+      buffers.add(data);
+
+      int nullCount = 0;
+      int dataOffset = 0;
+      if (offsets != null) {
+        offsets.setInt(0, 0);
+      }
+      for (int g = 0; g < size; g++) {
+        int position = fieldPosition(g, column);
+        if (keys.getByte(position) == 0) {
+          nullCount++;
+        } else {
+          setBit(validity, g);
+          if (types[column] == MinorType.BIT) {
+            if (keys.getByte(position + 1) != 0) {
+              setBit(data, g);
+            }
+          } else if (width > 0) {
+            data.setBytes(g * width, keys, position + 1, width);
+          } else {
+            int valueLength = keys.getInt(position + 1);
+            data.setBytes(dataOffset, keys, position + 5, valueLength);
+            dataOffset += valueLength;
+          }
+        }
+        if (offsets != null) {
+          offsets.setInt((g + 1) * OFFSET_WIDTH, dataOffset);
+        }
+      }
+      vector.loadFieldBuffers(new ArrowFieldNode(size, nullCount), buffers);
+    } finally {
+      // the vector retained what it needs
+      for (ArrowBuf buffer : buffers) {
+        buffer.release();
+      }
+    }
+  }
+
+  private ArrowBuf zeroed(int length) {
+    ArrowBuf buffer = allocator.buffer(length);
+    buffer.setZero(0, length);
+    buffer.writerIndex(length);
+    return buffer;
+  }
+
+  private static void setBit(ArrowBuf bits, int index) {
+    bits.setByte(index >>> 3, bits.getByte(index >>> 3) | (1 << (index & 7)));
+  }
+
+  private static int checkedSize(long size) {
+    if (size > Integer.MAX_VALUE) {
+      throw new OversizedAllocationException("Keys of " + size + " bytes exceed " + Integer.MAX_VALUE + " bytes");
+    }
+    return (int) size;
+  }
+
+  @Override
+  public void close() {
+    super.close();
+    if (keys != null) {
+      keys.release();
+      keys = null;
+    }
+    if (keyOffsets != null) {
+      keyOffsets.release();
+      keyOffsets = null;
+    }
+    if (row != null) {
+      row.release();
+      row = null;
+    }
+  }
+}
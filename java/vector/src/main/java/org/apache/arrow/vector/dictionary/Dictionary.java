@@ -29,6 +29,8 @@ public class Dictionary {
 
   private final DictionaryEncoding encoding;
   private final FieldVector dictionary;
+  // bumped whenever entries of the vector are replaced rather than appended
+  private long generation;
 
   public Dictionary(FieldVector dictionary, DictionaryEncoding encoding) {
     this.dictionary = dictionary;
@@ -47,6 +49,22 @@ public class Dictionary {
     return dictionary.getField().getType();
   }
 
+  /**
+   * Notes that entries of the dictionary vector were replaced, or removed, rather than appended.
+   * Writers then write the whole dictionary again before the next record batch, where appended
+   * entries alone are written as a delta.
+   */
+  public void markReplaced() {
+    generation++;
+  }
+
+  /**
+   * @return the number of times the entries of the dictionary were replaced
+   */
+  public long getGeneration() {
+    return generation;
+  }
+
   @Override
   public String toString() {
     return "Dictionary " + encoding + " " + dictionary;
@@ -19,19 +19,22 @@
 
 package org.apache.arrow.vector.dictionary;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
 
-import com.google.common.collect.ImmutableList;
-
 import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.FixedWidthVector;
+import org.apache.arrow.vector.NullableVector;
+import org.apache.arrow.vector.NullableVectorDefinitionSetter;
 import org.apache.arrow.vector.ValueVector;
 import org.apache.arrow.vector.types.Types.MinorType;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.FieldType;
 import org.apache.arrow.vector.util.TransferPair;
+import org.apache.arrow.vector.util.TypeWidthUtility;
+
+import io.netty.buffer.ArrowBuf;
 
 public class DictionaryEncoder {
 
@@ -46,13 +49,6 @@ public class DictionaryEncoder {
    */
   public static ValueVector encode(ValueVector vector, Dictionary dictionary) {
     validateType(vector.getMinorType());
-    // load dictionary values into a hashmap for lookup
-    ValueVector.Accessor dictionaryAccessor = dictionary.getVector().getAccessor();
-    Map<Object, Integer> lookUps = new HashMap<>(dictionaryAccessor.getValueCount());
-    for (int i = 0; i < dictionaryAccessor.getValueCount(); i++) {
-      // for primitive array types we need a wrapper that implements equals and hashcode appropriately
-      lookUps.put(dictionaryAccessor.getObject(i), i);
-    }
 
     Field valueField = vector.getField();
     FieldType indexFieldType = new FieldType(valueField.isNullable(), dictionary.getEncoding().getIndexType(),
@@ -61,49 +57,100 @@ public class DictionaryEncoder {
 
     // vector to hold our indices (dictionary encoded values)
     FieldVector indices = indexField.createVector(vector.getAllocator());
-    ValueVector.Mutator mutator = indices.getMutator();
-
-    // use reflection to pull out the set method
-    // TODO implement a common interface for int vectors
-    Method setter = null;
-    for (Class<?> c : ImmutableList.of(int.class, long.class)) {
-      try {
-        setter = mutator.getClass().getMethod("setSafe", int.class, c);
-        break;
-      } catch (NoSuchMethodException e) {
-        // ignore
+    int indexByteWidth = dictionary.getEncoding().getIndexType().getBitWidth() / 8;
+
+    try {
+      FieldVector dictionaryVector = dictionary.getVector();
+      if (canEncodeFromBuffers(vector, dictionaryVector)) {
+        // hash the values straight from the vector buffers
+        try (DictionaryHashTable table = new DictionaryHashTable(dictionaryVector, vector.getAllocator())) {
+          table.encode((FieldVector) vector, indices, indexByteWidth);
+        }
+      } else {
+        encodeObjects(vector, dictionaryVector, indices, indexByteWidth);
       }
+    } catch (RuntimeException e) {
+      indices.close();
+      throw e;
     }
-    if (setter == null) {
-      throw new IllegalArgumentException("Dictionary encoding does not have a valid int type:" + indices.getClass());
+
+    return indices;
+  }
+
+  private static boolean canEncodeFromBuffers(ValueVector vector, FieldVector dictionaryVector) {
+    return vector instanceof FieldVector && vector instanceof NullableVector
+        && dictionaryVector instanceof NullableVector
+        && vector.getMinorType() == dictionaryVector.getMinorType()
+        && TypeWidthUtility.getByteWidth(vector.getMinorType()) != 0;
+  }
+
+  /**
+   * Fallback for the types that can not be hashed from their buffers: values are looked up by their
+   * object representation.
+   */
+  private static void encodeObjects(ValueVector vector, ValueVector dictionaryVector, FieldVector indices,
+                                    int indexByteWidth) {
+    // load dictionary values into a hashmap for lookup
+    ValueVector.Accessor dictionaryAccessor = dictionaryVector.getAccessor();
+    Map<Object, Integer> lookUps = new HashMap<>(dictionaryAccessor.getValueCount());
+    for (int i = 0; i < dictionaryAccessor.getValueCount(); i++) {
+      // for duplicate values the last index wins
+      lookUps.put(lookUpKey(dictionaryAccessor.getObject(i)), i);
     }
 
     ValueVector.Accessor accessor = vector.getAccessor();
     int count = accessor.getValueCount();
 
-    indices.allocateNew();
+    ((FixedWidthVector) indices).allocateNew(count);
+    ArrowBuf out = indices.getDataBuffer();
+    NullableVectorDefinitionSetter definitionSetter = (NullableVectorDefinitionSetter) indices.getMutator();
 
-    try {
-      for (int i = 0; i < count; i++) {
-        Object value = accessor.getObject(i);
-        if (value != null) { // if it's null leave it null
-          // note: this may fail if value was not included in the dictionary
-          Object encoded = lookUps.get(value);
-          if (encoded == null) {
-            throw new IllegalArgumentException("Dictionary encoding not defined for value:" + value);
-          }
-          setter.invoke(mutator, i, encoded);
+    for (int i = 0; i < count; i++) {
+      Object value = accessor.getObject(i);
+      if (value != null) { // if it's null leave it null
+        // note: this may fail if value was not included in the dictionary
+        Integer encoded = lookUps.get(lookUpKey(value));
+        if (encoded == null) {
+          throw new IllegalArgumentException("Dictionary encoding not defined for value:" + value);
         }
+        writeIndex(out, i, indexByteWidth, encoded);
+        definitionSetter.setIndexDefined(i);
       }
-    } catch (IllegalAccessException e) {
-      throw new RuntimeException("IllegalAccessException invoking vector mutator set():", e);
-    } catch (InvocationTargetException e) {
-      throw new RuntimeException("InvocationTargetException invoking vector mutator set():", e.getCause());
     }
 
-    mutator.setValueCount(count);
+    indices.getMutator().setValueCount(count);
+  }
 
-    return indices;
+  private static Object lookUpKey(Object value) {
+    // byte arrays don't implement equals and hashcode, ByteBuffer compares the content
+    return value instanceof byte[] ? ByteBuffer.wrap((byte[]) value) : value;
+  }
+
+  /**
+   * Writes a dictionary index directly into the data buffer of an integer index vector.
+   *
+   * @param out            data buffer of the index vector
+   * @param index          position in the index vector
+   * @param indexByteWidth width in bytes of the index type
+   * @param value          dictionary index
+   */
+  static void writeIndex(ArrowBuf out, int index, int indexByteWidth, int value) {
+    switch (indexByteWidth) {
+      case 1:
+        out.setByte(index, value);
+        break;
+      case 2:
+        out.setShort(index * 2, value);
+        break;
+      case 4:
+        out.setInt(index * 4, value);
+        break;
+      case 8:
+        out.setLong(index * 8, value);
+        break;
+      default:
+        throw new IllegalArgumentException("Dictionary encoding does not have a valid int type, width: " + indexByteWidth);
+    }
   }
 
   /**
@@ -138,9 +185,7 @@ public class DictionaryEncoder {
   }
 
   private static void validateType(MinorType type) {
-    // byte arrays don't work as keys in our dictionary map - we could wrap them with something to
-    // implement equals and hashcode if we want that functionality
-    if (type == MinorType.VARBINARY || type == MinorType.LIST || type == MinorType.MAP || type == MinorType.UNION) {
+    if (type == MinorType.LIST || type == MinorType.MAP || type == MinorType.UNION) {
       throw new IllegalArgumentException("Dictionary encoding for complex types not implemented: type " + type);
     }
   }
@@ -0,0 +1,202 @@
+/*******************************************************************************
+
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.apache.arrow.vector.dictionary;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.FixedWidthVector;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.util.BitmapUtility;
+import org.apache.arrow.vector.util.ByteFunctionHelpers;
+import org.apache.arrow.vector.util.OpenAddressingHashTable;
+import org.apache.arrow.vector.util.TypeWidthUtility;
+
+import com.google.common.base.Preconditions;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Open addressing hash table mapping the values of a dictionary vector to their dictionary index.
+ *
+ * The table lives off heap in a buffer from the given allocator and only stores, per slot, the hash
+ * of the value and its index in the dictionary. Values are hashed and compared directly on the
+ * vector buffers (fixed width values by position, variable width values through their offsets), so
+ * no value is ever materialized on heap. Floating point values are hashed and compared by their
+ * canonical bits, as {@link Double#equals} does, so that all the NaNs are the same value.
+ */
+final class DictionaryHashTable extends OpenAddressingHashTable {
+
+  private final FieldVector dictionary;
+  private final MinorType type;
+  private final int width;
+  // the buffers of the dictionary vector, re-read on every call since appending to the vector may
+  // reallocate them
+  private ArrowBuf dictionaryData;
+  private ArrowBuf dictionaryOffsets;
+
+  // the value being probed
+  private ArrowBuf probeData;
+  private int probeStart;
+  private int probeEnd;
+
+  /**
+   * Builds a table over all the non null values of the dictionary vector.
+   *
+   * @param dictionary dictionary vector, of a type for which {@link TypeWidthUtility#getByteWidth(MinorType)}
+   *                   is not 0
+   * @param allocator  allocator for the table itself
+   */
+  DictionaryHashTable(FieldVector dictionary, BufferAllocator allocator) {
+    super(allocator, supportedValueCount(dictionary));
+    this.type = dictionary.getMinorType();
+    this.width = TypeWidthUtility.getByteWidth(type);
+    this.dictionary = dictionary;
+    refreshDictionaryBuffers();
+    int count = dictionary.getAccessor().getValueCount();
+    for (int i = 0; i < count; i++) {
+      if (!dictionary.getAccessor().isNull(i)) {
+        add(i);
+      }
+    }
+  }
+
+  // checked before the table is allocated
+  private static int supportedValueCount(FieldVector dictionary) {
+    Preconditions.checkArgument(TypeWidthUtility.getByteWidth(dictionary.getMinorType()) != 0, "Unsupported dictionary type %s",
+        dictionary.getMinorType());
+    return dictionary.getAccessor().getValueCount();
+  }
+
+  /**
+   * Looks up a value of a vector of the same type as the dictionary.
+   *
+   * @param vector the vector holding the value
+   * @param index  index of a non null value in the vector
+   * @return the dictionary index of the value or -1 if the dictionary does not contain it
+   */
+  int get(FieldVector vector, int index) {
+    refreshDictionaryBuffers();
+    ArrowBuf offsets = width > 0 ? null : vector.getOffsetBuffer();
+    ArrowBuf data = vector.getDataBuffer();
+    int start = start(offsets, index);
+    int end = end(offsets, index);
+    return valueAt(find(data, start, end, hash(data, start, end)));
+  }
+
+  /**
+   * Adds the value at the given index of the dictionary vector. If an equal value is already
+   * present it is mapped to the new index instead, so that the last of duplicate dictionary values
+   * wins.
+   *
+   * @param dictionaryIndex index of a non null value in the dictionary vector
+   * @return the dictionary index the value is mapped to
+   */
+  int add(int dictionaryIndex) {
+    refreshDictionaryBuffers();
+    int start = start(dictionaryOffsets, dictionaryIndex);
+    int end = end(dictionaryOffsets, dictionaryIndex);
+    int hash = hash(dictionaryData, start, end);
+    int slot = find(dictionaryData, start, end, hash);
+    if (valueAt(slot) >= 0) {
+      setValue(slot, dictionaryIndex);
+    } else {
+      insert(slot, hash, dictionaryIndex);
+    }
+    return dictionaryIndex;
+  }
+
+  /**
+   * Encodes all the values of the vector into the index vector. The index vector is allocated for
+   * the value count of the vector, gets a copy of its validity bitmap and the dictionary index of
+   * every non null value is written straight into its data buffer.
+   *
+   * @param vector          nullable vector of the same type as the dictionary
+   * @param indices         nullable integer vector receiving the indices
+   * @param indexByteWidth  width in bytes of the index type
+   * @throws IllegalArgumentException if a value is missing from the dictionary
+   */
+  void encode(FieldVector vector, FieldVector indices, int indexByteWidth) {
+    int count = vector.getAccessor().getValueCount();
+    ((FixedWidthVector) indices).allocateNew(count);
+
+    ArrowBuf validity = vector.getValidityBuffer();
+    ArrowBuf data = vector.getDataBuffer();
+    ArrowBuf offsets = width > 0 ? null : vector.getOffsetBuffer();
+    ArrowBuf out = indices.getDataBuffer();
+    refreshDictionaryBuffers();
+
+    indices.getValidityBuffer().setBytes(0, validity, 0, BitmapUtility.getSizeFromCount(count));
+    for (int i = BitmapUtility.nextSetBit(validity, 0, count); i >= 0;
+         i = BitmapUtility.nextSetBit(validity, i + 1, count)) {
+      int start = start(offsets, i);
+      int end = end(offsets, i);
+      int dictionaryIndex = valueAt(find(data, start, end, hash(data, start, end)));
+      if (dictionaryIndex < 0) {
+        throw new IllegalArgumentException("Dictionary encoding not defined for value:" + vector.getAccessor().getObject(i));
+      }
+      DictionaryEncoder.writeIndex(out, i, indexByteWidth, dictionaryIndex);
+    }
+    indices.getMutator().setValueCount(count);
+  }
+
+  private void refreshDictionaryBuffers() {
+    dictionaryData = dictionary.getDataBuffer();
+    dictionaryOffsets = width > 0 ? null : dictionary.getOffsetBuffer();
+  }
+
+  private int start(ArrowBuf offsets, int index) {
+    return width > 0 ? index * width : offsets.getInt(index * 4);
+  }
+
+  private int end(ArrowBuf offsets, int index) {
+    return width > 0 ? (index + 1) * width : offsets.getInt((index + 1) * 4);
+  }
+
+  private int hash(ArrowBuf data, int start, int end) {
+    if (type == MinorType.FLOAT4) {
+      return mix(canonicalBits(data.getFloat(start)));
+    } else if (type == MinorType.FLOAT8) {
+      return mix(canonicalBits(data.getDouble(start)));
+    }
+    return ByteFunctionHelpers.hash(data, start, end);
+  }
+
+  /**
+   * @return the slot holding the value [start, end) of data or the empty slot where it would be inserted
+   */
+  private int find(ArrowBuf data, int start, int end, int hash) {
+    probeData = data;
+    probeStart = start;
+    probeEnd = end;
+    return find(hash);
+  }
+
+  @Override
+  protected boolean matches(int dictionaryIndex) {
+    int start = start(dictionaryOffsets, dictionaryIndex);
+    if (type == MinorType.FLOAT4) {
+      return canonicalBits(probeData.getFloat(probeStart)) == canonicalBits(dictionaryData.getFloat(start));
+    } else if (type == MinorType.FLOAT8) {
+      return canonicalBits(probeData.getDouble(probeStart)) == canonicalBits(dictionaryData.getDouble(start));
+    }
+    return ByteFunctionHelpers.equal(probeData, probeStart, probeEnd, dictionaryData, start,
+        end(dictionaryOffsets, dictionaryIndex)) == 1;
+  }
+}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+
+package org.apache.arrow.vector.dictionary;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.FixedWidthVector;
+import org.apache.arrow.vector.NullableVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.util.BitmapUtility;
+import org.apache.arrow.vector.util.TransferPair;
+import org.apache.arrow.vector.util.TypeWidthUtility;
+
+import com.google.common.base.Preconditions;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Dictionary encoder maintaining a dictionary that grows across batches.
+ *
+ * Values missing from the dictionary are appended to the dictionary vector instead of being
+ * rejected, so indices handed out earlier stay valid. Used with an
+ * {@link org.apache.arrow.vector.stream.ArrowStreamWriter}, whose provider returns the dictionary
+ * of this encoder, the appended entries are sent as delta dictionary batches before the next
+ * record batch.
+ *
+ * The dictionary vector is not closed by this encoder.
+ */
+public class IncrementalDictionaryEncoder implements AutoCloseable {
+
+  private final Dictionary dictionary;
+  private final FieldVector dictionaryVector;
+  private final DictionaryHashTable table;
+  private final int indexByteWidth;
+  private final int maxIndex;
+
+  /**
+   * @param dictionary dictionary to encode with and grow, its vector may be empty
+   * @param allocator  allocator for the hash table of the encoder
+   */
+  public IncrementalDictionaryEncoder(Dictionary dictionary, BufferAllocator allocator) {
+    this.dictionary = dictionary;
+    this.dictionaryVector = dictionary.getVector();
+    Preconditions.checkArgument(dictionaryVector instanceof NullableVector
+        && TypeWidthUtility.getByteWidth(dictionaryVector.getMinorType()) != 0,
+        "Incremental dictionary encoding not implemented for type %s", dictionaryVector.getMinorType());
+    this.indexByteWidth = dictionary.getEncoding().getIndexType().getBitWidth() / 8;
+    this.maxIndex = indexByteWidth >= 4 ? Integer.MAX_VALUE : (1 << (indexByteWidth * 8 - 1)) - 1;
+    if (dictionaryVector.getValueCapacity() == 0) {
+      dictionaryVector.allocateNew();
+    }
+    this.table = new DictionaryHashTable(dictionaryVector, allocator);
+  }
+
+  public Dictionary getDictionary() {
+    return dictionary;
+  }
+
+  /**
+   * @return the number of entries in the dictionary
+   */
+  public int getDictionarySize() {
+    return dictionaryVector.getAccessor().getValueCount();
+  }
+
+  /**
+   * Dictionary encodes a vector, appending the values that are not in the dictionary yet.
+   *
+   * @param vector vector to encode, of the same type as the dictionary
+   * @return dictionary encoded vector, allocated from the allocator of the vector
+   */
+  public ValueVector encode(ValueVector vector) {
+    Preconditions.checkArgument(vector.getMinorType() == dictionaryVector.getMinorType(),
+        "Vector of type %s can not be encoded with a dictionary of type %s",
+        vector.getMinorType(), dictionaryVector.getMinorType());
+    FieldVector values = (FieldVector) vector;
+
+    Field valueField = vector.getField();
+    FieldType indexFieldType = new FieldType(valueField.isNullable(), dictionary.getEncoding().getIndexType(),
+        dictionary.getEncoding(), valueField.getMetadata());
+    Field indexField = new Field(valueField.getName(), indexFieldType, null);
+    FieldVector indices = indexField.createVector(vector.getAllocator());
+
+    try {
+      int count = vector.getAccessor().getValueCount();
+      ((FixedWidthVector) indices).allocateNew(count);
+      ArrowBuf validity = values.getValidityBuffer();
+      ArrowBuf out = indices.getDataBuffer();
+      indices.getValidityBuffer().setBytes(0, validity, 0, BitmapUtility.getSizeFromCount(count));
+
+      TransferPair append = vector.makeTransferPair(dictionaryVector);
+      int size = dictionaryVector.getAccessor().getValueCount();
+      try {
+        for (int i = BitmapUtility.nextSetBit(validity, 0, count); i >= 0;
+             i = BitmapUtility.nextSetBit(validity, i + 1, count)) {
+          int index = table.get(values, i);
+          if (index < 0) {
+            if (size > maxIndex) {
+              throw new IllegalStateException("Dictionary " + dictionary.getEncoding().getId() +
+                  " is full for index type " + dictionary.getEncoding().getIndexType());
+            }
+            append.copyValueSafe(i, size);
+            index = table.add(size);
+            size++;
+          }
+          DictionaryEncoder.writeIndex(out, i, indexByteWidth, index);
+        }
+      } finally {
+        dictionaryVector.getMutator().setValueCount(size);
+      }
+      indices.getMutator().setValueCount(count);
+    } catch (RuntimeException e) {
+      indices.close();
+      throw e;
+    }
+    return indices;
+  }
+
+  /**
+   * Releases the hash table of the encoder, the dictionary is left untouched.
+   */
+  @Override
+  public void close() {
+    table.close();
+  }
+}
@@ -0,0 +1,371 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector.durable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.arrow.flatbuf.MessageHeader;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.OutOfMemoryException;
+import org.apache.arrow.vector.VectorLoader;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.VectorUnloader;
+import org.apache.arrow.vector.file.ArrowBlock;
+import org.apache.arrow.vector.file.WriteChannel;
+import org.apache.arrow.vector.schema.ArrowRecordBatch;
+import org.apache.arrow.vector.stream.MessageSerializer;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.mnemonic.MemBufferHolder;
+import org.apache.mnemonic.NonVolatileMemAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.flatbuffers.FlatBufferBuilder;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * A catalog of record batches kept in a Mnemonic non-volatile memory pool, so that they survive
+ * a restart of the JVM and can be reattached as vectors without reading or deserializing them.
+ * <p>
+ * Each persisted batch is stored in its own durable buffer using the IPC message layout: the
+ * prefixed RecordBatch metadata (field nodes and buffer offsets) followed by the body. The
+ * catalog itself is a durable buffer holding the schema and the handles of all batches; it is
+ * registered under a key of the pool's handler table so that it can be found again on restart:
+ * <pre>
+ *   NonVolatileMemAllocator pool = new NonVolatileMemAllocator(
+ *       Utils.getNonVolatileMemoryAllocatorService("pmalloc"), capacity, path, false);
+ *   DurableRecordBatchStore store = new DurableRecordBatchStore(pool, 0);
+ *   store.load(0, root, allocator);
+ * </pre>
+ * Reattached batches are slices of the durable memory: they are accounted against the reading
+ * allocator but never copied, and must be released before the pool is closed. Dictionary
+ * encoded fields are stored as their indices; the dictionaries themselves are not persisted.
+ * <p>
+ * The store is not thread safe.
+ */
+public class DurableRecordBatchStore {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DurableRecordBatchStore.class);
+
+  private static final int CATALOG_MAGIC = 0x41524d43; // "ARMC"
+  private static final int CATALOG_VERSION = 1;
+  // magic, version, schema length, batch count
+  private static final int CATALOG_HEADER_LENGTH = 16;
+
+  private final NonVolatileMemAllocator pool;
+  private final long catalogKey;
+  private final List<Long> batchHandles = new ArrayList<>();
+
+  private Schema schema;
+  private MemBufferHolder<NonVolatileMemAllocator> catalog;
+
+  /**
+   * Open the store registered under catalogKey, or create an empty one if there is none.
+   *
+   * @param pool       the non-volatile pool holding the batches
+   * @param catalogKey the key of the pool's handler table the catalog is registered under
+   * @throws IOException if an existing catalog can not be read
+   */
+  public DurableRecordBatchStore(NonVolatileMemAllocator pool, long catalogKey) throws IOException {
+    Preconditions.checkArgument(catalogKey >= 0 && catalogKey < pool.handlerCapacity(),
+        "catalog key %s is out of the pool's handler range", catalogKey);
+    this.pool = pool;
+    this.catalogKey = catalogKey;
+
+    long handle = pool.getHandler(catalogKey);
+    if (handle != 0L) {
+      catalog = pool.retrieveBuffer(handle, false);
+      if (catalog == null) {
+        throw new IOException("Unable to retrieve the catalog at key " + catalogKey);
+      }
+      readCatalog(catalog.get());
+    }
+  }
+
+  /**
+   * @return the schema of the persisted batches, or null if nothing was persisted yet
+   */
+  public Schema getSchema() {
+    return schema;
+  }
+
+  /**
+   * @return the number of persisted batches
+   */
+  public int getBatchCount() {
+    return batchHandles.size();
+  }
+
+  /**
+   * @param index the index of a persisted batch
+   * @return the durable handle of the batch within the pool
+   */
+  public long getHandle(int index) {
+    return batchHandles.get(index);
+  }
+
+  /**
+   * @return the durable handles of all persisted batches, in the order they were persisted
+   */
+  public List<Long> getHandles() {
+    return Collections.unmodifiableList(batchHandles);
+  }
+
+  /**
+   * Copy the current contents of root into durable memory and append it to the catalog.
+   *
+   * @param root the vectors to persist
+   * @return the index of the new batch
+   * @throws IOException if the batch can not be written
+   */
+  public int persist(VectorSchemaRoot root) throws IOException {
+    Schema batchSchema = root.getSchema();
+    if (schema != null && !schema.equals(batchSchema)) {
+      throw new IllegalArgumentException("Schema " + batchSchema +
+          " does not match the schema of the store " + schema);
+    }
+
+    MemBufferHolder<NonVolatileMemAllocator> holder;
+    try (ArrowRecordBatch batch = new VectorUnloader(root).getRecordBatch()) {
+      holder = createBuffer(messageLength(batch));
+      try {
+        ByteBuffer target = holder.get();
+        target.clear();
+        MessageSerializer.serialize(new WriteChannel(new ByteBufferChannel(target)), batch);
+      } catch (IOException | RuntimeException e) {
+        holder.destroy();
+        throw e;
+      }
+    }
+
+    int index = batchHandles.size();
+    try {
+      // the batch must be durable before the catalog refers to it
+      pool.persist(holder);
+      batchHandles.add(pool.getBufferHandler(holder));
+      writeCatalog(batchSchema);
+    } catch (RuntimeException e) {
+      if (batchHandles.size() > index) {
+        batchHandles.remove(index);
+      }
+      holder.destroy();
+      throw e;
+    }
+    schema = batchSchema;
+    LOGGER.debug("Persisted batch {} of {} rows, size: {}",
+        index, root.getRowCount(), holder.getSize());
+    return index;
+  }
+
+  /**
+   * Reattach a persisted batch. The buffers of the returned batch point directly into durable
+   * memory.
+   *
+   * @param index     the index of the batch
+   * @param allocator the allocator to account the durable memory against
+   * @return the batch, to be closed by the caller
+   * @throws IOException if the batch can not be retrieved
+   */
+  public ArrowRecordBatch attach(int index, BufferAllocator allocator) throws IOException {
+    long handle = batchHandles.get(index);
+    MemBufferHolder<NonVolatileMemAllocator> holder = pool.retrieveBuffer(handle, false);
+    if (holder == null) {
+      throw new IOException("Unable to retrieve batch " + index + " at handle " + handle);
+    }
+    ByteBuffer message = holder.get();
+    message.clear();
+    message.order(ByteOrder.LITTLE_ENDIAN);
+    int metadataLength = message.getInt(0) + 4;
+    ArrowBlock block = new ArrowBlock(0, metadataLength, message.capacity() - metadataLength);
+
+    ArrowBuf buffer = allocator.wrap(message, false);
+    try {
+      buffer.writerIndex(message.capacity());
+      return MessageSerializer.deserializeRecordBatch(buffer, block);
+    } catch (IOException | RuntimeException e) {
+      buffer.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Reattach a persisted batch and load it into root, which must have the schema of the store.
+   *
+   * @param index     the index of the batch
+   * @param root      the vectors to load into
+   * @param allocator the allocator to account the durable memory against
+   * @throws IOException if the batch can not be retrieved
+   */
+  public void load(int index, VectorSchemaRoot root, BufferAllocator allocator) throws IOException {
+    try (ArrowRecordBatch batch = attach(index, allocator)) {
+      new VectorLoader(root).load(batch);
+    }
+  }
+
+  /**
+   * Free the durable memory of all batches and of the catalog and unregister the catalog.
+   * Batches still attached must not be used afterwards.
+   */
+  public void destroy() {
+    for (long handle : batchHandles) {
+      MemBufferHolder<NonVolatileMemAllocator> holder = pool.retrieveBuffer(handle, false);
+      if (holder != null) {
+        holder.destroy();
+      }
+    }
+    batchHandles.clear();
+    schema = null;
+    if (catalog != null) {
+      catalog.destroy();
+      catalog = null;
+    }
+    pool.setHandler(catalogKey, 0L);
+  }
+
+  private MemBufferHolder<NonVolatileMemAllocator> createBuffer(long size) {
+    MemBufferHolder<NonVolatileMemAllocator> holder = pool.createBuffer(size, false);
+    if (holder == null) {
+      throw new OutOfMemoryException(
+          "Unable to allocate " + size + " bytes of durable memory");
+    }
+    return holder;
+  }
+
+  /**
+   * The exact size MessageSerializer.serialize writes for a batch at an 8 byte aligned position.
+   */
+  private static long messageLength(ArrowRecordBatch batch) {
+    long bodyLength = batch.computeBodyLength();
+    FlatBufferBuilder builder = new FlatBufferBuilder();
+    int batchOffset = batch.writeTo(builder);
+    int metadataLength = MessageSerializer.serializeMessage(builder,
+        MessageHeader.RecordBatch, batchOffset, bodyLength).remaining();
+    if ((metadataLength + 4) % 8 != 0) {
+      metadataLength += 8 - (metadataLength + 4) % 8;
+    }
+    return metadataLength + 4 + bodyLength;
+  }
+
+  /**
+   * Write a new catalog of the current batches and register it in place of the current one.
+   * The current catalog stays registered if this fails.
+   */
+  private void writeCatalog(Schema schema) {
+    FlatBufferBuilder builder = new FlatBufferBuilder();
+    builder.finish(schema.getSchema(builder));
+    byte[] schemaBytes = builder.sizedByteArray();
+    int schemaLength = schemaBytes.length;
+    if (schemaLength % 8 != 0) {
+      schemaLength += 8 - schemaLength % 8;
+    }
+
+    MemBufferHolder<NonVolatileMemAllocator> newCatalog =
+        createBuffer(CATALOG_HEADER_LENGTH + schemaLength + 8L * batchHandles.size());
+    try {
+      ByteBuffer out = newCatalog.get();
+      out.clear();
+      out.order(ByteOrder.LITTLE_ENDIAN);
+      out.putInt(CATALOG_MAGIC);
+      out.putInt(CATALOG_VERSION);
+      out.putInt(schemaBytes.length);
+      out.putInt(batchHandles.size());
+      out.put(schemaBytes);
+      out.position(CATALOG_HEADER_LENGTH + schemaLength);
+      for (long handle : batchHandles) {
+        out.putLong(handle);
+      }
+
+      // switch over to the new catalog, once durable, before dropping the old one
+      pool.persist(newCatalog);
+      pool.setHandler(catalogKey, pool.getBufferHandler(newCatalog));
+    } catch (RuntimeException e) {
+      newCatalog.destroy();
+      throw e;
+    }
+    if (catalog != null) {
+      catalog.destroy();
+    }
+    catalog = newCatalog;
+  }
+
+  private void readCatalog(ByteBuffer in) throws IOException {
+    in.clear();
+    in.order(ByteOrder.LITTLE_ENDIAN);
+    if (in.remaining() < CATALOG_HEADER_LENGTH || in.getInt() != CATALOG_MAGIC) {
+      throw new IOException("No record batch catalog at key " + catalogKey);
+    }
+    int version = in.getInt();
+    if (version != CATALOG_VERSION) {
+      throw new IOException("Unsupported catalog version " + version);
+    }
+    int schemaLength = in.getInt();
+    int batchCount = in.getInt();
+
+    byte[] schemaBytes = new byte[schemaLength];
+    in.get(schemaBytes);
+    schema = Schema.deserialize(ByteBuffer.wrap(schemaBytes));
+
+    if (schemaLength % 8 != 0) {
+      schemaLength += 8 - schemaLength % 8;
+    }
+    in.position(CATALOG_HEADER_LENGTH + schemaLength);
+    for (int i = 0; i < batchCount; i++) {
+      batchHandles.add(in.getLong());
+    }
+  }
+
+  /**
+   * Adapts a ByteBuffer to the WritableByteChannel expected by WriteChannel.
+   */
+  private static class ByteBufferChannel implements WritableByteChannel {
+
+    private final ByteBuffer target;
+
+    ByteBufferChannel(ByteBuffer target) {
+      this.target = target;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+      int length = src.remaining();
+      if (length > target.remaining()) {
+        throw new IOException("Durable buffer too small: " + length + " > " + target.remaining());
+      }
+      target.put(src);
+      return length;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
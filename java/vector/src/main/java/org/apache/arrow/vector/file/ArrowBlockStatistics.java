@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.arrow.vector.file;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.flatbuf.BlockStatistics;
+import org.apache.arrow.flatbuf.ColumnStatistics;
+import org.apache.arrow.vector.schema.FBSerializable;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import com.google.flatbuffers.FlatBufferBuilder;
+
+/**
+ * The statistics of a record batch stored in the file footer: its number of rows and the
+ * statistics of each top level column. They let readers skip record batches that cannot match a
+ * query without reading them, see {@link ArrowFileReader#getRecordBlockStatistics()}.
+ */
+public class ArrowBlockStatistics implements FBSerializable {
+
+  private final long rowCount;
+  private final List<ArrowColumnStatistics> columns;
+
+  /**
+   * @param rowCount the number of rows of the record batch
+   * @param columns  the statistics of each top level field of the schema, in order
+   */
+  public ArrowBlockStatistics(long rowCount, List<ArrowColumnStatistics> columns) {
+    this.rowCount = rowCount;
+    this.columns = columns;
+  }
+
+  /**
+   * Reads the statistics of a record batch from the footer.
+   *
+   * @param statistics the flatbuffer statistics
+   * @param schema     the schema of the file
+   */
+  public ArrowBlockStatistics(BlockStatistics statistics, Schema schema) {
+    this(statistics.length(), columns(statistics, schema));
+  }
+
+  private static List<ArrowColumnStatistics> columns(BlockStatistics statistics, Schema schema) {
+    List<Field> fields = schema.getFields();
+    int columnsLength = statistics.columnsLength();
+    if (columnsLength != fields.size()) {
+      throw new InvalidArrowFileException(String.format(
+          "statistics for %d columns, the schema has %d fields", columnsLength, fields.size()));
+    }
+    List<ArrowColumnStatistics> columns = new ArrayList<>(columnsLength);
+    ColumnStatistics tempColumn = new ColumnStatistics();
+    for (int i = 0; i < columnsLength; i++) {
+      columns.add(new ArrowColumnStatistics(statistics.columns(tempColumn, i), fields.get(i).getType()));
+    }
+    return columns;
+  }
+
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  public List<ArrowColumnStatistics> getColumns() {
+    return columns;
+  }
+
+  /**
+   * @param index the index of the top level field in the schema
+   * @return the statistics of its column
+   */
+  public ArrowColumnStatistics getColumn(int index) {
+    return columns.get(index);
+  }
+
+  @Override
+  public int writeTo(FlatBufferBuilder builder) {
+    int[] columnOffsets = new int[columns.size()];
+    for (int i = 0; i < columnOffsets.length; i++) {
+      columnOffsets[i] = columns.get(i).writeTo(builder);
+    }
+    int columnsOffset = BlockStatistics.createColumnsVector(builder, columnOffsets);
+    BlockStatistics.startBlockStatistics(builder);
+    BlockStatistics.addLength(builder, rowCount);
+    BlockStatistics.addColumns(builder, columnsOffset);
+    return BlockStatistics.endBlockStatistics(builder);
+  }
+
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+    int result = 1;
+    result = prime * result + (int) (rowCount ^ (rowCount >>> 32));
+    result = prime * result + ((columns == null) ? 0 : columns.hashCode());
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null) {
+      return false;
+    }
+    if (getClass() != obj.getClass()) {
+      return false;
+    }
+    ArrowBlockStatistics other = (ArrowBlockStatistics) obj;
+    if (rowCount != other.rowCount) {
+      return false;
+    }
+    if (columns == null) {
+      if (other.columns != null) {
+        return false;
+      }
+    } else if (!columns.equals(other.columns)) {
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "ArrowBlockStatistics [rowCount=" + rowCount + ", columns=" + columns + "]";
+  }
+}
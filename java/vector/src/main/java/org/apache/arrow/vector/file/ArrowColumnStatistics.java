@@ -0,0 +1,182 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.arrow.vector.file;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.arrow.flatbuf.ColumnStatistics;
+import org.apache.arrow.vector.schema.FBSerializable;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+
+import com.google.flatbuffers.FlatBufferBuilder;
+
+/**
+ * The statistics of one top level column of a record batch, stored in the file footer.
+ * <p>
+ * The smallest and largest non-null values are a {@link Long} for Int, Date, Time and Timestamp
+ * fields (the bits of the value for unsigned 64-bit integers), a {@link Double} for
+ * FloatingPoint fields, a {@link Boolean} for Bool fields and a {@link String} for Utf8 fields.
+ * They are null when all values are null, when the field is dictionary encoded and for other
+ * types. Utf8 bounds are truncated, so they need not be values of the column.
+ */
+public class ArrowColumnStatistics implements FBSerializable {
+
+  private final long nullCount;
+  private final Object min;
+  private final Object max;
+
+  public ArrowColumnStatistics(long nullCount, Object min, Object max) {
+    this.nullCount = nullCount;
+    this.min = min;
+    this.max = max;
+  }
+
+  /**
+   * Reads the statistics of a column from the footer.
+   *
+   * @param statistics the flatbuffer statistics
+   * @param type       the type of the field of the column
+   */
+  public ArrowColumnStatistics(ColumnStatistics statistics, ArrowType type) {
+    this(statistics.nullCount(),
+        decode(type, statistics.minAsByteBuffer()),
+        decode(type, statistics.maxAsByteBuffer()));
+  }
+
+  public long getNullCount() {
+    return nullCount;
+  }
+
+  /**
+   * @return the smallest non-null value, or null if unknown
+   */
+  public Object getMin() {
+    return min;
+  }
+
+  /**
+   * @return the largest non-null value, or null if unknown
+   */
+  public Object getMax() {
+    return max;
+  }
+
+  @Override
+  public int writeTo(FlatBufferBuilder builder) {
+    int minOffset = min == null ? 0 : ColumnStatistics.createMinVector(builder, encode(min));
+    int maxOffset = max == null ? 0 : ColumnStatistics.createMaxVector(builder, encode(max));
+    ColumnStatistics.startColumnStatistics(builder);
+    ColumnStatistics.addNullCount(builder, nullCount);
+    if (min != null) {
+      ColumnStatistics.addMin(builder, minOffset);
+    }
+    if (max != null) {
+      ColumnStatistics.addMax(builder, maxOffset);
+    }
+    return ColumnStatistics.endColumnStatistics(builder);
+  }
+
+  private static byte[] encode(Object value) {
+    if (value instanceof Long) {
+      return ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong((Long) value).array();
+    } else if (value instanceof Double) {
+      return ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putDouble((Double) value).array();
+    } else if (value instanceof Boolean) {
+      return new byte[] {(byte) ((Boolean) value ? 1 : 0)};
+    } else if (value instanceof String) {
+      return ((String) value).getBytes(StandardCharsets.UTF_8);
+    }
+    throw new IllegalArgumentException("unsupported statistics value: " + value.getClass());
+  }
+
+  private static Object decode(ArrowType type, ByteBuffer bytes) {
+    if (bytes == null) {
+      return null;
+    }
+    bytes = bytes.slice().order(ByteOrder.LITTLE_ENDIAN);
+    switch (type.getTypeID()) {
+      case Int:
+      case Date:
+      case Time:
+      case Timestamp:
+        return bytes.getLong(0);
+      case FloatingPoint:
+        return bytes.getDouble(0);
+      case Bool:
+        return bytes.get(0) != 0;
+      case Utf8:
+        byte[] array = new byte[bytes.remaining()];
+        bytes.get(array);
+        return new String(array, StandardCharsets.UTF_8);
+      default:
+        // written by a newer writer, ignore
+        return null;
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+    int result = 1;
+    result = prime * result + (int) (nullCount ^ (nullCount >>> 32));
+    result = prime * result + ((min == null) ? 0 : min.hashCode());
+    result = prime * result + ((max == null) ? 0 : max.hashCode());
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null) {
+      return false;
+    }
+    if (getClass() != obj.getClass()) {
+      return false;
+    }
+    ArrowColumnStatistics other = (ArrowColumnStatistics) obj;
+    if (nullCount != other.nullCount) {
+      return false;
+    }
+    if (min == null) {
+      if (other.min != null) {
+        return false;
+      }
+    } else if (!min.equals(other.min)) {
+      return false;
+    }
+    if (max == null) {
+      if (other.max != null) {
+        return false;
+      }
+    } else if (!max.equals(other.max)) {
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "ArrowColumnStatistics [nullCount=" + nullCount + ", min=" + min + ", max=" + max + "]";
+  }
+}
@@ -25,6 +25,8 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.apache.arrow.flatbuf.Footer;
+import org.apache.arrow.flatbuf.Message;
+import org.apache.arrow.flatbuf.RecordBatch;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.schema.ArrowDictionaryBatch;
 import org.apache.arrow.vector.schema.ArrowMessage;
@@ -38,16 +40,36 @@ public class ArrowFileReader extends ArrowReader<SeekableReadChannel> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ArrowFileReader.class);
 
+  private final SeekableReadChannel in;
+  private final BufferAllocator allocator;
   private ArrowFooter footer;
   private int currentDictionaryBatch = 0;
   private int currentRecordBatch = 0;
 
   public ArrowFileReader(SeekableByteChannel in, BufferAllocator allocator) {
-    super(new SeekableReadChannel(in), allocator);
+    this(new SeekableReadChannel(in), allocator);
   }
 
   public ArrowFileReader(SeekableReadChannel in, BufferAllocator allocator) {
-    super(in, allocator);
+    this(in, allocator, null);
+  }
+
+  /**
+   * Creates a reader reading only some top level fields. The byte ranges of the other fields in
+   * the record batches are not read.
+   *
+   * @param in              the file to read
+   * @param allocator       to allocate new buffers
+   * @param projectedFields names of the top level fields to read
+   */
+  public ArrowFileReader(SeekableByteChannel in, BufferAllocator allocator, List<String> projectedFields) {
+    this(new SeekableReadChannel(in), allocator, projectedFields);
+  }
+
+  public ArrowFileReader(SeekableReadChannel in, BufferAllocator allocator, List<String> projectedFields) {
+    super(in, allocator, projectedFields);
+    this.in = in;
+    this.allocator = allocator;
   }
 
   @Override
@@ -104,6 +126,34 @@ public class ArrowFileReader extends ArrowReader<SeekableReadChannel> {
     return footer.getRecordBatches();
   }
 
+  /**
+   * Returns the statistics of the record batches stored in the footer, without reading the
+   * batches. They can be used to skip the batches that cannot match a query with
+   * {@link #loadRecordBatch(ArrowBlock)}.
+   *
+   * @return the statistics of each record block, in the order of {@link #getRecordBlocks()}, or
+   *     an empty list if the writer did not collect them
+   * @throws IOException if reading the footer fails
+   */
+  public List<ArrowBlockStatistics> getRecordBlockStatistics() throws IOException {
+    ensureInitialized();
+    return footer.getRecordBatchStatistics();
+  }
+
+  /**
+   * Loads all the dictionary batches not read yet, without loading a record batch. Record batches
+   * may then be read independently of this reader, see {@link ArrowFileScanner}.
+   *
+   * @throws IOException if reading fails
+   */
+  public void loadDictionaries() throws IOException {
+    ensureInitialized();
+    while (currentDictionaryBatch < footer.getDictionaries().size()) {
+      ArrowBlock block = footer.getDictionaries().get(currentDictionaryBatch++);
+      loadDictionaryBatch(readDictionaryBatch(in, block, allocator));
+    }
+  }
+
   public boolean loadRecordBatch(ArrowBlock block) throws IOException {
     ensureInitialized();
     int blockIndex = footer.getRecordBatches().indexOf(block);
@@ -134,10 +184,25 @@ public class ArrowFileReader extends ArrowReader<SeekableReadChannel> {
         block.getOffset(), block.getMetadataLength(),
         block.getBodyLength()));
     in.setPosition(block.getOffset());
-    ArrowRecordBatch batch = MessageSerializer.deserializeRecordBatch(in, block, allocator);
+    ColumnProjection projection = getProjection();
+    ArrowRecordBatch batch;
+    if (projection == null) {
+      batch = MessageSerializer.deserializeRecordBatch(in, block, allocator);
+    } else {
+      batch = readProjectedRecordBatch(in, block, projection, allocator);
+    }
     if (batch == null) {
       throw new IOException("Invalid file. No batch at offset: " + block.getOffset());
     }
     return batch;
   }
+
+  private ArrowRecordBatch readProjectedRecordBatch(SeekableReadChannel in,
+                                                    ArrowBlock block,
+                                                    ColumnProjection projection,
+                                                    BufferAllocator allocator) throws IOException {
+    Message messageFB = MessageSerializer.readBlockMessage(in, block);
+    RecordBatch recordBatchFB = (RecordBatch) messageFB.header(new RecordBatch());
+    return projection.readRecordBatch(in, recordBatchFB, block.getBodyLength(), allocator);
+  }
 }
@@ -0,0 +1,379 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.arrow.vector.file;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.arrow.flatbuf.Message;
+import org.apache.arrow.flatbuf.RecordBatch;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.VectorLoader;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.schema.ArrowRecordBatch;
+import org.apache.arrow.vector.stream.MessageSerializer;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Reads the record batches of an Arrow file concurrently.
+ * <p>
+ * The footer and the dictionaries are read first by an {@link ArrowFileReader}. The record
+ * batches listed in the footer are then read on the given executor with positional reads of the
+ * FileChannel, so the reads neither share nor move the channel position. At most readAhead
+ * batches are read ahead of the consumer, which bounds the memory held by the scanner.
+ * <p>
+ * Every batch is delivered independently, either as an {@link ArrowRecordBatch} or loaded into a
+ * new {@link VectorSchemaRoot}, and is owned by the caller. Batches are delivered in the order of
+ * the footer, or in the order their reads complete when the scanner is unordered.
+ * <p>
+ * The executor is not shut down by the scanner. The scanner itself is not thread safe.
+ */
+public class ArrowFileScanner implements DictionaryProvider, AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ArrowFileScanner.class);
+
+  private final FileChannel in;
+  private final BufferAllocator allocator;
+  private final ArrowFileReader reader;
+  private final List<ArrowBlock> blocks;
+  private final Schema schema;
+  private final int readAhead;
+  private final boolean ordered;
+  private final Executor executor;
+  /** only used when unordered, the completed reads of an ordered scanner are taken from pending */
+  private final CompletionService<ArrowRecordBatch> completionService;
+
+  /** reads submitted and not delivered yet, in submission order */
+  private final Deque<BlockRead> pending = new ArrayDeque<>();
+  /** index of the next block to submit */
+  private int nextBlock = 0;
+  private boolean closed = false;
+
+  /**
+   * Creates a scanner delivering batches in the order of the file.
+   *
+   * @param in        the file to read
+   * @param allocator allocator for the dictionaries and the batches
+   * @param executor  executor running the reads
+   * @param readAhead maximum number of batches read and not delivered yet
+   * @throws IOException if the footer or the dictionaries can not be read
+   */
+  public ArrowFileScanner(FileChannel in, BufferAllocator allocator, Executor executor, int readAhead)
+      throws IOException {
+    this(in, allocator, executor, readAhead, true);
+  }
+
+  /**
+   * @param in        the file to read
+   * @param allocator allocator for the dictionaries and the batches
+   * @param executor  executor running the reads
+   * @param readAhead maximum number of batches read and not delivered yet
+   * @param ordered   whether to deliver the batches in the order of the file rather than as soon
+   *                  as they are read
+   * @throws IOException if the footer or the dictionaries can not be read
+   */
+  public ArrowFileScanner(FileChannel in, BufferAllocator allocator, Executor executor, int readAhead,
+                          boolean ordered) throws IOException {
+    Preconditions.checkArgument(readAhead > 0, "readAhead must be positive: %s", readAhead);
+    this.in = in;
+    this.allocator = allocator;
+    this.readAhead = readAhead;
+    this.ordered = ordered;
+    this.executor = executor;
+    this.completionService = ordered ? null : new ExecutorCompletionService<ArrowRecordBatch>(executor);
+    this.reader = new ArrowFileReader(in, allocator);
+    try {
+      reader.loadDictionaries();
+      this.blocks = reader.getRecordBlocks();
+      this.schema = reader.getVectorSchemaRoot().getSchema();
+    } catch (IOException | RuntimeException e) {
+      reader.close(false);
+      throw e;
+    }
+  }
+
+  /**
+   * @return the schema of the batches, with dictionary encoded fields having their index type
+   */
+  public Schema getSchema() {
+    return schema;
+  }
+
+  public List<ArrowBlock> getRecordBlocks() {
+    return blocks;
+  }
+
+  /**
+   * @return the dictionaries of the file, by id
+   * @throws IOException if reading of schema fails
+   */
+  public Map<Long, Dictionary> getDictionaryVectors() throws IOException {
+    return reader.getDictionaryVectors();
+  }
+
+  @Override
+  public Dictionary lookup(long id) {
+    return reader.lookup(id);
+  }
+
+  /**
+   * Returns the next record batch, waiting for its read to complete. The caller must close the
+   * batch.
+   *
+   * @return the next batch, or null once all the batches were delivered
+   * @throws IOException if reading the batch failed
+   */
+  public ArrowRecordBatch nextBatch() throws IOException {
+    Preconditions.checkState(!closed, "scanner closed");
+    submitReads();
+    if (pending.isEmpty()) {
+      return null;
+    }
+    Future<ArrowRecordBatch> future;
+    if (ordered) {
+      future = pending.removeFirst().future;
+    } else {
+      try {
+        future = completionService.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while waiting for a batch", e);
+      }
+      for (Iterator<BlockRead> it = pending.iterator(); it.hasNext(); ) {
+        if (it.next().future == future) {
+          it.remove();
+          break;
+        }
+      }
+    }
+    ArrowRecordBatch batch = get(future);
+    submitReads();
+    return batch;
+  }
+
+  /**
+   * Returns the next record batch loaded into a new VectorSchemaRoot with the schema of the file.
+   * The caller must close the root.
+   *
+   * @return the root holding the next batch, or null once all the batches were delivered
+   * @throws IOException if reading the batch failed
+   */
+  public VectorSchemaRoot nextRoot() throws IOException {
+    ArrowRecordBatch batch = nextBatch();
+    if (batch == null) {
+      return null;
+    }
+    VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+    try {
+      new VectorLoader(root).load(batch);
+    } catch (RuntimeException e) {
+      root.close();
+      throw e;
+    } finally {
+      batch.close();
+    }
+    return root;
+  }
+
+  private void submitReads() {
+    while (pending.size() < readAhead && nextBlock < blocks.size()) {
+      BlockRead read = new BlockRead(blocks.get(nextBlock++));
+      if (ordered) {
+        FutureTask<ArrowRecordBatch> task = new FutureTask<>(read);
+        read.future = task;
+        executor.execute(task);
+      } else {
+        read.future = completionService.submit(read);
+      }
+      pending.addLast(read);
+    }
+  }
+
+  /**
+   * The read of a block. Whichever of the read and {@link #close()} claims it first decides
+   * whether it runs: a read claimed by close is skipped, a read that started is waited for.
+   */
+  private final class BlockRead implements Callable<ArrowRecordBatch> {
+    private final ArrowBlock block;
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private Future<ArrowRecordBatch> future;
+
+    BlockRead(ArrowBlock block) {
+      this.block = block;
+    }
+
+    @Override
+    public ArrowRecordBatch call() throws IOException {
+      if (!claimed.compareAndSet(false, true)) {
+        // the scanner was closed before the read started
+        return null;
+      }
+      return readRecordBatch(block);
+    }
+
+    /**
+     * @return true if the read will not run, false if it started and must be waited for
+     */
+    boolean cancel() {
+      if (claimed.compareAndSet(false, true)) {
+        future.cancel(false);
+        return true;
+      }
+      return false;
+    }
+  }
+
+  private ArrowRecordBatch readRecordBatch(ArrowBlock block) throws IOException {
+    LOGGER.debug("RecordBatch at {}, metadata: {}, body: {}",
+        block.getOffset(), block.getMetadataLength(), block.getBodyLength());
+    long totalLen = block.getMetadataLength() + block.getBodyLength();
+    if (totalLen > MessageSerializer.MAX_BODY_CHUNK) {
+      return readLargeRecordBatch(block);
+    }
+    ArrowBuf buffer = readBuffer(block, block.getOffset(), (int) totalLen);
+    return MessageSerializer.deserializeRecordBatch(buffer, block);
+  }
+
+  /**
+   * Reads the metadata of a block on its own and its body in chunks of at most 2GB.
+   */
+  private ArrowRecordBatch readLargeRecordBatch(ArrowBlock block) throws IOException {
+    ByteBuffer metadata = ByteBuffer.allocate(block.getMetadataLength());
+    readFully(block, metadata, block.getOffset());
+    metadata.position(4);
+    Message messageFB = Message.getRootAsMessage(metadata.slice());
+    RecordBatch recordBatchFB = (RecordBatch) messageFB.header(new RecordBatch());
+
+    long bodyStart = block.getOffset() + block.getMetadataLength();
+    long[] bounds = MessageSerializer.splitBody(recordBatchFB, block.getBodyLength(),
+        MessageSerializer.MAX_BODY_CHUNK);
+    List<ArrowBuf> chunks = new ArrayList<>(bounds.length - 1);
+    try {
+      for (int i = 0; i < bounds.length - 1; i++) {
+        chunks.add(readBuffer(block, bodyStart + bounds[i], (int) (bounds[i + 1] - bounds[i])));
+      }
+    } catch (IOException | RuntimeException e) {
+      for (ArrowBuf chunk : chunks) {
+        chunk.release();
+      }
+      throw e;
+    }
+    return MessageSerializer.deserializeRecordBatch(recordBatchFB, bounds, chunks);
+  }
+
+  private ArrowBuf readBuffer(ArrowBlock block, long position, int length) throws IOException {
+    ArrowBuf buffer = allocator.buffer(length);
+    try {
+      readFully(block, buffer.nioBuffer(0, length), position);
+      buffer.writerIndex(length);
+    } catch (IOException | RuntimeException e) {
+      buffer.release();
+      throw e;
+    }
+    return buffer;
+  }
+
+  private void readFully(ArrowBlock block, ByteBuffer nioBuffer, long position) throws IOException {
+    while (nioBuffer.hasRemaining()) {
+      int read = in.read(nioBuffer, position);
+      if (read < 0) {
+        throw new EOFException("Unexpected end of input trying to read batch at offset " + block.getOffset());
+      }
+      position += read;
+    }
+  }
+
+  private static ArrowRecordBatch get(Future<ArrowRecordBatch> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for a batch", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  /**
+   * Cancels the reads not started yet, waits for the started ones and releases the batches read
+   * and not delivered, then closes the dictionaries and the file.
+   *
+   * @throws IOException if closing the file fails
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    List<Future<ArrowRecordBatch>> started = new ArrayList<>();
+    for (BlockRead read : pending) {
+      if (!read.cancel()) {
+        started.add(read.future);
+      }
+    }
+    pending.clear();
+    // reads already started can not be abandoned, their buffers are owned by the allocator and
+    // they use the file until they complete
+    for (Future<ArrowRecordBatch> future : started) {
+      try {
+        ArrowRecordBatch batch = get(future);
+        if (batch != null) {
+          batch.close();
+        }
+      } catch (IOException | RuntimeException e) {
+        LOGGER.debug("Read failed while closing the scanner", e);
+      }
+    }
+    reader.close();
+  }
+}
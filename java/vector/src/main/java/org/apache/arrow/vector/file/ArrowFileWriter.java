@@ -20,9 +20,11 @@ package org.apache.arrow.vector.file;
 
 import java.io.IOException;
 import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.CompressionCodec;
 import org.apache.arrow.vector.dictionary.DictionaryProvider;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.slf4j.Logger;
@@ -32,8 +34,51 @@ public class ArrowFileWriter extends ArrowWriter {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ArrowFileWriter.class);
 
+  private final VectorSchemaRoot root;
+  // null unless statistics are collected
+  private final List<ArrowBlockStatistics> recordStatistics;
+
   public ArrowFileWriter(VectorSchemaRoot root, DictionaryProvider provider, WritableByteChannel out) {
-    super(root, provider, out);
+    this(root, provider, out, null);
+  }
+
+  public ArrowFileWriter(VectorSchemaRoot root, DictionaryProvider provider, WritableByteChannel out,
+                         CompressionCodec codec) {
+    this(root, provider, out, codec, false);
+  }
+
+  /**
+   * @param root              the vectors to write to the output
+   * @param provider          where to find the dictionaries
+   * @param out               the output where to write
+   * @param codec             the codec compressing the buffers, or null to write them uncompressed
+   * @param collectStatistics whether to store the row count, and the null count, min and max of
+   *                          each top level column, of every record batch in the footer, see
+   *                          {@link ArrowFileReader#getRecordBlockStatistics()}
+   */
+  public ArrowFileWriter(VectorSchemaRoot root, DictionaryProvider provider, WritableByteChannel out,
+                         CompressionCodec codec, boolean collectStatistics) {
+    super(root, provider, out, codec);
+    this.root = root;
+    this.recordStatistics = collectStatistics ? new ArrayList<ArrowBlockStatistics>() : null;
+  }
+
+  @Override
+  public void writeBatch() throws IOException {
+    ArrowBlockStatistics statistics = recordStatistics == null ? null : StatisticsCollector.collect(root);
+    super.writeBatch();
+    if (statistics != null) {
+      recordStatistics.add(statistics);
+    }
+  }
+
+  /**
+   * Readers of the file format load all the dictionary batches before the first record batch, so
+   * the batches written before a dictionary is replaced would be decoded with the new entries.
+   */
+  @Override
+  protected boolean supportsDictionaryReplacement() {
+    return false;
   }
 
   @Override
@@ -47,14 +92,17 @@ public class ArrowFileWriter extends ArrowWriter {
                              List<ArrowBlock> dictionaries,
                              List<ArrowBlock> records) throws IOException {
     long footerStart = out.getCurrentPosition();
-    out.write(new ArrowFooter(schema, dictionaries, records), false);
+    ArrowFooter footer = recordStatistics == null
+        ? new ArrowFooter(schema, dictionaries, records)
+        : new ArrowFooter(schema, dictionaries, records, recordStatistics);
+    out.write(footer, false);
     int footerLength = (int) (out.getCurrentPosition() - footerStart);
     if (footerLength <= 0) {
       throw new InvalidArrowFileException("invalid footer");
     }
     out.writeIntLittleEndian(footerLength);
-    LOGGER.debug(String.format("Footer starts at %d, length: %d", footerStart, footerLength));
+    LOGGER.debug("Footer starts at {}, length: {}", footerStart, footerLength);
     ArrowMagic.writeMagic(out, false);
-    LOGGER.debug(String.format("magic written, now at %d", out.getCurrentPosition()));
+    LOGGER.debug("magic written, now at {}", out.getCurrentPosition());
   }
 }
@@ -21,9 +21,11 @@ package org.apache.arrow.vector.file;
 import static org.apache.arrow.vector.schema.FBSerializables.writeAllStructsToVector;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.arrow.flatbuf.Block;
+import org.apache.arrow.flatbuf.BlockStatistics;
 import org.apache.arrow.flatbuf.Footer;
 import org.apache.arrow.vector.schema.FBSerializable;
 import org.apache.arrow.vector.types.pojo.Schema;
@@ -38,17 +40,38 @@ public class ArrowFooter implements FBSerializable {
 
   private final List<ArrowBlock> recordBatches;
 
+  private final List<ArrowBlockStatistics> recordBatchStatistics;
+
   public ArrowFooter(Schema schema, List<ArrowBlock> dictionaries, List<ArrowBlock> recordBatches) {
+    this(schema, dictionaries, recordBatches, Collections.<ArrowBlockStatistics>emptyList());
+  }
+
+  /**
+   * @param recordBatchStatistics the statistics of each record batch, in the same order as the
+   *                              record batches, or an empty list if they were not collected
+   */
+  public ArrowFooter(Schema schema, List<ArrowBlock> dictionaries, List<ArrowBlock> recordBatches,
+                     List<ArrowBlockStatistics> recordBatchStatistics) {
+    if (!recordBatchStatistics.isEmpty() && recordBatchStatistics.size() != recordBatches.size()) {
+      throw new IllegalArgumentException(String.format("statistics for %d record batches, expected %d",
+          recordBatchStatistics.size(), recordBatches.size()));
+    }
     this.schema = schema;
     this.dictionaries = dictionaries;
     this.recordBatches = recordBatches;
+    this.recordBatchStatistics = recordBatchStatistics;
   }
 
   public ArrowFooter(Footer footer) {
+    this(footer, Schema.convertSchema(footer.schema()));
+  }
+
+  private ArrowFooter(Footer footer, Schema schema) {
     this(
-        Schema.convertSchema(footer.schema()),
+        schema,
         dictionaries(footer),
-        recordBatches(footer)
+        recordBatches(footer),
+        recordBatchStatistics(footer, schema)
     );
   }
 
@@ -63,6 +86,19 @@ public class ArrowFooter implements FBSerializable {
     return recordBatches;
   }
 
+  private static List<ArrowBlockStatistics> recordBatchStatistics(Footer footer, Schema schema) {
+    int statisticsLength = footer.recordBatchStatisticsLength();
+    if (statisticsLength == 0) {
+      return Collections.emptyList();
+    }
+    List<ArrowBlockStatistics> statistics = new ArrayList<>(statisticsLength);
+    BlockStatistics tempStatistics = new BlockStatistics();
+    for (int i = 0; i < statisticsLength; i++) {
+      statistics.add(new ArrowBlockStatistics(footer.recordBatchStatistics(tempStatistics, i), schema));
+    }
+    return statistics;
+  }
+
   private static List<ArrowBlock> dictionaries(Footer footer) {
     List<ArrowBlock> dictionaries = new ArrayList<>();
     Block tempBlock = new Block();
@@ -87,6 +123,13 @@ public class ArrowFooter implements FBSerializable {
     return recordBatches;
   }
 
+  /**
+   * @return the statistics of each record batch, or an empty list if they were not collected
+   */
+  public List<ArrowBlockStatistics> getRecordBatchStatistics() {
+    return recordBatchStatistics;
+  }
+
   @Override
   public int writeTo(FlatBufferBuilder builder) {
     int schemaIndex = schema.getSchema(builder);
@@ -94,10 +137,21 @@ public class ArrowFooter implements FBSerializable {
     int dicsOffset = writeAllStructsToVector(builder, dictionaries);
     Footer.startRecordBatchesVector(builder, recordBatches.size());
     int rbsOffset = writeAllStructsToVector(builder, recordBatches);
+    int statisticsOffset = 0;
+    if (!recordBatchStatistics.isEmpty()) {
+      int[] statisticsOffsets = new int[recordBatchStatistics.size()];
+      for (int i = 0; i < statisticsOffsets.length; i++) {
+        statisticsOffsets[i] = recordBatchStatistics.get(i).writeTo(builder);
+      }
+      statisticsOffset = Footer.createRecordBatchStatisticsVector(builder, statisticsOffsets);
+    }
     Footer.startFooter(builder);
     Footer.addSchema(builder, schemaIndex);
     Footer.addDictionaries(builder, dicsOffset);
     Footer.addRecordBatches(builder, rbsOffset);
+    if (statisticsOffset != 0) {
+      Footer.addRecordBatchStatistics(builder, statisticsOffset);
+    }
     return Footer.endFooter(builder);
   }
 
@@ -107,6 +161,7 @@ public class ArrowFooter implements FBSerializable {
     int result = 1;
     result = prime * result + ((dictionaries == null) ? 0 : dictionaries.hashCode());
     result = prime * result + ((recordBatches == null) ? 0 : recordBatches.hashCode());
+    result = prime * result + ((recordBatchStatistics == null) ? 0 : recordBatchStatistics.hashCode());
     result = prime * result + ((schema == null) ? 0 : schema.hashCode());
     return result;
   }
@@ -137,6 +192,13 @@ public class ArrowFooter implements FBSerializable {
     } else if (!recordBatches.equals(other.recordBatches)) {
       return false;
     }
+    if (recordBatchStatistics == null) {
+      if (other.recordBatchStatistics != null) {
+        return false;
+      }
+    } else if (!recordBatchStatistics.equals(other.recordBatchStatistics)) {
+      return false;
+    }
     if (schema == null) {
       if (other.schema != null) {
         return false;
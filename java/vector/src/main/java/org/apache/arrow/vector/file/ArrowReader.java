@@ -40,6 +40,9 @@ import org.apache.arrow.vector.schema.ArrowRecordBatch;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.arrow.vector.util.DictionaryUtility;
+import org.apache.arrow.vector.util.TransferPair;
+
+import io.netty.buffer.ArrowBuf;
 
 /**
  * Abstract class to read ArrowRecordBatches from a ReadChannel.
@@ -50,16 +53,29 @@ public abstract class ArrowReader<T extends ReadChannel> implements DictionaryPr
 
   private final T in;
   private final BufferAllocator allocator;
+  private final List<String> projectedFields;
 
   private VectorLoader loader;
   private VectorSchemaRoot root;
   private Map<Long, Dictionary> dictionaries;
+  private ColumnProjection projection;
 
   private boolean initialized = false;
 
   protected ArrowReader(T in, BufferAllocator allocator) {
+    this(in, allocator, null);
+  }
+
+  /**
+   * @param in              the channel to read from
+   * @param allocator       to allocate new buffers
+   * @param projectedFields names of the top level fields to read, the others are skipped, or
+   *                        null to read all the fields
+   */
+  protected ArrowReader(T in, BufferAllocator allocator, List<String> projectedFields) {
     this.in = in;
     this.allocator = allocator;
+    this.projectedFields = projectedFields;
   }
 
   /**
@@ -111,11 +127,7 @@ public abstract class ArrowReader<T extends ReadChannel> implements DictionaryPr
     ArrowMessageVisitor<Boolean> visitor = new ArrowMessageVisitor<Boolean>() {
       @Override
       public Boolean visit(ArrowDictionaryBatch message) {
-        try {
-          load(message);
-        } finally {
-          message.close();
-        }
+        loadDictionaryBatch(message);
         return true;
       }
 
@@ -187,8 +199,23 @@ public abstract class ArrowReader<T extends ReadChannel> implements DictionaryPr
 
   protected abstract Schema readSchema(T in) throws IOException;
 
+  /**
+   * Reads the next message. Record batches only hold the fields of the projection, if any.
+   *
+   * @param in        the channel to read from
+   * @param allocator to allocate new buffers
+   * @return the next message, or null on EOS
+   * @throws IOException if reading fails
+   */
   protected abstract ArrowMessage readMessage(T in, BufferAllocator allocator) throws IOException;
 
+  /**
+   * @return the projection to apply to record batches, or null if all the fields are read
+   */
+  protected ColumnProjection getProjection() {
+    return projection;
+  }
+
   protected void ensureInitialized() throws IOException {
     if (!initialized) {
       initialize();
@@ -201,6 +228,10 @@ public abstract class ArrowReader<T extends ReadChannel> implements DictionaryPr
    */
   private void initialize() throws IOException {
     Schema originalSchema = readSchema(in);
+    if (projectedFields != null) {
+      projection = new ColumnProjection(originalSchema, projectedFields);
+      originalSchema = projection.getSchema();
+    }
     List<Field> fields = new ArrayList<>();
     List<FieldVector> vectors = new ArrayList<>();
     Map<Long, Dictionary> dictionaries = new HashMap<>();
@@ -218,15 +249,89 @@ public abstract class ArrowReader<T extends ReadChannel> implements DictionaryPr
     this.dictionaries = Collections.unmodifiableMap(dictionaries);
   }
 
+  /**
+   * Loads a dictionary batch into its dictionary vector and closes it.
+   *
+   * @param dictionaryBatch the batch to load
+   */
+  protected void loadDictionaryBatch(ArrowDictionaryBatch dictionaryBatch) {
+    try {
+      load(dictionaryBatch);
+    } finally {
+      dictionaryBatch.close();
+    }
+  }
+
   private void load(ArrowDictionaryBatch dictionaryBatch) {
     long id = dictionaryBatch.getDictionaryId();
     Dictionary dictionary = dictionaries.get(id);
+    if (dictionary == null && projection != null && projection.isSkippedDictionary(id)) {
+      // only used by fields outside of the projection
+      return;
+    }
     if (dictionary == null) {
       throw new IllegalArgumentException("Dictionary ID " + id + " not defined in schema");
     }
     FieldVector vector = dictionary.getVector();
-    VectorSchemaRoot root = new VectorSchemaRoot(ImmutableList.of(vector.getField()), ImmutableList.of(vector), 0);
-    VectorLoader loader = new VectorLoader(root);
-    loader.load(dictionaryBatch.getDictionary());
+    if (dictionaryBatch.isDelta() && vector.getAccessor().getValueCount() > 0) {
+      appendDelta(vector, dictionaryBatch.getDictionary());
+    } else {
+      VectorSchemaRoot root = new VectorSchemaRoot(ImmutableList.of(vector.getField()), ImmutableList.of(vector), 0);
+      VectorLoader loader = new VectorLoader(root);
+      loader.load(dictionaryBatch.getDictionary());
+    }
+  }
+
+  /**
+   * Appends the entries of a delta dictionary batch to the dictionary vector, so that indices
+   * already read stay valid.
+   */
+  private void appendDelta(FieldVector vector, ArrowRecordBatch delta) {
+    if (isReadOnly(vector)) {
+      copyOnWrite(vector);
+    }
+    try (FieldVector deltaVector = vector.getField().createVector(allocator)) {
+      VectorSchemaRoot root = new VectorSchemaRoot(ImmutableList.of(deltaVector.getField()), ImmutableList.of(deltaVector), 0);
+      VectorLoader loader = new VectorLoader(root);
+      loader.load(delta);
+
+      int count = vector.getAccessor().getValueCount();
+      int deltaCount = deltaVector.getAccessor().getValueCount();
+      TransferPair transfer = deltaVector.makeTransferPair(vector);
+      for (int i = 0; i < deltaCount; i++) {
+        transfer.copyValueSafe(i, count + i);
+      }
+      vector.getMutator().setValueCount(count + deltaCount);
+    }
+  }
+
+  private static boolean isReadOnly(FieldVector vector) {
+    for (ArrowBuf buffer : vector.getFieldBuffers()) {
+      if (buffer.isReadOnly()) {
+        return true;
+      }
+    }
+    for (FieldVector child : vector.getChildrenFromFields()) {
+      if (isReadOnly(child)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Replaces the read only buffers of the vector, e.g. memory mapped, by a writable copy.
+   */
+  private void copyOnWrite(FieldVector vector) {
+    int count = vector.getAccessor().getValueCount();
+    TransferPair copy = vector.getTransferPair(allocator);
+    try (FieldVector copyVector = (FieldVector) copy.getTo()) {
+      copyVector.allocateNew();
+      for (int i = 0; i < count; i++) {
+        copy.copyValueSafe(i, i);
+      }
+      copyVector.getMutator().setValueCount(count);
+      copyVector.makeTransferPair(vector).transfer();
+    }
   }
 }
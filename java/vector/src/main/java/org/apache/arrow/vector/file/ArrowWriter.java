@@ -21,13 +21,18 @@ package org.apache.arrow.vector.file;
 import java.io.IOException;
 import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.arrow.vector.FieldVector;
 import org.apache.arrow.vector.VectorSchemaRoot;
 import org.apache.arrow.vector.VectorUnloader;
+import org.apache.arrow.vector.compression.CompressionCodec;
+import org.apache.arrow.vector.compression.CompressionUtility;
 import org.apache.arrow.vector.dictionary.Dictionary;
 import org.apache.arrow.vector.dictionary.DictionaryProvider;
 import org.apache.arrow.vector.schema.ArrowDictionaryBatch;
@@ -36,6 +41,7 @@ import org.apache.arrow.vector.stream.MessageSerializer;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.apache.arrow.vector.util.DictionaryUtility;
+import org.apache.arrow.vector.util.TransferPair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,8 +55,12 @@ public abstract class ArrowWriter implements AutoCloseable {
   private final Schema schema;
   private final WriteChannel out;
 
+  private final CompressionCodec codec;
   private final VectorUnloader unloader;
-  private final List<ArrowDictionaryBatch> dictionaries;
+  // dictionaries used by the schema
+  private final Map<Long, Dictionary> dictionaryVectors = new LinkedHashMap<>();
+  // what was written of each dictionary so far
+  private final Map<Long, WrittenDictionary> writtenDictionaries = new HashMap<>();
 
   private final List<ArrowBlock> dictionaryBlocks = new ArrayList<>();
   private final List<ArrowBlock> recordBlocks = new ArrayList<>();
@@ -61,11 +71,31 @@ public abstract class ArrowWriter implements AutoCloseable {
   /**
    * Note: fields are not closed when the writer is closed
    *
+   * Dictionaries are written as they are when the writer starts. They may change afterwards:
+   * before each record batch, the entries appended since are written as a delta dictionary batch
+   * by writers that support delta dictionaries, otherwise the whole dictionary is written again.
+   * Dictionaries whose entries were replaced must be marked with {@link Dictionary#markReplaced()},
+   * they are then written again in full by writers that support replacing dictionaries.
+   *
    * @param root     the vectors to write to the output
    * @param provider where to find the dictionaries
    * @param out      the output where to write
    */
   protected ArrowWriter(VectorSchemaRoot root, DictionaryProvider provider, WritableByteChannel out) {
+    this(root, provider, out, null);
+  }
+
+  /**
+   * @param root     the vectors to write to the output
+   * @param provider where to find the dictionaries
+   * @param out      the output where to write
+   * @param codec    the codec compressing the buffers of record and dictionary batches, or null
+   *                 to write them uncompressed. Readers need a codec registered for its type in
+   *                 {@link org.apache.arrow.vector.compression.CompressionUtility}.
+   */
+  protected ArrowWriter(VectorSchemaRoot root, DictionaryProvider provider, WritableByteChannel out,
+                        CompressionCodec codec) {
+    this.codec = codec;
     this.unloader = new VectorUnloader(root);
     this.out = new WriteChannel(out);
 
@@ -77,16 +107,8 @@ public abstract class ArrowWriter implements AutoCloseable {
       fields.add(DictionaryUtility.toMessageFormat(field, provider, dictionaryIdsUsed));
     }
 
-    // Create a record batch for each dictionary
-    this.dictionaries = new ArrayList<>(dictionaryIdsUsed.size());
     for (long id : dictionaryIdsUsed) {
-      Dictionary dictionary = provider.lookup(id);
-      FieldVector vector = dictionary.getVector();
-      int count = vector.getAccessor().getValueCount();
-      VectorSchemaRoot dictRoot = new VectorSchemaRoot(ImmutableList.of(vector.getField()), ImmutableList.of(vector), count);
-      VectorUnloader unloader = new VectorUnloader(dictRoot);
-      ArrowRecordBatch batch = unloader.getRecordBatch();
-      this.dictionaries.add(new ArrowDictionaryBatch(id, batch));
+      this.dictionaryVectors.put(id, provider.lookup(id));
     }
 
     this.schema = new Schema(fields, root.getSchema().getCustomMetadata());
@@ -98,18 +120,107 @@ public abstract class ArrowWriter implements AutoCloseable {
 
   public void writeBatch() throws IOException {
     ensureStarted();
+    writeDictionaryDeltas();
     try (ArrowRecordBatch batch = unloader.getRecordBatch()) {
       writeRecordBatch(batch);
     }
   }
 
   protected void writeRecordBatch(ArrowRecordBatch batch) throws IOException {
-    ArrowBlock block = MessageSerializer.serialize(out, batch);
-    LOGGER.debug(String.format("RecordBatch at %d, metadata: %d, body: %d",
-        block.getOffset(), block.getMetadataLength(), block.getBodyLength()));
+    ArrowBlock block;
+    if (codec == null) {
+      block = MessageSerializer.serialize(out, batch);
+    } else {
+      try (ArrowRecordBatch compressed = CompressionUtility.compress(batch, codec)) {
+        block = MessageSerializer.serialize(out, compressed);
+      }
+    }
+    LOGGER.debug("RecordBatch at {}, metadata: {}, body: {}",
+        block.getOffset(), block.getMetadataLength(), block.getBodyLength());
     recordBlocks.add(block);
   }
 
+  /**
+   * @return true if dictionaries may grow while writing, see {@link #writeBatch()}
+   */
+  protected boolean supportsDeltaDictionaries() {
+    return false;
+  }
+
+  /**
+   * @return true if dictionaries may be replaced while writing, see {@link #writeBatch()}
+   */
+  protected boolean supportsDictionaryReplacement() {
+    return true;
+  }
+
+  private void writeDictionaryDeltas() throws IOException {
+    for (Map.Entry<Long, Dictionary> entry : dictionaryVectors.entrySet()) {
+      long id = entry.getKey();
+      Dictionary dictionary = entry.getValue();
+      WrittenDictionary written = writtenDictionaries.get(id);
+      int count = dictionary.getVector().getAccessor().getValueCount();
+      if (dictionary.getGeneration() != written.generation || count < written.count) {
+        if (!supportsDictionaryReplacement()) {
+          throw new IllegalStateException("Dictionary " + id + " was replaced after it was written, " +
+              "the batches written before would be decoded with the new entries");
+        }
+        writeDictionary(id, dictionary);
+      } else if (count > written.count) {
+        if (supportsDeltaDictionaries()) {
+          writeDictionaryDelta(id, dictionary.getVector(), written.count, count - written.count);
+          written.count = count;
+        } else {
+          writeDictionary(id, dictionary);
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes all the entries of the dictionary.
+   */
+  private void writeDictionary(long id, Dictionary dictionary) throws IOException {
+    FieldVector vector = dictionary.getVector();
+    int count = vector.getAccessor().getValueCount();
+    VectorSchemaRoot dictRoot = new VectorSchemaRoot(ImmutableList.of(vector.getField()), ImmutableList.of(vector), count);
+    ArrowDictionaryBatch batch = new ArrowDictionaryBatch(id, new VectorUnloader(dictRoot).getRecordBatch());
+    try {
+      writeDictionaryBatch(batch);
+    } finally {
+      batch.close();
+    }
+    writtenDictionaries.put(id, new WrittenDictionary(count, dictionary.getGeneration()));
+  }
+
+  private void writeDictionaryDelta(long id, FieldVector vector, int start, int length) throws IOException {
+    TransferPair transfer = vector.getTransferPair(vector.getAllocator());
+    transfer.splitAndTransfer(start, length);
+    try (FieldVector delta = (FieldVector) transfer.getTo()) {
+      VectorSchemaRoot deltaRoot = new VectorSchemaRoot(ImmutableList.of(delta.getField()), ImmutableList.of(delta), length);
+      ArrowDictionaryBatch batch = new ArrowDictionaryBatch(id, new VectorUnloader(deltaRoot).getRecordBatch(), true);
+      try {
+        writeDictionaryBatch(batch);
+      } finally {
+        batch.close();
+      }
+    }
+  }
+
+  private void writeDictionaryBatch(ArrowDictionaryBatch batch) throws IOException {
+    ArrowBlock block;
+    if (codec == null) {
+      block = MessageSerializer.serialize(out, batch);
+    } else {
+      try (ArrowDictionaryBatch compressed = CompressionUtility.compress(batch, codec)) {
+        block = MessageSerializer.serialize(out, compressed);
+      }
+    }
+    LOGGER.debug("DictionaryRecordBatch at {}, metadata: {}, body: {}",
+        block.getOffset(), block.getMetadataLength(), block.getBodyLength());
+    dictionaryBlocks.add(block);
+  }
+
   public void end() throws IOException {
     ensureStarted();
     ensureEnded();
@@ -127,15 +238,8 @@ public abstract class ArrowWriter implements AutoCloseable {
       // the streaming format
       MessageSerializer.serialize(out, schema);
       // write out any dictionaries
-      for (ArrowDictionaryBatch batch : dictionaries) {
-        try {
-          ArrowBlock block = MessageSerializer.serialize(out, batch);
-          LOGGER.debug(String.format("DictionaryRecordBatch at %d, metadata: %d, body: %d",
-              block.getOffset(), block.getMetadataLength(), block.getBodyLength()));
-          dictionaryBlocks.add(block);
-        } finally {
-          batch.close();
-        }
+      for (Map.Entry<Long, Dictionary> entry : dictionaryVectors.entrySet()) {
+        writeDictionary(entry.getKey(), entry.getValue());
       }
     }
   }
@@ -163,4 +267,18 @@ public abstract class ArrowWriter implements AutoCloseable {
       throw new RuntimeException(e);
     }
   }
+
+  /**
+   * The number of entries of a dictionary written so far, and its generation when it was last
+   * written in full.
+   */
+  private static final class WrittenDictionary {
+    private int count;
+    private final long generation;
+
+    private WrittenDictionary(int count, long generation) {
+      this.count = count;
+      this.generation = generation;
+    }
+  }
 }
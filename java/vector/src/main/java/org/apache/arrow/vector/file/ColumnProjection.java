@@ -0,0 +1,245 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.arrow.vector.file;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.arrow.flatbuf.Buffer;
+import org.apache.arrow.flatbuf.FieldNode;
+import org.apache.arrow.flatbuf.RecordBatch;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.schema.ArrowFieldNode;
+import org.apache.arrow.vector.schema.ArrowRecordBatch;
+import org.apache.arrow.vector.schema.TypeLayout;
+import org.apache.arrow.vector.stream.MessageSerializer;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * A subset of the top level fields of a schema, used by {@link ArrowReader} to read only the
+ * buffers of these fields from record batches.
+ * <p>
+ * Nodes and buffers of a record batch are laid out in pre-order of the field tree, so each top
+ * level field owns a contiguous range of them. The byte ranges of the projected buffers are read
+ * from the body, adjacent ones in a single read, and the others are skipped.
+ */
+public class ColumnProjection {
+
+  private final Schema schema;
+  private final boolean[] projected;
+  private final int[] nodeCounts;
+  private final int[] bufferCounts;
+  private final Set<Long> skippedDictionaryIds = new HashSet<>();
+
+  /**
+   * @param schema     the schema of the file or stream
+   * @param fieldNames the names of the top level fields to read
+   * @throws IllegalArgumentException if a name is not a top level field of the schema
+   */
+  public ColumnProjection(Schema schema, Collection<String> fieldNames) {
+    Set<String> names = new HashSet<>(fieldNames);
+    List<Field> fields = schema.getFields();
+    List<Field> projectedFields = new ArrayList<>(names.size());
+    this.projected = new boolean[fields.size()];
+    this.nodeCounts = new int[fields.size()];
+    this.bufferCounts = new int[fields.size()];
+    for (int i = 0; i < fields.size(); i++) {
+      Field field = fields.get(i);
+      if (names.remove(field.getName())) {
+        projected[i] = true;
+        projectedFields.add(field);
+      } else {
+        collectDictionaryIds(field, skippedDictionaryIds);
+      }
+      nodeCounts[i] = countNodes(field);
+      bufferCounts[i] = countBuffers(field);
+    }
+    if (!names.isEmpty()) {
+      throw new IllegalArgumentException("Fields " + names + " not found in schema " + schema);
+    }
+    this.schema = new Schema(projectedFields, schema.getCustomMetadata());
+  }
+
+  /**
+   * @return the schema restricted to the projected fields, in the order of the original schema
+   */
+  public Schema getSchema() {
+    return schema;
+  }
+
+  /**
+   * @param id a dictionary id
+   * @return true if the dictionary is only used by fields left out of the projection, so its
+   *         batches can be skipped
+   */
+  public boolean isSkippedDictionary(long id) {
+    return skippedDictionaryIds.contains(id);
+  }
+
+  private static void collectDictionaryIds(Field field, Set<Long> ids) {
+    DictionaryEncoding encoding = field.getDictionary();
+    if (encoding != null) {
+      ids.add(encoding.getId());
+    }
+    for (Field child : field.getChildren()) {
+      collectDictionaryIds(child, ids);
+    }
+  }
+
+  /**
+   * Reads the projected buffers of a record batch from the body starting at the current position
+   * of the channel, and leaves the channel positioned at the end of the body.
+   *
+   * @param in            the channel to read from
+   * @param recordBatchFB the metadata of the batch
+   * @param bodyLength    the length of the body
+   * @param allocator     to allocate the buffers
+   * @return a batch holding only the nodes and buffers of the projected fields
+   * @throws IOException if reading fails or the metadata does not match the schema
+   */
+  public ArrowRecordBatch readRecordBatch(ReadChannel in, RecordBatch recordBatchFB, long bodyLength,
+                                          BufferAllocator allocator) throws IOException {
+    if ((int) recordBatchFB.length() != recordBatchFB.length()) {
+      throw new IOException("Cannot currently deserialize record batches with more than " +
+          "Int.MAX_VALUE rows");
+    }
+    List<ArrowFieldNode> nodes = new ArrayList<>();
+    // [offset, length] of the buffers to read, in the order of the body
+    List<long[]> ranges = new ArrayList<>();
+    int node = 0;
+    int buffer = 0;
+    for (int i = 0; i < projected.length; i++) {
+      if (projected[i]) {
+        for (int j = node; j < node + nodeCounts[i]; j++) {
+          nodes.add(readNode(recordBatchFB, j));
+        }
+        for (int j = buffer; j < buffer + bufferCounts[i]; j++) {
+          Buffer bufferFB = recordBatchFB.buffers(j);
+          ranges.add(new long[] {bufferFB.offset(), bufferFB.length()});
+        }
+      }
+      node += nodeCounts[i];
+      buffer += bufferCounts[i];
+    }
+    if (node != recordBatchFB.nodesLength() || buffer != recordBatchFB.buffersLength()) {
+      throw new IOException("Record batch with " + recordBatchFB.nodesLength() + " nodes and " +
+          recordBatchFB.buffersLength() + " buffers does not match the schema, expected " + node +
+          " nodes and " + buffer + " buffers");
+    }
+
+    List<ArrowBuf> reads = new ArrayList<>();
+    try {
+      List<ArrowBuf> buffers = new ArrayList<>(ranges.size());
+      long position = 0;
+      int i = 0;
+      while (i < ranges.size()) {
+        // coalesce the buffers that follow each other in the body, padding included, as long as
+        // they fit in a single buffer
+        long start = ranges.get(i)[0];
+        int last = i;
+        while (last + 1 < ranges.size() && ranges.get(last + 1)[0] >= end(ranges.get(last)) &&
+            ranges.get(last + 1)[0] - end(ranges.get(last)) < 8 &&
+            end(ranges.get(last + 1)) - start <= MessageSerializer.MAX_BODY_CHUNK) {
+          last++;
+        }
+        long end = end(ranges.get(last));
+        if (start < position || end > bodyLength) {
+          throw new IOException("Invalid buffer layout in record batch: [" + start + ", " + end +
+              ") after " + position + " in a body of " + bodyLength + " bytes");
+        }
+        if (end - start > MessageSerializer.MAX_BODY_CHUNK) {
+          throw new IOException("Cannot currently deserialize buffers over " +
+              MessageSerializer.MAX_BODY_CHUNK + " bytes");
+        }
+        in.skip(start - position);
+        ArrowBuf read = in.readBuffer(allocator, (int) (end - start));
+        reads.add(read);
+        for (int j = i; j <= last; j++) {
+          buffers.add(read.slice((int) (ranges.get(j)[0] - start), (int) ranges.get(j)[1]));
+        }
+        position = end;
+        i = last + 1;
+      }
+      in.skip(bodyLength - position);
+      return new ArrowRecordBatch((int) recordBatchFB.length(), nodes, buffers,
+          MessageSerializer.deserializeBodyCompression(recordBatchFB));
+    } finally {
+      // the batch retained the slices it needs
+      for (ArrowBuf read : reads) {
+        read.release();
+      }
+    }
+  }
+
+  private static long end(long[] range) {
+    return range[0] + range[1];
+  }
+
+  private static ArrowFieldNode readNode(RecordBatch recordBatchFB, int index) throws IOException {
+    FieldNode node = recordBatchFB.nodes(index);
+    if ((int) node.length() != node.length() ||
+        (int) node.nullCount() != node.nullCount()) {
+      throw new IOException("Cannot currently deserialize record batches with " +
+          "node length larger than Int.MAX_VALUE");
+    }
+    return new ArrowFieldNode((int) node.length(), (int) node.nullCount());
+  }
+
+  /**
+   * Counts the nodes of the field in a record batch, where dictionary encoded fields are a single
+   * index node whatever the children of their value type.
+   */
+  private static int countNodes(Field field) {
+    if (field.getDictionary() != null) {
+      return 1;
+    }
+    int count = 1;
+    for (Field child : field.getChildren()) {
+      count += countNodes(child);
+    }
+    return count;
+  }
+
+  /**
+   * Counts the buffers of the field in a record batch, where dictionary encoded fields only have
+   * the buffers of their index type.
+   */
+  private static int countBuffers(Field field) {
+    DictionaryEncoding encoding = field.getDictionary();
+    if (encoding != null) {
+      ArrowType indexType = encoding.getIndexType() == null ? new ArrowType.Int(32, true) : encoding.getIndexType();
+      return TypeLayout.getTypeLayout(indexType).getVectors().size();
+    }
+    int count = TypeLayout.getTypeLayout(field.getType()).getVectors().size();
+    for (Field child : field.getChildren()) {
+      count += countBuffers(child);
+    }
+    return count;
+  }
+}
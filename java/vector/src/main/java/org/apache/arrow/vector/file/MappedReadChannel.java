@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector.file;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import org.apache.arrow.memory.BufferAllocator;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * A SeekableReadChannel over a file that memory-maps record batches and dictionary batches
+ * instead of copying them into newly allocated buffers. The mapped regions are accounted
+ * against the reading allocator and unmapped once all vectors referencing them are released.
+ * <p>
+ * The file is mapped read only, so a channel opened for reading is enough and the file is never
+ * changed. The buffers of the loaded vectors are read only ({@link ArrowBuf#isReadOnly()}):
+ * writing them throws a {@link java.nio.ReadOnlyBufferException}. Copy the vectors to modify them;
+ * delta dictionary batches are appended to a copy of the mapped dictionary.
+ * <p>
+ * Usage: {@code new ArrowFileReader(new MappedReadChannel(new FileInputStream(file).getChannel()), allocator)}
+ */
+public class MappedReadChannel extends SeekableReadChannel {
+
+  private final FileChannel in;
+
+  public MappedReadChannel(FileChannel in) {
+    super(in);
+    this.in = in;
+  }
+
+  @Override
+  public ArrowBuf readBuffer(BufferAllocator allocator, int length) throws IOException {
+    long position = in.position();
+    if (position + length > in.size()) {
+      throw new IOException("Unexpected end of input trying to read batch.");
+    }
+
+    ArrowBuf buffer = allocator.wrap(in.map(MapMode.READ_ONLY, position, length), true);
+    buffer.writerIndex(length);
+    in.position(position + length);
+    addBytesRead(length);
+    return buffer;
+  }
+}
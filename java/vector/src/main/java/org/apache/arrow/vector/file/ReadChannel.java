@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ReadableByteChannel;
 
+import org.apache.arrow.memory.BufferAllocator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,6 +32,8 @@ public class ReadChannel implements AutoCloseable {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ReadChannel.class);
 
+  private static final int SKIP_BUFFER_SIZE = 8192;
+
   private ReadableByteChannel in;
   private long bytesRead = 0;
 
@@ -81,6 +84,56 @@ public class ReadChannel implements AutoCloseable {
     return n;
   }
 
+  /**
+   * Reads the next length bytes into a buffer obtained from the allocator. The caller owns
+   * the returned buffer. Subclasses may override this to hand out the bytes without copying.
+   *
+   * @param allocator the allocator to account the buffer against
+   * @param length    the amount of bytes to read
+   * @return a buffer holding the bytes read, with its writer index set to length
+   * @throws IOException if not enough bytes are left to read
+   */
+  public ArrowBuf readBuffer(BufferAllocator allocator, int length) throws IOException {
+    ArrowBuf buffer = allocator.buffer(length);
+    if (readFully(buffer, length) != length) {
+      buffer.release();
+      throw new IOException("Unexpected end of input trying to read batch.");
+    }
+    return buffer;
+  }
+
+  /**
+   * Skips the next length bytes. The bytes are read and discarded, subclasses that can seek
+   * override this.
+   *
+   * @param length the amount of bytes to skip
+   * @throws IOException if not enough bytes are left to skip
+   */
+  public void skip(long length) throws IOException {
+    if (length <= 0) {
+      return;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(length, SKIP_BUFFER_SIZE));
+    while (length > 0) {
+      buffer.clear();
+      buffer.limit((int) Math.min(length, buffer.capacity()));
+      int read = readFully(buffer);
+      if (read == 0) {
+        throw new IOException("Unexpected end of input trying to skip " + length + " bytes.");
+      }
+      length -= read;
+    }
+  }
+
+  /**
+   * Records bytes that were consumed without going through {@link #readFully(ByteBuffer)}.
+   *
+   * @param length the number of bytes consumed
+   */
+  protected void addBytesRead(long length) {
+    this.bytesRead += length;
+  }
+
   @Override
   public void close() throws IOException {
     if (this.in != null) {
@@ -34,6 +34,14 @@ public class SeekableReadChannel extends ReadChannel {
     in.position(position);
   }
 
+  @Override
+  public void skip(long length) throws IOException {
+    if (length > 0) {
+      setPosition(in.position() + length);
+      addBytesRead(length);
+    }
+  }
+
   public long size() throws IOException {
     return in.size();
   }
@@ -0,0 +1,245 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.arrow.vector.file;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.util.BitmapUtility;
+import org.apache.arrow.vector.util.ByteFunctionHelpers;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Computes the {@link ArrowBlockStatistics} of the record batch held by a root, reading the
+ * buffers of the vectors directly.
+ * <p>
+ * The bounds of Utf8 columns are truncated to at most {@link #MAX_STRING_BYTES} bytes, so that long
+ * values do not bloat the footer: the min is a prefix of the smallest value and the max is a
+ * prefix of the largest one with its last character incremented.
+ */
+final class StatisticsCollector {
+
+  static final int MAX_STRING_BYTES = 64;
+
+  private StatisticsCollector() {
+  }
+
+  static ArrowBlockStatistics collect(VectorSchemaRoot root) {
+    int rowCount = root.getRowCount();
+    List<FieldVector> vectors = root.getFieldVectors();
+    List<ArrowColumnStatistics> columns = new ArrayList<>(vectors.size());
+    for (FieldVector vector : vectors) {
+      columns.add(collect(vector, rowCount));
+    }
+    return new ArrowBlockStatistics(rowCount, columns);
+  }
+
+  private static ArrowColumnStatistics collect(FieldVector vector, int rowCount) {
+    int nullCount = vector.getAccessor().getNullCount();
+    ArrowType type = vector.getField().getType();
+    if (nullCount == rowCount || vector.getField().getDictionary() != null) {
+      return new ArrowColumnStatistics(nullCount, null, null);
+    }
+    List<ArrowBuf> buffers = vector.getFieldBuffers();
+    // with no nulls, the validity buffer need not be looked at
+    ArrowBuf validity = nullCount == 0 ? null : buffers.get(0);
+    switch (type.getTypeID()) {
+      case Int: {
+        ArrowType.Int intType = (ArrowType.Int) type;
+        return integers(nullCount, buffers.get(1), validity, rowCount, intType.getBitWidth(), intType.getIsSigned());
+      }
+      case Date: {
+        int bitWidth = ((ArrowType.Date) type).getUnit() == DateUnit.DAY ? 32 : 64;
+        return integers(nullCount, buffers.get(1), validity, rowCount, bitWidth, true);
+      }
+      case Time:
+        return integers(nullCount, buffers.get(1), validity, rowCount, ((ArrowType.Time) type).getBitWidth(), true);
+      case Timestamp:
+        return integers(nullCount, buffers.get(1), validity, rowCount, 64, true);
+      case FloatingPoint: {
+        FloatingPointPrecision precision = ((ArrowType.FloatingPoint) type).getPrecision();
+        if (precision == FloatingPointPrecision.HALF) {
+          break;
+        }
+        boolean single = precision == FloatingPointPrecision.SINGLE;
+        return floatingPoints(nullCount, buffers.get(1), validity, rowCount, single);
+      }
+      case Bool:
+        return booleans(nullCount, buffers.get(1), validity, rowCount);
+      case Utf8:
+        return strings(nullCount, buffers.get(1), buffers.get(2), validity, rowCount);
+      default:
+        break;
+    }
+    return new ArrowColumnStatistics(nullCount, null, null);
+  }
+
+  private static ArrowColumnStatistics integers(int nullCount, ArrowBuf data, ArrowBuf validity, int rowCount,
+                                                int bitWidth, boolean signed) {
+    // unsigned values are compared with their sign bit flipped
+    long flip = signed || bitWidth < 64 ? 0 : Long.MIN_VALUE;
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+    for (int i = 0; i < rowCount; i++) {
+      if (isNull(validity, i)) {
+        continue;
+      }
+      long value = readInteger(data, i, bitWidth, signed) ^ flip;
+      min = Math.min(min, value);
+      max = Math.max(max, value);
+    }
+    return new ArrowColumnStatistics(nullCount, min ^ flip, max ^ flip);
+  }
+
+  private static long readInteger(ArrowBuf data, int index, int bitWidth, boolean signed) {
+    switch (bitWidth) {
+      case 8:
+        return signed ? data.getByte(index) : data.getByte(index) & 0xFFL;
+      case 16:
+        return signed ? data.getShort(index * 2) : data.getShort(index * 2) & 0xFFFFL;
+      case 32:
+        return signed ? data.getInt(index * 4) : data.getInt(index * 4) & 0xFFFFFFFFL;
+      case 64:
+        return data.getLong(index * 8);
+      default:
+        throw new UnsupportedOperationException("unsupported bit width " + bitWidth);
+    }
+  }
+
+  private static ArrowColumnStatistics floatingPoints(int nullCount, ArrowBuf data, ArrowBuf validity, int rowCount,
+                                                      boolean single) {
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+    boolean found = false;
+    for (int i = 0; i < rowCount; i++) {
+      if (isNull(validity, i)) {
+        continue;
+      }
+      double value = single ? data.getFloat(i * 4) : data.getDouble(i * 8);
+      if (Double.isNaN(value)) {
+        continue;
+      }
+      min = Math.min(min, value);
+      max = Math.max(max, value);
+      found = true;
+    }
+    return found
+        ? new ArrowColumnStatistics(nullCount, min, max)
+        : new ArrowColumnStatistics(nullCount, null, null);
+  }
+
+  private static ArrowColumnStatistics booleans(int nullCount, ArrowBuf data, ArrowBuf validity, int rowCount) {
+    boolean seenFalse = false;
+    boolean seenTrue = false;
+    for (int i = 0; i < rowCount && !(seenFalse && seenTrue); i++) {
+      if (isNull(validity, i)) {
+        continue;
+      }
+      if (BitmapUtility.isSet(data, i)) {
+        seenTrue = true;
+      } else {
+        seenFalse = true;
+      }
+    }
+    return new ArrowColumnStatistics(nullCount, !seenFalse, seenTrue);
+  }
+
+  private static ArrowColumnStatistics strings(int nullCount, ArrowBuf offsets, ArrowBuf data, ArrowBuf validity,
+                                               int rowCount) {
+    int min = -1;
+    int max = -1;
+    for (int i = 0; i < rowCount; i++) {
+      if (isNull(validity, i)) {
+        continue;
+      }
+      if (min == -1) {
+        min = i;
+        max = i;
+      } else if (compare(offsets, data, i, min) < 0) {
+        min = i;
+      } else if (compare(offsets, data, i, max) > 0) {
+        max = i;
+      }
+    }
+    return new ArrowColumnStatistics(nullCount, lowerBound(offsets, data, min), upperBound(offsets, data, max));
+  }
+
+  private static int compare(ArrowBuf offsets, ArrowBuf data, int left, int right) {
+    return ByteFunctionHelpers.compare(
+        data, offsets.getInt(left * 4), offsets.getInt((left + 1) * 4),
+        data, offsets.getInt(right * 4), offsets.getInt((right + 1) * 4));
+  }
+
+  private static String lowerBound(ArrowBuf offsets, ArrowBuf data, int index) {
+    return prefix(offsets, data, index);
+  }
+
+  /**
+   * @return the smallest string of at most MAX_STRING_BYTES bytes not smaller than the value, or
+   *         null if there is none
+   */
+  private static String upperBound(ArrowBuf offsets, ArrowBuf data, int index) {
+    String prefix = prefix(offsets, data, index);
+    int length = offsets.getInt((index + 1) * 4) - offsets.getInt(index * 4);
+    if (length <= MAX_STRING_BYTES) {
+      return prefix;
+    }
+    // UTF-8 bytes sort like code points, incrementing the last one that can be gives a larger string
+    int end = prefix.length();
+    while (end > 0) {
+      int codePoint = prefix.codePointBefore(end);
+      end -= Character.charCount(codePoint);
+      if (codePoint < Character.MAX_CODE_POINT) {
+        int next = codePoint + 1 == Character.MIN_SURROGATE ? Character.MAX_SURROGATE + 1 : codePoint + 1;
+        return new StringBuilder(end + 2).append(prefix, 0, end).appendCodePoint(next).toString();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the value truncated to at most MAX_STRING_BYTES bytes, on a character boundary
+   */
+  private static String prefix(ArrowBuf offsets, ArrowBuf data, int index) {
+    int start = offsets.getInt(index * 4);
+    int length = offsets.getInt((index + 1) * 4) - start;
+    if (length > MAX_STRING_BYTES) {
+      length = MAX_STRING_BYTES;
+      // do not cut a multi byte character
+      while (length > 0 && (data.getByte(start + length) & 0xC0) == 0x80) {
+        length--;
+      }
+    }
+    byte[] bytes = new byte[length];
+    data.getBytes(start, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static boolean isNull(ArrowBuf validity, int index) {
+    return validity != null && !BitmapUtility.isSet(validity, index);
+  }
+}
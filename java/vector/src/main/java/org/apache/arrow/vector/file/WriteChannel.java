@@ -20,7 +20,10 @@ package org.apache.arrow.vector.file;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
 
 import com.google.flatbuffers.FlatBufferBuilder;
 
@@ -32,14 +35,32 @@ import org.slf4j.LoggerFactory;
 /**
  * Wrapper around a WritableByteChannel that maintains the position as well adding
  * some common serialization utilities.
+ * <p>
+ * Between {@link #startGather()} and {@link #endGather()} the buffers passed to the write methods
+ * are not written but collected, and then written by a single gathering write when the channel is
+ * a {@link GatheringByteChannel}. The collected buffers must not be modified or released before
+ * {@link #endGather()}. The size prefixes and padding are taken from buffers reused across
+ * messages, so collecting them does not allocate.
  */
 public class WriteChannel implements AutoCloseable {
   private static final Logger LOGGER = LoggerFactory.getLogger(WriteChannel.class);
 
+  /** zeros shared by all channels for padding, never written to */
+  private static final ByteBuffer ZEROS = ByteBuffer.allocateDirect(64);
+
   private long currentPosition = 0;
 
   private final WritableByteChannel out;
 
+  private boolean gathering = false;
+  private long gatherStart = 0;
+  private ByteBuffer[] gathered = new ByteBuffer[16];
+  private int gatheredCount = 0;
+  private ByteBuffer[] prefixes = new ByteBuffer[0];
+  private int prefixCount = 0;
+  private ByteBuffer[] paddings = new ByteBuffer[0];
+  private int paddingCount = 0;
+
   public WriteChannel(WritableByteChannel out) {
     this.out = out;
   }
@@ -53,12 +74,78 @@ public class WriteChannel implements AutoCloseable {
     return currentPosition;
   }
 
+  /**
+   * Starts collecting the buffers written, until {@link #endGather()} or {@link #abortGather()}.
+   */
+  public void startGather() {
+    clearGathered();
+    gathering = true;
+    gatherStart = currentPosition;
+  }
+
+  /**
+   * Discards the buffers collected since {@link #startGather()}, e.g. because serialization
+   * failed, and moves the position back to where it was then. Nothing was written to the
+   * underlying channel. Does nothing when not gathering, so it can be called in a finally block
+   * after {@link #endGather()}.
+   */
+  public void abortGather() {
+    if (gathering) {
+      gathering = false;
+      currentPosition = gatherStart;
+      clearGathered();
+    }
+  }
+
+  /**
+   * Writes the buffers collected since {@link #startGather()}.
+   *
+   * @return the number of bytes written
+   * @throws IOException if writing fails
+   */
+  public long endGather() throws IOException {
+    gathering = false;
+    try {
+      long written = 0;
+      if (out instanceof GatheringByteChannel) {
+        GatheringByteChannel gatheringOut = (GatheringByteChannel) out;
+        int first = 0;
+        while (first < gatheredCount) {
+          written += gatheringOut.write(gathered, first, gatheredCount - first);
+          while (first < gatheredCount && !gathered[first].hasRemaining()) {
+            first++;
+          }
+        }
+      } else {
+        for (int i = 0; i < gatheredCount; i++) {
+          written += writeFully(gathered[i]);
+        }
+      }
+      LOGGER.debug("Wrote {} buffers with size: {}", gatheredCount, written);
+      return written;
+    } finally {
+      clearGathered();
+    }
+  }
+
+  private void clearGathered() {
+    Arrays.fill(gathered, 0, gatheredCount, null);
+    gatheredCount = 0;
+    prefixCount = 0;
+    paddingCount = 0;
+  }
+
   public long write(byte[] buffer) throws IOException {
     return write(ByteBuffer.wrap(buffer));
   }
 
   public long writeZeros(int zeroCount) throws IOException {
-    return write(new byte[zeroCount]);
+    long written = 0;
+    while (written < zeroCount) {
+      int length = (int) Math.min(zeroCount - written, ZEROS.capacity());
+      written += write(padding(length));
+    }
+    return written;
   }
 
   public long align() throws IOException {
@@ -70,12 +157,27 @@ public class WriteChannel implements AutoCloseable {
 
   public long write(ByteBuffer buffer) throws IOException {
     long length = buffer.remaining();
-    LOGGER.debug("Writing buffer with size: " + length);
-    out.write(buffer);
+    if (gathering) {
+      if (gatheredCount == gathered.length) {
+        gathered = Arrays.copyOf(gathered, gathered.length * 2);
+      }
+      gathered[gatheredCount++] = buffer;
+    } else {
+      LOGGER.debug("Writing buffer with size: {}", length);
+      writeFully(buffer);
+    }
     currentPosition += length;
     return length;
   }
 
+  private long writeFully(ByteBuffer buffer) throws IOException {
+    long written = 0;
+    while (buffer.hasRemaining()) {
+      written += out.write(buffer);
+    }
+    return written;
+  }
+
   public static byte[] intToBytes(int value) {
     byte[] outBuffer = new byte[4];
     outBuffer[3] = (byte) (value >>> 24);
@@ -86,7 +188,32 @@ public class WriteChannel implements AutoCloseable {
   }
 
   public long writeIntLittleEndian(int v) throws IOException {
-    return write(intToBytes(v));
+    if (prefixCount == prefixes.length) {
+      prefixes = Arrays.copyOf(prefixes, prefixCount + 4);
+      for (int i = prefixCount; i < prefixes.length; i++) {
+        prefixes[i] = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+      }
+    }
+    ByteBuffer prefix = prefixes[gathering ? prefixCount++ : prefixCount];
+    prefix.clear();
+    prefix.putInt(0, v);
+    return write(prefix);
+  }
+
+  /**
+   * @return a reusable buffer of length zeros, valid until the end of the current write
+   */
+  private ByteBuffer padding(int length) {
+    if (paddingCount == paddings.length) {
+      paddings = Arrays.copyOf(paddings, paddingCount + 8);
+      for (int i = paddingCount; i < paddings.length; i++) {
+        paddings[i] = ZEROS.duplicate();
+      }
+    }
+    ByteBuffer padding = paddings[gathering ? paddingCount++ : paddingCount];
+    padding.clear();
+    padding.limit(length);
+    return padding;
   }
 
   public void write(ArrowBuf buffer) throws IOException {
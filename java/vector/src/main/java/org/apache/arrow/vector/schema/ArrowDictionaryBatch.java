@@ -25,10 +25,21 @@ public class ArrowDictionaryBatch implements ArrowMessage {
 
   private final long dictionaryId;
   private final ArrowRecordBatch dictionary;
+  private final boolean isDelta;
 
   public ArrowDictionaryBatch(long dictionaryId, ArrowRecordBatch dictionary) {
+    this(dictionaryId, dictionary, false);
+  }
+
+  /**
+   * @param dictionaryId id of the dictionary
+   * @param dictionary   the dictionary entries
+   * @param isDelta      true if the entries are appended to the dictionary already sent with this id
+   */
+  public ArrowDictionaryBatch(long dictionaryId, ArrowRecordBatch dictionary, boolean isDelta) {
     this.dictionaryId = dictionaryId;
     this.dictionary = dictionary;
+    this.isDelta = isDelta;
   }
 
   public long getDictionaryId() {
@@ -39,17 +50,22 @@ public class ArrowDictionaryBatch implements ArrowMessage {
     return dictionary;
   }
 
+  public boolean isDelta() {
+    return isDelta;
+  }
+
   @Override
   public int writeTo(FlatBufferBuilder builder) {
     int dataOffset = dictionary.writeTo(builder);
     DictionaryBatch.startDictionaryBatch(builder);
     DictionaryBatch.addId(builder, dictionaryId);
     DictionaryBatch.addData(builder, dataOffset);
+    DictionaryBatch.addIsDelta(builder, isDelta);
     return DictionaryBatch.endDictionaryBatch(builder);
   }
 
   @Override
-  public int computeBodyLength() {
+  public long computeBodyLength() {
     return dictionary.computeBodyLength();
   }
 
@@ -60,7 +76,7 @@ public class ArrowDictionaryBatch implements ArrowMessage {
 
   @Override
   public String toString() {
-    return "ArrowDictionaryBatch [dictionaryId=" + dictionaryId + ", dictionary=" + dictionary + "]";
+    return "ArrowDictionaryBatch [dictionaryId=" + dictionaryId + ", isDelta=" + isDelta + ", dictionary=" + dictionary + "]";
   }
 
   @Override
@@ -20,7 +20,7 @@ package org.apache.arrow.vector.schema;
 
 public interface ArrowMessage extends FBSerializable, AutoCloseable {
 
-  public int computeBodyLength();
+  public long computeBodyLength();
 
   public <T> T accepts(ArrowMessageVisitor<T> visitor);
 
@@ -51,6 +51,11 @@ public class ArrowRecordBatch implements ArrowMessage {
 
   private final List<ArrowBuffer> buffersLayout;
 
+  /**
+   * compression of the buffers, null if they are not compressed
+   */
+  private final ArrowBodyCompression bodyCompression;
+
   private boolean closed = false;
 
   public ArrowRecordBatch(int length, List<ArrowFieldNode> nodes, List<ArrowBuf> buffers) {
@@ -63,8 +68,25 @@ public class ArrowRecordBatch implements ArrowMessage {
    * @param buffers will be retained until this recordBatch is closed
    */
   public ArrowRecordBatch(int length, List<ArrowFieldNode> nodes, List<ArrowBuf> buffers, boolean alignBuffers) {
+    this(length, nodes, buffers, alignBuffers, null);
+  }
+
+  /**
+   * @param length          how many rows in this batch
+   * @param nodes           field level info
+   * @param buffers         will be retained until this recordBatch is closed
+   * @param bodyCompression how the buffers are compressed, or null if they are not
+   */
+  public ArrowRecordBatch(int length, List<ArrowFieldNode> nodes, List<ArrowBuf> buffers,
+                          ArrowBodyCompression bodyCompression) {
+    this(length, nodes, buffers, true, bodyCompression);
+  }
+
+  private ArrowRecordBatch(int length, List<ArrowFieldNode> nodes, List<ArrowBuf> buffers, boolean alignBuffers,
+                           ArrowBodyCompression bodyCompression) {
     super();
     this.length = length;
+    this.bodyCompression = bodyCompression;
     this.nodes = nodes;
     this.buffers = buffers;
     List<ArrowBuffer> arrowBuffers = new ArrayList<>();
@@ -110,16 +132,27 @@ public class ArrowRecordBatch implements ArrowMessage {
     return buffersLayout;
   }
 
+  /**
+   * @return the compression of the buffers, or null if they are not compressed
+   */
+  public ArrowBodyCompression getBodyCompression() {
+    return bodyCompression;
+  }
+
   @Override
   public int writeTo(FlatBufferBuilder builder) {
     RecordBatch.startNodesVector(builder, nodes.size());
     int nodesOffset = writeAllStructsToVector(builder, nodes);
     RecordBatch.startBuffersVector(builder, buffers.size());
     int buffersOffset = writeAllStructsToVector(builder, buffersLayout);
+    int compressionOffset = bodyCompression == null ? 0 : bodyCompression.writeTo(builder);
     RecordBatch.startRecordBatch(builder);
     RecordBatch.addLength(builder, length);
     RecordBatch.addNodes(builder, nodesOffset);
     RecordBatch.addBuffers(builder, buffersOffset);
+    if (bodyCompression != null) {
+      RecordBatch.addCompression(builder, compressionOffset);
+    }
     return RecordBatch.endRecordBatch(builder);
   }
 
@@ -144,15 +177,15 @@ public class ArrowRecordBatch implements ArrowMessage {
   @Override
   public String toString() {
     return "ArrowRecordBatch [length=" + length + ", nodes=" + nodes + ", #buffers=" + buffers.size() + ", buffersLayout="
-        + buffersLayout + ", closed=" + closed + "]";
+        + buffersLayout + ", bodyCompression=" + bodyCompression + ", closed=" + closed + "]";
   }
 
   /**
    * Computes the size of the serialized body for this recordBatch.
    */
   @Override
-  public int computeBodyLength() {
-    int size = 0;
+  public long computeBodyLength() {
+    long size = 0;
 
     List<ArrowBuf> buffers = getBuffers();
     List<ArrowBuffer> buffersLayout = getBuffersLayout();
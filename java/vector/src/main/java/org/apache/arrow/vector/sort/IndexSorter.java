@@ -0,0 +1,430 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector.sort;
+
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.util.BitmapUtility;
+import org.apache.arrow.vector.util.ByteFunctionHelpers;
+import org.apache.arrow.vector.util.OversizedAllocationException;
+import org.apache.arrow.vector.util.TypeWidthUtility;
+
+import com.google.common.base.Preconditions;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Sorts the rows of one or more vectors, computing the permutation of their row indices rather
+ * than moving the values: the result can be applied to any vector of the same rows with
+ * {@link org.apache.arrow.vector.compute.SelectionKernels#take}.
+ *
+ * The sort is stable, rows with equal keys keep their order, so that keys can be sorted one after
+ * the other from the last to the first. Fixed width keys (integers, dates, times, floating point
+ * and BIT) are sorted with a least significant digit radix sort: each value is turned into an
+ * unsigned key whose byte order is the sort order, the keys are copied next to the indices and
+ * moved with them one byte at a time, skipping the bytes that are the same in every key. Nulls
+ * are partitioned out of the way first. Consecutive variable width keys are sorted together by a
+ * merge sort comparing the bytes of the values in place with {@link ByteFunctionHelpers}.
+ *
+ * The indices and keys are kept in buffers from the given allocator, nothing is copied to the heap.
+ */
+public final class IndexSorter {
+
+  private static final int INDEX_WIDTH = 4;
+  private static final int KEY_WIDTH = 8;
+  private static final int INSERTION_SORT_THRESHOLD = 32;
+
+  private IndexSorter() {
+  }
+
+  /**
+   * @param keys the keys to sort by, in order of precedence
+   * @return the row indices in sort order, allocated from the allocator of the first key
+   */
+  public static IntVector sort(List<SortKey> keys) {
+    Preconditions.checkArgument(!keys.isEmpty(), "No sort keys");
+    return sort(keys, keys.get(0).getVector().getAllocator());
+  }
+
+  /**
+   * @param keys      the keys to sort by, in order of precedence
+   * @param allocator allocator for the result and the buffers used while sorting
+   * @return the row indices in sort order
+   */
+  public static IntVector sort(List<SortKey> keys, BufferAllocator allocator) {
+    Preconditions.checkArgument(!keys.isEmpty(), "No sort keys");
+    int valueCount = keys.get(0).getVector().getAccessor().getValueCount();
+    for (SortKey key : keys) {
+      FieldVector vector = key.getVector();
+      Preconditions.checkArgument(vector.getAccessor().getValueCount() == valueCount,
+          "Sort keys have different value counts: %s and %s", vector.getAccessor().getValueCount(), valueCount);
+      Preconditions.checkArgument(radixWidth(vector.getMinorType()) > 0
+          || TypeWidthUtility.getByteWidth(vector.getMinorType()) == TypeWidthUtility.VARIABLE_WIDTH,
+          "Unsupported sort key type %s of %s", vector.getMinorType(), vector.getField().getName());
+    }
+
+    IntVector out = new IntVector("indices", allocator);
+    try (Sorter sorter = new Sorter(allocator, valueCount)) {
+      // from the least significant key, each pass keeps the order of the previous ones on ties
+      int i = keys.size() - 1;
+      while (i >= 0) {
+        if (radixWidth(keys.get(i).getVector().getMinorType()) > 0) {
+          sorter.radixSort(keys.get(i));
+          i--;
+        } else {
+          int first = i;
+          while (first > 0 && radixWidth(keys.get(first - 1).getVector().getMinorType()) == 0) {
+            first--;
+          }
+          sorter.mergeSort(keys.subList(first, i + 1));
+          i = first - 1;
+        }
+      }
+      out.allocateNew(valueCount);
+      out.getBuffer().setBytes(0, sorter.indices, 0, valueCount * INDEX_WIDTH);
+      out.getMutator().setValueCount(valueCount);
+    } catch (RuntimeException e) {
+      out.close();
+      throw e;
+    }
+    return out;
+  }
+
+  /**
+   * @return the number of bytes of the radix sort keys of the type, 0 if it is not radix sorted
+   */
+  private static int radixWidth(MinorType type) {
+    switch (type) {
+      case BIT:
+        return 1;
+      case DECIMAL:
+      case INTERVALDAY:
+        return 0;
+      default:
+        return Math.max(TypeWidthUtility.getByteWidth(type), 0);
+    }
+  }
+
+  /**
+   * @return whether the values of the type are two's complement integers
+   */
+  private static boolean isSigned(MinorType type) {
+    switch (type) {
+      case BIT:
+      case UINT1:
+      case UINT2:
+      case UINT4:
+      case UINT8:
+      case FLOAT4:
+      case FLOAT8:
+        return false;
+      default:
+        return true;
+    }
+  }
+
+  /**
+   * @return the value of the row, sign extended for signed types, as bits ordered as unsigned
+   *     numbers for floating point types
+   */
+  private static long radixValue(MinorType type, ArrowBuf data, int row) {
+    switch (type) {
+      case BIT:
+        return BitmapUtility.isSet(data, row) ? 1 : 0;
+      case TINYINT:
+        return data.getByte(row);
+      case UINT1:
+        return data.getByte(row) & 0xFFL;
+      case SMALLINT:
+        return data.getShort(row * 2);
+      case UINT2:
+        return data.getShort(row * 2) & 0xFFFFL;
+      case UINT4:
+        return data.getInt(row * 4) & 0xFFFFFFFFL;
+      case FLOAT4: {
+        int bits = Float.floatToIntBits(data.getFloat(row * 4));
+        // flip every bit of the negative values and the sign bit of the positive ones
+        return (bits ^ ((bits >> 31) | Integer.MIN_VALUE)) & 0xFFFFFFFFL;
+      }
+      case FLOAT8: {
+        long bits = Double.doubleToLongBits(data.getDouble(row * 8));
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+      }
+      default:
+        if (TypeWidthUtility.getByteWidth(type) == 4) {
+          return data.getInt(row * 4);
+        }
+        return data.getLong(row * 8);
+    }
+  }
+
+  /**
+   * The permutation being sorted and the buffers the passes move it to.
+   */
+  private static final class Sorter implements AutoCloseable {
+
+    private final BufferAllocator allocator;
+    private final int valueCount;
+    private ArrowBuf indices;
+    private ArrowBuf scratch;
+    // radix sort keys, allocated by the first radix pass
+    private ArrowBuf keys;
+    private ArrowBuf keyScratch;
+
+    Sorter(BufferAllocator allocator, int valueCount) {
+      this.allocator = allocator;
+      this.valueCount = valueCount;
+      try {
+        indices = allocator.buffer(checkedSize((long) valueCount * INDEX_WIDTH));
+        scratch = allocator.buffer(checkedSize((long) valueCount * INDEX_WIDTH));
+      } catch (RuntimeException e) {
+        close();
+        throw e;
+      }
+      for (int i = 0; i < valueCount; i++) {
+        indices.setInt(i * INDEX_WIDTH, i);
+      }
+    }
+
+    private void swap() {
+      ArrowBuf tmp = indices;
+      indices = scratch;
+      scratch = tmp;
+    }
+
+    void radixSort(SortKey key) {
+      FieldVector vector = key.getVector();
+      MinorType type = vector.getMinorType();
+      List<ArrowBuf> buffers = vector.getFieldBuffers();
+      ArrowBuf validity = buffers.get(0);
+      ArrowBuf data = buffers.get(1);
+
+      // stable partition of the nulls, the values are sorted in [start, end)
+      int nullCount = BitmapUtility.getNullCount(validity, valueCount);
+      int start = 0;
+      int end = valueCount;
+      if (nullCount == valueCount) {
+        return;
+      }
+      if (nullCount > 0) {
+        int nullPosition = key.isNullsFirst() ? 0 : valueCount - nullCount;
+        int valuePosition = key.isNullsFirst() ? nullCount : 0;
+        for (int i = 0; i < valueCount; i++) {
+          int row = indices.getInt(i * INDEX_WIDTH);
+          if (BitmapUtility.isSet(validity, row)) {
+            scratch.setInt(valuePosition++ * INDEX_WIDTH, row);
+          } else {
+            scratch.setInt(nullPosition++ * INDEX_WIDTH, row);
+          }
+        }
+        swap();
+        if (key.isNullsFirst()) {
+          start = nullCount;
+        } else {
+          end = valueCount - nullCount;
+        }
+      }
+
+      if (keys == null) {
+        keys = allocator.buffer(checkedSize((long) valueCount * KEY_WIDTH));
+        keyScratch = allocator.buffer(checkedSize((long) valueCount * KEY_WIDTH));
+      }
+      int width = radixWidth(type);
+      long mask = width == 8 ? -1L : (1L << (width * 8)) - 1;
+      long flip = isSigned(type) ? 1L << (width * 8 - 1) : 0;
+      if (key.isDescending()) {
+        flip = ~flip;
+      }
+      int[] counts = new int[width * 256];
+      for (int i = start; i < end; i++) {
+        long k = (radixValue(type, data, indices.getInt(i * INDEX_WIDTH)) ^ flip) & mask;
+        keys.setLong(i * KEY_WIDTH, k);
+        for (int b = 0; b < width; b++) {
+          counts[b * 256 + (int) ((k >>> (b * 8)) & 0xFF)]++;
+        }
+      }
+
+      int[] positions = new int[256];
+      for (int b = 0; b < width; b++) {
+        if (isSingleBucket(counts, b, end - start)) {
+          continue;
+        }
+        int position = start;
+        for (int v = 0; v < 256; v++) {
+          positions[v] = position;
+          position += counts[b * 256 + v];
+        }
+        for (int i = start; i < end; i++) {
+          long k = keys.getLong(i * KEY_WIDTH);
+          int p = positions[(int) ((k >>> (b * 8)) & 0xFF)]++;
+          keyScratch.setLong(p * KEY_WIDTH, k);
+          scratch.setInt(p * INDEX_WIDTH, indices.getInt(i * INDEX_WIDTH));
+        }
+        // the nulls stay where they are
+        scratch.setBytes(0, indices, 0, start * INDEX_WIDTH);
+        scratch.setBytes(end * INDEX_WIDTH, indices, end * INDEX_WIDTH, (valueCount - end) * INDEX_WIDTH);
+        swap();
+        ArrowBuf tmp = keys;
+        keys = keyScratch;
+        keyScratch = tmp;
+      }
+    }
+
+    private static boolean isSingleBucket(int[] counts, int b, int count) {
+      for (int v = 0; v < 256; v++) {
+        int c = counts[b * 256 + v];
+        if (c != 0) {
+          return c == count;
+        }
+      }
+      return true;
+    }
+
+    void mergeSort(List<SortKey> sortKeys) {
+      VariableWidthComparator[] c = new VariableWidthComparator[sortKeys.size()];
+      for (int i = 0; i < c.length; i++) {
+        c[i] = new VariableWidthComparator(sortKeys.get(i), valueCount);
+      }
+
+      for (int from = 0; from < valueCount; from += INSERTION_SORT_THRESHOLD) {
+        insertionSort(c, from, Math.min(from + INSERTION_SORT_THRESHOLD, valueCount));
+      }
+      for (int run = INSERTION_SORT_THRESHOLD; run < valueCount; run *= 2) {
+        for (int from = 0; from < valueCount; from += 2 * run) {
+          int middle = Math.min(from + run, valueCount);
+          int to = Math.min(from + 2 * run, valueCount);
+          merge(c, from, middle, to);
+        }
+        swap();
+      }
+    }
+
+    private void insertionSort(VariableWidthComparator[] c, int from, int to) {
+      for (int i = from + 1; i < to; i++) {
+        int row = indices.getInt(i * INDEX_WIDTH);
+        int j = i;
+        while (j > from && compare(c, indices.getInt((j - 1) * INDEX_WIDTH), row) > 0) {
+          indices.setInt(j * INDEX_WIDTH, indices.getInt((j - 1) * INDEX_WIDTH));
+          j--;
+        }
+        indices.setInt(j * INDEX_WIDTH, row);
+      }
+    }
+
+    /**
+     * Merges the sorted runs [from, middle) and [middle, to) of the indices into the scratch buffer.
+     */
+    private void merge(VariableWidthComparator[] c, int from, int middle, int to) {
+      if (middle == to
+          || compare(c, indices.getInt((middle - 1) * INDEX_WIDTH), indices.getInt(middle * INDEX_WIDTH)) <= 0) {
+        scratch.setBytes(from * INDEX_WIDTH, indices, from * INDEX_WIDTH, (to - from) * INDEX_WIDTH);
+        return;
+      }
+      int left = from;
+      int right = middle;
+      int p = from;
+      while (left < middle && right < to) {
+        int l = indices.getInt(left * INDEX_WIDTH);
+        int r = indices.getInt(right * INDEX_WIDTH);
+        // ties take the left row first to keep the sort stable
+        if (compare(c, l, r) <= 0) {
+          scratch.setInt(p++ * INDEX_WIDTH, l);
+          left++;
+        } else {
+          scratch.setInt(p++ * INDEX_WIDTH, r);
+          right++;
+        }
+      }
+      scratch.setBytes(p * INDEX_WIDTH, indices, left * INDEX_WIDTH, (middle - left) * INDEX_WIDTH);
+      p += middle - left;
+      scratch.setBytes(p * INDEX_WIDTH, indices, right * INDEX_WIDTH, (to - right) * INDEX_WIDTH);
+    }
+
+    private static int compare(VariableWidthComparator[] c, int left, int right) {
+      for (int i = 0; i < c.length; i++) {
+        int result = c[i].compare(left, right);
+        if (result != 0) {
+          return result;
+        }
+      }
+      return 0;
+    }
+
+    @Override
+    public void close() {
+      for (ArrowBuf buffer : new ArrowBuf[] {indices, scratch, keys, keyScratch}) {
+        if (buffer != null) {
+          buffer.release();
+        }
+      }
+      indices = scratch = keys = keyScratch = null;
+    }
+  }
+
+  /**
+   * Compares two rows of a variable width key on the bytes of their values.
+   */
+  private static final class VariableWidthComparator {
+
+    private final ArrowBuf validity;
+    private final ArrowBuf offsets;
+    private final ArrowBuf data;
+    private final boolean hasNulls;
+    private final boolean descending;
+    private final boolean nullsFirst;
+
+    VariableWidthComparator(SortKey key, int valueCount) {
+      List<ArrowBuf> buffers = key.getVector().getFieldBuffers();
+      this.validity = buffers.get(0);
+      this.offsets = buffers.get(1);
+      this.data = buffers.get(2);
+      this.hasNulls = BitmapUtility.getNullCount(validity, valueCount) > 0;
+      this.descending = key.isDescending();
+      this.nullsFirst = key.isNullsFirst();
+    }
+
+    int compare(int left, int right) {
+      if (hasNulls) {
+        boolean leftSet = BitmapUtility.isSet(validity, left);
+        boolean rightSet = BitmapUtility.isSet(validity, right);
+        if (!leftSet || !rightSet) {
+          if (leftSet == rightSet) {
+            return 0;
+          }
+          return leftSet == nullsFirst ? 1 : -1;
+        }
+      }
+      int result = ByteFunctionHelpers.compare(
+          data, offsets.getInt(left * INDEX_WIDTH), offsets.getInt((left + 1) * INDEX_WIDTH),
+          data, offsets.getInt(right * INDEX_WIDTH), offsets.getInt((right + 1) * INDEX_WIDTH));
+      return descending ? -result : result;
+    }
+  }
+
+  private static int checkedSize(long size) {
+    if (size > Integer.MAX_VALUE) {
+      throw new OversizedAllocationException("Sorting needs a buffer of " + size + " bytes, more than " + Integer.MAX_VALUE);
+    }
+    return (int) size;
+  }
+}
@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector.sort;
+
+import org.apache.arrow.vector.FieldVector;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A column to sort by, with its direction and where its nulls go.
+ */
+public final class SortKey {
+
+  private final FieldVector vector;
+  private final boolean descending;
+  private final boolean nullsFirst;
+
+  /**
+   * An ascending key with the nulls last.
+   *
+   * @param vector the values to sort by
+   */
+  public SortKey(FieldVector vector) {
+    this(vector, false, false);
+  }
+
+  /**
+   * @param vector     the values to sort by
+   * @param descending whether the values are sorted from the largest to the smallest
+   * @param nullsFirst whether the nulls come before the values, whatever the direction
+   */
+  public SortKey(FieldVector vector, boolean descending, boolean nullsFirst) {
+    this.vector = Preconditions.checkNotNull(vector, "vector");
+    this.descending = descending;
+    this.nullsFirst = nullsFirst;
+  }
+
+  public FieldVector getVector() {
+    return vector;
+  }
+
+  public boolean isDescending() {
+    return descending;
+  }
+
+  public boolean isNullsFirst() {
+    return nullsFirst;
+  }
+
+  @Override
+  public String toString() {
+    return vector.getField().getName() + (descending ? " DESC" : " ASC") + (nullsFirst ? " NULLS FIRST" : " NULLS LAST");
+  }
+}
@@ -0,0 +1,355 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector.stream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.flatbuf.DictionaryBatch;
+import org.apache.arrow.flatbuf.Message;
+import org.apache.arrow.flatbuf.MessageHeader;
+import org.apache.arrow.flatbuf.RecordBatch;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.schema.ArrowDictionaryBatch;
+import org.apache.arrow.vector.schema.ArrowRecordBatch;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Decodes the Arrow streaming format incrementally, as bytes arrive. Unlike
+ * {@link ArrowStreamReader} it never blocks: bytes are pushed with {@link #feed(ByteBuffer)}
+ * or pulled from a non-blocking channel with {@link #readFrom(ReadableByteChannel)}, and every
+ * complete message is passed to a {@link Listener} on the calling thread. Message bodies are
+ * accumulated directly in buffers of the allocator, so a decoded batch references them
+ * without further copies.
+ * <p>
+ * A decoder is not thread safe, but is cheap enough to keep one per stream and drive many
+ * streams from a few event loop threads.
+ */
+public class ArrowStreamDecoder implements AutoCloseable {
+
+  /**
+   * Receives the decoded messages of a stream, in stream order.
+   */
+  public interface Listener {
+
+    void onSchema(Schema schema) throws IOException;
+
+    /**
+     * @param batch the decoded batch, the listener takes ownership of it and must close it
+     */
+    void onDictionaryBatch(ArrowDictionaryBatch batch) throws IOException;
+
+    /**
+     * @param batch the decoded batch, the listener takes ownership of it and must close it
+     */
+    void onRecordBatch(ArrowRecordBatch batch) throws IOException;
+
+    /**
+     * Called once, when the end of stream marker or the end of the input has been reached.
+     */
+    void onEndOfStream() throws IOException;
+  }
+
+  private final BufferAllocator allocator;
+  private final Listener listener;
+  private final SettableFuture<Schema> schema = SettableFuture.create();
+  private final SettableFuture<Long> endOfStream = SettableFuture.create();
+
+  private final ByteBuffer prefix = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+  private ByteBuffer metadata;
+  private Message message;
+  // the body is read in chunks of at most 2GB, see MessageSerializer.splitBody
+  private long[] bounds;
+  private List<ArrowBuf> chunks;
+  // the buffer the next bytes of the stream go to: prefix, metadata or the last chunk
+  private ByteBuffer target = prefix;
+
+  private boolean schemaRead = false;
+  private boolean ended = false;
+  private boolean failed = false;
+  private boolean closed = false;
+  private long bytesRead = 0;
+
+  public ArrowStreamDecoder(BufferAllocator allocator, Listener listener) {
+    this.allocator = Preconditions.checkNotNull(allocator);
+    this.listener = Preconditions.checkNotNull(listener);
+  }
+
+  /**
+   * @return a future completed with the schema once it has been decoded
+   */
+  public ListenableFuture<Schema> getSchema() {
+    return schema;
+  }
+
+  /**
+   * @return a future completed with the number of bytes read once the stream has ended, or
+   * failed with the error that stopped decoding
+   */
+  public ListenableFuture<Long> getEndOfStream() {
+    return endOfStream;
+  }
+
+  public boolean isEndOfStream() {
+    return ended;
+  }
+
+  public long bytesRead() {
+    return bytesRead;
+  }
+
+  /**
+   * @return the number of bytes still needed to complete the length prefix, metadata or body
+   * that is currently being decoded
+   */
+  public int bytesNeeded() {
+    return ended ? 0 : target.remaining();
+  }
+
+  /**
+   * Consumes the bytes remaining in src, decoding every message they complete. Bytes following
+   * the end of the stream are left in src.
+   *
+   * @param src the next bytes of the stream
+   * @return the number of messages decoded
+   * @throws IOException if the stream is malformed or the listener failed
+   */
+  public int feed(ByteBuffer src) throws IOException {
+    checkUsable();
+    int decoded = 0;
+    try {
+      while (src.hasRemaining() && !ended) {
+        int length = Math.min(target.remaining(), src.remaining());
+        ByteBuffer chunk = src.duplicate();
+        chunk.limit(chunk.position() + length);
+        target.put(chunk);
+        src.position(src.position() + length);
+        bytesRead += length;
+        if (!target.hasRemaining() && advance()) {
+          decoded++;
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      fail(e);
+      throw e;
+    }
+    return decoded;
+  }
+
+  /**
+   * Reads from a (typically non-blocking) channel until it has no more bytes available,
+   * decoding every message completed on the way. Reaching the end of the channel at a message
+   * boundary ends the stream.
+   *
+   * @param in the channel to read from
+   * @return the number of bytes read, or -1 if the channel has reached its end
+   * @throws IOException if the stream is malformed or ends within a message, or the listener
+   *                     failed
+   */
+  public long readFrom(ReadableByteChannel in) throws IOException {
+    checkUsable();
+    long total = 0;
+    try {
+      while (!ended) {
+        int read = in.read(target);
+        if (read < 0) {
+          if (target != prefix || prefix.position() != 0) {
+            throw new IOException("Unexpected end of input trying to read message.");
+          }
+          endOfStream();
+          return -1;
+        }
+        if (read == 0) {
+          break;
+        }
+        total += read;
+        bytesRead += read;
+        if (!target.hasRemaining()) {
+          advance();
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      fail(e);
+      throw e;
+    }
+    return total;
+  }
+
+  private void checkUsable() {
+    Preconditions.checkState(!closed, "decoder is closed");
+    Preconditions.checkState(!failed, "decoder has failed");
+  }
+
+  /**
+   * Moves on once the current target is full.
+   *
+   * @return true if a message has been decoded
+   */
+  private boolean advance() throws IOException {
+    if (target == prefix) {
+      int messageLength = prefix.getInt(0);
+      prefix.clear();
+      if (messageLength == 0) {
+        endOfStream();
+        return false;
+      }
+      if (messageLength < 0) {
+        throw new IOException("Invalid message length " + messageLength);
+      }
+      metadata = ByteBuffer.allocate(messageLength);
+      target = metadata;
+      return false;
+    }
+    if (target == metadata) {
+      metadata.rewind();
+      message = Message.getRootAsMessage(metadata);
+      long bodyLength = message.bodyLength();
+      if (bodyLength < 0) {
+        throw new IOException("Invalid message body length " + bodyLength);
+      }
+      RecordBatch recordBatchFB = recordBatch(message);
+      if (bodyLength <= MessageSerializer.MAX_BODY_CHUNK) {
+        bounds = new long[] {0, bodyLength};
+      } else if (recordBatchFB != null) {
+        bounds = MessageSerializer.splitBody(recordBatchFB, bodyLength, MessageSerializer.MAX_BODY_CHUNK);
+      } else {
+        throw new IOException("Invalid message body length " + bodyLength);
+      }
+      chunks = new ArrayList<>(bounds.length - 1);
+    }
+    // allocate the next chunk of the body, or dispatch the message once all have been filled
+    while (chunks.size() < bounds.length - 1) {
+      int length = (int) (bounds[chunks.size() + 1] - bounds[chunks.size()]);
+      ArrowBuf chunk = allocator.buffer(length);
+      chunk.writerIndex(length);
+      chunks.add(chunk);
+      target = chunk.nioBuffer(0, length);
+      if (target.hasRemaining()) {
+        return false;
+      }
+    }
+    dispatch();
+    return true;
+  }
+
+  private static RecordBatch recordBatch(Message message) {
+    switch (message.headerType()) {
+      case MessageHeader.RecordBatch:
+        return (RecordBatch) message.header(new RecordBatch());
+      case MessageHeader.DictionaryBatch:
+        return ((DictionaryBatch) message.header(new DictionaryBatch())).data();
+      default:
+        return null;
+    }
+  }
+
+  private void dispatch() throws IOException {
+    Message current = message;
+    long[] currentBounds = bounds;
+    List<ArrowBuf> currentChunks = chunks;
+    metadata = null;
+    message = null;
+    bounds = null;
+    chunks = null;
+    target = prefix;
+
+    if (!schemaRead) {
+      release(currentChunks);
+      if (current.headerType() != MessageHeader.Schema) {
+        throw new IOException("Expected schema but header was " + current.headerType());
+      }
+      Schema readSchema = Schema.convertSchema((org.apache.arrow.flatbuf.Schema)
+          current.header(new org.apache.arrow.flatbuf.Schema()));
+      schemaRead = true;
+      listener.onSchema(readSchema);
+      schema.set(readSchema);
+      return;
+    }
+
+    switch (current.headerType()) {
+      case MessageHeader.RecordBatch: {
+        RecordBatch recordBatchFB = (RecordBatch) current.header(new RecordBatch());
+        listener.onRecordBatch(
+            MessageSerializer.deserializeRecordBatch(recordBatchFB, currentBounds, currentChunks));
+        break;
+      }
+      case MessageHeader.DictionaryBatch: {
+        DictionaryBatch dictionaryBatchFB = (DictionaryBatch) current.header(new DictionaryBatch());
+        ArrowRecordBatch recordBatch =
+            MessageSerializer.deserializeRecordBatch(dictionaryBatchFB.data(), currentBounds, currentChunks);
+        listener.onDictionaryBatch(
+            new ArrowDictionaryBatch(dictionaryBatchFB.id(), recordBatch, dictionaryBatchFB.isDelta()));
+        break;
+      }
+      default:
+        release(currentChunks);
+        throw new IOException("Unexpected message header type " + current.headerType());
+    }
+  }
+
+  private static void release(List<ArrowBuf> buffers) {
+    for (ArrowBuf buffer : buffers) {
+      buffer.release();
+    }
+  }
+
+  private void endOfStream() throws IOException {
+    if (!schemaRead) {
+      throw new IOException("Unexpected end of input. Missing schema.");
+    }
+    ended = true;
+    listener.onEndOfStream();
+    endOfStream.set(bytesRead);
+  }
+
+  private void fail(Throwable t) {
+    failed = true;
+    ended = true;
+    schema.setException(t);
+    endOfStream.setException(t);
+  }
+
+  /**
+   * Releases the body of a partially decoded message.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (chunks != null) {
+      release(chunks);
+      chunks = null;
+    }
+    if (!ended) {
+      fail(new IOException("Decoder closed before the end of the stream."));
+    }
+  }
+}
@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
+import java.util.List;
 
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.file.ArrowReader;
@@ -48,6 +49,22 @@ public class ArrowStreamReader extends ArrowReader<ReadChannel> {
     this(Channels.newChannel(in), allocator);
   }
 
+  /**
+   * Constructs a streaming read, reading only some top level fields. The buffers of the other
+   * fields are read past without being allocated.
+   *
+   * @param in              the stream to read from
+   * @param allocator       to allocate new buffers
+   * @param projectedFields names of the top level fields to read
+   */
+  public ArrowStreamReader(ReadableByteChannel in, BufferAllocator allocator, List<String> projectedFields) {
+    super(new ReadChannel(in), allocator, projectedFields);
+  }
+
+  public ArrowStreamReader(InputStream in, BufferAllocator allocator, List<String> projectedFields) {
+    this(Channels.newChannel(in), allocator, projectedFields);
+  }
+
   /**
    * Reads the schema message from the beginning of the stream.
    *
@@ -61,6 +78,6 @@ public class ArrowStreamReader extends ArrowReader<ReadChannel> {
 
   @Override
   protected ArrowMessage readMessage(ReadChannel in, BufferAllocator allocator) throws IOException {
-    return MessageSerializer.deserializeMessageBatch(in, allocator);
+    return MessageSerializer.deserializeMessageBatch(in, allocator, getProjection());
   }
 }
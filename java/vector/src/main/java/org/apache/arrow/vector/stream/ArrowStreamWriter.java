@@ -21,6 +21,7 @@ package org.apache.arrow.vector.stream;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.FieldVector;
 import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.compression.CompressionCodec;
 import org.apache.arrow.vector.dictionary.DictionaryProvider;
 import org.apache.arrow.vector.file.ArrowBlock;
 import org.apache.arrow.vector.file.ArrowWriter;
@@ -44,6 +45,20 @@ public class ArrowStreamWriter extends ArrowWriter {
     super(root, provider, out);
   }
 
+  public ArrowStreamWriter(VectorSchemaRoot root, DictionaryProvider provider, WritableByteChannel out,
+                           CompressionCodec codec) {
+    super(root, provider, out, codec);
+  }
+
+  /**
+   * Dictionaries of a stream may grow between record batches, the appended entries are sent as
+   * delta dictionary batches.
+   */
+  @Override
+  protected boolean supportsDeltaDictionaries() {
+    return true;
+  }
+
   @Override
   protected void startInternal(WriteChannel out) throws IOException {
   }
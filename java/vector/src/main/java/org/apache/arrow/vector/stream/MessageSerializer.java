@@ -23,6 +23,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.arrow.flatbuf.BodyCompression;
 import org.apache.arrow.flatbuf.Buffer;
 import org.apache.arrow.flatbuf.DictionaryBatch;
 import org.apache.arrow.flatbuf.FieldNode;
@@ -32,8 +33,10 @@ import org.apache.arrow.flatbuf.MetadataVersion;
 import org.apache.arrow.flatbuf.RecordBatch;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.file.ArrowBlock;
+import org.apache.arrow.vector.file.ColumnProjection;
 import org.apache.arrow.vector.file.ReadChannel;
 import org.apache.arrow.vector.file.WriteChannel;
+import org.apache.arrow.vector.schema.ArrowBodyCompression;
 import org.apache.arrow.vector.schema.ArrowBuffer;
 import org.apache.arrow.vector.schema.ArrowDictionaryBatch;
 import org.apache.arrow.vector.schema.ArrowFieldNode;
@@ -62,6 +65,12 @@ import io.netty.buffer.ArrowBuf;
  */
 public class MessageSerializer {
 
+  /**
+   * The largest part of a message body read into a single buffer. Larger bodies are split at
+   * buffer boundaries, see {@link #splitBody(RecordBatch, long, long)}.
+   */
+  public static final long MAX_BODY_CHUNK = Integer.MAX_VALUE;
+
   public static int bytesToInt(byte[] bytes) {
     return ((bytes[3] & 255) << 24) +
         ((bytes[2] & 255) << 16) +
@@ -132,7 +141,7 @@ public class MessageSerializer {
       throws IOException {
 
     long start = out.getCurrentPosition();
-    int bodyLength = batch.computeBodyLength();
+    long bodyLength = batch.computeBodyLength();
     assert bodyLength % 8 == 0;
 
     FlatBufferBuilder builder = new FlatBufferBuilder();
@@ -148,14 +157,23 @@ public class MessageSerializer {
       metadataLength += (8 - padding);
     }
 
-    out.writeIntLittleEndian(metadataLength);
-    out.write(serializedMessage);
-
-    // Align the output to 8 byte boundary.
-    out.align();
-
-    long bufferLength = writeBatchBuffers(out, batch);
-    assert bufferLength % 8 == 0;
+    // the prefix, metadata, padding and buffers are written by a single gathering write, nothing
+    // is written if serialization fails before
+    out.startGather();
+    long bufferLength;
+    try {
+      out.writeIntLittleEndian(metadataLength);
+      out.write(serializedMessage);
+
+      // Align the output to 8 byte boundary.
+      out.align();
+
+      bufferLength = writeBatchBuffers(out, batch);
+      assert bufferLength % 8 == 0;
+      out.endGather();
+    } finally {
+      out.abortGather();
+    }
 
     // Metadata size in the Block account for the size prefix
     return new ArrowBlock(start, metadataLength + 4, bufferLength);
@@ -195,15 +213,96 @@ public class MessageSerializer {
   public static ArrowRecordBatch deserializeRecordBatch(ReadChannel in, Message message, BufferAllocator alloc)
       throws IOException {
     RecordBatch recordBatchFB = (RecordBatch) message.header(new RecordBatch());
+    return deserializeRecordBatch(in, recordBatchFB, message.bodyLength(), alloc);
+  }
 
-    int bodyLength = (int) message.bodyLength();
+  /**
+   * Reads the body of a record batch and deserializes it. A body larger than
+   * {@link #MAX_BODY_CHUNK} is read into several buffers, so only its individual buffers are
+   * limited to 2GB.
+   *
+   * @param in            the channel positioned at the start of the body
+   * @param recordBatchFB the metadata of the batch
+   * @param bodyLength    the length of the body
+   * @param alloc         to allocate buffers
+   * @return the deserialized object
+   * @throws IOException if something went wrong
+   */
+  public static ArrowRecordBatch deserializeRecordBatch(ReadChannel in, RecordBatch recordBatchFB,
+                                                        long bodyLength, BufferAllocator alloc) throws IOException {
+    return deserializeRecordBatch(in, recordBatchFB, bodyLength, alloc, MAX_BODY_CHUNK);
+  }
 
-    // Now read the record batch body
-    ArrowBuf buffer = alloc.buffer(bodyLength);
-    if (in.readFully(buffer, bodyLength) != bodyLength) {
-      throw new IOException("Unexpected end of input trying to read batch.");
+  static ArrowRecordBatch deserializeRecordBatch(ReadChannel in, RecordBatch recordBatchFB, long bodyLength,
+                                                 BufferAllocator alloc, long maxChunk) throws IOException {
+    if (bodyLength <= maxChunk) {
+      ArrowBuf body = in.readBuffer(alloc, (int) bodyLength);
+      return deserializeRecordBatch(recordBatchFB, body);
+    }
+    long[] bounds = splitBody(recordBatchFB, bodyLength, maxChunk);
+    List<ArrowBuf> chunks = new ArrayList<>(bounds.length - 1);
+    try {
+      for (int i = 0; i < bounds.length - 1; i++) {
+        chunks.add(in.readBuffer(alloc, (int) (bounds[i + 1] - bounds[i])));
+      }
+    } catch (IOException | RuntimeException e) {
+      for (ArrowBuf chunk : chunks) {
+        chunk.release();
+      }
+      throw e;
     }
-    return deserializeRecordBatch(recordBatchFB, buffer);
+    return deserializeRecordBatch(recordBatchFB, bounds, chunks);
+  }
+
+  /**
+   * Splits a record batch body into contiguous chunks of at most maxChunk bytes that start at
+   * buffer boundaries, so that every buffer of the batch lies within a single chunk.
+   *
+   * @param recordBatchFB the metadata of the batch
+   * @param bodyLength    the length of the body
+   * @param maxChunk      the maximum length of a chunk
+   * @return the offsets of the chunks in the body, followed by the body length
+   * @throws IOException if a buffer is longer than maxChunk or outside of the body
+   */
+  public static long[] splitBody(RecordBatch recordBatchFB, long bodyLength, long maxChunk) throws IOException {
+    List<Long> bounds = new ArrayList<>();
+    bounds.add(0L);
+    long chunkStart = 0;
+    long end = 0;
+    for (int i = 0; i < recordBatchFB.buffersLength(); ++i) {
+      Buffer bufferFB = recordBatchFB.buffers(i);
+      long offset = bufferFB.offset();
+      long length = bufferFB.length();
+      if (offset < end || length < 0 || offset + length > bodyLength) {
+        throw new IOException("Invalid buffer layout in record batch: [" + offset + ", " +
+            (offset + length) + ") after " + end + " in a body of " + bodyLength + " bytes");
+      }
+      if (length > maxChunk) {
+        throw new IOException("Cannot currently deserialize buffers over " + maxChunk + " bytes");
+      }
+      if (offset + length - chunkStart > maxChunk) {
+        // the buffers so far end before chunkStart + maxChunk, only padding is cut here
+        while (offset - chunkStart > maxChunk) {
+          chunkStart += maxChunk;
+          bounds.add(chunkStart);
+        }
+        if (offset > chunkStart) {
+          chunkStart = offset;
+          bounds.add(chunkStart);
+        }
+      }
+      end = offset + length;
+    }
+    while (bodyLength - chunkStart > maxChunk) {
+      chunkStart += maxChunk;
+      bounds.add(chunkStart);
+    }
+    long[] result = new long[bounds.size() + 1];
+    for (int i = 0; i < bounds.size(); i++) {
+      result[i] = bounds.get(i);
+    }
+    result[bounds.size()] = bodyLength;
+    return result;
   }
 
   /**
@@ -221,12 +320,48 @@ public class MessageSerializer {
     // Metadata length contains integer prefix plus byte padding
     long totalLen = block.getMetadataLength() + block.getBodyLength();
 
-    if (totalLen > Integer.MAX_VALUE) {
-      throw new IOException("Cannot currently deserialize record batches over 2GB");
+    if (totalLen > MAX_BODY_CHUNK) {
+      // read the metadata on its own and the body in chunks
+      Message messageFB = readBlockMessage(in, block);
+      RecordBatch recordBatchFB = (RecordBatch) messageFB.header(new RecordBatch());
+      return deserializeRecordBatch(in, recordBatchFB, block.getBodyLength(), alloc);
     }
 
-    ArrowBuf buffer = alloc.buffer((int) totalLen);
-    if (in.readFully(buffer, (int) totalLen) != totalLen) {
+    ArrowBuf buffer = in.readBuffer(alloc, (int) totalLen);
+    return deserializeRecordBatch(buffer, block);
+  }
+
+  /**
+   * Reads the prefixed metadata of a block, leaving the channel positioned at the body.
+   *
+   * @param in    the channel positioned at the start of the block
+   * @param block the block to read
+   * @return the message metadata
+   * @throws IOException if something went wrong
+   */
+  public static Message readBlockMessage(ReadChannel in, ArrowBlock block) throws IOException {
+    ByteBuffer metadataBuffer = ByteBuffer.allocate(block.getMetadataLength());
+    if (in.readFully(metadataBuffer) != block.getMetadataLength()) {
+      throw new IOException("Unexpected end of input trying to read batch.");
+    }
+    metadataBuffer.position(4);
+    return Message.getRootAsMessage(metadataBuffer.slice());
+  }
+
+  /**
+   * Deserializes a RecordBatch from a buffer that already holds the entire message, i.e. the
+   * prefixed metadata followed by the body, laid out as described by the block. The buffers of
+   * the returned batch are slices of the given buffer, so no data is copied. Takes over the
+   * caller's reference to buffer.
+   *
+   * @param buffer the message bytes
+   * @param block  the block describing the message
+   * @return the deserialized object
+   * @throws IOException if something went wrong
+   */
+  public static ArrowRecordBatch deserializeRecordBatch(ArrowBuf buffer, ArrowBlock block) throws IOException {
+    long totalLen = block.getMetadataLength() + block.getBodyLength();
+    if (buffer.readableBytes() < totalLen) {
       throw new IOException("Unexpected end of input trying to read batch.");
     }
 
@@ -247,6 +382,62 @@ public class MessageSerializer {
   public static ArrowRecordBatch deserializeRecordBatch(RecordBatch recordBatchFB,
                                                         ArrowBuf body) throws IOException {
     // Now read the body
+    List<ArrowFieldNode> nodes = deserializeNodes(recordBatchFB);
+    List<ArrowBuf> buffers = new ArrayList<>();
+    for (int i = 0; i < recordBatchFB.buffersLength(); ++i) {
+      Buffer bufferFB = recordBatchFB.buffers(i);
+      ArrowBuf vectorBuffer = body.slice((int) bufferFB.offset(), (int) bufferFB.length());
+      buffers.add(vectorBuffer);
+    }
+    ArrowRecordBatch arrowRecordBatch = new ArrowRecordBatch((int) recordBatchFB.length(), nodes, buffers,
+        deserializeBodyCompression(recordBatchFB));
+    body.release();
+    return arrowRecordBatch;
+  }
+
+  /**
+   * Deserializes a record batch whose body has been read in chunks split by
+   * {@link #splitBody(RecordBatch, long, long)}. Takes over the caller's references to the chunks.
+   *
+   * @param recordBatchFB the metadata of the batch
+   * @param bounds        the offsets of the chunks in the body, followed by the body length
+   * @param chunks        the chunks of the body
+   * @return the deserialized object
+   * @throws IOException if a buffer does not lie within a single chunk
+   */
+  public static ArrowRecordBatch deserializeRecordBatch(RecordBatch recordBatchFB, long[] bounds,
+                                                        List<ArrowBuf> chunks) throws IOException {
+    try {
+      List<ArrowFieldNode> nodes = deserializeNodes(recordBatchFB);
+      List<ArrowBuf> buffers = new ArrayList<>();
+      int chunk = 0;
+      for (int i = 0; i < recordBatchFB.buffersLength(); ++i) {
+        Buffer bufferFB = recordBatchFB.buffers(i);
+        while (chunk < chunks.size() - 1 && bufferFB.offset() >= bounds[chunk + 1]) {
+          chunk++;
+        }
+        long start = bufferFB.offset() - bounds[chunk];
+        if (start < 0 || bufferFB.offset() + bufferFB.length() > bounds[chunk + 1]) {
+          throw new IOException("Buffer at " + bufferFB.offset() + " of length " + bufferFB.length() +
+              " crosses the body chunk [" + bounds[chunk] + ", " + bounds[chunk + 1] + ")");
+        }
+        buffers.add(chunks.get(chunk).slice((int) start, (int) bufferFB.length()));
+      }
+      return new ArrowRecordBatch((int) recordBatchFB.length(), nodes, buffers,
+          deserializeBodyCompression(recordBatchFB));
+    } finally {
+      // the batch retained the slices it needs
+      for (ArrowBuf chunk : chunks) {
+        chunk.release();
+      }
+    }
+  }
+
+  private static List<ArrowFieldNode> deserializeNodes(RecordBatch recordBatchFB) throws IOException {
+    if ((int) recordBatchFB.length() != recordBatchFB.length()) {
+      throw new IOException("Cannot currently deserialize record batches with more than " +
+          "Int.MAX_VALUE rows");
+    }
     int nodesLength = recordBatchFB.nodesLength();
     List<ArrowFieldNode> nodes = new ArrayList<>();
     for (int i = 0; i < nodesLength; ++i) {
@@ -258,19 +449,19 @@ public class MessageSerializer {
       }
       nodes.add(new ArrowFieldNode((int) node.length(), (int) node.nullCount()));
     }
-    List<ArrowBuf> buffers = new ArrayList<>();
-    for (int i = 0; i < recordBatchFB.buffersLength(); ++i) {
-      Buffer bufferFB = recordBatchFB.buffers(i);
-      ArrowBuf vectorBuffer = body.slice((int) bufferFB.offset(), (int) bufferFB.length());
-      buffers.add(vectorBuffer);
-    }
-    if ((int) recordBatchFB.length() != recordBatchFB.length()) {
-      throw new IOException("Cannot currently deserialize record batches over 2GB");
+    return nodes;
+  }
+
+  /**
+   * @param recordBatchFB the metadata of a record batch
+   * @return the compression of its buffers, or null if they are not compressed
+   */
+  public static ArrowBodyCompression deserializeBodyCompression(RecordBatch recordBatchFB) {
+    BodyCompression compressionFB = recordBatchFB.compression();
+    if (compressionFB == null) {
+      return null;
     }
-    ArrowRecordBatch arrowRecordBatch =
-        new ArrowRecordBatch((int) recordBatchFB.length(), nodes, buffers);
-    body.release();
-    return arrowRecordBatch;
+    return new ArrowBodyCompression(compressionFB.codec(), compressionFB.method());
   }
 
   /**
@@ -283,7 +474,7 @@ public class MessageSerializer {
    */
   public static ArrowBlock serialize(WriteChannel out, ArrowDictionaryBatch batch) throws IOException {
     long start = out.getCurrentPosition();
-    int bodyLength = batch.computeBodyLength();
+    long bodyLength = batch.computeBodyLength();
     assert bodyLength % 8 == 0;
 
     FlatBufferBuilder builder = new FlatBufferBuilder();
@@ -299,15 +490,24 @@ public class MessageSerializer {
       metadataLength += (8 - padding);
     }
 
-    out.writeIntLittleEndian(metadataLength);
-    out.write(serializedMessage);
-
-    // Align the output to 8 byte boundary.
-    out.align();
-
-    // write the embedded record batch
-    long bufferLength = writeBatchBuffers(out, batch.getDictionary());
-    assert bufferLength % 8 == 0;
+    // the prefix, metadata, padding and buffers are written by a single gathering write, nothing
+    // is written if serialization fails before
+    out.startGather();
+    long bufferLength;
+    try {
+      out.writeIntLittleEndian(metadataLength);
+      out.write(serializedMessage);
+
+      // Align the output to 8 byte boundary.
+      out.align();
+
+      // write the embedded record batch
+      bufferLength = writeBatchBuffers(out, batch.getDictionary());
+      assert bufferLength % 8 == 0;
+      out.endGather();
+    } finally {
+      out.abortGather();
+    }
 
     // Metadata size in the Block account for the size prefix
     return new ArrowBlock(start, metadataLength + 4, bufferLength);
@@ -327,15 +527,9 @@ public class MessageSerializer {
                                                                 BufferAllocator alloc) throws IOException {
     DictionaryBatch dictionaryBatchFB = (DictionaryBatch) message.header(new DictionaryBatch());
 
-    int bodyLength = (int) message.bodyLength();
-
     // Now read the record batch body
-    ArrowBuf body = alloc.buffer(bodyLength);
-    if (in.readFully(body, bodyLength) != bodyLength) {
-      throw new IOException("Unexpected end of input trying to read batch.");
-    }
-    ArrowRecordBatch recordBatch = deserializeRecordBatch(dictionaryBatchFB.data(), body);
-    return new ArrowDictionaryBatch(dictionaryBatchFB.id(), recordBatch);
+    ArrowRecordBatch recordBatch = deserializeRecordBatch(in, dictionaryBatchFB.data(), message.bodyLength(), alloc);
+    return new ArrowDictionaryBatch(dictionaryBatchFB.id(), recordBatch, dictionaryBatchFB.isDelta());
   }
 
   /**
@@ -354,14 +548,16 @@ public class MessageSerializer {
     // Metadata length contains integer prefix plus byte padding
     long totalLen = block.getMetadataLength() + block.getBodyLength();
 
-    if (totalLen > Integer.MAX_VALUE) {
-      throw new IOException("Cannot currently deserialize record batches over 2GB");
+    if (totalLen > MAX_BODY_CHUNK) {
+      // read the metadata on its own and the body in chunks
+      Message messageFB = readBlockMessage(in, block);
+      DictionaryBatch dictionaryBatchFB = (DictionaryBatch) messageFB.header(new DictionaryBatch());
+      ArrowRecordBatch recordBatch =
+          deserializeRecordBatch(in, dictionaryBatchFB.data(), block.getBodyLength(), alloc);
+      return new ArrowDictionaryBatch(dictionaryBatchFB.id(), recordBatch, dictionaryBatchFB.isDelta());
     }
 
-    ArrowBuf buffer = alloc.buffer((int) totalLen);
-    if (in.readFully(buffer, (int) totalLen) != totalLen) {
-      throw new IOException("Unexpected end of input trying to read batch.");
-    }
+    ArrowBuf buffer = in.readBuffer(alloc, (int) totalLen);
 
     ArrowBuf metadataBuffer = buffer.slice(4, block.getMetadataLength() - 4);
 
@@ -374,19 +570,36 @@ public class MessageSerializer {
     final ArrowBuf body = buffer.slice(block.getMetadataLength(),
         (int) totalLen - block.getMetadataLength());
     ArrowRecordBatch recordBatch = deserializeRecordBatch(dictionaryBatchFB.data(), body);
-    return new ArrowDictionaryBatch(dictionaryBatchFB.id(), recordBatch);
+    return new ArrowDictionaryBatch(dictionaryBatchFB.id(), recordBatch, dictionaryBatchFB.isDelta());
   }
 
   public static ArrowMessage deserializeMessageBatch(ReadChannel in, BufferAllocator alloc) throws IOException {
+    return deserializeMessageBatch(in, alloc, null);
+  }
+
+  /**
+   * Deserializes the next record batch or dictionary batch of a stream.
+   *
+   * @param in         the channel to deserialize from
+   * @param alloc      to allocate buffers
+   * @param projection if not null, only the buffers of the projected fields of record batches
+   *                   are read, the rest of the body is skipped
+   * @return the deserialized message, or null at the end of the stream
+   * @throws IOException if something went wrong
+   */
+  public static ArrowMessage deserializeMessageBatch(ReadChannel in, BufferAllocator alloc,
+                                                     ColumnProjection projection) throws IOException {
     Message message = deserializeMessage(in);
     if (message == null) {
       return null;
-    } else if (message.bodyLength() > Integer.MAX_VALUE) {
-      throw new IOException("Cannot currently deserialize record batches over 2GB");
     }
 
     switch (message.headerType()) {
       case MessageHeader.RecordBatch:
+        if (projection != null) {
+          RecordBatch recordBatchFB = (RecordBatch) message.header(new RecordBatch());
+          return projection.readRecordBatch(in, recordBatchFB, message.bodyLength(), alloc);
+        }
         return deserializeRecordBatch(in, message, alloc);
       case MessageHeader.DictionaryBatch:
         return deserializeDictionaryBatch(in, message, alloc);
@@ -405,7 +618,7 @@ public class MessageSerializer {
    * @return the corresponding ByteBuffer
    */
   public static ByteBuffer serializeMessage(FlatBufferBuilder builder, byte headerType,
-                                            int headerOffset, int bodyLength) {
+                                            int headerOffset, long bodyLength) {
     Message.startMessage(builder);
     Message.addHeaderType(builder, headerType);
     Message.addHeader(builder, headerOffset);
@@ -0,0 +1,319 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.arrow.vector.util;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Operations on bitmaps, such as validity buffers, stored in ArrowBufs.
+ *
+ * Bit i of a bitmap is bit (i % 8) of byte (i / 8), so on little endian platforms bit i of the
+ * bitmap is also bit (i % 64) of the long at byte offset 8 * (i / 64). All the operations below
+ * work on 64 bit words and only fall back to single bytes for the partial words at the edges of
+ * a range. They never touch bytes beyond the last one holding a bit of the range.
+ */
+public final class BitmapUtility {
+
+  private BitmapUtility() {
+  }
+
+  /**
+   * @param bitCount number of bits
+   * @return the number of bytes needed to hold them
+   */
+  public static int getSizeFromCount(int bitCount) {
+    return (int) ((bitCount + 7L) >>> 3);
+  }
+
+  /**
+   * @param buf   the bitmap
+   * @param index index of the bit
+   * @return true if the bit is set
+   */
+  public static boolean isSet(ArrowBuf buf, int index) {
+    return ((buf.getByte(index >>> 3) >> (index & 7)) & 1) != 0;
+  }
+
+  /**
+   * Counts the bits set in a range of a bitmap.
+   *
+   * @param buf    the bitmap
+   * @param start  index of the first bit of the range
+   * @param length number of bits in the range
+   * @return the number of bits set to 1
+   */
+  public static int countSetBits(ArrowBuf buf, int start, int length) {
+    if (length <= 0) {
+      return 0;
+    }
+    final int end = start + length;
+    final int endByte = end >>> 3;
+    int byteIndex = start >>> 3;
+    int count = 0;
+
+    final int headBits = start & 7;
+    if (headBits != 0) {
+      int b = buf.getByte(byteIndex) & 0xFF;
+      if (byteIndex == endByte) {
+        return Integer.bitCount(b & rangeMask(headBits, end & 7));
+      }
+      count += Integer.bitCount(b >>> headBits);
+      byteIndex++;
+    }
+    for (; byteIndex + 8 <= endByte; byteIndex += 8) {
+      count += Long.bitCount(buf.getLong(byteIndex));
+    }
+    for (; byteIndex < endByte; byteIndex++) {
+      count += Integer.bitCount(buf.getByte(byteIndex) & 0xFF);
+    }
+    final int tailBits = end & 7;
+    if (tailBits != 0) {
+      count += Integer.bitCount(buf.getByte(endByte) & rangeMask(0, tailBits));
+    }
+    return count;
+  }
+
+  /**
+   * @param validity  validity bitmap
+   * @param valueCount number of values
+   * @return the number of bits set to 0 among the first valueCount bits
+   */
+  public static int getNullCount(ArrowBuf validity, int valueCount) {
+    return valueCount - countSetBits(validity, 0, valueCount);
+  }
+
+  /**
+   * Sets or clears a range of bits, leaving the other bits of the edge bytes untouched.
+   *
+   * @param buf    the bitmap
+   * @param start  index of the first bit of the range
+   * @param length number of bits in the range
+   * @param value  true to set the bits, false to clear them
+   */
+  public static void setRange(ArrowBuf buf, int start, int length, boolean value) {
+    if (length <= 0) {
+      return;
+    }
+    final int end = start + length;
+    final int endByte = end >>> 3;
+    int byteIndex = start >>> 3;
+
+    final int headBits = start & 7;
+    if (headBits != 0) {
+      if (byteIndex == endByte) {
+        setMasked(buf, byteIndex, rangeMask(headBits, end & 7), value);
+        return;
+      }
+      setMasked(buf, byteIndex, rangeMask(headBits, 8), value);
+      byteIndex++;
+    }
+    final long word = value ? -1L : 0L;
+    for (; byteIndex + 8 <= endByte; byteIndex += 8) {
+      buf.setLong(byteIndex, word);
+    }
+    for (; byteIndex < endByte; byteIndex++) {
+      buf.setByte(byteIndex, (int) word);
+    }
+    final int tailBits = end & 7;
+    if (tailBits != 0) {
+      setMasked(buf, endByte, rangeMask(0, tailBits), value);
+    }
+  }
+
+  /**
+   * Copies a range of bits, starting at any bit of the source, to the start of the target. The
+   * bits of the last target byte beyond the range are cleared.
+   *
+   * @param src      source bitmap
+   * @param srcStart index of the first bit to copy
+   * @param dst      target bitmap, of at least getSizeFromCount(length) bytes
+   * @param length   number of bits to copy
+   */
+  public static void copyBits(ArrowBuf src, int srcStart, ArrowBuf dst, int length) {
+    if (length <= 0) {
+      return;
+    }
+    final int srcByte = srcStart >>> 3;
+    final int srcBytes = getSizeFromCount(srcStart + length) - srcByte;
+    final int dstBytes = getSizeFromCount(length);
+    final int offset = srcStart & 7;
+
+    if (offset == 0) {
+      dst.setBytes(0, src, srcByte, dstBytes);
+    } else {
+      int i = 0;
+      // each target word is made of the source word shifted right and the low bits of the next byte
+      for (; i + 8 <= dstBytes && i + 9 <= srcBytes; i += 8) {
+        long low = src.getLong(srcByte + i) >>> offset;
+        long high = ((long) src.getByte(srcByte + i + 8)) << (64 - offset);
+        dst.setLong(i, low | high);
+      }
+      for (; i < dstBytes; i++) {
+        int b = (src.getByte(srcByte + i) & 0xFF) >>> offset;
+        if (i + 1 < srcBytes) {
+          b |= src.getByte(srcByte + i + 1) << (8 - offset);
+        }
+        dst.setByte(i, b);
+      }
+    }
+
+    final int tailBits = length & 7;
+    if (tailBits != 0) {
+      dst.setByte(dstBytes - 1, dst.getByte(dstBytes - 1) & rangeMask(0, tailBits));
+    }
+  }
+
+  /**
+   * Copies a range of bits, starting at any bit of the source, to any bit of the target. The other
+   * bits of the target are left untouched.
+   *
+   * @param src      source bitmap
+   * @param srcStart index of the first bit to copy
+   * @param dst      target bitmap, of at least getSizeFromCount(dstStart + length) bytes
+   * @param dstStart index of the first bit to write
+   * @param length   number of bits to copy
+   */
+  public static void copyBits(ArrowBuf src, int srcStart, ArrowBuf dst, int dstStart, int length) {
+    int i = 0;
+    // single bits up to a byte boundary of the target, then whole target bytes
+    for (; i < length && ((dstStart + i) & 7) != 0; i++) {
+      setMasked(dst, (dstStart + i) >>> 3, 1 << ((dstStart + i) & 7), isSet(src, srcStart + i));
+    }
+    final int bytes = (length - i) >>> 3;
+    if (bytes > 0) {
+      copyBits(src, srcStart + i, dst.slice((dstStart + i) >>> 3, bytes), bytes * 8);
+      i += bytes * 8;
+    }
+    for (; i < length; i++) {
+      setMasked(dst, (dstStart + i) >>> 3, 1 << ((dstStart + i) & 7), isSet(src, srcStart + i));
+    }
+  }
+
+  /**
+   * out = left AND right over the first length bits. out may be one of the inputs.
+   *
+   * @param left   first bitmap
+   * @param right  second bitmap
+   * @param out    result bitmap
+   * @param length number of bits
+   */
+  public static void and(ArrowBuf left, ArrowBuf right, ArrowBuf out, int length) {
+    final int bytes = getSizeFromCount(length);
+    int i = 0;
+    for (; i + 8 <= bytes; i += 8) {
+      out.setLong(i, left.getLong(i) & right.getLong(i));
+    }
+    for (; i < bytes; i++) {
+      out.setByte(i, left.getByte(i) & right.getByte(i));
+    }
+  }
+
+  /**
+   * out = left OR right over the first length bits. out may be one of the inputs.
+   *
+   * @param left   first bitmap
+   * @param right  second bitmap
+   * @param out    result bitmap
+   * @param length number of bits
+   */
+  public static void or(ArrowBuf left, ArrowBuf right, ArrowBuf out, int length) {
+    final int bytes = getSizeFromCount(length);
+    int i = 0;
+    for (; i + 8 <= bytes; i += 8) {
+      out.setLong(i, left.getLong(i) | right.getLong(i));
+    }
+    for (; i < bytes; i++) {
+      out.setByte(i, left.getByte(i) | right.getByte(i));
+    }
+  }
+
+  /**
+   * out = left AND NOT right over the first length bits. out may be one of the inputs.
+   *
+   * @param left   first bitmap
+   * @param right  second bitmap, the bits to clear from the first one
+   * @param out    result bitmap
+   * @param length number of bits
+   */
+  public static void andNot(ArrowBuf left, ArrowBuf right, ArrowBuf out, int length) {
+    final int bytes = getSizeFromCount(length);
+    int i = 0;
+    for (; i + 8 <= bytes; i += 8) {
+      out.setLong(i, left.getLong(i) & ~right.getLong(i));
+    }
+    for (; i < bytes; i++) {
+      out.setByte(i, left.getByte(i) & ~right.getByte(i));
+    }
+  }
+
+  /**
+   * Finds the next set bit, to iterate over the set bits of a bitmap:
+   * <pre>
+   * for (int i = nextSetBit(buf, 0, count); i >= 0; i = nextSetBit(buf, i + 1, count)) { ... }
+   * </pre>
+   *
+   * @param buf       the bitmap
+   * @param fromIndex index of the first bit to look at
+   * @param endIndex  index after the last bit to look at
+   * @return the index of the first set bit in [fromIndex, endIndex) or -1 if there is none
+   */
+  public static int nextSetBit(ArrowBuf buf, int fromIndex, int endIndex) {
+    if (fromIndex >= endIndex) {
+      return -1;
+    }
+    final int endBytes = getSizeFromCount(endIndex);
+    int byteIndex = fromIndex >>> 3;
+
+    int b = (buf.getByte(byteIndex) & 0xFF) >>> (fromIndex & 7);
+    if (b != 0) {
+      return found(fromIndex + Integer.numberOfTrailingZeros(b), endIndex);
+    }
+    byteIndex++;
+    for (; byteIndex + 8 <= endBytes; byteIndex += 8) {
+      long word = buf.getLong(byteIndex);
+      if (word != 0) {
+        return found((byteIndex << 3) + Long.numberOfTrailingZeros(word), endIndex);
+      }
+    }
+    for (; byteIndex < endBytes; byteIndex++) {
+      b = buf.getByte(byteIndex) & 0xFF;
+      if (b != 0) {
+        return found((byteIndex << 3) + Integer.numberOfTrailingZeros(b), endIndex);
+      }
+    }
+    return -1;
+  }
+
+  private static int found(int index, int endIndex) {
+    return index < endIndex ? index : -1;
+  }
+
+  /**
+   * @return a byte mask with the bits in [from, to) set
+   */
+  private static int rangeMask(int from, int to) {
+    return (0xFF >>> (8 - to)) & (0xFF << from);
+  }
+
+  private static void setMasked(ArrowBuf buf, int byteIndex, int mask, boolean value) {
+    int b = buf.getByte(byteIndex);
+    buf.setByte(byteIndex, value ? b | mask : b & ~mask);
+  }
+}
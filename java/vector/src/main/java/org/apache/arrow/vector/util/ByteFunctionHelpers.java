@@ -181,4 +181,46 @@ public class ByteFunctionHelpers {
     return lLen > rLen ? 1 : -1;
   }
 
+  /**
+   * Helper function to hash a set of bytes in an ArrowBuf. Two ranges that are equal according to
+   * {@link #equal(ArrowBuf, int, int, ArrowBuf, int, int)} always hash to the same value.
+   *
+   * @param buf   ArrowBuf holding the bytes
+   * @param start start offset in the buffer
+   * @param end   end offset in the buffer
+   * @return a well mixed 32 bit hash of the bytes
+   */
+  public static final int hash(final ArrowBuf buf, int start, int end) {
+    if (BoundsChecking.BOUNDS_CHECKING_ENABLED) {
+      buf.checkBytes(start, end);
+    }
+    return memHash(buf.memoryAddress(), start, end);
+  }
+
+  private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+  private static final int memHash(final long addr, int start, int end) {
+    int n = end - start;
+    long pos = addr + start;
+    long hash = HASH_MULTIPLIER ^ n;
+
+    while (n > 7) {
+      hash = Long.rotateLeft((hash ^ PlatformDependent.getLong(pos)) * HASH_MULTIPLIER, 31);
+      pos += 8;
+      n -= 8;
+    }
+    while (n-- != 0) {
+      hash = (hash ^ (PlatformDependent.getByte(pos) & 0xFF)) * HASH_MULTIPLIER;
+      pos++;
+    }
+
+    // final avalanche so that the low bits are usable as a table slot
+    hash ^= hash >>> 33;
+    hash *= 0xFF51AFD7ED558CCDL;
+    hash ^= hash >>> 33;
+    hash *= 0xC4CEB9FE1A85EC53L;
+    hash ^= hash >>> 33;
+    return (int) hash;
+  }
+
 }
@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector.util;
+
+import org.apache.arrow.memory.BufferAllocator;
+
+import com.google.common.base.Preconditions;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Off heap open addressing hash table with linear probing, mapping the hash of a key to a non
+ * negative int value. The keys themselves are not stored: subclasses keep them wherever they
+ * live and tell whether the key of a value matches the key being probed.
+ *
+ * Each slot is an int hash followed by the value + 1 (0 marks an empty slot), and the table is
+ * kept at a load factor of at most 1/2.
+ */
+public abstract class OpenAddressingHashTable implements AutoCloseable {
+
+  private static final int SLOT_WIDTH = 8;
+  private static final int MIN_CAPACITY = 16;
+  private static final int MAX_CAPACITY = 1 << 27;
+
+  protected final BufferAllocator allocator;
+  private ArrowBuf table;
+  private int mask;
+  private int size;
+
+  /**
+   * @param allocator    allocator for the table, also available to subclasses
+   * @param expectedSize number of values the table is sized for
+   */
+  protected OpenAddressingHashTable(BufferAllocator allocator, int expectedSize) {
+    this.allocator = allocator;
+    allocateTable(capacityFor(expectedSize));
+  }
+
+  /**
+   * @return the number of values inserted
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param value a value of the table
+   * @return true if the key of the value is the key being probed
+   */
+  protected abstract boolean matches(int value);
+
+  /**
+   * Linear probing from the home slot of the hash.
+   *
+   * @return the slot holding the value of a matching key or the empty slot where it would be inserted
+   */
+  protected final int find(int hash) {
+    int slot = hash & mask;
+    while (true) {
+      int entry = table.getInt(slot * SLOT_WIDTH + 4);
+      if (entry == 0) {
+        return slot;
+      }
+      if (table.getInt(slot * SLOT_WIDTH) == hash && matches(entry - 1)) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  /**
+   * @return the value in the slot, or -1 if the slot is empty
+   */
+  protected final int valueAt(int slot) {
+    return table.getInt(slot * SLOT_WIDTH + 4) - 1;
+  }
+
+  /**
+   * Replaces the value of a non empty slot.
+   */
+  protected final void setValue(int slot, int value) {
+    table.setInt(slot * SLOT_WIDTH + 4, value + 1);
+  }
+
+  /**
+   * Fills the empty slot returned by {@link #find(int)}, growing the table if needed. The slots
+   * returned by previous calls to find are no longer valid.
+   */
+  protected final void insert(int slot, int hash, int value) {
+    table.setInt(slot * SLOT_WIDTH, hash);
+    table.setInt(slot * SLOT_WIDTH + 4, value + 1);
+    size++;
+    if (size * 2 > mask + 1) {
+      rehash(capacityFor(size));
+    }
+  }
+
+  private void rehash(int capacity) {
+    ArrowBuf old = table;
+    int oldCapacity = mask + 1;
+    allocateTable(capacity);
+    try {
+      for (int i = 0; i < oldCapacity; i++) {
+        int entry = old.getInt(i * SLOT_WIDTH + 4);
+        if (entry != 0) {
+          int hash = old.getInt(i * SLOT_WIDTH);
+          int slot = hash & mask;
+          while (table.getInt(slot * SLOT_WIDTH + 4) != 0) {
+            slot = (slot + 1) & mask;
+          }
+          table.setInt(slot * SLOT_WIDTH, hash);
+          table.setInt(slot * SLOT_WIDTH + 4, entry);
+        }
+      }
+    } finally {
+      old.release();
+    }
+  }
+
+  private void allocateTable(int capacity) {
+    table = allocator.buffer(capacity * SLOT_WIDTH);
+    table.setZero(0, capacity * SLOT_WIDTH);
+    mask = capacity - 1;
+  }
+
+  private static int capacityFor(int count) {
+    long capacity = MIN_CAPACITY;
+    while (capacity < 2L * count + 2) {
+      capacity <<= 1;
+    }
+    Preconditions.checkArgument(capacity <= MAX_CAPACITY, "Too many values in the hash table: %s", count);
+    return (int) capacity;
+  }
+
+  /**
+   * Every NaN is the same value as the canonical NaN, -0.0 and 0.0 stay apart like their boxed values.
+   */
+  protected static int canonicalBits(float value) {
+    return Float.floatToIntBits(value);
+  }
+
+  protected static long canonicalBits(double value) {
+    return Double.doubleToLongBits(value);
+  }
+
+  /**
+   * Spreads the bits of a value over the low bits used to pick a slot (murmur3 finalizer).
+   */
+  protected static int mix(long bits) {
+    bits ^= bits >>> 33;
+    bits *= 0xff51afd7ed558ccdL;
+    bits ^= bits >>> 33;
+    bits *= 0xc4ceb9fe1a85ec53L;
+    bits ^= bits >>> 33;
+    return (int) bits;
+  }
+
+  @Override
+  public void close() {
+    if (table != null) {
+      table.release();
+      table = null;
+    }
+  }
+}
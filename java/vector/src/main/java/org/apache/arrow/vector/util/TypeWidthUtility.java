@@ -0,0 +1,82 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.arrow.vector.util;
+
+import org.apache.arrow.vector.types.Types.MinorType;
+
+/**
+ * Widths of the values of the primitive types, as laid out in the data buffer of their vectors.
+ */
+public final class TypeWidthUtility {
+
+  /** Variable width values, located through the offset buffer. */
+  public static final int VARIABLE_WIDTH = -1;
+
+  private TypeWidthUtility() {
+  }
+
+  /**
+   * @param type type of the values
+   * @return the width in bytes of a value, {@link #VARIABLE_WIDTH} for variable width values or 0
+   *     for the types whose values do not take a whole number of bytes in a data buffer (BIT,
+   *     nested types and NULL)
+   */
+  public static int getByteWidth(MinorType type) {
+    switch (type) {
+      case TINYINT:
+      case UINT1:
+        return 1;
+      case SMALLINT:
+      case UINT2:
+        return 2;
+      case INT:
+      case UINT4:
+      case FLOAT4:
+      case DATEDAY:
+      case TIMESEC:
+      case TIMEMILLI:
+      case INTERVALYEAR:
+        return 4;
+      case BIGINT:
+      case UINT8:
+      case FLOAT8:
+      case DATEMILLI:
+      case TIMEMICRO:
+      case TIMENANO:
+      case TIMESTAMPSEC:
+      case TIMESTAMPMILLI:
+      case TIMESTAMPMICRO:
+      case TIMESTAMPNANO:
+      case TIMESTAMPSECTZ:
+      case TIMESTAMPMILLITZ:
+      case TIMESTAMPMICROTZ:
+      case TIMESTAMPNANOTZ:
+      case INTERVALDAY:
+        return 8;
+      case DECIMAL:
+        return 16;
+      case VARCHAR:
+      case VARBINARY:
+        return VARIABLE_WIDTH;
+      default:
+        return 0;
+    }
+  }
+}
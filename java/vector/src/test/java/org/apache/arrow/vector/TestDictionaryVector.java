@@ -18,14 +18,24 @@
 
 package org.apache.arrow.vector;
 
+import static org.apache.arrow.vector.TestUtils.newNullableVarBinaryVector;
 import static org.apache.arrow.vector.TestUtils.newNullableVarCharVector;
+import static org.apache.arrow.vector.TestUtils.newVector;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.dictionary.Dictionary;
 import org.apache.arrow.vector.dictionary.DictionaryEncoder;
+import org.apache.arrow.vector.dictionary.IncrementalDictionaryEncoder;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
 import org.junit.After;
 import org.junit.Before;
@@ -146,4 +156,276 @@ public class TestDictionaryVector {
       }
     }
   }
+
+  @Test
+  public void testEncodeBinaryWithNulls() {
+    try (final NullableVarBinaryVector vector = newNullableVarBinaryVector("foo", allocator);
+         final NullableVarBinaryVector dictionaryVector = newNullableVarBinaryVector("dict", allocator);) {
+      vector.allocateNew(512, 6);
+      vector.getMutator().setSafe(0, two, 0, two.length);
+      vector.getMutator().setSafe(2, zero, 0, zero.length);
+      vector.getMutator().setSafe(3, one, 0, one.length);
+      vector.getMutator().setSafe(5, two, 0, two.length);
+      vector.getMutator().setValueCount(6);
+
+      dictionaryVector.allocateNew(512, 3);
+      for (int i = 0; i < data.length; i++) {
+        dictionaryVector.getMutator().setSafe(i, data[i], 0, data[i].length);
+      }
+      dictionaryVector.getMutator().setValueCount(3);
+
+      Dictionary dictionary = new Dictionary(dictionaryVector, new DictionaryEncoding(1L, false, new ArrowType.Int(16, true)));
+
+      try (final ValueVector encoded = DictionaryEncoder.encode(vector, dictionary)) {
+        assertEquals(NullableSmallIntVector.class, encoded.getClass());
+        NullableSmallIntVector.Accessor indexAccessor = ((NullableSmallIntVector) encoded).getAccessor();
+        assertEquals(6, indexAccessor.getValueCount());
+        assertEquals(2, indexAccessor.get(0));
+        assertTrue(indexAccessor.isNull(1));
+        assertEquals(0, indexAccessor.get(2));
+        assertEquals(1, indexAccessor.get(3));
+        assertTrue(indexAccessor.isNull(4));
+        assertEquals(2, indexAccessor.get(5));
+
+        try (ValueVector decoded = DictionaryEncoder.decode(encoded, dictionary)) {
+          for (int i = 0; i < 6; i++) {
+            assertArrayEquals((byte[]) vector.getAccessor().getObject(i), (byte[]) decoded.getAccessor().getObject(i));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testEncodeFixedWidth() {
+    try (final NullableBigIntVector vector = newVector(NullableBigIntVector.class, "foo", MinorType.BIGINT, allocator);
+         final NullableBigIntVector dictionaryVector =
+             newVector(NullableBigIntVector.class, "dict", MinorType.BIGINT, allocator);) {
+      int count = 1000;
+      vector.allocateNew(count);
+      for (int i = 0; i < count; i++) {
+        if (i % 10 != 0) {
+          vector.getMutator().set(i, (i % 7) * 1000000007L);
+        }
+      }
+      vector.getMutator().setValueCount(count);
+
+      dictionaryVector.allocateNew(7);
+      for (int i = 0; i < 7; i++) {
+        dictionaryVector.getMutator().set(i, (6 - i) * 1000000007L);
+      }
+      dictionaryVector.getMutator().setValueCount(7);
+
+      Dictionary dictionary = new Dictionary(dictionaryVector, new DictionaryEncoding(2L, false, new ArrowType.Int(64, true)));
+
+      try (final ValueVector encoded = DictionaryEncoder.encode(vector, dictionary)) {
+        NullableBigIntVector.Accessor indexAccessor = ((NullableBigIntVector) encoded).getAccessor();
+        assertEquals(count, indexAccessor.getValueCount());
+        for (int i = 0; i < count; i++) {
+          if (i % 10 == 0) {
+            assertTrue(indexAccessor.isNull(i));
+          } else {
+            assertEquals(6 - (i % 7), indexAccessor.get(i));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testEncodeFloatingPoint() {
+    // all the NaNs are the same value, -0.0 and 0.0 are not, as for the boxed values
+    try (final NullableFloat8Vector vector = newVector(NullableFloat8Vector.class, "foo", MinorType.FLOAT8, allocator);
+         final NullableFloat8Vector dictionaryVector =
+             newVector(NullableFloat8Vector.class, "dict", MinorType.FLOAT8, allocator);) {
+      vector.allocateNew(4);
+      vector.getMutator().set(0, -0.0d);
+      vector.getMutator().set(1, Double.longBitsToDouble(0x7ff8000000000001L));
+      vector.getMutator().set(2, 1.5d);
+      vector.getMutator().set(3, 0.0d);
+      vector.getMutator().setValueCount(4);
+
+      dictionaryVector.allocateNew(4);
+      dictionaryVector.getMutator().set(0, 0.0d);
+      dictionaryVector.getMutator().set(1, Double.NaN);
+      dictionaryVector.getMutator().set(2, 1.5d);
+      dictionaryVector.getMutator().set(3, -0.0d);
+      dictionaryVector.getMutator().setValueCount(4);
+
+      Dictionary dictionary = new Dictionary(dictionaryVector, new DictionaryEncoding(1L, false, null));
+      try (final ValueVector encoded = DictionaryEncoder.encode(vector, dictionary)) {
+        NullableIntVector.Accessor indexAccessor = ((NullableIntVector) encoded).getAccessor();
+        assertEquals(3, indexAccessor.get(0));
+        assertEquals(1, indexAccessor.get(1));
+        assertEquals(2, indexAccessor.get(2));
+        assertEquals(0, indexAccessor.get(3));
+      }
+    }
+
+    try (final NullableFloat4Vector vector = newVector(NullableFloat4Vector.class, "foo", MinorType.FLOAT4, allocator);
+         final NullableFloat4Vector dictionaryVector =
+             newVector(NullableFloat4Vector.class, "dict", MinorType.FLOAT4, allocator);) {
+      vector.allocateNew(2);
+      vector.getMutator().set(0, Float.intBitsToFloat(0x7fc00001));
+      vector.getMutator().set(1, 0.0f);
+      vector.getMutator().setValueCount(2);
+
+      dictionaryVector.allocateNew(3);
+      dictionaryVector.getMutator().set(0, -0.0f);
+      dictionaryVector.getMutator().set(1, Float.NaN);
+      dictionaryVector.getMutator().set(2, 0.0f);
+      dictionaryVector.getMutator().setValueCount(3);
+
+      Dictionary dictionary = new Dictionary(dictionaryVector, new DictionaryEncoding(1L, false, null));
+      try (final ValueVector encoded = DictionaryEncoder.encode(vector, dictionary)) {
+        NullableIntVector.Accessor indexAccessor = ((NullableIntVector) encoded).getAccessor();
+        assertEquals(1, indexAccessor.get(0));
+        assertEquals(2, indexAccessor.get(1));
+      }
+    }
+  }
+
+  @Test
+  public void testEncodeDuplicateDictionaryValues() {
+    // the last of duplicate dictionary values wins, whether values are hashed from the buffers...
+    try (final NullableVarCharVector vector = newNullableVarCharVector("foo", allocator);
+         final NullableVarCharVector dictionaryVector = newNullableVarCharVector("dict", allocator);) {
+      vector.allocateNew(512, 2);
+      vector.getMutator().setSafe(0, zero, 0, zero.length);
+      vector.getMutator().setSafe(1, one, 0, one.length);
+      vector.getMutator().setValueCount(2);
+
+      dictionaryVector.allocateNew(512, 3);
+      dictionaryVector.getMutator().setSafe(0, zero, 0, zero.length);
+      dictionaryVector.getMutator().setSafe(1, one, 0, one.length);
+      dictionaryVector.getMutator().setSafe(2, zero, 0, zero.length);
+      dictionaryVector.getMutator().setValueCount(3);
+
+      Dictionary dictionary = new Dictionary(dictionaryVector, new DictionaryEncoding(1L, false, null));
+      try (final ValueVector encoded = DictionaryEncoder.encode(vector, dictionary)) {
+        NullableIntVector.Accessor indexAccessor = ((NullableIntVector) encoded).getAccessor();
+        assertEquals(2, indexAccessor.get(0));
+        assertEquals(1, indexAccessor.get(1));
+      }
+    }
+
+    // ... or looked up by their object representation
+    try (final NullableBitVector vector = newVector(NullableBitVector.class, "foo", MinorType.BIT, allocator);
+         final NullableBitVector dictionaryVector = newVector(NullableBitVector.class, "dict", MinorType.BIT, allocator);) {
+      vector.allocateNew(2);
+      vector.getMutator().set(0, 1);
+      vector.getMutator().set(1, 0);
+      vector.getMutator().setValueCount(2);
+
+      dictionaryVector.allocateNew(3);
+      dictionaryVector.getMutator().set(0, 1);
+      dictionaryVector.getMutator().set(1, 0);
+      dictionaryVector.getMutator().set(2, 1);
+      dictionaryVector.getMutator().setValueCount(3);
+
+      Dictionary dictionary = new Dictionary(dictionaryVector, new DictionaryEncoding(2L, false, null));
+      try (final ValueVector encoded = DictionaryEncoder.encode(vector, dictionary)) {
+        NullableIntVector.Accessor indexAccessor = ((NullableIntVector) encoded).getAccessor();
+        assertEquals(2, indexAccessor.get(0));
+        assertEquals(1, indexAccessor.get(1));
+      }
+    }
+  }
+
+  @Test
+  public void testEncodeMissingValue() {
+    try (final NullableVarCharVector vector = newNullableVarCharVector("foo", allocator);
+         final NullableVarCharVector dictionaryVector = newNullableVarCharVector("dict", allocator);) {
+      vector.allocateNew(512, 2);
+      vector.getMutator().setSafe(0, zero, 0, zero.length);
+      vector.getMutator().setSafe(1, two, 0, two.length);
+      vector.getMutator().setValueCount(2);
+
+      dictionaryVector.allocateNew(512, 2);
+      dictionaryVector.getMutator().setSafe(0, zero, 0, zero.length);
+      dictionaryVector.getMutator().setSafe(1, one, 0, one.length);
+      dictionaryVector.getMutator().setValueCount(2);
+
+      Dictionary dictionary = new Dictionary(dictionaryVector, new DictionaryEncoding(1L, false, null));
+      try {
+        DictionaryEncoder.encode(vector, dictionary);
+        fail("baz is not in the dictionary");
+      } catch (IllegalArgumentException e) {
+        assertTrue(e.getMessage(), e.getMessage().contains("baz"));
+      }
+    }
+  }
+
+  @Test
+  public void testIncrementalEncodeGrowsStrings() {
+    try (final NullableVarCharVector dictionaryVector = newNullableVarCharVector("dict", allocator)) {
+      // small enough for the appends to reallocate the data and offset buffers several times
+      dictionaryVector.allocateNew(64, 4);
+      Dictionary dictionary = new Dictionary(dictionaryVector, new DictionaryEncoding(1L, false, null));
+      Map<String, Integer> expected = new HashMap<>();
+      try (IncrementalDictionaryEncoder encoder = new IncrementalDictionaryEncoder(dictionary, allocator)) {
+        for (int batch = 0; batch < 2; batch++) {
+          int count = batch == 0 ? 3000 : 5000;
+          try (final NullableVarCharVector vector = newNullableVarCharVector("foo", allocator)) {
+            vector.allocateNew();
+            for (int i = 0; i < count; i++) {
+              // the second batch repeats the values of the first one and adds new ones
+              byte[] value = ("value-" + (i * 7) % count).getBytes(StandardCharsets.UTF_8);
+              vector.getMutator().setSafe(i, value, 0, value.length);
+            }
+            vector.getMutator().setValueCount(count);
+
+            try (final ValueVector indices = encoder.encode(vector);
+                 final ValueVector decoded = DictionaryEncoder.decode(indices, dictionary)) {
+              for (int i = 0; i < count; i++) {
+                String value = vector.getAccessor().getObject(i).toString();
+                if (!expected.containsKey(value)) {
+                  expected.put(value, expected.size());
+                }
+                assertEquals(expected.get(value), indices.getAccessor().getObject(i));
+                assertEquals(value, decoded.getAccessor().getObject(i).toString());
+              }
+            }
+          }
+        }
+        assertEquals(5000, encoder.getDictionarySize());
+      }
+    }
+  }
+
+  @Test
+  public void testIncrementalEncodeGrowsInts() {
+    try (final NullableIntVector dictionaryVector = new NullableIntVector("dict", allocator)) {
+      // small enough for the appends to reallocate the data buffer several times
+      dictionaryVector.allocateNew(4);
+      Dictionary dictionary = new Dictionary(dictionaryVector, new DictionaryEncoding(1L, false, null));
+      Map<Integer, Integer> expected = new HashMap<>();
+      try (IncrementalDictionaryEncoder encoder = new IncrementalDictionaryEncoder(dictionary, allocator)) {
+        for (int batch = 0; batch < 2; batch++) {
+          int count = batch == 0 ? 3000 : 5000;
+          try (final NullableIntVector vector = new NullableIntVector("foo", allocator)) {
+            vector.allocateNew(count);
+            for (int i = 0; i < count; i++) {
+              // the second batch repeats the values of the first one and adds new ones
+              vector.getMutator().set(i, (i * 7) % count);
+            }
+            vector.getMutator().setValueCount(count);
+
+            try (final ValueVector indices = encoder.encode(vector);
+                 final ValueVector decoded = DictionaryEncoder.decode(indices, dictionary)) {
+              for (int i = 0; i < count; i++) {
+                Integer value = vector.getAccessor().getObject(i);
+                if (!expected.containsKey(value)) {
+                  expected.put(value, expected.size());
+                }
+                assertEquals(expected.get(value), indices.getAccessor().getObject(i));
+                assertEquals(value, decoded.getAccessor().getObject(i));
+              }
+            }
+          }
+        }
+        assertEquals(5000, encoder.getDictionarySize());
+      }
+    }
+  }
 }
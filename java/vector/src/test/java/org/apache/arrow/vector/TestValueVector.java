@@ -1580,6 +1580,120 @@ public class TestValueVector {
     vectorAllocator.close();
   }
 
+  @Test
+  public void testBulkSetFixedWidth() {
+    try (final NullableIntVector vector = newVector(NullableIntVector.class, EMPTY_SCHEMA_PATH, MinorType.INT, allocator)) {
+      vector.allocateNew(16);
+      final int count = 10000;
+      final int[] values = new int[count + 2];
+      final boolean[] defined = new boolean[count];
+      for (int i = 0; i < count; i++) {
+        values[i + 2] = i * 3;
+        defined[i] = i % 5 != 0;
+      }
+
+      final NullableIntVector.Mutator mutator = vector.getMutator();
+      mutator.set(0, -1);
+      // grows the vector once, far beyond its capacity
+      mutator.setSafe(1, values, 2, count);
+      mutator.setValiditySafe(1, defined, 0, count);
+      mutator.setValueCount(count + 1);
+
+      final NullableIntVector.Accessor accessor = vector.getAccessor();
+      assertEquals(-1, accessor.get(0));
+      for (int i = 0; i < count; i++) {
+        if (defined[i]) {
+          assertEquals(i * 3, accessor.get(i + 1));
+        } else {
+          assertTrue(accessor.isNull(i + 1));
+        }
+      }
+      assertEquals(count / 5, accessor.getNullCount());
+    }
+  }
+
+  @Test
+  public void testBulkSetFromBuffers() {
+    try (final NullableFloat8Vector vector = newVector(NullableFloat8Vector.class, EMPTY_SCHEMA_PATH, MinorType.FLOAT8, allocator);
+         final NullableFloat8Vector copy = newVector(NullableFloat8Vector.class, EMPTY_SCHEMA_PATH, MinorType.FLOAT8, allocator)) {
+      final int count = 1000;
+      final ByteBuffer source = ByteBuffer.allocate(4 + count * 8).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+      source.putInt(0);
+      for (int i = 0; i < count; i++) {
+        source.putDouble(i / 4.0);
+      }
+      source.flip();
+      source.getInt();
+
+      vector.allocateNew(4);
+      vector.getMutator().setSafe(0, source, count);
+      assertEquals(0, source.remaining());
+      vector.getMutator().setValueCount(count);
+
+      // a copy of an unaligned range of values and validity bits
+      copy.allocateNew(4);
+      final List<ArrowBuf> buffers = vector.getFieldBuffers();
+      copy.getMutator().setSafe(0, buffers.get(1), 3 * 8, count - 3);
+      copy.getMutator().setValiditySafe(0, buffers.get(0), 3, count - 3);
+      copy.getMutator().setValueCount(count - 3);
+      for (int i = 0; i < count - 3; i++) {
+        assertEquals((i + 3) / 4.0, copy.getAccessor().get(i), 0);
+      }
+      assertEquals(0, copy.getAccessor().getNullCount());
+    }
+  }
+
+  @Test
+  public void testBulkSetVariableWidth() {
+    final byte[] bytes = "abcdefghij".getBytes(utf8Charset);
+    final int[] offsets = {0, 1, 3, 3, 6, 10};
+    try (final NullableVarCharVector vector = newNullableVarCharVector(EMPTY_SCHEMA_PATH, allocator)) {
+      vector.allocateNew(4, 2);
+      final NullableVarCharVector.Mutator mutator = vector.getMutator();
+      mutator.setSafe(0, STR1, 0, STR1.length);
+      // the offsets of the second batch are rebased on the data already in the vector
+      mutator.setSafe(1, bytes, offsets, 0, 5);
+      mutator.setSafe(6, bytes, offsets, 3, 2);
+      mutator.setValiditySafe(3, new boolean[] {false}, 0, 1);
+      mutator.setValueCount(8);
+
+      final NullableVarCharVector.Accessor accessor = vector.getAccessor();
+      assertArrayEquals(STR1, accessor.get(0));
+      assertArrayEquals("a".getBytes(utf8Charset), accessor.get(1));
+      assertArrayEquals("bc".getBytes(utf8Charset), accessor.get(2));
+      assertTrue(accessor.isNull(3));
+      assertArrayEquals("def".getBytes(utf8Charset), accessor.get(4));
+      assertArrayEquals("ghij".getBytes(utf8Charset), accessor.get(5));
+      assertArrayEquals("def".getBytes(utf8Charset), accessor.get(6));
+      assertArrayEquals("ghij".getBytes(utf8Charset), accessor.get(7));
+    }
+  }
+
+  @Test
+  public void testBulkSetBits() {
+    try (final BitVector vector = new BitVector(EMPTY_SCHEMA_PATH, allocator)) {
+      vector.allocateNew(8);
+      final int count = 1000;
+      final boolean[] values = new boolean[count];
+      for (int i = 0; i < count; i++) {
+        values[i] = i % 3 == 0;
+      }
+      final BitVector.Mutator mutator = vector.getMutator();
+      mutator.setSafe(0, 1);
+      // starts in the middle of a byte
+      mutator.setSafe(5, values, 0, count);
+      mutator.setValueCount(count + 5);
+      final BitVector.Accessor accessor = vector.getAccessor();
+      assertEquals(1, accessor.get(0));
+      for (int i = 1; i < 5; i++) {
+        assertEquals(0, accessor.get(i));
+      }
+      for (int i = 0; i < count; i++) {
+        assertEquals(values[i] ? 1 : 0, accessor.get(i + 5));
+      }
+    }
+  }
+
   public static void setBytes(int index, byte[] bytes, NullableVarCharVector vector) {
     final int currentOffset = vector.values.offsetVector.getAccessor().get(index);
 
@@ -0,0 +1,220 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.arrow.vector.compression;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.arrow.flatbuf.CompressionType;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.netty.buffer.ArrowBuf;
+
+public class TestCompressionCodec {
+
+  private BufferAllocator allocator;
+  private final CompressionCodec codec = new DeflateCompressionCodec();
+
+  @Before
+  public void init() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+  }
+
+  @After
+  public void terminate() throws Exception {
+    codec.close();
+    allocator.close();
+  }
+
+  @Test
+  public void testCompressible() {
+    ArrowBuf buffer = allocator.buffer(4096);
+    for (int i = 0; i < 1024; i++) {
+      buffer.setInt(i * 4, i % 3);
+    }
+    buffer.writerIndex(4096);
+    ArrowBuf compressed = codec.compress(allocator, buffer);
+    assertTrue(compressed.readableBytes() < 1024);
+    assertEquals(4096, compressed.getLong(0));
+    ArrowBuf decompressed = codec.decompress(allocator, compressed);
+    assertEquals(4096, decompressed.readableBytes());
+    for (int i = 0; i < 1024; i++) {
+      assertEquals(i % 3, decompressed.getInt(i * 4));
+    }
+    decompressed.release();
+    compressed.release();
+    buffer.release();
+  }
+
+  @Test
+  public void testIncompressible() {
+    Random random = new Random(0);
+    ArrowBuf buffer = allocator.buffer(1000);
+    for (int i = 0; i < 1000; i++) {
+      buffer.setByte(i, random.nextInt());
+    }
+    buffer.writerIndex(1000);
+    ArrowBuf compressed = codec.compress(allocator, buffer);
+    assertEquals(AbstractCompressionCodec.SIZE_PREFIX_LENGTH + 1000, compressed.readableBytes());
+    assertEquals(AbstractCompressionCodec.NO_COMPRESSION_LENGTH, compressed.getLong(0));
+    ArrowBuf decompressed = codec.decompress(allocator, compressed);
+    assertEquals(1000, decompressed.readableBytes());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(buffer.getByte(i), decompressed.getByte(i));
+    }
+    decompressed.release();
+    compressed.release();
+    buffer.release();
+  }
+
+  @Test
+  public void testEmpty() {
+    ArrowBuf buffer = allocator.buffer(8);
+    ArrowBuf compressed = codec.compress(allocator, buffer);
+    assertEquals(0, compressed.readableBytes());
+    ArrowBuf decompressed = codec.decompress(allocator, compressed);
+    assertEquals(0, decompressed.readableBytes());
+    decompressed.release();
+    compressed.release();
+    buffer.release();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCorrupt() {
+    ArrowBuf compressed = allocator.buffer(16);
+    try {
+      compressed.setLong(0, 100);
+      compressed.setLong(8, 0x1234567812345678L);
+      compressed.writerIndex(16);
+      codec.decompress(allocator, compressed);
+    } finally {
+      compressed.release();
+    }
+  }
+
+  @Test
+  public void testReuse() {
+    // the deflater, inflater and scratch arrays are reused, including after a corrupt buffer and
+    // for buffers larger than the scratch arrays kept
+    ArrowBuf corrupt = allocator.buffer(16);
+    corrupt.setLong(0, 100);
+    corrupt.setLong(8, 0x1234567812345678L);
+    corrupt.writerIndex(16);
+    for (int length : new int[] {4096, 100, 3 << 20, 4096}) {
+      try {
+        codec.decompress(allocator, corrupt);
+        fail("expected a corrupt buffer");
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+      ArrowBuf buffer = allocator.buffer(length);
+      for (int i = 0; i < length / 4; i++) {
+        buffer.setInt(i * 4, i % 7 + length);
+      }
+      buffer.writerIndex(length);
+      ArrowBuf compressed = codec.compress(allocator, buffer);
+      assertEquals(length, compressed.getLong(0));
+      ArrowBuf decompressed = codec.decompress(allocator, compressed);
+      assertEquals(length, decompressed.readableBytes());
+      for (int i = 0; i < length / 4; i++) {
+        assertEquals(i % 7 + length, decompressed.getInt(i * 4));
+      }
+      decompressed.release();
+      compressed.release();
+      buffer.release();
+    }
+    corrupt.release();
+  }
+
+  @Test
+  public void testConcurrentCalls() throws Exception {
+    final int threads = 4;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        final int seed = t;
+        futures.add(executor.submit(new Callable<Void>() {
+          @Override
+          public Void call() {
+            for (int round = 0; round < 20; round++) {
+              ArrowBuf buffer = allocator.buffer(4096);
+              for (int i = 0; i < 1024; i++) {
+                buffer.setInt(i * 4, (i + seed) % 5);
+              }
+              buffer.writerIndex(4096);
+              ArrowBuf compressed = codec.compress(allocator, buffer);
+              ArrowBuf decompressed = codec.decompress(allocator, compressed);
+              for (int i = 0; i < 1024; i++) {
+                assertEquals((i + seed) % 5, decompressed.getInt(i * 4));
+              }
+              decompressed.release();
+              compressed.release();
+              buffer.release();
+            }
+            return null;
+          }
+        }));
+      }
+      for (Future<Void> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testRegistry() {
+    CompressionCodec deflate = CompressionUtility.getCodec(CompressionType.DEFLATE);
+    assertEquals(CompressionType.DEFLATE, deflate.getCodecType());
+    // the registered codec is shared, closing it leaves it usable by the other readers
+    deflate.close();
+    ArrowBuf buffer = allocator.buffer(64);
+    buffer.setZero(0, 64);
+    buffer.writerIndex(64);
+    ArrowBuf compressed = CompressionUtility.getCodec(CompressionType.DEFLATE).compress(allocator, buffer);
+    ArrowBuf decompressed = CompressionUtility.getCodec(CompressionType.DEFLATE).decompress(allocator, compressed);
+    assertEquals(64, decompressed.readableBytes());
+    decompressed.release();
+    compressed.release();
+    buffer.release();
+
+    try {
+      CompressionUtility.getCodec(CompressionType.ZSTD);
+      fail("ZSTD is not bundled");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("ZSTD"));
+    }
+  }
+}
@@ -0,0 +1,225 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.arrow.vector.compute;
+
+import static org.apache.arrow.vector.TestUtils.newNullableVarCharVector;
+import static org.apache.arrow.vector.TestUtils.newVector;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.NullableIntVector;
+import org.apache.arrow.vector.NullableVarCharVector;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.NullableMapVector;
+import org.apache.arrow.vector.complex.impl.UnionListWriter;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSelectionKernels {
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void init() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+  }
+
+  @After
+  public void terminate() throws Exception {
+    allocator.close();
+  }
+
+  @Test
+  public void testFilterFixedWidth() {
+    int count = 200;
+    try (NullableIntVector vector = newVector(NullableIntVector.class, "ints", MinorType.INT, allocator);
+         BitVector predicate = new BitVector("predicate", allocator)) {
+      vector.allocateNew(count);
+      predicate.allocateNew(count);
+      for (int i = 0; i < count; i++) {
+        if (i % 7 != 0) {
+          vector.getMutator().set(i, i * 10);
+        }
+        // a run of consecutive rows, then every third row
+        predicate.getMutator().set(i, i < 100 || i % 3 == 0 ? 1 : 0);
+      }
+      vector.getMutator().setValueCount(count);
+      predicate.getMutator().setValueCount(count);
+
+      try (FieldVector filtered = SelectionKernels.filter(vector, predicate)) {
+        NullableIntVector.Accessor accessor = ((NullableIntVector) filtered).getAccessor();
+        int j = 0;
+        int nullCount = 0;
+        for (int i = 0; i < count; i++) {
+          if (i < 100 || i % 3 == 0) {
+            if (i % 7 == 0) {
+              assertTrue(accessor.isNull(j));
+              nullCount++;
+            } else {
+              assertEquals(i * 10, accessor.get(j));
+            }
+            j++;
+          }
+        }
+        assertEquals(j, accessor.getValueCount());
+        assertEquals(nullCount, accessor.getNullCount());
+      }
+    }
+  }
+
+  @Test
+  public void testTakeVariableWidth() {
+    try (NullableVarCharVector vector = newNullableVarCharVector("strings", allocator);
+         IntVector indices = new IntVector("indices", allocator)) {
+      vector.allocateNew();
+      String[] values = {"a", "bb", null, "dddd", "", "ffffff"};
+      for (int i = 0; i < values.length; i++) {
+        if (values[i] != null) {
+          byte[] bytes = values[i].getBytes(StandardCharsets.UTF_8);
+          vector.getMutator().setSafe(i, bytes, 0, bytes.length);
+        }
+      }
+      vector.getMutator().setValueCount(values.length);
+
+      int[] take = {5, 3, 4, 5, 2, 0, 1};
+      indices.allocateNew(take.length);
+      for (int i = 0; i < take.length; i++) {
+        indices.getMutator().set(i, take[i]);
+      }
+      indices.getMutator().setValueCount(take.length);
+
+      try (FieldVector taken = SelectionKernels.take(vector, indices)) {
+        NullableVarCharVector.Accessor accessor = ((NullableVarCharVector) taken).getAccessor();
+        assertEquals(take.length, accessor.getValueCount());
+        assertEquals(1, accessor.getNullCount());
+        for (int i = 0; i < take.length; i++) {
+          String expected = values[take[i]];
+          if (expected == null) {
+            assertTrue(accessor.isNull(i));
+          } else {
+            assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), accessor.get(i));
+          }
+        }
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTakeOutOfRange() {
+    try (NullableIntVector vector = newVector(NullableIntVector.class, "ints", MinorType.INT, allocator);
+         IntVector indices = new IntVector("indices", allocator)) {
+      vector.allocateNew(2);
+      vector.getMutator().setValueCount(2);
+      indices.allocateNew(1);
+      indices.getMutator().set(0, 2);
+      indices.getMutator().setValueCount(1);
+      SelectionKernels.take(vector, indices);
+    }
+  }
+
+  @Test
+  public void testFilterList() {
+    try (ListVector vector = ListVector.empty("lists", allocator);
+         BitVector predicate = new BitVector("predicate", allocator)) {
+      UnionListWriter writer = vector.getWriter();
+      writer.allocate();
+      // [0], [1, 2], null, [3, 4, 5], []
+      long value = 0;
+      int[] sizes = {1, 2, -1, 3, 0};
+      for (int i = 0; i < sizes.length; i++) {
+        writer.setPosition(i);
+        if (sizes[i] >= 0) {
+          writer.startList();
+          for (int k = 0; k < sizes[i]; k++) {
+            writer.bigInt().writeBigInt(value++);
+          }
+          writer.endList();
+        }
+      }
+      vector.getMutator().setValueCount(sizes.length);
+
+      predicate.allocateNew(sizes.length);
+      predicate.getMutator().set(1, 1);
+      predicate.getMutator().set(2, 1);
+      predicate.getMutator().set(3, 1);
+      predicate.getMutator().setValueCount(sizes.length);
+
+      try (FieldVector filtered = SelectionKernels.filter(vector, predicate)) {
+        ListVector.Accessor accessor = ((ListVector) filtered).getAccessor();
+        assertEquals(3, accessor.getValueCount());
+        assertEquals(Arrays.asList(1L, 2L), accessor.getObject(0));
+        assertTrue(accessor.isNull(1));
+        assertEquals(Arrays.asList(3L, 4L, 5L), accessor.getObject(2));
+        assertEquals(5, ((ListVector) filtered).getDataVector().getAccessor().getValueCount());
+      }
+    }
+  }
+
+  @Test
+  public void testTakeMap() {
+    FieldType intType = FieldType.nullable(MinorType.INT.getType());
+    try (NullableMapVector vector = NullableMapVector.empty("map", allocator);
+         IntVector indices = new IntVector("indices", allocator)) {
+      NullableIntVector a = vector.addOrGet("a", intType, NullableIntVector.class);
+      NullableIntVector b = vector.addOrGet("b", intType, NullableIntVector.class);
+      vector.allocateNew();
+      for (int i = 0; i < 4; i++) {
+        if (i != 1) {
+          vector.getMutator().setIndexDefined(i);
+          a.getMutator().setSafe(i, i);
+          b.getMutator().setSafe(i, -i);
+        }
+      }
+      vector.getMutator().setValueCount(4);
+
+      indices.allocateNew(3);
+      indices.getMutator().set(0, 3);
+      indices.getMutator().set(1, 1);
+      indices.getMutator().set(2, 0);
+      indices.getMutator().setValueCount(3);
+
+      try (FieldVector taken = SelectionKernels.take(vector, indices)) {
+        NullableMapVector.Accessor accessor = ((NullableMapVector) taken).getAccessor();
+        assertEquals(3, accessor.getValueCount());
+        Map<?, ?> first = (Map<?, ?>) accessor.getObject(0);
+        assertEquals(3, first.get("a"));
+        assertEquals(-3, first.get("b"));
+        assertTrue(accessor.isNull(1));
+        Map<?, ?> last = (Map<?, ?>) accessor.getObject(2);
+        assertEquals(0, last.get("a"));
+        assertEquals(0, last.get("b"));
+      }
+    }
+  }
+}
@@ -0,0 +1,198 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.arrow.vector.compute;
+
+import static org.apache.arrow.vector.TestUtils.newNullableVarCharVector;
+import static org.apache.arrow.vector.TestUtils.newVector;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.NullableFloat8Vector;
+import org.apache.arrow.vector.NullableIntVector;
+import org.apache.arrow.vector.NullableVarCharVector;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestVectorHashTable {
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void init() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+  }
+
+  @After
+  public void terminate() throws Exception {
+    allocator.close();
+  }
+
+  private static void set(NullableIntVector ints, NullableVarCharVector strings, int index, Integer i, String s) {
+    if (i != null) {
+      ints.getMutator().set(index, i);
+    }
+    if (s != null) {
+      byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+      strings.getMutator().setSafe(index, bytes, 0, bytes.length);
+    }
+  }
+
+  @Test
+  public void testMultipleKeys() {
+    try (NullableIntVector ints = newVector(NullableIntVector.class, "ints", MinorType.INT, allocator);
+         NullableVarCharVector strings = newNullableVarCharVector("strings", allocator);
+         IntVector groupIds = new IntVector("groupIds", allocator)) {
+      ints.allocateNew(8);
+      strings.allocateNew();
+      set(ints, strings, 0, 1, "a");
+      set(ints, strings, 1, 2, "a");
+      set(ints, strings, 2, 1, "a");
+      set(ints, strings, 3, 1, null);
+      set(ints, strings, 4, null, "b");
+      set(ints, strings, 5, 1, null);
+      set(ints, strings, 6, null, "b");
+      set(ints, strings, 7, 1, "");
+      ints.getMutator().setValueCount(8);
+      strings.getMutator().setValueCount(8);
+      List<FieldVector> keys = Arrays.<FieldVector>asList(ints, strings);
+
+      try (VectorHashTable table = new VectorHashTable(Arrays.asList(ints.getField(), strings.getField()), allocator)) {
+        table.insert(keys, groupIds);
+        int[] expected = {0, 1, 0, 2, 3, 2, 3, 4};
+        assertEquals(expected.length, groupIds.getAccessor().getValueCount());
+        for (int i = 0; i < expected.length; i++) {
+          assertEquals("row " + i, expected[i], groupIds.getAccessor().get(i));
+        }
+        assertEquals(5, table.size());
+
+        // the null string and the empty string are different keys
+        assertEquals(2, table.probe(keys, 3));
+        assertEquals(4, table.probe(keys, 7));
+
+        List<FieldVector> groups = table.getKeys();
+        try {
+          NullableIntVector.Accessor groupInts = (NullableIntVector.Accessor) groups.get(0).getAccessor();
+          NullableVarCharVector.Accessor groupStrings = (NullableVarCharVector.Accessor) groups.get(1).getAccessor();
+          assertEquals(5, groupInts.getValueCount());
+          assertEquals(5, groupStrings.getValueCount());
+          Integer[] expectedInts = {1, 2, 1, null, 1};
+          String[] expectedStrings = {"a", "a", null, "b", ""};
+          for (int g = 0; g < 5; g++) {
+            assertEquals(expectedInts[g], groupInts.getObject(g));
+            if (expectedStrings[g] == null) {
+              assertNull(groupStrings.getObject(g));
+            } else {
+              assertEquals(expectedStrings[g], groupStrings.getObject(g).toString());
+            }
+          }
+        } finally {
+          for (FieldVector vector : groups) {
+            vector.close();
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testProbe() {
+    try (NullableIntVector build = newVector(NullableIntVector.class, "ints", MinorType.INT, allocator);
+         NullableIntVector probe = newVector(NullableIntVector.class, "ints", MinorType.INT, allocator);
+         IntVector groupIds = new IntVector("groupIds", allocator)) {
+      build.allocateNew(10);
+      for (int i = 0; i < 10; i++) {
+        build.getMutator().set(i, i * 2);
+      }
+      build.getMutator().setValueCount(10);
+      probe.allocateNew(20);
+      for (int i = 0; i < 20; i++) {
+        probe.getMutator().set(i, i);
+      }
+      probe.getMutator().setValueCount(20);
+
+      try (VectorHashTable table = new VectorHashTable(Arrays.asList(build.getField()), allocator)) {
+        table.insert(Arrays.<FieldVector>asList(build), groupIds);
+        table.probe(Arrays.<FieldVector>asList(probe), groupIds);
+        assertEquals(20, groupIds.getAccessor().getValueCount());
+        for (int i = 0; i < 20; i++) {
+          assertEquals(i % 2 == 0 ? i / 2 : -1, groupIds.getAccessor().get(i));
+        }
+        assertEquals(10, table.size());
+      }
+    }
+  }
+
+  @Test
+  public void testFloatingPointKeys() {
+    try (NullableFloat8Vector doubles = newVector(NullableFloat8Vector.class, "doubles", MinorType.FLOAT8, allocator);
+         IntVector groupIds = new IntVector("groupIds", allocator)) {
+      double[] values = {0.0d, -0.0d, Double.NaN, Double.longBitsToDouble(0x7ff8000000000001L), 1.0d};
+      doubles.allocateNew(values.length);
+      for (int i = 0; i < values.length; i++) {
+        doubles.getMutator().set(i, values[i]);
+      }
+      doubles.getMutator().setValueCount(values.length);
+
+      try (VectorHashTable table = new VectorHashTable(Arrays.asList(doubles.getField()), allocator)) {
+        table.insert(Arrays.<FieldVector>asList(doubles), groupIds);
+        int[] expected = {0, 0, 1, 1, 2};
+        for (int i = 0; i < expected.length; i++) {
+          assertEquals("row " + i, expected[i], groupIds.getAccessor().get(i));
+        }
+        assertEquals(3, table.size());
+      }
+    }
+  }
+
+  @Test
+  public void testGrowth() {
+    int count = 100000;
+    try (NullableVarCharVector strings = newNullableVarCharVector("strings", allocator);
+         IntVector groupIds = new IntVector("groupIds", allocator)) {
+      strings.allocateNew();
+      for (int i = 0; i < count; i++) {
+        // every key twice
+        byte[] bytes = ("key" + (i % (count / 2))).getBytes(StandardCharsets.UTF_8);
+        strings.getMutator().setSafe(i, bytes, 0, bytes.length);
+      }
+      strings.getMutator().setValueCount(count);
+
+      Field field = strings.getField();
+      try (VectorHashTable table = new VectorHashTable(Arrays.asList(field), allocator)) {
+        table.insert(Arrays.<FieldVector>asList(strings), groupIds);
+        assertEquals(count / 2, table.size());
+        for (int i = 0; i < count; i++) {
+          assertEquals(i % (count / 2), groupIds.getAccessor().get(i));
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.arrow.vector.durable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.complex.MapVector;
+import org.apache.arrow.vector.file.BaseFileTest;
+import org.apache.arrow.vector.schema.ArrowRecordBatch;
+import org.apache.mnemonic.NonVolatileMemAllocator;
+import org.apache.mnemonic.Utils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestDurableRecordBatchStore extends BaseFileTest {
+
+  private static final long CAPACITY = 64 * 1024 * 1024;
+
+  private static NonVolatileMemAllocator openPool(File file, boolean isNew) {
+    return new NonVolatileMemAllocator(Utils.getNonVolatileMemoryAllocatorService("pmalloc"),
+        CAPACITY, file.getAbsolutePath(), isNew);
+  }
+
+  @Test
+  public void testPersistAndReattach() throws IOException {
+    File file = new File("target/durable_batches.dat");
+    file.delete();
+    int count = COUNT;
+
+    // persist two batches, then close the pool as a restart would
+    try (BufferAllocator vectorAllocator = allocator.newChildAllocator("original vectors", 0, Integer.MAX_VALUE);
+         MapVector parent = MapVector.empty("parent", vectorAllocator)) {
+      writeData(count, parent);
+      VectorSchemaRoot root = new VectorSchemaRoot(parent.getChild("root"));
+      NonVolatileMemAllocator pool = openPool(file, true);
+      try {
+        DurableRecordBatchStore store = new DurableRecordBatchStore(pool, 0);
+        Assert.assertEquals(0, store.persist(root));
+        Assert.assertEquals(1, store.persist(root));
+      } finally {
+        pool.close();
+      }
+    }
+
+    // reattach without reading the batches
+    NonVolatileMemAllocator pool = openPool(file, false);
+    try {
+      DurableRecordBatchStore store = new DurableRecordBatchStore(pool, 0);
+      Assert.assertEquals(2, store.getBatchCount());
+      try (BufferAllocator readerAllocator = allocator.newChildAllocator("reader", 0, Integer.MAX_VALUE);
+           VectorSchemaRoot root = VectorSchemaRoot.create(store.getSchema(), readerAllocator)) {
+        for (int i = 0; i < store.getBatchCount(); i++) {
+          store.load(i, root, readerAllocator);
+          Assert.assertEquals(count, root.getRowCount());
+          validateContent(count, root);
+        }
+      }
+      store.destroy();
+      Assert.assertEquals(0, new DurableRecordBatchStore(pool, 0).getBatchCount());
+    } finally {
+      pool.close();
+    }
+  }
+
+  @Test
+  public void testAttachIsZeroCopy() throws IOException {
+    File file = new File("target/durable_batches_attach.dat");
+    file.delete();
+    NonVolatileMemAllocator pool = openPool(file, true);
+    try (BufferAllocator vectorAllocator = allocator.newChildAllocator("original vectors", 0, Integer.MAX_VALUE);
+         MapVector parent = MapVector.empty("parent", vectorAllocator)) {
+      writeData(COUNT, parent);
+      FieldVector vector = parent.getChild("root");
+      DurableRecordBatchStore store = new DurableRecordBatchStore(pool, 1);
+      int index = store.persist(new VectorSchemaRoot(vector));
+
+      try (BufferAllocator readerAllocator = allocator.newChildAllocator("reader", 0, Integer.MAX_VALUE);
+           ArrowRecordBatch batch = store.attach(index, readerAllocator)) {
+        Assert.assertEquals(COUNT, batch.getLength());
+        // the whole durable message is accounted once against the reader, not copied per buffer
+        long allocated = readerAllocator.getAllocatedMemory();
+        Assert.assertTrue(allocated > 0);
+        Assert.assertEquals(allocated, pool.retrieveBuffer(store.getHandle(index), false).getSize());
+      }
+      store.destroy();
+    } finally {
+      pool.close();
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSchemaMismatch() throws IOException {
+    File file = new File("target/durable_batches_schema.dat");
+    file.delete();
+    NonVolatileMemAllocator pool = openPool(file, true);
+    try (BufferAllocator vectorAllocator = allocator.newChildAllocator("original vectors", 0, Integer.MAX_VALUE);
+         MapVector parent = MapVector.empty("parent", vectorAllocator)) {
+      writeData(COUNT, parent);
+      DurableRecordBatchStore store = new DurableRecordBatchStore(pool, 2);
+      VectorSchemaRoot root = new VectorSchemaRoot(parent.getChild("root"));
+      store.persist(root);
+      FieldVector intVector = root.getVector("int");
+      try {
+        store.persist(new VectorSchemaRoot(Arrays.asList(intVector.getField()),
+            Arrays.asList(intVector), COUNT));
+      } finally {
+        store.destroy();
+      }
+    } finally {
+      pool.close();
+    }
+  }
+}
@@ -25,44 +25,77 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.NullableBitVector;
 import org.apache.arrow.vector.NullableFloat4Vector;
+import org.apache.arrow.vector.NullableFloat8Vector;
 import org.apache.arrow.vector.NullableIntVector;
 import org.apache.arrow.vector.NullableTinyIntVector;
+import org.apache.arrow.vector.NullableUInt8Vector;
+import org.apache.arrow.vector.NullableVarCharVector;
+import org.apache.arrow.vector.ValueVector;
 import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.VectorUnloader;
 import org.apache.arrow.vector.complex.FixedSizeListVector;
 import org.apache.arrow.vector.complex.MapVector;
 import org.apache.arrow.vector.complex.NullableMapVector;
+import org.apache.arrow.vector.complex.reader.FieldReader;
+import org.apache.arrow.vector.compression.CompressionCodec;
+import org.apache.arrow.vector.compression.DeflateCompressionCodec;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryEncoder;
 import org.apache.arrow.vector.dictionary.DictionaryProvider.MapDictionaryProvider;
+import org.apache.arrow.vector.holders.NullableTimeStampMilliHolder;
 import org.apache.arrow.vector.schema.ArrowBuffer;
 import org.apache.arrow.vector.schema.ArrowMessage;
 import org.apache.arrow.vector.schema.ArrowRecordBatch;
 import org.apache.arrow.vector.stream.ArrowStreamReader;
 import org.apache.arrow.vector.stream.ArrowStreamWriter;
+import org.apache.arrow.vector.stream.MessageSerializer;
 import org.apache.arrow.vector.stream.MessageSerializerTest;
 import org.apache.arrow.vector.types.FloatingPointPrecision;
 import org.apache.arrow.vector.types.Types.MinorType;
 import org.apache.arrow.vector.types.pojo.ArrowType;
 import org.apache.arrow.vector.types.pojo.ArrowType.FixedSizeList;
 import org.apache.arrow.vector.types.pojo.ArrowType.Int;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.FieldType;
 import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.arrow.vector.util.ByteArrayReadableSeekableByteChannel;
 import org.junit.Assert;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.netty.buffer.ArrowBuf;
+
 public class TestArrowFile extends BaseFileTest {
   private static final Logger LOGGER = LoggerFactory.getLogger(TestArrowFile.class);
 
@@ -78,6 +111,60 @@ public class TestArrowFile extends BaseFileTest {
     }
   }
 
+  @Test
+  public void testWriteReadMemoryMapped() throws IOException {
+    File file = new File("target/mytest_mapped.arrow");
+    int count = COUNT;
+
+    // write
+    try (BufferAllocator originalVectorAllocator = allocator.newChildAllocator("original vectors", 0, Integer.MAX_VALUE);
+         MapVector parent = MapVector.empty("parent", originalVectorAllocator)) {
+      writeData(count, parent);
+      write(parent.getChild("root"), file, null);
+    }
+
+    // read through a read only mapping
+    try (BufferAllocator readerAllocator = allocator.newChildAllocator("reader", 0, Integer.MAX_VALUE);
+         FileInputStream fileInputStream = new FileInputStream(file);
+         ArrowFileReader arrowReader = new ArrowFileReader(new MappedReadChannel(fileInputStream.getChannel()), readerAllocator)) {
+      VectorSchemaRoot root = arrowReader.getVectorSchemaRoot();
+      for (ArrowBlock rbBlock : arrowReader.getRecordBlocks()) {
+        arrowReader.loadRecordBatch(rbBlock);
+        Assert.assertEquals(count, root.getRowCount());
+        validateContent(count, root);
+        // the mapped block is accounted against the reader
+        Assert.assertEquals(rbBlock.getMetadataLength() + rbBlock.getBodyLength(), readerAllocator.getAllocatedMemory());
+      }
+
+      // the loaded vectors can not be written
+      NullableIntVector vector = (NullableIntVector) root.getVector("int");
+      Assert.assertTrue(vector.getValuesVector().getBuffer().isReadOnly());
+      try {
+        vector.getMutator().set(0, 42);
+        Assert.fail("expected the mapped buffer to be read only");
+      } catch (ReadOnlyBufferException e) {
+        // expected
+      }
+
+      try {
+        vector.getValuesVector().getMutator().setSafe(0, new int[] {42, 43}, 0, 2);
+        Assert.fail("expected the bulk setter to reject the mapped buffer");
+      } catch (ReadOnlyBufferException e) {
+        // expected
+      }
+
+      // nor can the memory be written through its nio views
+      ArrowBuf buffer = vector.getValuesVector().getBuffer();
+      Assert.assertTrue(buffer.nioBuffer().isReadOnly());
+      try {
+        buffer.nioBuffer(0, 4).putInt(0, 42);
+        Assert.fail("expected the nio view of the mapped buffer to be read only");
+      } catch (ReadOnlyBufferException e) {
+        // expected
+      }
+    }
+  }
+
   @Test
   public void testWriteComplex() throws IOException {
     File file = new File("target/mytest_write_complex.arrow");
@@ -200,6 +287,120 @@ public class TestArrowFile extends BaseFileTest {
     }
   }
 
+  @Test
+  public void testWriteReadProjection() throws IOException {
+    File file = new File("target/mytest_projection.arrow");
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    int count = COUNT;
+    List<String> projectedFields = Arrays.asList("map", "bigInt");
+
+    // write
+    try (BufferAllocator originalVectorAllocator = allocator.newChildAllocator("original vectors", 0, Integer.MAX_VALUE);
+         MapVector parent = MapVector.empty("parent", originalVectorAllocator)) {
+      writeComplexData(count, parent);
+      write(parent.getChild("root"), file, stream);
+    }
+
+    long fullBytesRead;
+    long fullAllocatedMemory;
+    try (BufferAllocator readerAllocator = allocator.newChildAllocator("reader", 0, Integer.MAX_VALUE);
+         FileInputStream fileInputStream = new FileInputStream(file);
+         ArrowFileReader arrowReader = new ArrowFileReader(fileInputStream.getChannel(), readerAllocator)) {
+      Assert.assertTrue(arrowReader.loadNextBatch());
+      fullBytesRead = arrowReader.bytesRead();
+      fullAllocatedMemory = readerAllocator.getAllocatedMemory();
+    }
+
+    // read file
+    try (BufferAllocator readerAllocator = allocator.newChildAllocator("reader", 0, Integer.MAX_VALUE);
+         FileInputStream fileInputStream = new FileInputStream(file);
+         ArrowFileReader arrowReader = new ArrowFileReader(fileInputStream.getChannel(), readerAllocator, projectedFields)) {
+      VectorSchemaRoot root = arrowReader.getVectorSchemaRoot();
+      Assert.assertEquals(2, root.getSchema().getFields().size());
+      Assert.assertEquals("bigInt", root.getSchema().getFields().get(0).getName());
+      Assert.assertEquals("map", root.getSchema().getFields().get(1).getName());
+      Assert.assertTrue(arrowReader.loadNextBatch());
+      validateProjectedContent(count, root);
+      // skipped buffers are not allocated but still count as read
+      Assert.assertTrue(readerAllocator.getAllocatedMemory() < fullAllocatedMemory);
+      Assert.assertEquals(fullBytesRead, arrowReader.bytesRead());
+      Assert.assertFalse(arrowReader.loadNextBatch());
+    }
+
+    // Read from stream.
+    try (BufferAllocator readerAllocator = allocator.newChildAllocator("reader", 0, Integer.MAX_VALUE);
+         ByteArrayInputStream input = new ByteArrayInputStream(stream.toByteArray());
+         ArrowStreamReader arrowReader = new ArrowStreamReader(input, readerAllocator, projectedFields)) {
+      VectorSchemaRoot root = arrowReader.getVectorSchemaRoot();
+      Assert.assertEquals(2, root.getSchema().getFields().size());
+      Assert.assertTrue(arrowReader.loadNextBatch());
+      validateProjectedContent(count, root);
+      Assert.assertFalse(arrowReader.loadNextBatch());
+    }
+  }
+
+  private void validateProjectedContent(int count, VectorSchemaRoot root) {
+    Assert.assertEquals(count, root.getRowCount());
+    Assert.assertNull(root.getVector("int"));
+    for (int i = 0; i < count; i++) {
+      Assert.assertEquals(Long.valueOf(i), root.getVector("bigInt").getAccessor().getObject(i));
+      NullableTimeStampMilliHolder h = new NullableTimeStampMilliHolder();
+      FieldReader mapReader = root.getVector("map").getReader();
+      mapReader.setPosition(i);
+      mapReader.reader("timestamp").read(h);
+      Assert.assertEquals(i, h.value);
+    }
+  }
+
+  @Test
+  public void testWriteReadCompressed() throws IOException {
+    File file = new File("target/mytest_compressed.arrow");
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    int count = 1000;
+
+    // write
+    long uncompressedSize;
+    try (CompressionCodec codec = new DeflateCompressionCodec();
+         BufferAllocator originalVectorAllocator = allocator.newChildAllocator("original vectors", 0, Integer.MAX_VALUE);
+         MapVector parent = MapVector.empty("parent", originalVectorAllocator);
+         FileOutputStream fileOutputStream = new FileOutputStream(file)) {
+      writeComplexData(count, parent);
+      VectorSchemaRoot root = new VectorSchemaRoot(parent.getChild("root"));
+      ByteArrayOutputStream uncompressed = new ByteArrayOutputStream();
+      try (ArrowStreamWriter writer = new ArrowStreamWriter(root, null, uncompressed)) {
+        writer.writeBatch();
+      }
+      uncompressedSize = uncompressed.size();
+      try (ArrowFileWriter fileWriter = new ArrowFileWriter(root, null, fileOutputStream.getChannel(), codec);
+           ArrowStreamWriter streamWriter = new ArrowStreamWriter(root, null, Channels.newChannel(stream), codec)) {
+        fileWriter.writeBatch();
+        streamWriter.writeBatch();
+      }
+    }
+    Assert.assertTrue(stream.size() < uncompressedSize);
+
+    // read file
+    try (BufferAllocator readerAllocator = allocator.newChildAllocator("reader", 0, Integer.MAX_VALUE);
+         FileInputStream fileInputStream = new FileInputStream(file);
+         ArrowFileReader arrowReader = new ArrowFileReader(fileInputStream.getChannel(), readerAllocator)) {
+      VectorSchemaRoot root = arrowReader.getVectorSchemaRoot();
+      for (ArrowBlock rbBlock : arrowReader.getRecordBlocks()) {
+        arrowReader.loadRecordBatch(rbBlock);
+        validateComplexContent(count, root);
+      }
+    }
+
+    // read stream
+    try (BufferAllocator readerAllocator = allocator.newChildAllocator("reader", 0, Integer.MAX_VALUE);
+         ByteArrayInputStream input = new ByteArrayInputStream(stream.toByteArray());
+         ArrowStreamReader arrowReader = new ArrowStreamReader(input, readerAllocator)) {
+      VectorSchemaRoot root = arrowReader.getVectorSchemaRoot();
+      Assert.assertTrue(arrowReader.loadNextBatch());
+      validateComplexContent(count, root);
+      Assert.assertFalse(arrowReader.loadNextBatch());
+    }
+  }
+
   @Test
   public void testWriteReadMultipleRBs() throws IOException {
     File file = new File("target/mytest_multiple.arrow");
@@ -273,6 +474,350 @@ public class TestArrowFile extends BaseFileTest {
     }
   }
 
+  @Test
+  public void testWriteReadStatistics() throws IOException {
+    File file = new File("target/mytest_statistics.arrow");
+    Schema schema = new Schema(Arrays.asList(
+        new Field("id", FieldType.nullable(new Int(32, true)), null),
+        new Field("value", FieldType.nullable(new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE)), null),
+        new Field("name", FieldType.nullable(ArrowType.Utf8.INSTANCE), null),
+        new Field("flag", FieldType.nullable(ArrowType.Bool.INSTANCE), null),
+        new Field("unsigned", FieldType.nullable(new Int(64, false)), null)));
+
+    // write
+    try (VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+         FileOutputStream fileOutputStream = new FileOutputStream(file);
+         ArrowFileWriter arrowWriter = new ArrowFileWriter(root, null, fileOutputStream.getChannel(), null, true)) {
+      NullableIntVector.Mutator ids = (NullableIntVector.Mutator) root.getVector("id").getMutator();
+      NullableFloat8Vector.Mutator values = (NullableFloat8Vector.Mutator) root.getVector("value").getMutator();
+      NullableVarCharVector.Mutator names = (NullableVarCharVector.Mutator) root.getVector("name").getMutator();
+      NullableBitVector.Mutator flags = (NullableBitVector.Mutator) root.getVector("flag").getMutator();
+      NullableUInt8Vector.Mutator unsigned = (NullableUInt8Vector.Mutator) root.getVector("unsigned").getMutator();
+      for (FieldVector vector : root.getFieldVectors()) {
+        vector.allocateNew();
+      }
+      String[] words = {"pear", "apple", null, "plum"};
+      for (int i = 0; i < 4; i++) {
+        ids.setSafe(i, 10 - i);
+        values.setSafe(i, i == 1 ? Double.NaN : i * 1.5);
+        if (words[i] == null) {
+          names.setNull(i);
+        } else {
+          byte[] word = words[i].getBytes(StandardCharsets.UTF_8);
+          names.setSafe(i, word, 0, word.length);
+        }
+        flags.setSafe(i, 1);
+        unsigned.setSafe(i, i == 3 ? -1L : i);
+      }
+      ids.setNull(2);
+      for (FieldVector vector : root.getFieldVectors()) {
+        vector.getMutator().setValueCount(4);
+      }
+      root.setRowCount(4);
+      arrowWriter.writeBatch();
+
+      for (FieldVector vector : root.getFieldVectors()) {
+        vector.allocateNew();
+      }
+      ids.setSafe(0, 100);
+      flags.setSafe(1, 0);
+      // long strings are truncated, without cutting the two byte character at bytes 63 and 64
+      byte[] longName = Strings.repeat("a", 70).getBytes(StandardCharsets.UTF_8);
+      names.setSafe(0, longName, 0, longName.length);
+      longName = (Strings.repeat("b", 63) + "\u00e9z").getBytes(StandardCharsets.UTF_8);
+      names.setSafe(1, longName, 0, longName.length);
+      for (FieldVector vector : root.getFieldVectors()) {
+        vector.getMutator().setValueCount(2);
+      }
+      root.setRowCount(2);
+      arrowWriter.writeBatch();
+    }
+
+    // read the statistics without loading the batches
+    try (BufferAllocator readerAllocator = allocator.newChildAllocator("reader", 0, Integer.MAX_VALUE);
+         FileInputStream fileInputStream = new FileInputStream(file);
+         ArrowFileReader arrowReader = new ArrowFileReader(fileInputStream.getChannel(), readerAllocator)) {
+      List<ArrowBlockStatistics> statistics = arrowReader.getRecordBlockStatistics();
+      Assert.assertEquals(2, statistics.size());
+      Assert.assertEquals(0, readerAllocator.getAllocatedMemory());
+
+      ArrowBlockStatistics first = statistics.get(0);
+      Assert.assertEquals(4, first.getRowCount());
+      Assert.assertEquals(new ArrowColumnStatistics(1, 7L, 10L), first.getColumn(0));
+      Assert.assertEquals(new ArrowColumnStatistics(0, 0.0, 4.5), first.getColumn(1));
+      Assert.assertEquals(new ArrowColumnStatistics(1, "apple", "plum"), first.getColumn(2));
+      Assert.assertEquals(new ArrowColumnStatistics(0, true, true), first.getColumn(3));
+      Assert.assertEquals(new ArrowColumnStatistics(0, 0L, -1L), first.getColumn(4));
+
+      ArrowBlockStatistics second = statistics.get(1);
+      Assert.assertEquals(2, second.getRowCount());
+      Assert.assertEquals(new ArrowColumnStatistics(1, 100L, 100L), second.getColumn(0));
+      Assert.assertEquals(new ArrowColumnStatistics(2, null, null), second.getColumn(1));
+      Assert.assertEquals(new ArrowColumnStatistics(0, Strings.repeat("a", 64), Strings.repeat("b", 62) + "c"),
+          second.getColumn(2));
+      Assert.assertEquals(new ArrowColumnStatistics(1, false, false), second.getColumn(3));
+    }
+
+    // files written without statistics have none
+    File plain = new File("target/mytest_no_statistics.arrow");
+    try (VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+         FileOutputStream fileOutputStream = new FileOutputStream(plain);
+         ArrowFileWriter arrowWriter = new ArrowFileWriter(root, null, fileOutputStream.getChannel())) {
+      arrowWriter.writeBatch();
+    }
+    try (BufferAllocator readerAllocator = allocator.newChildAllocator("reader", 0, Integer.MAX_VALUE);
+         FileInputStream fileInputStream = new FileInputStream(plain);
+         ArrowFileReader arrowReader = new ArrowFileReader(fileInputStream.getChannel(), readerAllocator)) {
+      Assert.assertEquals(1, arrowReader.getRecordBlocks().size());
+      Assert.assertTrue(arrowReader.getRecordBlockStatistics().isEmpty());
+    }
+  }
+
+  @Test
+  public void testParallelScan() throws IOException {
+    File file = new File("target/mytest_parallel_scan.arrow");
+    int[] counts = {10, 5, 8, 3, 7};
+
+    // write
+    try (BufferAllocator originalVectorAllocator = allocator.newChildAllocator("original vectors", 0, Integer.MAX_VALUE);
+         MapVector parent = MapVector.empty("parent", originalVectorAllocator);
+         FileOutputStream fileOutputStream = new FileOutputStream(file)) {
+      writeData(counts[0], parent);
+      VectorSchemaRoot root = new VectorSchemaRoot(parent.getChild("root"));
+      try (ArrowFileWriter fileWriter = new ArrowFileWriter(root, null, fileOutputStream.getChannel())) {
+        fileWriter.start();
+        fileWriter.writeBatch();
+        for (int i = 1; i < counts.length; i++) {
+          parent.allocateNew();
+          writeData(counts[i], parent);
+          root.setRowCount(counts[i]);
+          fileWriter.writeBatch();
+        }
+        fileWriter.end();
+      }
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      // in order, with less read ahead than batches
+      try (BufferAllocator readerAllocator = allocator.newChildAllocator("reader", 0, Integer.MAX_VALUE);
+           FileInputStream fileInputStream = new FileInputStream(file);
+           ArrowFileScanner scanner = new ArrowFileScanner(fileInputStream.getChannel(), readerAllocator, executor, 2)) {
+        Assert.assertEquals(counts.length, scanner.getRecordBlocks().size());
+        for (int i = 0; i < counts.length; i++) {
+          try (VectorSchemaRoot root = scanner.nextRoot()) {
+            Assert.assertEquals("RB #" + i, counts[i], root.getRowCount());
+            validateContent(counts[i], root);
+          }
+        }
+        Assert.assertNull(scanner.nextRoot());
+      }
+
+      // unordered, every batch is delivered once
+      try (BufferAllocator readerAllocator = allocator.newChildAllocator("reader", 0, Integer.MAX_VALUE);
+           FileInputStream fileInputStream = new FileInputStream(file);
+           ArrowFileScanner scanner = new ArrowFileScanner(fileInputStream.getChannel(), readerAllocator, executor, 4, false)) {
+        List<Integer> rowCounts = new ArrayList<>();
+        VectorSchemaRoot root;
+        while ((root = scanner.nextRoot()) != null) {
+          try {
+            validateContent(root.getRowCount(), root);
+            rowCounts.add(root.getRowCount());
+          } finally {
+            root.close();
+          }
+        }
+        Collections.sort(rowCounts);
+        Assert.assertEquals(Arrays.asList(3, 5, 7, 8, 10), rowCounts);
+      }
+
+      // batches read ahead and not consumed are released on close
+      try (BufferAllocator readerAllocator = allocator.newChildAllocator("reader", 0, Integer.MAX_VALUE);
+           FileInputStream fileInputStream = new FileInputStream(file);
+           ArrowFileScanner scanner = new ArrowFileScanner(fileInputStream.getChannel(), readerAllocator, executor, 3)) {
+        try (ArrowRecordBatch batch = scanner.nextBatch()) {
+          Assert.assertEquals(counts[0], batch.getLength());
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testParallelScanClosedDuringRead() throws Exception {
+    File file = new File("target/mytest_parallel_scan_close.arrow");
+    int[] counts = {10, 5, 8};
+
+    // write
+    try (BufferAllocator originalVectorAllocator = allocator.newChildAllocator("original vectors", 0, Integer.MAX_VALUE);
+         MapVector parent = MapVector.empty("parent", originalVectorAllocator);
+         FileOutputStream fileOutputStream = new FileOutputStream(file)) {
+      writeData(counts[0], parent);
+      VectorSchemaRoot root = new VectorSchemaRoot(parent.getChild("root"));
+      try (ArrowFileWriter fileWriter = new ArrowFileWriter(root, null, fileOutputStream.getChannel())) {
+        fileWriter.start();
+        fileWriter.writeBatch();
+        for (int i = 1; i < counts.length; i++) {
+          parent.allocateNew();
+          writeData(counts[i], parent);
+          root.setRowCount(counts[i]);
+          fileWriter.writeBatch();
+        }
+        fileWriter.end();
+      }
+    }
+
+    // a single reader thread: the read of the second block blocks, the third one is queued
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try (BufferAllocator readerAllocator = allocator.newChildAllocator("reader", 0, Integer.MAX_VALUE);
+         FileInputStream fileInputStream = new FileInputStream(file)) {
+      final BlockingFileChannel channel = new BlockingFileChannel(fileInputStream.getChannel());
+      final ArrowFileScanner scanner = new ArrowFileScanner(channel, readerAllocator, executor, 2);
+      channel.blockedPosition = scanner.getRecordBlocks().get(1).getOffset();
+      try (ArrowRecordBatch batch = scanner.nextBatch()) {
+        Assert.assertEquals(counts[0], batch.getLength());
+      }
+      Assert.assertTrue(channel.blocked.await(10, TimeUnit.SECONDS));
+
+      final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+      Thread closer = new Thread() {
+        @Override
+        public void run() {
+          try {
+            scanner.close();
+          } catch (Throwable t) {
+            failures.add(t);
+          }
+        }
+      };
+      closer.start();
+      // close waits for the read in flight, which still has the file open
+      closer.join(200);
+      Assert.assertTrue(closer.isAlive());
+      Assert.assertTrue(channel.isOpen());
+
+      channel.release.countDown();
+      closer.join(10000);
+      Assert.assertFalse(closer.isAlive());
+      Assert.assertTrue(failures.toString(), failures.isEmpty());
+      Assert.assertFalse(channel.isOpen());
+      // the batch of the read in flight was released
+      Assert.assertEquals(0, readerAllocator.getAllocatedMemory());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * A FileChannel whose positional reads at a given position wait to be released.
+   */
+  private static class BlockingFileChannel extends FileChannel {
+    private final FileChannel in;
+    private final CountDownLatch blocked = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile long blockedPosition = -1;
+
+    BlockingFileChannel(FileChannel in) {
+      this.in = in;
+    }
+
+    @Override
+    public int read(ByteBuffer dst, long position) throws IOException {
+      if (position == blockedPosition) {
+        blocked.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          throw new IOException(e);
+        }
+      }
+      return in.read(dst, position);
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+      return in.read(dst);
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+      return in.read(dsts, offset, length);
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+      return in.write(src);
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+      return in.write(srcs, offset, length);
+    }
+
+    @Override
+    public int write(ByteBuffer src, long position) throws IOException {
+      return in.write(src, position);
+    }
+
+    @Override
+    public long position() throws IOException {
+      return in.position();
+    }
+
+    @Override
+    public FileChannel position(long newPosition) throws IOException {
+      in.position(newPosition);
+      return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+      return in.size();
+    }
+
+    @Override
+    public FileChannel truncate(long size) throws IOException {
+      in.truncate(size);
+      return this;
+    }
+
+    @Override
+    public void force(boolean metaData) throws IOException {
+      in.force(metaData);
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+      return in.transferTo(position, count, target);
+    }
+
+    @Override
+    public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+      return in.transferFrom(src, position, count);
+    }
+
+    @Override
+    public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+      return in.map(mode, position, size);
+    }
+
+    @Override
+    public FileLock lock(long position, long size, boolean shared) throws IOException {
+      return in.lock(position, size, shared);
+    }
+
+    @Override
+    public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+      return in.tryLock(position, size, shared);
+    }
+
+    @Override
+    protected void implCloseChannel() throws IOException {
+      in.close();
+    }
+  }
+
   @Test
   public void testWriteReadUnion() throws IOException {
     File file = new File("target/mytest_write_union.arrow");
@@ -504,6 +1049,261 @@ public class TestArrowFile extends BaseFileTest {
     }
   }
 
+  @Test
+  public void testWriteReadDictionaryProjection() throws IOException {
+    File file = new File("target/mytest_dict_projection.arrow");
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    List<String> projectedFields = Arrays.asList("varcharA", "varcharB");
+
+    // write
+    try (BufferAllocator originalVectorAllocator = allocator.newChildAllocator("original vectors", 0, Integer.MAX_VALUE)) {
+
+      MapDictionaryProvider provider = new MapDictionaryProvider();
+
+      try (VectorSchemaRoot root = writeFlatDictionaryData(originalVectorAllocator, provider);
+           FileOutputStream fileOutputStream = new FileOutputStream(file);
+           ArrowFileWriter fileWriter = new ArrowFileWriter(root, provider, fileOutputStream.getChannel());
+           ArrowStreamWriter streamWriter = new ArrowStreamWriter(root, provider, stream)) {
+        ColumnProjection projection = new ColumnProjection(root.getSchema(), projectedFields);
+        Assert.assertFalse(projection.isSkippedDictionary(1L));
+        Assert.assertTrue(projection.isSkippedDictionary(2L));
+        Assert.assertFalse(projection.isSkippedDictionary(3L));
+        fileWriter.start();
+        streamWriter.start();
+        fileWriter.writeBatch();
+        streamWriter.writeBatch();
+        fileWriter.end();
+        streamWriter.end();
+      }
+
+      // Need to close dictionary vectors
+      for (long id : provider.getDictionaryIds()) {
+        provider.lookup(id).getVector().close();
+      }
+    }
+
+    // read from file
+    try (BufferAllocator readerAllocator = allocator.newChildAllocator("reader", 0, Integer.MAX_VALUE);
+         FileInputStream fileInputStream = new FileInputStream(file);
+         ArrowFileReader arrowReader = new ArrowFileReader(fileInputStream.getChannel(), readerAllocator, projectedFields)) {
+      VectorSchemaRoot root = arrowReader.getVectorSchemaRoot();
+      Assert.assertTrue(arrowReader.loadNextBatch());
+      Assert.assertNull(root.getVector("sizes"));
+      Assert.assertEquals(3, arrowReader.lookup(1L).getVector().getAccessor().getValueCount());
+      Assert.assertNull(arrowReader.lookup(2L));
+    }
+
+    // Read from stream
+    try (BufferAllocator readerAllocator = allocator.newChildAllocator("reader", 0, Integer.MAX_VALUE);
+         ByteArrayInputStream input = new ByteArrayInputStream(stream.toByteArray());
+         ArrowStreamReader arrowReader = new ArrowStreamReader(input, readerAllocator, projectedFields)) {
+      VectorSchemaRoot root = arrowReader.getVectorSchemaRoot();
+      Assert.assertTrue(arrowReader.loadNextBatch());
+      Assert.assertNull(root.getVector("sizes"));
+      Assert.assertEquals(3, arrowReader.lookup(1L).getVector().getAccessor().getValueCount());
+      Assert.assertNull(arrowReader.lookup(2L));
+    }
+  }
+
+  @Test
+  public void testReadProjectionSkipsEncodedNestedField() throws IOException {
+    // a dictionary encoded list column as written by other implementations: the schema has the
+    // children of the list, the record batch only the index node and buffers
+    DictionaryEncoding encoding = new DictionaryEncoding(3L, false, null);
+    Field listField = new Field("lists", new FieldType(true, ArrowType.List.INSTANCE, encoding),
+        Arrays.asList(new Field("item", FieldType.nullable(new Int(32, true)), null)));
+    Field intField = new Field("ints", FieldType.nullable(new Int(32, true)), null);
+    int count = 5;
+
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    try (NullableIntVector indices = new NullableIntVector("lists", new FieldType(true, new Int(32, true), encoding), allocator);
+         NullableIntVector ints = new NullableIntVector("ints", allocator)) {
+      indices.allocateNew(count);
+      ints.allocateNew(count);
+      for (int i = 0; i < count; i++) {
+        indices.getMutator().set(i, i % 2);
+        ints.getMutator().set(i, 100 + i);
+      }
+      indices.getMutator().setValueCount(count);
+      ints.getMutator().setValueCount(count);
+      VectorSchemaRoot root = new VectorSchemaRoot(Arrays.asList(indices.getField(), ints.getField()),
+          Arrays.<FieldVector>asList(indices, ints), count);
+      WriteChannel out = new WriteChannel(Channels.newChannel(stream));
+      MessageSerializer.serialize(out, new Schema(Arrays.asList(listField, intField)));
+      try (ArrowRecordBatch batch = new VectorUnloader(root).getRecordBatch()) {
+        MessageSerializer.serialize(out, batch);
+      }
+      out.writeIntLittleEndian(0);
+    }
+
+    try (BufferAllocator readerAllocator = allocator.newChildAllocator("reader", 0, Integer.MAX_VALUE);
+         ByteArrayInputStream input = new ByteArrayInputStream(stream.toByteArray());
+         ArrowStreamReader arrowReader = new ArrowStreamReader(input, readerAllocator, Arrays.asList("ints"))) {
+      VectorSchemaRoot root = arrowReader.getVectorSchemaRoot();
+      Assert.assertTrue(arrowReader.loadNextBatch());
+      Assert.assertEquals(count, root.getRowCount());
+      for (int i = 0; i < count; i++) {
+        Assert.assertEquals(100 + i, root.getVector("ints").getAccessor().getObject(i));
+      }
+      Assert.assertFalse(arrowReader.loadNextBatch());
+    }
+  }
+
+  @Test
+  public void testWriteReadGrowingDictionary() throws IOException {
+    String[][] batches = new String[][] {{"foo", "bar"}, {"foo", "bar", "baz"}};
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // write, the writer is created and started before the dictionary is filled
+    try (BufferAllocator originalVectorAllocator = allocator.newChildAllocator("original vectors", 0, Integer.MAX_VALUE);
+         NullableVarCharVector dictionaryVector = new NullableVarCharVector("dict", originalVectorAllocator)) {
+      MapDictionaryProvider provider = new MapDictionaryProvider();
+      Dictionary dictionary = new Dictionary(dictionaryVector, new DictionaryEncoding(1L, false, null));
+      provider.put(dictionary);
+      Field indexField = new Field("values", new FieldType(true, dictionary.getEncoding().getIndexType(),
+          dictionary.getEncoding()), null);
+
+      try (NullableIntVector indexVector = (NullableIntVector) indexField.createVector(originalVectorAllocator);
+           VectorSchemaRoot root = new VectorSchemaRoot(Arrays.asList(indexField), Arrays.<FieldVector>asList(indexVector), 0);
+           ArrowFileWriter writer = new ArrowFileWriter(root, provider, Channels.newChannel(out))) {
+        writer.start();
+        for (String[] entries : batches) {
+          dictionaryVector.allocateNew();
+          for (int i = 0; i < entries.length; i++) {
+            byte[] bytes = entries[i].getBytes(StandardCharsets.UTF_8);
+            dictionaryVector.getMutator().setSafe(i, bytes, 0, bytes.length);
+          }
+          dictionaryVector.getMutator().setValueCount(entries.length);
+          indexVector.allocateNew();
+          for (int i = 0; i < entries.length; i++) {
+            indexVector.getMutator().set(i, i);
+          }
+          indexVector.getMutator().setValueCount(entries.length);
+          root.setRowCount(entries.length);
+          writer.writeBatch();
+        }
+        writer.end();
+      }
+    }
+
+    // read, the last dictionary batch holds all the entries
+    try (BufferAllocator readerAllocator = allocator.newChildAllocator("reader", 0, Integer.MAX_VALUE);
+         ArrowFileReader reader = new ArrowFileReader(new ByteArrayReadableSeekableByteChannel(out.toByteArray()), readerAllocator)) {
+      // the empty dictionary written at start, then the whole dictionary before each batch
+      Assert.assertEquals(batches.length + 1, reader.getDictionaryBlocks().size());
+      for (String[] entries : batches) {
+        Assert.assertTrue(reader.loadNextBatch());
+        FieldVector indices = reader.getVectorSchemaRoot().getFieldVectors().get(0);
+        try (ValueVector decoded = DictionaryEncoder.decode(indices, reader.lookup(1L))) {
+          Assert.assertEquals(entries.length, decoded.getAccessor().getValueCount());
+          for (int i = 0; i < entries.length; i++) {
+            Assert.assertEquals(entries[i], decoded.getAccessor().getObject(i).toString());
+          }
+        }
+      }
+      Assert.assertFalse(reader.loadNextBatch());
+    }
+  }
+
+  @Test
+  public void testReplacedDictionaryRejected() throws IOException {
+    try (BufferAllocator originalVectorAllocator = allocator.newChildAllocator("original vectors", 0, Integer.MAX_VALUE);
+         NullableVarCharVector dictionaryVector = new NullableVarCharVector("dict", originalVectorAllocator)) {
+      MapDictionaryProvider provider = new MapDictionaryProvider();
+      Dictionary dictionary = new Dictionary(dictionaryVector, new DictionaryEncoding(1L, false, null));
+      provider.put(dictionary);
+      Field indexField = new Field("values", new FieldType(true, dictionary.getEncoding().getIndexType(),
+          dictionary.getEncoding()), null);
+      dictionaryVector.allocateNew();
+      byte[] bytes = "foo".getBytes(StandardCharsets.UTF_8);
+      dictionaryVector.getMutator().setSafe(0, bytes, 0, bytes.length);
+      dictionaryVector.getMutator().setValueCount(1);
+
+      try (NullableIntVector indexVector = (NullableIntVector) indexField.createVector(originalVectorAllocator);
+           VectorSchemaRoot root = new VectorSchemaRoot(Arrays.asList(indexField), Arrays.<FieldVector>asList(indexVector), 0);
+           ArrowFileWriter writer = new ArrowFileWriter(root, provider, Channels.newChannel(new ByteArrayOutputStream()))) {
+        writer.start();
+        indexVector.allocateNew();
+        indexVector.getMutator().set(0, 0);
+        indexVector.getMutator().setValueCount(1);
+        root.setRowCount(1);
+        writer.writeBatch();
+
+        // the batch written above would be read with the new entry
+        bytes = "bar".getBytes(StandardCharsets.UTF_8);
+        dictionaryVector.getMutator().setSafe(0, bytes, 0, bytes.length);
+        dictionary.markReplaced();
+        try {
+          writer.writeBatch();
+          Assert.fail("expected the file writer to reject the replaced dictionary");
+        } catch (IllegalStateException e) {
+          // expected
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testWriteReadMemoryMappedDeltaDictionary() throws IOException {
+    File file = new File("target/mytest_mapped_delta.arrow");
+    String[] entries = new String[] {"foo", "bar", "baz"};
+
+    // write the first two entries at start, then the third one as a delta
+    try (BufferAllocator originalVectorAllocator = allocator.newChildAllocator("original vectors", 0, Integer.MAX_VALUE);
+         NullableVarCharVector dictionaryVector = new NullableVarCharVector("dict", originalVectorAllocator)) {
+      MapDictionaryProvider provider = new MapDictionaryProvider();
+      Dictionary dictionary = new Dictionary(dictionaryVector, new DictionaryEncoding(1L, false, null));
+      provider.put(dictionary);
+      Field indexField = new Field("values", new FieldType(true, dictionary.getEncoding().getIndexType(),
+          dictionary.getEncoding()), null);
+      dictionaryVector.allocateNew();
+      for (int i = 0; i < 2; i++) {
+        byte[] bytes = entries[i].getBytes(StandardCharsets.UTF_8);
+        dictionaryVector.getMutator().setSafe(i, bytes, 0, bytes.length);
+      }
+      dictionaryVector.getMutator().setValueCount(2);
+
+      try (NullableIntVector indexVector = (NullableIntVector) indexField.createVector(originalVectorAllocator);
+           VectorSchemaRoot root = new VectorSchemaRoot(Arrays.asList(indexField), Arrays.<FieldVector>asList(indexVector), 0);
+           FileOutputStream fileOutputStream = new FileOutputStream(file);
+           ArrowFileWriter writer = new ArrowFileWriter(root, provider, fileOutputStream.getChannel()) {
+             @Override
+             protected boolean supportsDeltaDictionaries() {
+               return true;
+             }
+           }) {
+        writer.start();
+        byte[] bytes = entries[2].getBytes(StandardCharsets.UTF_8);
+        dictionaryVector.getMutator().setSafe(2, bytes, 0, bytes.length);
+        dictionaryVector.getMutator().setValueCount(entries.length);
+        indexVector.allocateNew();
+        for (int i = 0; i < entries.length; i++) {
+          indexVector.getMutator().set(i, i);
+        }
+        indexVector.getMutator().setValueCount(entries.length);
+        root.setRowCount(entries.length);
+        writer.writeBatch();
+        writer.end();
+      }
+    }
+
+    // the delta is appended to a copy of the mapped dictionary
+    try (BufferAllocator readerAllocator = allocator.newChildAllocator("reader", 0, Integer.MAX_VALUE);
+         FileInputStream fileInputStream = new FileInputStream(file);
+         ArrowFileReader reader = new ArrowFileReader(new MappedReadChannel(fileInputStream.getChannel()), readerAllocator)) {
+      Assert.assertEquals(2, reader.getDictionaryBlocks().size());
+      Assert.assertTrue(reader.loadNextBatch());
+      FieldVector indices = reader.getVectorSchemaRoot().getFieldVectors().get(0);
+      try (ValueVector decoded = DictionaryEncoder.decode(indices, reader.lookup(1L))) {
+        Assert.assertEquals(entries.length, decoded.getAccessor().getValueCount());
+        for (int i = 0; i < entries.length; i++) {
+          Assert.assertEquals(entries[i], decoded.getAccessor().getObject(i).toString());
+        }
+      }
+      Assert.assertFalse(reader.loadNextBatch());
+    }
+  }
+
   @Test
   public void testWriteReadNestedDictionary() throws IOException {
     File file = new File("target/mytest_dict_nested.arrow");
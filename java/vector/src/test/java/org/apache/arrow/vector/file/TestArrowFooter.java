@@ -51,6 +51,12 @@ public class TestArrowFooter {
     ids.add(new ArrowBlock(4, 5, 6));
     footer = new ArrowFooter(schema, ids, ids);
     assertEquals(footer, roundTrip(footer));
+
+    List<ArrowBlockStatistics> statistics = new ArrayList<>();
+    statistics.add(new ArrowBlockStatistics(10, asList(new ArrowColumnStatistics(2, -3L, 100L))));
+    statistics.add(new ArrowBlockStatistics(0, asList(new ArrowColumnStatistics(0, null, null))));
+    footer = new ArrowFooter(schema, ids, ids, statistics);
+    assertEquals(footer, roundTrip(footer));
   }
 
 
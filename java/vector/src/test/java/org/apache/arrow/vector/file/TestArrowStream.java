@@ -19,6 +19,7 @@
 package org.apache.arrow.vector.file;
 
 import static java.util.Arrays.asList;
+import static org.apache.arrow.vector.TestUtils.newNullableVarCharVector;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -26,17 +27,36 @@ import static org.junit.Assert.assertTrue;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 import io.netty.buffer.ArrowBuf;
 import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.NullableIntVector;
 import org.apache.arrow.vector.NullableTinyIntVector;
+import org.apache.arrow.vector.NullableVarCharVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VectorLoader;
 import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryEncoder;
+import org.apache.arrow.vector.dictionary.DictionaryProvider.MapDictionaryProvider;
+import org.apache.arrow.vector.dictionary.IncrementalDictionaryEncoder;
+import org.apache.arrow.vector.schema.ArrowDictionaryBatch;
 import org.apache.arrow.vector.schema.ArrowFieldNode;
 import org.apache.arrow.vector.schema.ArrowMessage;
 import org.apache.arrow.vector.schema.ArrowRecordBatch;
+import org.apache.arrow.vector.stream.ArrowStreamDecoder;
 import org.apache.arrow.vector.stream.ArrowStreamReader;
 import org.apache.arrow.vector.stream.ArrowStreamWriter;
 import org.apache.arrow.vector.stream.MessageSerializerTest;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.junit.Assert;
 import org.junit.Test;
@@ -102,4 +122,262 @@ public class TestArrowStream extends BaseFileTest {
       }
     }
   }
+
+  @Test
+  public void testDeltaDictionary() throws IOException {
+    String[][] batches = new String[][] {{"foo", "bar", null, "foo"}, {"baz", "foo", "qux"}, {"bar", "bar"}};
+
+    MapDictionaryProvider provider = new MapDictionaryProvider();
+    NullableVarCharVector dictionaryVector = newNullableVarCharVector("dict", allocator);
+    Dictionary dictionary = new Dictionary(dictionaryVector, new DictionaryEncoding(1L, false, null));
+    provider.put(dictionary);
+
+    Field indexField = new Field("values", new FieldType(true, dictionary.getEncoding().getIndexType(),
+        dictionary.getEncoding()), null);
+    FieldVector indexVector = indexField.createVector(allocator);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (IncrementalDictionaryEncoder encoder = new IncrementalDictionaryEncoder(dictionary, allocator);
+         VectorSchemaRoot root = new VectorSchemaRoot(asList(indexField), asList(indexVector), 0);
+         ArrowStreamWriter writer = new ArrowStreamWriter(root, provider, out)) {
+      writer.start();
+      for (String[] batch : batches) {
+        try (NullableVarCharVector values = newNullableVarCharVector("values", allocator)) {
+          values.allocateNew();
+          for (int i = 0; i < batch.length; i++) {
+            if (batch[i] != null) {
+              byte[] bytes = batch[i].getBytes(StandardCharsets.UTF_8);
+              values.getMutator().setSafe(i, bytes, 0, bytes.length);
+            }
+          }
+          values.getMutator().setValueCount(batch.length);
+          try (FieldVector encoded = (FieldVector) encoder.encode(values)) {
+            encoded.makeTransferPair(indexVector).transfer();
+          }
+        }
+        root.setRowCount(batch.length);
+        writer.writeBatch();
+      }
+      writer.end();
+      assertEquals(4, encoder.getDictionarySize());
+    } finally {
+      dictionaryVector.close();
+    }
+
+    ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+    try (ArrowStreamReader reader = new ArrowStreamReader(in, allocator)) {
+      for (String[] batch : batches) {
+        assertTrue(reader.loadNextBatch());
+        FieldVector indices = reader.getVectorSchemaRoot().getFieldVectors().get(0);
+        try (ValueVector decoded = DictionaryEncoder.decode(indices, reader.lookup(1L))) {
+          assertEquals(batch.length, decoded.getAccessor().getValueCount());
+          for (int i = 0; i < batch.length; i++) {
+            Object value = decoded.getAccessor().getObject(i);
+            assertEquals(batch[i], value == null ? null : value.toString());
+          }
+        }
+      }
+      assertFalse(reader.loadNextBatch());
+      assertEquals(4, reader.lookup(1L).getVector().getAccessor().getValueCount());
+    }
+  }
+
+  @Test
+  public void testReplacedDictionary() throws IOException {
+    String[][] dictionaries = new String[][] {{"foo", "bar"}, {"baz", "qux"}, {"baz", "qux", "foo"}};
+
+    MapDictionaryProvider provider = new MapDictionaryProvider();
+    NullableVarCharVector dictionaryVector = newNullableVarCharVector("dict", allocator);
+    Dictionary dictionary = new Dictionary(dictionaryVector, new DictionaryEncoding(1L, false, null));
+    provider.put(dictionary);
+
+    Field indexField = new Field("values", new FieldType(true, dictionary.getEncoding().getIndexType(),
+        dictionary.getEncoding()), null);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (NullableIntVector indexVector = (NullableIntVector) indexField.createVector(allocator);
+         VectorSchemaRoot root = new VectorSchemaRoot(asList(indexField), asList((FieldVector) indexVector), 0);
+         ArrowStreamWriter writer = new ArrowStreamWriter(root, provider, out)) {
+      writer.start();
+      for (int batch = 0; batch < dictionaries.length; batch++) {
+        String[] entries = dictionaries[batch];
+        setStrings(dictionaryVector, entries);
+        if (batch == 1) {
+          // the entries of the dictionary are replaced, not appended, between the first two batches
+          dictionary.markReplaced();
+        }
+        indexVector.allocateNew();
+        for (int i = 0; i < entries.length; i++) {
+          indexVector.getMutator().set(i, entries.length - 1 - i);
+        }
+        indexVector.getMutator().setValueCount(entries.length);
+        root.setRowCount(entries.length);
+        writer.writeBatch();
+      }
+      writer.end();
+    } finally {
+      dictionaryVector.close();
+    }
+
+    ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+    try (ArrowStreamReader reader = new ArrowStreamReader(in, allocator)) {
+      for (String[] entries : dictionaries) {
+        assertTrue(reader.loadNextBatch());
+        FieldVector indices = reader.getVectorSchemaRoot().getFieldVectors().get(0);
+        try (ValueVector decoded = DictionaryEncoder.decode(indices, reader.lookup(1L))) {
+          assertEquals(entries.length, decoded.getAccessor().getValueCount());
+          for (int i = 0; i < entries.length; i++) {
+            assertEquals(entries[entries.length - 1 - i], decoded.getAccessor().getObject(i).toString());
+          }
+        }
+      }
+      assertFalse(reader.loadNextBatch());
+    }
+  }
+
+  private static void setStrings(NullableVarCharVector vector, String[] values) {
+    vector.allocateNew();
+    for (int i = 0; i < values.length; i++) {
+      byte[] bytes = values[i].getBytes(StandardCharsets.UTF_8);
+      vector.getMutator().setSafe(i, bytes, 0, bytes.length);
+    }
+    vector.getMutator().setValueCount(values.length);
+  }
+
+  private byte[] writeTinyIntStream(Schema schema, int numBatches) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+         ArrowStreamWriter writer = new ArrowStreamWriter(root, null, out)) {
+      writer.start();
+      for (int i = 0; i < numBatches; i++) {
+        root.getFieldVectors().get(0).allocateNew();
+        NullableTinyIntVector.Mutator mutator = (NullableTinyIntVector.Mutator) root.getFieldVectors().get(0).getMutator();
+        for (int j = 0; j < 16; j++) {
+          mutator.set(j, j < 8 ? 1 : 0, (byte) (i + j));
+        }
+        mutator.setValueCount(16);
+        root.setRowCount(16);
+        writer.writeBatch();
+      }
+      writer.end();
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Loads every decoded batch into a root and checks it against writeTinyIntStream.
+   */
+  private static class ValidatingListener implements ArrowStreamDecoder.Listener {
+    private final BufferAllocator allocator;
+    private VectorSchemaRoot root;
+    private int batches = 0;
+    private boolean ended = false;
+
+    ValidatingListener(BufferAllocator allocator) {
+      this.allocator = allocator;
+    }
+
+    @Override
+    public void onSchema(Schema schema) {
+      root = VectorSchemaRoot.create(schema, allocator);
+    }
+
+    @Override
+    public void onDictionaryBatch(ArrowDictionaryBatch batch) {
+      batch.close();
+      Assert.fail("no dictionaries were written");
+    }
+
+    @Override
+    public void onRecordBatch(ArrowRecordBatch batch) {
+      try {
+        new VectorLoader(root).load(batch);
+      } finally {
+        batch.close();
+      }
+      assertEquals(16, root.getRowCount());
+      NullableTinyIntVector.Accessor accessor = (NullableTinyIntVector.Accessor) root.getFieldVectors().get(0).getAccessor();
+      for (int j = 0; j < 16; j++) {
+        if (j < 8) {
+          assertEquals((byte) (batches + j), accessor.get(j));
+        } else {
+          assertTrue(accessor.isNull(j));
+        }
+      }
+      batches++;
+    }
+
+    @Override
+    public void onEndOfStream() {
+      assertFalse(ended);
+      ended = true;
+      root.close();
+    }
+  }
+
+  @Test
+  public void testIncrementalDecoder() throws Exception {
+    Schema schema = MessageSerializerTest.testSchema();
+    byte[] stream = writeTinyIntStream(schema, 5);
+
+    ValidatingListener listener = new ValidatingListener(allocator);
+    try (ArrowStreamDecoder decoder = new ArrowStreamDecoder(allocator, listener)) {
+      // feed the stream in small pieces that split prefixes, metadata and bodies
+      int decoded = 0;
+      int position = 0;
+      for (int size = 1; position < stream.length; size = size % 13 + 1) {
+        int length = Math.min(size, stream.length - position);
+        ByteBuffer chunk = ByteBuffer.wrap(stream, position, length);
+        assertTrue(decoder.bytesNeeded() > 0);
+        decoded += decoder.feed(chunk);
+        assertFalse(chunk.hasRemaining());
+        position += length;
+      }
+      assertTrue(decoder.isEndOfStream());
+      assertEquals(6, decoded);
+      assertEquals(schema, decoder.getSchema().get());
+      assertEquals(stream.length, (long) decoder.getEndOfStream().get());
+    }
+    assertEquals(5, listener.batches);
+    assertTrue(listener.ended);
+  }
+
+  @Test
+  public void testIncrementalDecoderNonBlockingChannel() throws Exception {
+    Schema schema = MessageSerializerTest.testSchema();
+    byte[] stream = writeTinyIntStream(schema, 3);
+
+    Pipe pipe = Pipe.open();
+    pipe.source().configureBlocking(false);
+    ValidatingListener listener = new ValidatingListener(allocator);
+    try (ArrowStreamDecoder decoder = new ArrowStreamDecoder(allocator, listener);
+         Pipe.SourceChannel source = pipe.source()) {
+      // nothing available yet
+      assertEquals(0, decoder.readFrom(source));
+
+      // the stream without its end of stream marker, followed by the end of the input
+      int length = stream.length - 4;
+      for (int position = 0; position < length; position += 100) {
+        pipe.sink().write(ByteBuffer.wrap(stream, position, Math.min(100, length - position)));
+        decoder.readFrom(source);
+      }
+      assertFalse(decoder.isEndOfStream());
+      assertEquals(3, listener.batches);
+      pipe.sink().close();
+      assertEquals(-1, decoder.readFrom(source));
+      assertTrue(decoder.isEndOfStream());
+      assertEquals(length, decoder.bytesRead());
+    }
+    assertTrue(listener.ended);
+  }
+
+  @Test
+  public void testIncrementalDecoderTruncated() throws Exception {
+    byte[] stream = writeTinyIntStream(MessageSerializerTest.testSchema(), 1);
+    ValidatingListener listener = new ValidatingListener(allocator);
+    ArrowStreamDecoder decoder = new ArrowStreamDecoder(allocator, listener);
+    decoder.feed(ByteBuffer.wrap(stream, 0, stream.length - 10));
+    decoder.close();
+    assertTrue(decoder.getEndOfStream().isDone());
+    assertFalse(listener.ended);
+    listener.root.close();
+  }
 }
@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.arrow.vector.sort;
+
+import static org.apache.arrow.vector.TestUtils.newNullableVarCharVector;
+import static org.apache.arrow.vector.TestUtils.newVector;
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.NullableBigIntVector;
+import org.apache.arrow.vector.NullableFloat8Vector;
+import org.apache.arrow.vector.NullableIntVector;
+import org.apache.arrow.vector.NullableVarCharVector;
+import org.apache.arrow.vector.types.Types.MinorType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestIndexSorter {
+
+  private BufferAllocator allocator;
+
+  @Before
+  public void init() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+  }
+
+  @After
+  public void terminate() throws Exception {
+    allocator.close();
+  }
+
+  private static void assertIndices(int[] expected, IntVector indices) {
+    assertEquals(expected.length, indices.getAccessor().getValueCount());
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals("position " + i, expected[i], indices.getAccessor().get(i));
+    }
+  }
+
+  @Test
+  public void testIntsWithNulls() {
+    Integer[] values = {5, null, -3, 5, 0, null, Integer.MIN_VALUE, Integer.MAX_VALUE, -3};
+    try (NullableIntVector vector = newVector(NullableIntVector.class, "ints", MinorType.INT, allocator)) {
+      vector.allocateNew(values.length);
+      for (int i = 0; i < values.length; i++) {
+        if (values[i] != null) {
+          vector.getMutator().set(i, values[i]);
+        }
+      }
+      vector.getMutator().setValueCount(values.length);
+
+      try (IntVector indices = IndexSorter.sort(Arrays.asList(new SortKey(vector)))) {
+        assertIndices(new int[] {6, 2, 8, 4, 0, 3, 7, 1, 5}, indices);
+      }
+      try (IntVector indices = IndexSorter.sort(Arrays.asList(new SortKey(vector, true, true)))) {
+        // ties keep the order of the rows
+        assertIndices(new int[] {1, 5, 7, 0, 3, 4, 2, 8, 6}, indices);
+      }
+    }
+  }
+
+  @Test
+  public void testDoubles() {
+    double[] values = {1.5, -0.5, Double.NaN, Double.NEGATIVE_INFINITY, 0, -2, Double.POSITIVE_INFINITY};
+    try (NullableFloat8Vector vector = newVector(NullableFloat8Vector.class, "doubles", MinorType.FLOAT8, allocator)) {
+      vector.allocateNew(values.length);
+      for (int i = 0; i < values.length; i++) {
+        vector.getMutator().set(i, values[i]);
+      }
+      vector.getMutator().setValueCount(values.length);
+
+      try (IntVector indices = IndexSorter.sort(Arrays.asList(new SortKey(vector)))) {
+        assertIndices(new int[] {3, 5, 1, 4, 0, 6, 2}, indices);
+      }
+    }
+  }
+
+  @Test
+  public void testMultipleKeys() {
+    String[] names = {"b", "a", null, "b", "ab", "a", "b", null};
+    long[] scores = {1, 2, 3, 3, 0, 2, -1, 4};
+    try (NullableVarCharVector strings = newNullableVarCharVector("names", allocator);
+         NullableBigIntVector longs = newVector(NullableBigIntVector.class, "scores", MinorType.BIGINT, allocator)) {
+      strings.allocateNew();
+      longs.allocateNew(names.length);
+      for (int i = 0; i < names.length; i++) {
+        if (names[i] != null) {
+          byte[] bytes = names[i].getBytes(StandardCharsets.UTF_8);
+          strings.getMutator().setSafe(i, bytes, 0, bytes.length);
+        }
+        longs.getMutator().set(i, scores[i]);
+      }
+      strings.getMutator().setValueCount(names.length);
+      longs.getMutator().setValueCount(names.length);
+
+      // names ascending with the nulls first, then scores descending
+      try (IntVector indices = IndexSorter.sort(Arrays.asList(
+          new SortKey(strings, false, true), new SortKey(longs, true, false)))) {
+        assertIndices(new int[] {7, 2, 1, 5, 4, 3, 0, 6}, indices);
+      }
+    }
+  }
+
+  @Test
+  public void testLargeRandom() {
+    int count = 100000;
+    Random random = new Random(42);
+    long[] values = new long[count];
+    try (NullableBigIntVector vector = newVector(NullableBigIntVector.class, "longs", MinorType.BIGINT, allocator)) {
+      vector.allocateNew(count);
+      for (int i = 0; i < count; i++) {
+        // a mix of small values sharing their high bytes and full range values
+        values[i] = i % 2 == 0 ? random.nextInt(1000) - 500 : random.nextLong();
+        vector.getMutator().set(i, values[i]);
+      }
+      vector.getMutator().setValueCount(count);
+
+      try (IntVector indices = IndexSorter.sort(Arrays.asList(new SortKey(vector)))) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        assertEquals(count, indices.getAccessor().getValueCount());
+        for (int i = 0; i < count; i++) {
+          assertEquals(sorted[i], values[indices.getAccessor().get(i)]);
+        }
+      }
+    }
+  }
+}
@@ -22,20 +22,29 @@ import static java.util.Arrays.asList;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
+import java.nio.channels.GatheringByteChannel;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import io.netty.buffer.ArrowBuf;
+import org.apache.arrow.flatbuf.Buffer;
+import org.apache.arrow.flatbuf.Message;
+import org.apache.arrow.flatbuf.RecordBatch;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.RootAllocator;
 import org.apache.arrow.vector.file.ArrowBlock;
 import org.apache.arrow.vector.file.ReadChannel;
 import org.apache.arrow.vector.file.WriteChannel;
+import org.apache.arrow.vector.schema.ArrowBuffer;
+import org.apache.arrow.vector.schema.ArrowDictionaryBatch;
 import org.apache.arrow.vector.schema.ArrowFieldNode;
 import org.apache.arrow.vector.schema.ArrowMessage;
 import org.apache.arrow.vector.schema.ArrowRecordBatch;
@@ -48,6 +57,8 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import com.google.flatbuffers.FlatBufferBuilder;
+
 public class MessageSerializerTest {
 
   public static ArrowBuf buf(BufferAllocator alloc, byte[] bytes) {
@@ -95,15 +106,74 @@ public class MessageSerializerTest {
   public ExpectedException expectedEx = ExpectedException.none();
 
   @Test
-  public void testdeSerializeRecordBatchLongMetaData() throws IOException {
+  public void testdeSerializeRecordBatchLongBuffer() throws IOException {
     expectedEx.expect(IOException.class);
-    expectedEx.expectMessage("Cannot currently deserialize record batches over 2GB");
-    int offset = 0;
-    int metadataLength = 1;
-    long bodyLength = Integer.MAX_VALUE + 10L;
-    ArrowBlock block = new ArrowBlock(offset, metadataLength, bodyLength);
-    long totalLen = block.getMetadataLength() + block.getBodyLength();
-    MessageSerializer.deserializeRecordBatch(null, block, null);
+    expectedEx.expectMessage("Cannot currently deserialize buffers over");
+    long bufferLength = Integer.MAX_VALUE + 10L;
+    MessageSerializer.splitBody(bufferLayout(0, 8, 8, bufferLength), bufferLength + 16,
+        MessageSerializer.MAX_BODY_CHUNK);
+  }
+
+  @Test
+  public void testSplitBody() throws IOException {
+    RecordBatch layout = bufferLayout(0, 10, 16, 20, 40, 8, 48, 30);
+    assertArrayEquals(new long[] {0, 80}, MessageSerializer.splitBody(layout, 80, 80));
+    assertArrayEquals(new long[] {0, 40, 80}, MessageSerializer.splitBody(layout, 80, 40));
+    assertArrayEquals(new long[] {0, 16, 40, 48, 78, 80}, MessageSerializer.splitBody(layout, 80, 30));
+    // padding beyond the last buffer is cut anywhere
+    assertArrayEquals(new long[] {0, 40, 80, 120, 130}, MessageSerializer.splitBody(layout, 130, 40));
+  }
+
+  @Test
+  public void testDeserializeRecordBatchInChunks() throws IOException {
+    byte[] validity = new byte[] {(byte) 255, 0};
+    byte[] values = new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16};
+
+    try (BufferAllocator alloc = new RootAllocator(Long.MAX_VALUE)) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (ArrowRecordBatch batch = new ArrowRecordBatch(16, asList(new ArrowFieldNode(16, 8)),
+          asList(buf(alloc, validity), buf(alloc, values)))) {
+        MessageSerializer.serialize(new WriteChannel(Channels.newChannel(out)), batch);
+        for (ArrowBuf buffer : batch.getBuffers()) {
+          buffer.release();
+        }
+      }
+
+      ReadChannel channel = new ReadChannel(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+      ByteBuffer prefix = ByteBuffer.allocate(4);
+      channel.readFully(prefix);
+      ByteBuffer metadata = ByteBuffer.allocate(MessageSerializer.bytesToInt(prefix.array()));
+      channel.readFully(metadata);
+      metadata.rewind();
+      Message message = Message.getRootAsMessage(metadata);
+      RecordBatch recordBatchFB = (RecordBatch) message.header(new RecordBatch());
+
+      // the validity buffer is padded to 8 bytes, the values buffer goes to a second chunk
+      assertArrayEquals(new long[] {0, 8, 24},
+          MessageSerializer.splitBody(recordBatchFB, message.bodyLength(), 16));
+      try (ArrowRecordBatch deserialized = MessageSerializer.deserializeRecordBatch(channel,
+          recordBatchFB, message.bodyLength(), alloc, 16)) {
+        verifyBatch(deserialized, validity, values);
+      }
+      assertEquals(0, alloc.getAllocatedMemory());
+    }
+  }
+
+  /**
+   * @return the metadata of a record batch with buffers at the given offsets and lengths
+   */
+  private static RecordBatch bufferLayout(long... offsetsAndLengths) {
+    FlatBufferBuilder builder = new FlatBufferBuilder();
+    int count = offsetsAndLengths.length / 2;
+    RecordBatch.startBuffersVector(builder, count);
+    for (int i = count - 1; i >= 0; i--) {
+      Buffer.createBuffer(builder, 0, offsetsAndLengths[2 * i], offsetsAndLengths[2 * i + 1]);
+    }
+    int buffersOffset = builder.endVector();
+    RecordBatch.startRecordBatch(builder);
+    RecordBatch.addBuffers(builder, buffersOffset);
+    builder.finish(RecordBatch.endRecordBatch(builder));
+    return RecordBatch.getRootAsRecordBatch(builder.dataBuffer());
   }
 
   @Test
@@ -129,6 +199,126 @@ public class MessageSerializerTest {
     verifyBatch((ArrowRecordBatch) deserialized, validity, values);
   }
 
+  @Test
+  public void testSerializeRecordBatchGathering() throws IOException {
+    byte[] validity = new byte[] {(byte) 255, 0};
+    byte[] values = new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16};
+
+    try (BufferAllocator alloc = new RootAllocator(Long.MAX_VALUE)) {
+      ArrowBuf validityb = buf(alloc, validity);
+      ArrowBuf valuesb = buf(alloc, values);
+      ArrowRecordBatch batch = new ArrowRecordBatch(
+          16, asList(new ArrowFieldNode(16, 8)), asList(validityb, valuesb));
+      validityb.release();
+      valuesb.release();
+
+      ByteArrayOutputStream expected = new ByteArrayOutputStream();
+      ArrowBlock expectedBlock = MessageSerializer.serialize(new WriteChannel(Channels.newChannel(expected)), batch);
+
+      // writes at most 5 bytes per call, to exercise partial gathering writes
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      final int[] gatheringWrites = {0};
+      GatheringByteChannel channel = new GatheringByteChannel() {
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+          gatheringWrites[0]++;
+          int written = 0;
+          for (int i = offset; i < offset + length && written < 5; i++) {
+            while (srcs[i].hasRemaining() && written < 5) {
+              out.write(srcs[i].get());
+              written++;
+            }
+          }
+          return written;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs) {
+          return write(srcs, 0, srcs.length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+          throw new UnsupportedOperationException("expected a gathering write");
+        }
+
+        @Override
+        public boolean isOpen() {
+          return true;
+        }
+
+        @Override
+        public void close() {
+        }
+      };
+      WriteChannel writeChannel = new WriteChannel(channel);
+      ArrowBlock block = MessageSerializer.serialize(writeChannel, batch);
+      assertEquals(expectedBlock, block);
+      assertEquals(out.size(), writeChannel.getCurrentPosition());
+      assertEquals((out.size() + 4) / 5, gatheringWrites[0]);
+      assertArrayEquals(expected.toByteArray(), out.toByteArray());
+
+      // the reused prefix and padding buffers do not leak into the next message
+      out.reset();
+      MessageSerializer.serialize(new WriteChannel(channel), batch);
+      assertArrayEquals(expected.toByteArray(), out.toByteArray());
+      batch.close();
+    }
+  }
+
+  @Test
+  public void testSerializeFailingBatch() throws IOException {
+    byte[] validity = new byte[] {(byte) 255, 0};
+    byte[] values = new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16};
+
+    try (BufferAllocator alloc = new RootAllocator(Long.MAX_VALUE)) {
+      ArrowBuf validityb = buf(alloc, validity);
+      ArrowBuf valuesb = buf(alloc, values);
+      ArrowRecordBatch batch = new ArrowRecordBatch(
+          16, asList(new ArrowFieldNode(16, 8)), asList(validityb, valuesb));
+      // the layout claims a longer values buffer, so writing it fails after the other buffers were gathered
+      final List<ArrowBuffer> layout = asList(batch.getBuffersLayout().get(0),
+          new ArrowBuffer(0, batch.getBuffersLayout().get(1).getOffset(), values.length + 8));
+      ArrowRecordBatch failing = new ArrowRecordBatch(
+          16, asList(new ArrowFieldNode(16, 8)), asList(validityb, valuesb)) {
+        @Override
+        public List<ArrowBuffer> getBuffersLayout() {
+          return layout;
+        }
+      };
+      ArrowDictionaryBatch failingDictionary = new ArrowDictionaryBatch(1L, failing);
+      validityb.release();
+      valuesb.release();
+
+      ByteArrayOutputStream expected = new ByteArrayOutputStream();
+      MessageSerializer.serialize(new WriteChannel(Channels.newChannel(expected)), batch);
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      WriteChannel channel = new WriteChannel(Channels.newChannel(out));
+      for (ArrowMessage message : Arrays.<ArrowMessage>asList(failing, failingDictionary)) {
+        try {
+          if (message instanceof ArrowRecordBatch) {
+            MessageSerializer.serialize(channel, (ArrowRecordBatch) message);
+          } else {
+            MessageSerializer.serialize(channel, (ArrowDictionaryBatch) message);
+          }
+          fail("expected the serialization of " + message + " to fail");
+        } catch (IllegalStateException e) {
+          // expected
+        }
+        // nothing was written and the channel is usable
+        assertEquals(0, out.size());
+        assertEquals(0, channel.getCurrentPosition());
+      }
+
+      MessageSerializer.serialize(channel, batch);
+      assertArrayEquals(expected.toByteArray(), out.toByteArray());
+      assertEquals(out.size(), channel.getCurrentPosition());
+      batch.close();
+      failingDictionary.close();
+    }
+  }
+
   public static Schema testSchema() {
     return new Schema(asList(new Field(
         "testField", FieldType.nullable(new ArrowType.Int(8, true)), Collections.<Field>emptyList())));
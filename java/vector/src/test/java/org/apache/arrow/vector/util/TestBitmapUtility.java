@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.arrow.vector.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.netty.buffer.ArrowBuf;
+
+public class TestBitmapUtility {
+
+  private static final int BITS = 1000;
+
+  private BufferAllocator allocator;
+  private ArrowBuf left;
+  private ArrowBuf right;
+  private boolean[] leftBits;
+  private boolean[] rightBits;
+
+  @Before
+  public void init() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    Random random = new Random(42);
+    leftBits = new boolean[BITS];
+    rightBits = new boolean[BITS];
+    for (int i = 0; i < BITS; i++) {
+      leftBits[i] = random.nextBoolean();
+      rightBits[i] = random.nextInt(10) == 0;
+    }
+    left = toBitmap(leftBits);
+    right = toBitmap(rightBits);
+  }
+
+  @After
+  public void terminate() throws Exception {
+    left.release();
+    right.release();
+    allocator.close();
+  }
+
+  private ArrowBuf toBitmap(boolean[] bits) {
+    ArrowBuf buf = allocator.buffer(BitmapUtility.getSizeFromCount(bits.length));
+    buf.setZero(0, buf.capacity());
+    for (int i = 0; i < bits.length; i++) {
+      if (bits[i]) {
+        buf.setByte(i >> 3, buf.getByte(i >> 3) | (1 << (i & 7)));
+      }
+    }
+    return buf;
+  }
+
+  @Test
+  public void testCountSetBits() {
+    for (int start = 0; start < 80; start += 3) {
+      for (int length = 0; start + length <= BITS; length += 37) {
+        int expected = 0;
+        for (int i = start; i < start + length; i++) {
+          expected += leftBits[i] ? 1 : 0;
+        }
+        assertEquals("start " + start + " length " + length, expected, BitmapUtility.countSetBits(left, start, length));
+      }
+    }
+    int nulls = 0;
+    for (boolean bit : rightBits) {
+      nulls += bit ? 0 : 1;
+    }
+    assertEquals(nulls, BitmapUtility.getNullCount(right, BITS));
+  }
+
+  @Test
+  public void testSetRange() {
+    for (int start = 0; start < 70; start += 7) {
+      for (int length = 0; start + length <= BITS; length += 61) {
+        for (boolean value : new boolean[] {true, false}) {
+          ArrowBuf buf = toBitmap(leftBits);
+          try {
+            BitmapUtility.setRange(buf, start, length, value);
+            for (int i = 0; i < BITS; i++) {
+              boolean expected = i >= start && i < start + length ? value : leftBits[i];
+              assertEquals("bit " + i, expected, BitmapUtility.isSet(buf, i));
+            }
+          } finally {
+            buf.release();
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCopyBits() {
+    for (int start = 0; start < 70; start += 5) {
+      for (int length = 1; start + length <= BITS; length += 97) {
+        ArrowBuf dst = allocator.buffer(BitmapUtility.getSizeFromCount(length));
+        try {
+          BitmapUtility.copyBits(left, start, dst, length);
+          for (int i = 0; i < length; i++) {
+            assertEquals("bit " + i, leftBits[start + i], BitmapUtility.isSet(dst, i));
+          }
+          // the bits after the copied range are cleared
+          for (int i = length; i < BitmapUtility.getSizeFromCount(length) * 8; i++) {
+            assertEquals("bit " + i, false, BitmapUtility.isSet(dst, i));
+          }
+        } finally {
+          dst.release();
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testLogicalOperations() {
+    ArrowBuf out = allocator.buffer(BitmapUtility.getSizeFromCount(BITS));
+    try {
+      BitmapUtility.and(left, right, out, BITS);
+      for (int i = 0; i < BITS; i++) {
+        assertEquals(leftBits[i] && rightBits[i], BitmapUtility.isSet(out, i));
+      }
+      BitmapUtility.or(left, right, out, BITS);
+      for (int i = 0; i < BITS; i++) {
+        assertEquals(leftBits[i] || rightBits[i], BitmapUtility.isSet(out, i));
+      }
+      BitmapUtility.andNot(left, right, out, BITS);
+      for (int i = 0; i < BITS; i++) {
+        assertEquals(leftBits[i] && !rightBits[i], BitmapUtility.isSet(out, i));
+      }
+    } finally {
+      out.release();
+    }
+  }
+
+  @Test
+  public void testNextSetBit() {
+    for (int from = 0; from < 200; from += 13) {
+      int expected = -1;
+      int count = 0;
+      for (int i = from; i < BITS; i++) {
+        if (rightBits[i]) {
+          count++;
+          if (expected < 0) {
+            expected = i;
+          }
+        }
+      }
+      assertEquals(expected, BitmapUtility.nextSetBit(right, from, BITS));
+
+      int iterated = 0;
+      for (int i = BitmapUtility.nextSetBit(right, from, BITS); i >= 0; i = BitmapUtility.nextSetBit(right, i + 1, BITS)) {
+        assertEquals(true, rightBits[i]);
+        iterated++;
+      }
+      assertEquals(count, iterated);
+    }
+    assertEquals(-1, BitmapUtility.nextSetBit(right, BITS, BITS));
+  }
+}